@@ -1,14 +1,20 @@
 package led.mega.agent;
 
 import led.mega.agent.client.ApiClient;
+import led.mega.agent.client.AsyncSender;
+import led.mega.agent.client.MetricBatchSender;
+import led.mega.agent.client.MetricFrameEncoder;
 import led.mega.agent.config.AgentConfig;
 import led.mega.agent.executor.CommandExecutor;
 import led.mega.agent.parser.LogParser;
 import led.mega.agent.parser.MetricParser;
 import led.mega.agent.scheduler.TaskScheduler;
+import led.mega.agent.spool.DiskSpool;
+import led.mega.agent.spool.TelemetrySpool;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -22,6 +28,9 @@ public class AgentApplication {
     
     private AgentConfig config;
     private ApiClient apiClient;
+    private AsyncSender asyncSender;
+    private MetricBatchSender metricBatchSender;
+    private TelemetrySpool telemetrySpool;
     private CommandExecutor commandExecutor;
     private MetricParser metricParser;
     private LogParser logParser;
@@ -72,10 +81,28 @@ public class AgentApplication {
             
             // 2. 컴포넌트 초기화
             apiClient = new ApiClient(config);
-            commandExecutor = new CommandExecutor();
+            asyncSender = new AsyncSender(config.getRequestMaxInFlight(), config.getRequestQueueSize(),
+                config.getRequestMaxAttempts());
+            metricBatchSender = new MetricBatchSender(apiClient, asyncSender, config.getMetricBatchSize(),
+                TimeUnit.SECONDS.toMillis(config.getMetricBatchMaxAgeSeconds()));
+            if (config.isSpoolEnabled()) {
+                DiskSpool diskSpool = new DiskSpool(config.getSpoolDir(),
+                    config.getSpoolSegmentSizeBytes(), config.getSpoolMaxSizeBytes());
+                telemetrySpool = new TelemetrySpool(diskSpool, apiClient, config.getMetricBatchSize(),
+                    TimeUnit.SECONDS.toMillis(config.getMetricBatchMaxAgeSeconds()));
+            }
+            commandExecutor = new CommandExecutor(TimeUnit.SECONDS.toMillis(config.getCommandTimeoutSeconds()),
+                config.getCommandMaxOutputBytes(), config.isCommandCoprocessEnabled());
             metricParser = new MetricParser();
             logParser = new LogParser();
-            taskScheduler = new TaskScheduler(config, apiClient, commandExecutor, metricParser, logParser);
+            for (String logPath : config.getTaskExceptionLogPaths()) {
+                logParser.configureSource(logPath,
+                    config.getTaskExceptionKeywords().get(logPath),
+                    config.getTaskExceptionContextBefore().get(logPath),
+                    config.getTaskExceptionContextAfter().get(logPath));
+            }
+            taskScheduler = new TaskScheduler(config, apiClient, asyncSender, metricBatchSender, telemetrySpool,
+                commandExecutor, metricParser, logParser);
             
             // 3. 에이전트 등록
             if (!registerAgent()) {
@@ -84,6 +111,10 @@ public class AgentApplication {
             }
             
             // 4. 작업 스케줄러 시작
+            metricBatchSender.start(agentId, apiKey);
+            if (telemetrySpool != null) {
+                telemetrySpool.start(agentId, apiKey);
+            }
             taskScheduler.setAgentCredentials(agentId, apiKey);
             taskScheduler.startAllTasks();
             
@@ -113,7 +144,11 @@ public class AgentApplication {
                 config.getAgentName(),
                 hostname,
                 ipAddress,
-                osType
+                osType,
+                config.isRequestCompressionEnabled()
+                    ? Collections.singletonList(ApiClient.GZIP) : Collections.<String>emptyList(),
+                config.isMetricFrameEnabled()
+                    ? Collections.singletonList(MetricFrameEncoder.CONTENT_TYPE) : Collections.<String>emptyList()
             );
             
             ApiClient.RegisterResponse response = apiClient.registerAgent(request);
@@ -188,6 +223,26 @@ public class AgentApplication {
             taskScheduler.stopAllTasks();
         }
         
+        // 명령어 셸 종료
+        if (commandExecutor != null) {
+            commandExecutor.close();
+        }
+        
+        // 남은 메트릭 전송 후 일괄 전송기 중지
+        if (metricBatchSender != null) {
+            metricBatchSender.stop();
+        }
+        
+        // 진행 중인 비동기 전송 완료 대기
+        if (asyncSender != null) {
+            asyncSender.stop(TimeUnit.SECONDS.toMillis(10));
+        }
+        
+        // 스풀 드레이너 중지 (미전송 데이터는 디스크에 남아 다음 실행 시 재전송)
+        if (telemetrySpool != null) {
+            telemetrySpool.stop();
+        }
+        
         // 마지막 하트비트 (OFFLINE 상태)
         if (agentId != null && apiKey != null) {
             try {
@@ -201,6 +256,9 @@ public class AgentApplication {
             }
         }
         
+        // 텔레메트리 스트림 종료
+        apiClient.closeStream();
+        
         log.info("에이전트 애플리케이션 종료 완료");
     }
 }
@@ -0,0 +1,137 @@
+package led.mega.agent.aggregate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 변화 기반(deadband) 전송 필터
+ * 메트릭 이름이 설정한 접두사로 시작하는 시리즈는 마지막으로 보낸 값보다 임계값을 넘게 바뀌었거나,
+ * 다음 평가 전에 최대 침묵 시간이 끝나는 경우에만 보냅니다. 보낸 레코드에는 유지 시간(최대 침묵 시간)을 붙여
+ * 서버가 유지 시간 안의 빈 구간은 "변화 없음", 유지 시간이 지난 빈 구간은 "데이터 없음"으로 구분하게 합니다.
+ */
+public class DeadbandFilter {
+
+    private final List<Rule> rules = new ArrayList<>();  // 긴 접두사 우선
+    private final int maxSilenceSeconds;
+    private final long maxSilenceMillis;
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+
+    /**
+     * @param prefixes 적용할 메트릭 이름 접두사
+     * @param absolute 절대 임계값 (0 이하: 사용 안 함)
+     * @param relative 상대 임계값, 마지막으로 보낸 값 대비 비율 (0 이하: 사용 안 함)
+     * @param absoluteOverrides 접두사별 절대 임계값
+     * @param relativeOverrides 접두사별 상대 임계값
+     * @param maxSilenceSeconds 값이 바뀌지 않아도 다시 보내는 최대 간격
+     */
+    public DeadbandFilter(List<String> prefixes, double absolute, double relative,
+                          Map<String, Double> absoluteOverrides, Map<String, Double> relativeOverrides,
+                          int maxSilenceSeconds) {
+        for (String prefix : prefixes) {
+            Double absoluteOverride = absoluteOverrides.get(prefix);
+            Double relativeOverride = relativeOverrides.get(prefix);
+            rules.add(new Rule(prefix,
+                absoluteOverride != null ? absoluteOverride : absolute,
+                relativeOverride != null ? relativeOverride : relative));
+        }
+        rules.sort(Comparator.comparingInt((Rule rule) -> rule.prefix.length()).reversed());
+        this.maxSilenceSeconds = Math.max(1, maxSilenceSeconds);
+        this.maxSilenceMillis = this.maxSilenceSeconds * 1000L;
+    }
+
+    /**
+     * 보낸 값의 유지 시간 (서버에 holdSeconds로 전달)
+     */
+    public int getMaxSilenceSeconds() {
+        return maxSilenceSeconds;
+    }
+
+    /**
+     * 이 필터를 적용하는 메트릭인지 여부
+     */
+    public boolean appliesTo(String metricName) {
+        return findRule(metricName) != null;
+    }
+
+    /**
+     * 전송 여부 판단 (보내기로 하면 마지막으로 보낸 값으로 기록)
+     *
+     * @param seriesKey 시리즈 구분 키 (타입 + 이름 등)
+     */
+    public boolean accept(String seriesKey, String metricName, double value, long nowMillis) {
+        Rule rule = findRule(metricName);
+        if (rule == null) {
+            return true;
+        }
+        Series state = series.computeIfAbsent(seriesKey, k -> new Series());
+        synchronized (state) {
+            long intervalMillis = state.evaluatedAtMillis > 0 ? nowMillis - state.evaluatedAtMillis : 0;
+            state.evaluatedAtMillis = nowMillis;
+
+            // 다음 평가 때는 유지 시간이 끝나 있으므로 지금 다시 보냄
+            boolean expired = !state.sent || nowMillis - state.sentAtMillis + intervalMillis >= maxSilenceMillis;
+            if (!expired && !rule.exceeds(state.sentValue, value)) {
+                return false;
+            }
+            state.sent = true;
+            state.sentValue = value;
+            state.sentAtMillis = nowMillis;
+            return true;
+        }
+    }
+
+    private Rule findRule(String metricName) {
+        if (metricName == null) {
+            return null;
+        }
+        for (Rule rule : rules) {
+            if (metricName.startsWith(rule.prefix)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 접두사별 임계값
+     */
+    private static class Rule {
+        private final String prefix;
+        private final double absolute;
+        private final double relative;
+
+        Rule(String prefix, double absolute, double relative) {
+            this.prefix = prefix;
+            this.absolute = absolute;
+            this.relative = relative;
+        }
+
+        /**
+         * 임계값을 넘게 바뀌었는지 (임계값을 하나도 설정하지 않았으면 값이 바뀌기만 해도 전송)
+         */
+        boolean exceeds(double previous, double value) {
+            if (Double.isNaN(previous) != Double.isNaN(value)) {
+                return true;
+            }
+            double change = Math.abs(value - previous);
+            if (absolute <= 0 && relative <= 0) {
+                return change > 0;
+            }
+            return (absolute > 0 && change >= absolute)
+                || (relative > 0 && change >= relative * Math.abs(previous));
+        }
+    }
+
+    /**
+     * 시리즈별 마지막 전송 상태 (객체로 동기화)
+     */
+    private static class Series {
+        private boolean sent;
+        private double sentValue;
+        private long sentAtMillis;
+        private long evaluatedAtMillis;
+    }
+}
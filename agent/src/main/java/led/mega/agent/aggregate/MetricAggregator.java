@@ -0,0 +1,101 @@
+package led.mega.agent.aggregate;
+
+import led.mega.agent.client.ApiClient;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 메트릭 구간 사전 집계기
+ * 수집기가 짧은 주기로 기록한 샘플을 시리즈(타입 + 이름 + 단위)별로 누적해 두었다가,
+ * 구간이 끝날 때마다 시리즈당 요약 레코드 하나(평균, 샘플 수, 최솟값, 최댓값, 합계, 95 백분위수)만 전송합니다.
+ * 구간 동안 샘플이 없었던 시리즈(사라진 마운트 등)는 정리합니다.
+ */
+@Slf4j
+public class MetricAggregator {
+
+    // 서버 metric_data의 DECIMAL 소수 자릿수
+    private static final int VALUE_SCALE = 4;
+
+    private final int windowSeconds;
+    private final int quantileSamples;
+    private final Map<String, SeriesAccumulator> series = new ConcurrentHashMap<>();
+    private final SeriesAccumulator.Summary summary = new SeriesAccumulator.Summary();  // flush 스레드에서만 사용
+
+    /**
+     * @param windowSeconds 요약 구간 길이
+     * @param quantileSamples 95 백분위수 계산에 쓸 시리즈별 최대 샘플 수 (0: 계산 안 함)
+     */
+    public MetricAggregator(int windowSeconds, int quantileSamples) {
+        this.windowSeconds = Math.max(1, windowSeconds);
+        this.quantileSamples = Math.max(0, quantileSamples);
+    }
+
+    public int getWindowSeconds() {
+        return windowSeconds;
+    }
+
+    /**
+     * 샘플 기록
+     *
+     * @param rawData 구간의 마지막 샘플 것만 요약과 함께 전송
+     */
+    public void record(String metricType, String metricName, String unit, double value, String rawData) {
+        record(metricType, metricName, unit, value, rawData, null);
+    }
+
+    /**
+     * 샘플 기록 (rawData는 구간의 마지막 샘플 것만 요약을 보낼 때 만듦)
+     */
+    public void record(String metricType, String metricName, String unit, double value, Supplier<String> rawData) {
+        record(metricType, metricName, unit, value, null, rawData);
+    }
+
+    private void record(String metricType, String metricName, String unit, double value,
+                        String rawData, Supplier<String> lazyRawData) {
+        String key = metricType + '\u0000' + metricName + '\u0000' + unit;
+        while (true) {
+            SeriesAccumulator accumulator = series.computeIfAbsent(key,
+                k -> new SeriesAccumulator(metricType, metricName, unit, quantileSamples));
+            if (accumulator.add(value, rawData, lazyRawData)) {
+                return;
+            }
+            // 방금 정리된 누적기: 맵에서 빼고 새로 만들어 기록
+            series.remove(key, accumulator);
+        }
+    }
+
+    /**
+     * 구간 요약 전송 (구간 끝에 한 스레드에서 호출)
+     */
+    public synchronized void flush(Consumer<ApiClient.MetricRequest> sink) {
+        LocalDateTime windowEnd = LocalDateTime.now();
+        int sent = 0;
+        for (Map.Entry<String, SeriesAccumulator> entry : series.entrySet()) {
+            SeriesAccumulator accumulator = entry.getValue();
+            if (!accumulator.drainTo(summary)) {
+                series.remove(entry.getKey(), accumulator);
+                continue;
+            }
+            String rawData = summary.lazyRawData != null ? summary.lazyRawData.get() : summary.rawData;
+            sink.accept(ApiClient.MetricRequest.summary(
+                accumulator.getMetricType(), accumulator.getMetricName(), accumulator.getUnit(),
+                rawData, windowEnd, (int) Math.min(summary.count, Integer.MAX_VALUE),
+                toDecimal(summary.min), toDecimal(summary.max), toDecimal(summary.sum),
+                Double.isNaN(summary.p95) ? null : toDecimal(summary.p95), windowSeconds
+            ));
+            sent++;
+        }
+        log.debug("메트릭 구간 요약 전송: {}개 시리즈", sent);
+    }
+
+    private static BigDecimal toDecimal(double value) {
+        return BigDecimal.valueOf(value).setScale(VALUE_SCALE, RoundingMode.HALF_UP);
+    }
+}
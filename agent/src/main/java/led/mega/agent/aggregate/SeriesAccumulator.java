@@ -0,0 +1,116 @@
+package led.mega.agent.aggregate;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * 시리즈 하나의 구간 누적값 (샘플 수, 최솟값, 최댓값, 합계)
+ * 분위수용 샘플은 고정 크기 배열에 보관하고, 넘치면 저수지 표집(reservoir sampling)으로 일부만 남깁니다.
+ * 샘플 기록은 기본형 필드만 갱신하므로 객체를 만들지 않습니다.
+ */
+class SeriesAccumulator {
+
+    private final String metricType;
+    private final String metricName;
+    private final String unit;
+    private final double[] samples;  // 길이 0이면 분위수 계산 안 함
+
+    private long count;
+    private double min;
+    private double max;
+    private double sum;
+    private String lastRawData;
+    private Supplier<String> lastLazyRawData;  // 요약을 보낼 때 만드는 rawData
+    private boolean retired;  // 구간 동안 샘플이 없어 정리된 누적기
+
+    SeriesAccumulator(String metricType, String metricName, String unit, int quantileSamples) {
+        this.metricType = metricType;
+        this.metricName = metricName;
+        this.unit = unit;
+        this.samples = new double[Math.max(0, quantileSamples)];
+    }
+
+    /**
+     * 샘플 기록
+     * @return 이미 정리된 누적기라 기록하지 못했으면 false (새 누적기에 다시 기록)
+     */
+    synchronized boolean add(double value, String rawData, Supplier<String> lazyRawData) {
+        if (retired) {
+            return false;
+        }
+        if (count == 0 || value < min) {
+            min = value;
+        }
+        if (count == 0 || value > max) {
+            max = value;
+        }
+        sum += value;
+        count++;
+        if (samples.length > 0) {
+            if (count <= samples.length) {
+                samples[(int) (count - 1)] = value;
+            } else {
+                long slot = ThreadLocalRandom.current().nextLong(count);
+                if (slot < samples.length) {
+                    samples[(int) slot] = value;
+                }
+            }
+        }
+        lastRawData = rawData;
+        lastLazyRawData = lazyRawData;
+        return true;
+    }
+
+    /**
+     * 구간 요약을 꺼내고 초기화 (샘플이 없으면 누적기를 정리하고 false)
+     */
+    synchronized boolean drainTo(Summary summary) {
+        if (count == 0) {
+            retired = true;
+            return false;
+        }
+        summary.count = count;
+        summary.min = min;
+        summary.max = max;
+        summary.sum = sum;
+        summary.rawData = lastRawData;
+        summary.lazyRawData = lastLazyRawData;
+        summary.p95 = Double.NaN;
+        if (samples.length > 0) {
+            int n = (int) Math.min(count, samples.length);
+            Arrays.sort(samples, 0, n);
+            summary.p95 = samples[(int) Math.ceil(0.95 * n) - 1];
+        }
+        count = 0;
+        sum = 0;
+        lastRawData = null;
+        lastLazyRawData = null;
+        return true;
+    }
+
+    String getMetricType() {
+        return metricType;
+    }
+
+    String getMetricName() {
+        return metricName;
+    }
+
+    String getUnit() {
+        return unit;
+    }
+
+    /**
+     * 꺼낸 구간 요약 (보고할 때마다 재사용)
+     */
+    static class Summary {
+        long count;
+        double min;
+        double max;
+        double sum;
+        double p95;  // 계산하지 않았으면 NaN
+        String rawData;
+        Supplier<String> lazyRawData;  // 있으면 rawData 대신 사용
+    }
+}
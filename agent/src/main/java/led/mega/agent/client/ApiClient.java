@@ -10,9 +10,14 @@ import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * 웹서버와 통신하는 HTTP 클라이언트
@@ -20,7 +25,13 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 public class ApiClient {
     
+    public static final String GZIP = "gzip";
+    
     private final OkHttpClient httpClient;
+    private final GzipRequestInterceptor gzipInterceptor = new GzipRequestInterceptor();
+    private final MetricFrameEncoder frameEncoder = new MetricFrameEncoder();
+    private volatile boolean metricFrameEnabled;
+    private volatile TelemetryStream telemetryStream;
     private final Gson gson;
     private final AgentConfig config;
     private final String baseUrl;
@@ -34,6 +45,8 @@ public class ApiClient {
             .connectTimeout(10, TimeUnit.SECONDS)
             .writeTimeout(10, TimeUnit.SECONDS)
             .readTimeout(10, TimeUnit.SECONDS)
+            .addInterceptor(gzipInterceptor)
+            .addInterceptor(new TelemetryInterceptor())
             .build();
         
         // Gson 설정 (LocalDateTime 직렬화/역직렬화 포함)
@@ -47,6 +60,13 @@ public class ApiClient {
             .create();
     }
     
+    /**
+     * 서버 DTO 형식과 동일한 Gson 인스턴스 (스풀 직렬화 등에서 사용)
+     */
+    public Gson getGson() {
+        return gson;
+    }
+    
     /**
      * 에이전트 등록
      */
@@ -71,10 +91,46 @@ public class ApiClient {
             RegisterResponse registerResponse = gson.fromJson(responseBody, RegisterResponse.class);
             log.info("에이전트 등록 성공: agentId={}, apiKey={}", 
                 registerResponse.getAgentId(), registerResponse.getApiKey());
+            
+            // 서버가 받을 수 있다고 응답한 경우에만 요청 본문 압축
+            gzipInterceptor.setEnabled(GZIP.equals(registerResponse.getRequestEncoding()));
+            log.info("요청 본문 압축: {}", gzipInterceptor.isEnabled() ? GZIP : "사용 안 함");
+            
+            // 서버가 바이너리 프레임을 받을 수 있으면 메트릭 일괄 전송에 사용
+            metricFrameEnabled = MetricFrameEncoder.CONTENT_TYPE.equals(registerResponse.getMetricContentType());
+            log.info("메트릭 전송 형식: {}", metricFrameEnabled ? MetricFrameEncoder.CONTENT_TYPE : "application/json");
+            
+            // 서버가 스트림 엔드포인트를 알려준 경우 연결 유지 (연결 전이나 끊긴 동안에는 HTTP로 전송)
+            if (config.isStreamEnabled() && registerResponse.getStreamPath() != null && telemetryStream == null) {
+                telemetryStream = new TelemetryStream(httpClient, baseUrl + registerResponse.getStreamPath(),
+                    TimeUnit.SECONDS.toMillis(config.getStreamAckTimeoutSeconds()));
+                telemetryStream.start(registerResponse.getApiKey());
+            }
             return registerResponse;
         }
     }
     
+    /**
+     * 텔레메트리 스트림 종료
+     */
+    public void closeStream() {
+        TelemetryStream stream = telemetryStream;
+        if (stream != null) {
+            stream.stop();
+        }
+    }
+    
+    /**
+     * 스트림으로 전송 (스트림이 없거나 보내지 못했으면 null)
+     */
+    private DeliveryStatus sendOverStream(byte type, byte[] payload) {
+        TelemetryStream stream = telemetryStream;
+        if (stream == null || !stream.isConnected()) {
+            return null;
+        }
+        return stream.send(type, payload);
+    }
+    
     /**
      * 하트비트 전송
      */
@@ -82,6 +138,11 @@ public class ApiClient {
         String url = baseUrl + "/api/agents/" + agentId + "/heartbeat";
         String json = gson.toJson(request);
         
+        DeliveryStatus streamed = sendOverStream(TelemetryStream.TYPE_HEARTBEAT, json.getBytes(StandardCharsets.UTF_8));
+        if (streamed != null) {
+            return streamed == DeliveryStatus.DELIVERED;
+        }
+        
         RequestBody body = RequestBody.create(json, MediaType.parse("application/json; charset=utf-8"));
         Request httpRequest = new Request.Builder()
             .url(url)
@@ -129,30 +190,207 @@ public class ApiClient {
         }
     }
     
+    /**
+     * 메트릭 데이터 일괄 전송
+     */
+    public DeliveryStatus sendMetricBatch(String agentId, String apiKey, List<MetricRequest> metrics) {
+        // 스트림은 항상 바이너리 프레임으로 전송
+        TelemetryStream stream = telemetryStream;
+        if (stream != null && stream.isConnected()) {
+            DeliveryStatus streamed = stream.send(TelemetryStream.TYPE_METRIC_FRAME, frameEncoder.encode(metrics));
+            if (streamed != null) {
+                return streamed;
+            }
+        }
+        
+        Request httpRequest = buildMetricBatchRequest(agentId, apiKey, metrics);
+        try (Response response = httpClient.newCall(httpRequest).execute()) {
+            return toDeliveryStatus(response, "메트릭 데이터 일괄 전송", metrics.size());
+        } catch (IOException e) {
+            log.error("메트릭 데이터 일괄 전송 중 오류 발생 (건수: {})", metrics.size(), e);
+            return DeliveryStatus.FAILED;
+        }
+    }
+    
+    /**
+     * 메트릭 데이터 일괄 전송 (비동기)
+     * 호출 스레드는 네트워크를 기다리지 않으며, 결과는 OkHttp 디스패처(또는 스트림) 스레드에서 콜백으로 전달됩니다.
+     */
+    public void sendMetricBatchAsync(String agentId, String apiKey, List<MetricRequest> metrics,
+                                     Consumer<DeliveryStatus> callback) {
+        TelemetryStream stream = telemetryStream;
+        if (stream != null && stream.isConnected()) {
+            stream.sendAsync(TelemetryStream.TYPE_METRIC_FRAME, frameEncoder.encode(metrics)).thenAccept(status -> {
+                if (status != null) {
+                    callback.accept(status);
+                } else {
+                    enqueue(buildMetricBatchRequest(agentId, apiKey, metrics), "메트릭 데이터 일괄 전송", metrics.size(), callback);
+                }
+            });
+            return;
+        }
+        enqueue(buildMetricBatchRequest(agentId, apiKey, metrics), "메트릭 데이터 일괄 전송", metrics.size(), callback);
+    }
+    
+    private Request buildMetricBatchRequest(String agentId, String apiKey, List<MetricRequest> metrics) {
+        String url = baseUrl + "/api/agents/" + agentId + "/metrics/batch";
+        
+        RequestBody body;
+        if (metricFrameEnabled) {
+            body = RequestBody.create(frameEncoder.encode(metrics), MediaType.parse(MetricFrameEncoder.CONTENT_TYPE));
+        } else {
+            String json = gson.toJson(new MetricBatchRequest(metrics));
+            body = RequestBody.create(json, MediaType.parse("application/json; charset=utf-8"));
+        }
+        return new Request.Builder()
+            .url(url)
+            .post(body)
+            .addHeader("Authorization", "Bearer " + apiKey)
+            .build();
+    }
+    
     /**
      * Exception 로그 전송
      */
-    public boolean sendExceptionLog(String agentId, String apiKey, ExceptionRequest request) {
-        String url = baseUrl + "/api/agents/" + agentId + "/exceptions";
+    public DeliveryStatus sendExceptionLog(String agentId, String apiKey, ExceptionRequest request) {
         String json = gson.toJson(request);
         
+        DeliveryStatus streamed = sendOverStream(TelemetryStream.TYPE_EXCEPTION, json.getBytes(StandardCharsets.UTF_8));
+        if (streamed != null) {
+            return streamed;
+        }
+        
+        try (Response response = httpClient.newCall(buildExceptionRequest(agentId, apiKey, json)).execute()) {
+            return toDeliveryStatus(response, "Exception 로그 전송", 1);
+        } catch (IOException e) {
+            log.error("Exception 로그 전송 중 오류 발생", e);
+            return DeliveryStatus.FAILED;
+        }
+    }
+    
+    /**
+     * Exception 로그 전송 (비동기)
+     */
+    public void sendExceptionLogAsync(String agentId, String apiKey, ExceptionRequest request,
+                                      Consumer<DeliveryStatus> callback) {
+        String json = gson.toJson(request);
+        
+        TelemetryStream stream = telemetryStream;
+        if (stream != null && stream.isConnected()) {
+            stream.sendAsync(TelemetryStream.TYPE_EXCEPTION, json.getBytes(StandardCharsets.UTF_8)).thenAccept(status -> {
+                if (status != null) {
+                    callback.accept(status);
+                } else {
+                    enqueue(buildExceptionRequest(agentId, apiKey, json), "Exception 로그 전송", 1, callback);
+                }
+            });
+            return;
+        }
+        enqueue(buildExceptionRequest(agentId, apiKey, json), "Exception 로그 전송", 1, callback);
+    }
+    
+    private Request buildExceptionRequest(String agentId, String apiKey, String json) {
+        String url = baseUrl + "/api/agents/" + agentId + "/exceptions";
         RequestBody body = RequestBody.create(json, MediaType.parse("application/json; charset=utf-8"));
-        Request httpRequest = new Request.Builder()
+        return new Request.Builder()
             .url(url)
             .post(body)
             .addHeader("Authorization", "Bearer " + apiKey)
             .build();
+    }
+    
+    /**
+     * 할당된 작업 정의 조회 (비동기)
+     * 지난 응답의 ETag를 보내 변경이 없으면 304로 목록 없이 응답받습니다. 실패하면 null을 전달합니다.
+     */
+    public void fetchTaskDefinitionsAsync(String agentId, String apiKey, String etag,
+                                          Consumer<TaskDefinitionsResponse> callback) {
+        String url = baseUrl + "/api/agents/" + agentId + "/task-definitions";
+        Request.Builder builder = new Request.Builder()
+            .url(url)
+            .get()
+            .addHeader("Authorization", "Bearer " + apiKey);
+        if (etag != null) {
+            builder.addHeader("If-None-Match", etag);
+        }
         
-        try (Response response = httpClient.newCall(httpRequest).execute()) {
-            if (!response.isSuccessful()) {
-                String errorBody = response.body() != null ? response.body().string() : "Unknown error";
-                log.error("Exception 로그 전송 실패: HTTP {} - {}", response.code(), errorBody);
-                return false;
+        httpClient.newCall(builder.build()).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                log.warn("작업 정의 조회 중 오류 발생: {}", e.getMessage());
+                callback.accept(null);
             }
-            return true;
-        } catch (IOException e) {
-            log.error("Exception 로그 전송 중 오류 발생", e);
-            return false;
+            
+            @Override
+            public void onResponse(Call call, Response response) {
+                TaskDefinitionsResponse result = null;
+                try (Response r = response) {
+                    if (r.code() == 304) {
+                        result = new TaskDefinitionsResponse(true, etag, null);
+                    } else if (r.isSuccessful()) {
+                        TaskDefinition[] tasks = gson.fromJson(r.body().string(), TaskDefinition[].class);
+                        result = new TaskDefinitionsResponse(false, r.header("ETag"),
+                            tasks != null ? Arrays.asList(tasks) : Collections.<TaskDefinition>emptyList());
+                    } else {
+                        log.warn("작업 정의 조회 실패: HTTP {}", r.code());
+                    }
+                } catch (IOException | RuntimeException e) {
+                    log.warn("작업 정의 응답 처리 중 오류 발생: {}", e.getMessage());
+                }
+                callback.accept(result);
+            }
+        });
+    }
+    
+    /**
+     * HTTP 요청을 OkHttp 디스패처에 넣고 결과를 콜백으로 전달
+     */
+    private void enqueue(Request httpRequest, String description, int count, Consumer<DeliveryStatus> callback) {
+        httpClient.newCall(httpRequest).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                log.error("{} 중 오류 발생 (건수: {}): {}", description, count, e.getMessage());
+                callback.accept(DeliveryStatus.FAILED);
+            }
+            
+            @Override
+            public void onResponse(Call call, Response response) {
+                DeliveryStatus status;
+                try (Response r = response) {
+                    status = toDeliveryStatus(r, description, count);
+                } catch (IOException e) {
+                    log.error("{} 응답 처리 중 오류 발생 (건수: {})", description, count, e);
+                    status = DeliveryStatus.FAILED;
+                }
+                callback.accept(status);
+            }
+        });
+    }
+    
+    private DeliveryStatus toDeliveryStatus(Response response, String description, int count) throws IOException {
+        if (!response.isSuccessful()) {
+            String errorBody = response.body() != null ? response.body().string() : "Unknown error";
+            log.error("{} 실패: HTTP {} - {} (건수: {})", description, response.code(), errorBody, count);
+            return DeliveryStatus.fromHttpCode(response.code());
+        }
+        return DeliveryStatus.DELIVERED;
+    }
+    
+    /**
+     * 전송 결과
+     * REJECTED는 서버가 요청 자체를 거부한 경우로, 재전송해도 성공할 수 없습니다.
+     */
+    public enum DeliveryStatus {
+        DELIVERED,
+        REJECTED,
+        FAILED;
+        
+        static DeliveryStatus fromHttpCode(int code) {
+            // 인증 실패(401/403), 요청 시간 초과(408), 과부하(429)와 5xx는 나중에 재시도
+            if (code >= 400 && code < 500 && code != 401 && code != 403 && code != 408 && code != 429) {
+                return REJECTED;
+            }
+            return FAILED;
         }
     }
     
@@ -163,13 +401,22 @@ public class ApiClient {
         private String hostname;
         private String ipAddress;
         private String osType;
+        private List<String> supportedEncodings;  // 에이전트가 보낼 수 있는 요청 본문 압축 방식
+        private List<String> supportedContentTypes;  // 에이전트가 보낼 수 있는 메트릭 전송 형식
         
         public RegisterRequest(String agentId, String name, String hostname, String ipAddress, String osType) {
+            this(agentId, name, hostname, ipAddress, osType, null, null);
+        }
+        
+        public RegisterRequest(String agentId, String name, String hostname, String ipAddress, String osType,
+                             List<String> supportedEncodings, List<String> supportedContentTypes) {
             this.agentId = agentId;
             this.name = name;
             this.hostname = hostname;
             this.ipAddress = ipAddress;
             this.osType = osType;
+            this.supportedEncodings = supportedEncodings;
+            this.supportedContentTypes = supportedContentTypes;
         }
         
         // Getters
@@ -178,6 +425,8 @@ public class ApiClient {
         public String getHostname() { return hostname; }
         public String getIpAddress() { return ipAddress; }
         public String getOsType() { return osType; }
+        public List<String> getSupportedEncodings() { return supportedEncodings; }
+        public List<String> getSupportedContentTypes() { return supportedContentTypes; }
     }
     
     public static class RegisterResponse {
@@ -185,12 +434,18 @@ public class ApiClient {
         private String agentId;
         private String status;
         private String apiKey;
+        private String requestEncoding;  // 서버가 수락한 요청 본문 압축 방식 (없으면 압축 안 함)
+        private String metricContentType;  // 서버가 수락한 메트릭 전송 형식 (없으면 JSON)
+        private String streamPath;  // 텔레메트리 스트림 엔드포인트 경로 (없으면 HTTP만 사용)
         
         // Getters
         public Long getId() { return id; }
         public String getAgentId() { return agentId; }
         public String getStatus() { return status; }
         public String getApiKey() { return apiKey; }
+        public String getRequestEncoding() { return requestEncoding; }
+        public String getMetricContentType() { return metricContentType; }
+        public String getStreamPath() { return streamPath; }
     }
     
     public static class HeartbeatRequest {
@@ -212,6 +467,17 @@ public class ApiClient {
         private String rawData;
         private LocalDateTime collectedAt;
         
+        // 구간 요약 (MetricAggregator가 만든 레코드만 설정, 단일 샘플이면 null이라 JSON에서 빠짐)
+        private Integer sampleCount;
+        private java.math.BigDecimal minValue;
+        private java.math.BigDecimal maxValue;
+        private java.math.BigDecimal sumValue;
+        private java.math.BigDecimal p95Value;
+        private Integer windowSeconds;
+        
+        // 변화 기반 전송 시리즈의 값 유지 시간 (이 시간 안에 다음 레코드가 없으면 값이 그대로인 것)
+        private Integer holdSeconds;
+        
         public MetricRequest(Long taskId, String metricType, String metricName, 
                             java.math.BigDecimal metricValue, String unit, 
                             String rawData, LocalDateTime collectedAt) {
@@ -223,6 +489,94 @@ public class ApiClient {
             this.rawData = rawData;
             this.collectedAt = collectedAt;
         }
+        
+        /**
+         * 구간 요약 레코드 (값은 구간 평균, 수집 시간은 구간 끝 시각)
+         */
+        public static MetricRequest summary(String metricType, String metricName, String unit,
+                                            String rawData, LocalDateTime windowEnd, int sampleCount,
+                                            java.math.BigDecimal minValue, java.math.BigDecimal maxValue,
+                                            java.math.BigDecimal sumValue, java.math.BigDecimal p95Value,
+                                            int windowSeconds) {
+            java.math.BigDecimal average = sumValue.divide(java.math.BigDecimal.valueOf(sampleCount),
+                sumValue.scale(), java.math.RoundingMode.HALF_UP);
+            MetricRequest request = new MetricRequest(null, metricType, metricName, average, unit, rawData, windowEnd);
+            request.sampleCount = sampleCount;
+            request.minValue = minValue;
+            request.maxValue = maxValue;
+            request.sumValue = sumValue;
+            request.p95Value = p95Value;
+            request.windowSeconds = windowSeconds;
+            return request;
+        }
+        
+        // Getters
+        public Long getTaskId() { return taskId; }
+        public String getMetricType() { return metricType; }
+        public String getMetricName() { return metricName; }
+        public java.math.BigDecimal getMetricValue() { return metricValue; }
+        public String getUnit() { return unit; }
+        public String getRawData() { return rawData; }
+        public LocalDateTime getCollectedAt() { return collectedAt; }
+        public Integer getSampleCount() { return sampleCount; }
+        public java.math.BigDecimal getMinValue() { return minValue; }
+        public java.math.BigDecimal getMaxValue() { return maxValue; }
+        public java.math.BigDecimal getSumValue() { return sumValue; }
+        public java.math.BigDecimal getP95Value() { return p95Value; }
+        public Integer getWindowSeconds() { return windowSeconds; }
+        public Integer getHoldSeconds() { return holdSeconds; }
+        
+        public void setHoldSeconds(Integer holdSeconds) {
+            this.holdSeconds = holdSeconds;
+        }
+        
+        public boolean isSummary() {
+            return sampleCount != null;
+        }
+    }
+    
+    public static class TaskDefinition {
+        private Long id;
+        private String taskName;
+        private String taskType;  // COMMAND, LOG_PARSE
+        private String command;
+        private String logPath;
+        private String logPattern;
+        private Integer intervalSeconds;
+        
+        // Getters
+        public Long getId() { return id; }
+        public String getTaskName() { return taskName; }
+        public String getTaskType() { return taskType; }
+        public String getCommand() { return command; }
+        public String getLogPath() { return logPath; }
+        public String getLogPattern() { return logPattern; }
+        public Integer getIntervalSeconds() { return intervalSeconds; }
+    }
+    
+    public static class TaskDefinitionsResponse {
+        private final boolean notModified;
+        private final String etag;
+        private final List<TaskDefinition> tasks;  // notModified면 null
+        
+        public TaskDefinitionsResponse(boolean notModified, String etag, List<TaskDefinition> tasks) {
+            this.notModified = notModified;
+            this.etag = etag;
+            this.tasks = tasks;
+        }
+        
+        // Getters
+        public boolean isNotModified() { return notModified; }
+        public String getEtag() { return etag; }
+        public List<TaskDefinition> getTasks() { return tasks; }
+    }
+    
+    public static class MetricBatchRequest {
+        private List<MetricRequest> metrics;
+        
+        public MetricBatchRequest(List<MetricRequest> metrics) {
+            this.metrics = metrics;
+        }
     }
     
     public static class ExceptionRequest {
@@ -234,10 +588,24 @@ public class ApiClient {
         private String contextAfter;
         private String fullStackTrace;
         private LocalDateTime occurredAt;
+        private String fingerprint;
+        private Integer occurrenceCount;
+        private LocalDateTime lastOccurredAt;
         
         public ExceptionRequest(Long taskId, String logFilePath, String exceptionType,
                               String exceptionMessage, String contextBefore, String contextAfter,
                               String fullStackTrace, LocalDateTime occurredAt) {
+            this(taskId, logFilePath, exceptionType, exceptionMessage, contextBefore, contextAfter,
+                fullStackTrace, occurredAt, null, 1, occurredAt);
+        }
+        
+        /**
+         * 집계된 Exception (occurredAt: 첫 발생 시간)
+         */
+        public ExceptionRequest(Long taskId, String logFilePath, String exceptionType,
+                              String exceptionMessage, String contextBefore, String contextAfter,
+                              String fullStackTrace, LocalDateTime occurredAt, String fingerprint,
+                              Integer occurrenceCount, LocalDateTime lastOccurredAt) {
             this.taskId = taskId;
             this.logFilePath = logFilePath;
             this.exceptionType = exceptionType;
@@ -246,7 +614,12 @@ public class ApiClient {
             this.contextAfter = contextAfter;
             this.fullStackTrace = fullStackTrace;
             this.occurredAt = occurredAt;
+            this.fingerprint = fingerprint;
+            this.occurrenceCount = occurrenceCount;
+            this.lastOccurredAt = lastOccurredAt;
         }
+        
+        public String getExceptionType() { return exceptionType; }
     }
 }
 
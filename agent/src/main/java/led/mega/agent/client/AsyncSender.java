@@ -0,0 +1,184 @@
+package led.mega.agent.client;
+
+import led.mega.agent.telemetry.AgentTelemetry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 비동기 전송기
+ * 동시에 진행 중인 요청 수(in-flight)를 제한하고, 실패한 요청은 지수 백오프(+지터) 후 재시도합니다.
+ * 재시도 중인 요청도 창(window)을 차지하므로, 서버가 느려지면 isBackpressured()로 수집 쪽에 알려
+ * 건너뛰거나 모아서 보내도록 합니다.
+ */
+@Slf4j
+public class AsyncSender {
+
+    private static final long MIN_BACKOFF_MILLIS = 500;
+    private static final long MAX_BACKOFF_MILLIS = 30000;
+
+    /**
+     * 한 번의 전송 시도 (완료 시 결과를 콜백으로 전달, 호출 스레드를 막지 않아야 함)
+     */
+    public interface Delivery {
+        void send(Consumer<ApiClient.DeliveryStatus> callback);
+    }
+
+    private final int maxInFlight;
+    private final int maxQueued;
+    private final int maxAttempts;
+    private final ScheduledExecutorService retryScheduler;
+    private final LongAdder droppedQueueFull = AgentTelemetry.getInstance().counter("dropped.send_queue_full");
+    private final LongAdder droppedFailed = AgentTelemetry.getInstance().counter("dropped.send_failed");
+    private final LongAdder droppedRejected = AgentTelemetry.getInstance().counter("dropped.send_rejected");
+
+    private final ArrayDeque<Task> waiting = new ArrayDeque<>();
+    private int inFlight;  // this로 동기화
+    private volatile boolean running = true;
+
+    public AsyncSender(int maxInFlight, int maxQueued, int maxAttempts) {
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.maxQueued = Math.max(0, maxQueued);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "async-sender-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AgentTelemetry.getInstance().gauge("queue.send_in_flight", this::getInFlightCount);
+        AgentTelemetry.getInstance().gauge("queue.send_waiting", this::getWaitingCount);
+    }
+
+    /**
+     * 전송 요청 (창이 가득 차면 대기열에 넣고, 대기열도 가득 차면 false)
+     */
+    public boolean submit(String description, Delivery delivery) {
+        Task task = new Task(description, delivery);
+        synchronized (this) {
+            if (inFlight >= maxInFlight) {
+                if (waiting.size() >= maxQueued) {
+                    droppedQueueFull.increment();
+                    return false;
+                }
+                waiting.add(task);
+                return true;
+            }
+            inFlight++;
+        }
+        attempt(task);
+        return true;
+    }
+
+    /**
+     * 창이 가득 찼는지 여부 (수집 쪽에서 새 요청을 만들지 않고 모아 두는 기준)
+     */
+    public synchronized boolean isBackpressured() {
+        return inFlight >= maxInFlight;
+    }
+
+    /**
+     * 진행 중인 요청 수 (재시도 대기 포함)
+     */
+    public synchronized int getInFlightCount() {
+        return inFlight;
+    }
+
+    /**
+     * 창이 비기를 기다리는 요청 수
+     */
+    public synchronized int getWaitingCount() {
+        return waiting.size();
+    }
+
+    /**
+     * 종료 (진행 중인 요청은 최대 timeoutMillis까지 기다리고, 더 이상 재시도하지 않음)
+     */
+    public void stop(long timeoutMillis) {
+        running = false;
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (this) {
+            while (inFlight > 0) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    log.warn("비동기 전송 {}건이 끝나지 않은 상태로 종료합니다 (대기 {}건)", inFlight, waiting.size());
+                    break;
+                }
+                try {
+                    wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        retryScheduler.shutdownNow();
+    }
+
+    private void attempt(Task task) {
+        task.attempts++;
+        try {
+            task.delivery.send(status -> complete(task, status));
+        } catch (RuntimeException e) {
+            log.error("{} 요청 중 오류 발생", task.description, e);
+            complete(task, ApiClient.DeliveryStatus.FAILED);
+        }
+    }
+
+    private void complete(Task task, ApiClient.DeliveryStatus status) {
+        if (status == ApiClient.DeliveryStatus.FAILED && running && task.attempts < maxAttempts) {
+            long delay = backoffMillis(task.attempts);
+            log.warn("{} 실패, {}ms 후 재시도 ({}/{})", task.description, delay, task.attempts, maxAttempts);
+            try {
+                retryScheduler.schedule(() -> attempt(task), delay, TimeUnit.MILLISECONDS);
+                return;
+            } catch (RejectedExecutionException e) {
+                // 종료 중: 포기
+            }
+        }
+        if (status == ApiClient.DeliveryStatus.FAILED) {
+            droppedFailed.increment();
+            log.warn("{} 실패, {}회 시도 후 포기합니다", task.description, task.attempts);
+        } else if (status == ApiClient.DeliveryStatus.REJECTED) {
+            droppedRejected.increment();
+            log.warn("서버가 거부한 요청을 폐기합니다: {}", task.description);
+        }
+
+        Task next;
+        synchronized (this) {
+            next = waiting.poll();
+            if (next == null) {
+                inFlight--;
+                notifyAll();
+            }
+        }
+        if (next != null) {
+            attempt(next);
+        }
+    }
+
+    /**
+     * 지수 백오프 + 지터 (상한의 절반 ~ 상한 사이에서 무작위로 선택해 재시도가 한꺼번에 몰리지 않게 함)
+     */
+    private long backoffMillis(int attempts) {
+        long cap = Math.min(MAX_BACKOFF_MILLIS, MIN_BACKOFF_MILLIS << Math.min(attempts - 1, 16));
+        return cap / 2 + ThreadLocalRandom.current().nextLong(cap / 2 + 1);
+    }
+
+    private static class Task {
+        private final String description;
+        private final Delivery delivery;
+        private int attempts;
+
+        Task(String description, Delivery delivery) {
+            this.description = description;
+            this.delivery = delivery;
+        }
+    }
+}
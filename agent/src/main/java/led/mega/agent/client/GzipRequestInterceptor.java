@@ -0,0 +1,55 @@
+package led.mega.agent.client;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.Okio;
+
+import java.io.IOException;
+
+/**
+ * 요청 본문 gzip 압축 인터셉터
+ * 서버가 등록 시 gzip 요청을 받을 수 있다고 응답한 경우에만 동작하며,
+ * 압축 효과가 작은 짧은 요청(하트비트 등)은 그대로 보냅니다.
+ */
+public class GzipRequestInterceptor implements Interceptor {
+    
+    // 이보다 작은 본문은 압축하지 않음
+    private static final long MIN_COMPRESS_BYTES = 1024;
+    
+    private volatile boolean enabled;
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        RequestBody body = request.body();
+        if (!enabled || body == null || request.header("Content-Encoding") != null
+                || (body.contentLength() >= 0 && body.contentLength() < MIN_COMPRESS_BYTES)) {
+            return chain.proceed(request);
+        }
+        
+        // 압축 결과를 버퍼에 담아 Content-Length를 함께 보냄
+        Buffer buffer = new Buffer();
+        BufferedSink gzipSink = Okio.buffer(new GzipSink(buffer));
+        body.writeTo(gzipSink);
+        gzipSink.close();
+        
+        Request compressed = request.newBuilder()
+            .header("Content-Encoding", "gzip")
+            .method(request.method(), RequestBody.create(buffer.readByteString(), body.contentType()))
+            .build();
+        return chain.proceed(compressed);
+    }
+}
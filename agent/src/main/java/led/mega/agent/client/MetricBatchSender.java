@@ -0,0 +1,197 @@
+package led.mega.agent.client;
+
+import led.mega.agent.telemetry.AgentTelemetry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 메트릭 일괄 전송기
+ * 수집된 메트릭을 모아 두었다가 건수(batchSize) 또는 경과 시간(maxAge) 조건이 되면
+ * 한 번의 요청으로 서버에 전송합니다.
+ * 전송은 비동기로 이루어지며, 서버가 느려 전송 창이 가득 차면 보내지 않고 계속 모아 둡니다.
+ */
+@Slf4j
+public class MetricBatchSender {
+    
+    // 전송이 밀릴 때 모아 둘 최대 배치 수 (넘으면 오래된 메트릭부터 폐기)
+    private static final int MAX_PENDING_BATCHES = 10;
+    
+    private final ApiClient apiClient;
+    private final AsyncSender asyncSender;
+    private final int batchSize;
+    private final long maxAgeMillis;
+    private final ScheduledExecutorService flushScheduler;
+    private final LongAdder droppedOverflow = AgentTelemetry.getInstance().counter("dropped.metric_overflow");
+    
+    private final Object lock = new Object();
+    private List<ApiClient.MetricRequest> buffer;
+    private long oldestAddedAt;
+    
+    private volatile String agentId;
+    private volatile String apiKey;
+    
+    public MetricBatchSender(ApiClient apiClient, AsyncSender asyncSender, int batchSize, long maxAgeMillis) {
+        this.apiClient = apiClient;
+        this.asyncSender = asyncSender;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAgeMillis = Math.max(100, maxAgeMillis);
+        this.buffer = new ArrayList<>(this.batchSize);
+        this.flushScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "metric-batch-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AgentTelemetry.getInstance().gauge("queue.metric_buffer", () -> {
+            synchronized (lock) {
+                return buffer.size();
+            }
+        });
+    }
+    
+    /**
+     * 전송 시작 (에이전트 등록 후 호출)
+     */
+    public void start(String agentId, String apiKey) {
+        this.agentId = agentId;
+        this.apiKey = apiKey;
+        
+        // 경과 시간 기준 플러시는 최대 대기 시간의 절반 주기로 확인
+        long checkInterval = Math.max(50, maxAgeMillis / 2);
+        flushScheduler.scheduleWithFixedDelay(this::flushIfExpired, checkInterval, checkInterval, TimeUnit.MILLISECONDS);
+        log.info("메트릭 일괄 전송 시작 (배치 크기: {}, 최대 대기: {}ms)", batchSize, maxAgeMillis);
+    }
+    
+    /**
+     * 메트릭 추가 (배치 크기에 도달하면 즉시 전송, 전송이 밀려 있으면 계속 모아 둠)
+     */
+    public void add(ApiClient.MetricRequest request) {
+        List<ApiClient.MetricRequest> batch = null;
+        synchronized (lock) {
+            if (buffer.isEmpty()) {
+                oldestAddedAt = System.currentTimeMillis();
+            }
+            buffer.add(request);
+            if (buffer.size() >= batchSize && !asyncSender.isBackpressured()) {
+                batch = drain();
+            } else {
+                trimOverflow();
+            }
+        }
+        if (batch != null) {
+            send(batch);
+        }
+    }
+    
+    /**
+     * 쌓여 있는 메트릭 즉시 전송
+     */
+    public void flush() {
+        List<ApiClient.MetricRequest> batch;
+        synchronized (lock) {
+            batch = drain();
+        }
+        if (batch != null) {
+            send(batch);
+        }
+    }
+    
+    /**
+     * 전송 중지 (남은 메트릭은 전송 후 종료)
+     */
+    public void stop() {
+        flushScheduler.shutdown();
+        try {
+            if (!flushScheduler.awaitTermination(5, TimeUnit.SECONDS)) {
+                flushScheduler.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            flushScheduler.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        log.info("메트릭 일괄 전송 중지");
+    }
+    
+    private void flushIfExpired() {
+        List<ApiClient.MetricRequest> batch = null;
+        synchronized (lock) {
+            if (!buffer.isEmpty() && System.currentTimeMillis() - oldestAddedAt >= maxAgeMillis
+                    && !asyncSender.isBackpressured()) {
+                batch = drain();
+            }
+        }
+        if (batch != null) {
+            send(batch);
+        }
+    }
+    
+    /**
+     * 버퍼를 비우고 기존 내용을 반환 (lock 보유 상태에서 호출)
+     */
+    private List<ApiClient.MetricRequest> drain() {
+        if (buffer.isEmpty()) {
+            return null;
+        }
+        List<ApiClient.MetricRequest> batch = buffer;
+        buffer = new ArrayList<>(batchSize);
+        return batch;
+    }
+    
+    /**
+     * 모아 둔 메트릭이 한도를 넘으면 오래된 것부터 폐기 (lock 보유 상태에서 호출)
+     */
+    private void trimOverflow() {
+        int overflow = buffer.size() - batchSize * MAX_PENDING_BATCHES;
+        if (overflow > 0) {
+            buffer.subList(0, overflow).clear();
+            droppedOverflow.add(overflow);
+            log.warn("전송이 밀려 오래된 메트릭 {}건을 폐기합니다", overflow);
+        }
+    }
+    
+    /**
+     * 배치 크기 단위로 나누어 비동기 전송 (전송 창과 대기열이 모두 가득 차면 버퍼로 되돌림)
+     */
+    private void send(List<ApiClient.MetricRequest> batch) {
+        if (agentId == null || apiKey == null) {
+            log.warn("에이전트 인증 정보가 없어 메트릭 {}건을 전송하지 못했습니다", batch.size());
+            return;
+        }
+        for (int from = 0; from < batch.size(); from += batchSize) {
+            List<ApiClient.MetricRequest> chunk = batch.subList(from, Math.min(from + batchSize, batch.size()));
+            boolean accepted = asyncSender.submit("메트릭 일괄 전송 (" + chunk.size() + "건)",
+                callback -> apiClient.sendMetricBatchAsync(agentId, apiKey, chunk, status -> {
+                    if (status == ApiClient.DeliveryStatus.DELIVERED) {
+                        log.debug("메트릭 일괄 전송 완료: {}건", chunk.size());
+                    }
+                    callback.accept(status);
+                }));
+            if (!accepted) {
+                requeue(batch.subList(from, batch.size()));
+                return;
+            }
+        }
+    }
+    
+    /**
+     * 보내지 못한 메트릭을 버퍼 앞쪽에 되돌림
+     */
+    private void requeue(List<ApiClient.MetricRequest> unsent) {
+        synchronized (lock) {
+            List<ApiClient.MetricRequest> merged = new ArrayList<>(unsent.size() + buffer.size());
+            merged.addAll(unsent);
+            merged.addAll(buffer);
+            if (buffer.isEmpty()) {
+                oldestAddedAt = System.currentTimeMillis();
+            }
+            buffer = merged;
+            trimOverflow();
+        }
+    }
+}
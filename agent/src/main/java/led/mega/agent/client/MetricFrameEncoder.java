@@ -0,0 +1,183 @@
+package led.mega.agent.client;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 메트릭 바이너리 프레임 인코더 (application/x-mega-frame)
+ * 
+ * <pre>
+ * frame   = magic 'M' 'F' | version(1) | baseMillis(int64) | strings | series | samples
+ * strings = count(varint) { length(varint) utf8-bytes }           프레임 내 문자열 테이블
+ * series  = count(varint) { type+1 name+1 unit+1 taskId+1 [holdSeconds+1] (varint) } 0은 null, 문자열은 테이블 인덱스
+ * samples = count(varint) { seriesId(varint) deltaMillis(zigzag varint) value(float64) rawData+1(varint) [summary] }
+ * summary = sampleCount(varint) { min max sum p95(float64) windowSeconds(varint) }   버전 2 이상, sampleCount 0은 단일 값
+ * </pre>
+ * holdSeconds는 버전 3만 있습니다. 이전 서버도 읽을 수 있도록 배치에 필요한 가장 낮은 버전으로 인코딩합니다.
+ * (유지 시간이 있으면 3, 구간 요약이 있으면 2, 둘 다 없으면 1)
+ * 시간은 JSON의 LocalDateTime과 같은 의미가 되도록 로컬 시각을 UTC 기준 epoch millis로 표현하고,
+ * 직전 샘플과의 차이만 기록합니다. 값이 없으면 NaN으로 기록합니다.
+ */
+public class MetricFrameEncoder {
+    
+    public static final String CONTENT_TYPE = "application/x-mega-frame";
+    
+    static final int VERSION = 1;
+    static final int VERSION_SUMMARY = 2;
+    static final int VERSION_HOLD = 3;
+    
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> stringIndex = new HashMap<>();
+    private final List<long[]> series = new ArrayList<>();
+    private final Map<String, Integer> seriesIndex = new HashMap<>();
+    private final ByteArrayOutputStream samples = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    
+    /**
+     * 메트릭 목록을 프레임 하나로 인코딩
+     */
+    public synchronized byte[] encode(List<ApiClient.MetricRequest> metrics) {
+        strings.clear();
+        stringIndex.clear();
+        series.clear();
+        seriesIndex.clear();
+        samples.reset();
+        out.reset();
+        
+        int version = VERSION;
+        for (ApiClient.MetricRequest metric : metrics) {
+            if (metric.getHoldSeconds() != null) {
+                version = VERSION_HOLD;
+                break;
+            }
+            if (metric.isSummary()) {
+                version = VERSION_SUMMARY;
+            }
+        }
+        boolean summaries = version >= VERSION_SUMMARY;
+        boolean hold = version >= VERSION_HOLD;
+        
+        long baseMillis = metrics.isEmpty() ? 0 : toMillis(metrics.get(0).getCollectedAt());
+        long previousMillis = baseMillis;
+        for (ApiClient.MetricRequest metric : metrics) {
+            long millis = toMillis(metric.getCollectedAt());
+            writeVarint(samples, seriesId(metric));
+            writeVarint(samples, zigzag(millis - previousMillis));
+            writeDouble(samples, toDouble(metric.getMetricValue()));
+            writeVarint(samples, stringRef(metric.getRawData()));
+            if (summaries) {
+                writeSummary(metric);
+            }
+            previousMillis = millis;
+        }
+        
+        out.write('M');
+        out.write('F');
+        out.write(version);
+        writeLong(out, baseMillis);
+        
+        writeVarint(out, strings.size());
+        for (String value : strings) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(out, bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+        
+        writeVarint(out, series.size());
+        for (long[] entry : series) {
+            for (int i = 0; i < (hold ? entry.length : entry.length - 1); i++) {
+                writeVarint(out, entry[i]);
+            }
+        }
+        
+        writeVarint(out, metrics.size());
+        byte[] sampleBytes = samples.toByteArray();
+        out.write(sampleBytes, 0, sampleBytes.length);
+        return out.toByteArray();
+    }
+    
+    private int seriesId(ApiClient.MetricRequest metric) {
+        String key = metric.getMetricType() + '\u0000' + metric.getMetricName() + '\u0000'
+            + metric.getUnit() + '\u0000' + metric.getTaskId() + '\u0000' + metric.getHoldSeconds();
+        Integer id = seriesIndex.get(key);
+        if (id == null) {
+            id = series.size();
+            series.add(new long[] {
+                stringRef(metric.getMetricType()),
+                stringRef(metric.getMetricName()),
+                stringRef(metric.getUnit()),
+                metric.getTaskId() != null ? metric.getTaskId() + 1 : 0,
+                metric.getHoldSeconds() != null ? metric.getHoldSeconds() + 1 : 0
+            });
+            seriesIndex.put(key, id);
+        }
+        return id;
+    }
+    
+    private void writeSummary(ApiClient.MetricRequest metric) {
+        if (!metric.isSummary()) {
+            writeVarint(samples, 0);
+            return;
+        }
+        writeVarint(samples, metric.getSampleCount());
+        writeDouble(samples, toDouble(metric.getMinValue()));
+        writeDouble(samples, toDouble(metric.getMaxValue()));
+        writeDouble(samples, toDouble(metric.getSumValue()));
+        writeDouble(samples, toDouble(metric.getP95Value()));
+        writeVarint(samples, metric.getWindowSeconds());
+    }
+    
+    /**
+     * 문자열 테이블 참조 (인덱스 + 1, null은 0)
+     */
+    private int stringRef(String value) {
+        if (value == null) {
+            return 0;
+        }
+        Integer index = stringIndex.get(value);
+        if (index == null) {
+            index = strings.size();
+            strings.add(value);
+            stringIndex.put(value, index);
+        }
+        return index + 1;
+    }
+    
+    private static long toMillis(LocalDateTime time) {
+        LocalDateTime value = time != null ? time : LocalDateTime.now();
+        return value.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+    
+    private static double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : Double.NaN;
+    }
+    
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+    
+    private static void writeVarint(ByteArrayOutputStream target, long value) {
+        while ((value & ~0x7FL) != 0) {
+            target.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        target.write((int) value);
+    }
+    
+    private static void writeLong(ByteArrayOutputStream target, long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            target.write((int) (value >>> shift));
+        }
+    }
+    
+    private static void writeDouble(ByteArrayOutputStream target, double value) {
+        writeLong(target, Double.doubleToLongBits(value));
+    }
+}
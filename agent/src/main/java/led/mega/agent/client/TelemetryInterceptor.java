@@ -0,0 +1,60 @@
+package led.mega.agent.client;
+
+import led.mega.agent.telemetry.AgentTelemetry;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * API 호출 텔레메트리 인터셉터
+ * 엔드포인트별 응답 시간(api.<엔드포인트>), 보낸 본문 바이트 수(압축 후), 실패 건수를 기록합니다.
+ * 압축 인터셉터 뒤에 등록해야 실제로 전송한 바이트 수가 기록됩니다.
+ */
+public class TelemetryInterceptor implements Interceptor {
+
+    private static final String AGENT_PATH_PREFIX = "/api/agents/";
+
+    private final AgentTelemetry telemetry = AgentTelemetry.getInstance();
+    private final LongAdder bytesSent = telemetry.counter("api.bytes_sent");
+    private final LongAdder failures = telemetry.counter("api.failures");
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        RequestBody body = request.body();
+        if (body != null && body.contentLength() > 0) {
+            bytesSent.add(body.contentLength());
+        }
+
+        long startNanos = System.nanoTime();
+        try {
+            Response response = chain.proceed(request);
+            if (!response.isSuccessful()) {
+                failures.increment();
+            }
+            return response;
+        } catch (IOException e) {
+            failures.increment();
+            throw e;
+        } finally {
+            telemetry.histogram("api." + endpointName(request.url().encodedPath())).recordSince(startNanos);
+        }
+    }
+
+    /**
+     * 경로에서 에이전트 ID를 뺀 엔드포인트 이름 (예: /api/agents/{id}/metrics/batch → metrics_batch)
+     */
+    static String endpointName(String path) {
+        if (!path.startsWith(AGENT_PATH_PREFIX)) {
+            return "other";
+        }
+        String rest = path.substring(AGENT_PATH_PREFIX.length());
+        int slash = rest.indexOf('/');
+        String endpoint = slash < 0 ? rest : rest.substring(slash + 1);
+        return endpoint.isEmpty() ? "other" : endpoint.replace('/', '_').replace('-', '_');
+    }
+}
@@ -0,0 +1,257 @@
+package led.mega.agent.client;
+
+import led.mega.agent.telemetry.AgentTelemetry;
+import led.mega.agent.telemetry.LatencyHistogram;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okio.ByteString;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 웹서버와 연결을 유지하는 텔레메트리 스트림 (WebSocket)
+ * 핸드셰이크에서 한 번만 API 키로 인증하고, 이후에는 메시지마다 순번(seq)을 붙여 보냅니다.
+ * 서버가 같은 순번으로 결과를 응답하면 전송이 끝난 것으로 보고, 연결이 없거나 응답이 오지 않으면
+ * null을 돌려 호출자가 HTTP로 다시 보내도록 합니다. (응답만 유실된 경우 중복 저장될 수 있음)
+ *
+ * 메시지 형식: type(1바이트) + seq(int64) + payload / 응답: 0x80 + seq(int64) + 결과(1바이트)
+ */
+@Slf4j
+public class TelemetryStream extends WebSocketListener {
+
+    public static final byte TYPE_METRIC_FRAME = 1;
+    public static final byte TYPE_EXCEPTION = 2;
+    public static final byte TYPE_HEARTBEAT = 3;
+    private static final byte TYPE_ACK = (byte) 0x80;
+
+    private static final int HEADER_SIZE = 1 + 8;
+    private static final long PING_INTERVAL_SECONDS = 30;
+    private static final long MIN_RECONNECT_MILLIS = 1000;
+    private static final long MAX_RECONNECT_MILLIS = 60000;
+
+    private final OkHttpClient client;
+    private final String url;
+    private final long ackTimeoutMillis;
+    private final AtomicLong nextSeq = new AtomicLong(1);
+    private final Map<Long, CompletableFuture<ApiClient.DeliveryStatus>> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final LatencyHistogram ackLatency = AgentTelemetry.getInstance().histogram("stream.ack");
+    private final LongAdder bytesSent = AgentTelemetry.getInstance().counter("stream.bytes_sent");
+    private final LongAdder ackTimeouts = AgentTelemetry.getInstance().counter("stream.ack_timeouts");
+
+    private volatile WebSocket webSocket;  // 연결이 열린 동안에만 설정
+    private volatile boolean running;
+    private volatile String apiKey;
+    private WebSocket current;  // 연결 시도 중이거나 열린 소켓 (this로 동기화)
+    private long reconnectDelayMillis = MIN_RECONNECT_MILLIS;
+
+    public TelemetryStream(OkHttpClient httpClient, String url, long ackTimeoutMillis) {
+        this.client = httpClient.newBuilder()
+            .readTimeout(0, TimeUnit.MILLISECONDS)
+            .pingInterval(PING_INTERVAL_SECONDS, TimeUnit.SECONDS)
+            .build();
+        this.url = url;
+        this.ackTimeoutMillis = ackTimeoutMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "telemetry-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 스트림 연결 시작 (끊어지면 지수 백오프로 재연결)
+     */
+    public void start(String apiKey) {
+        this.apiKey = apiKey;
+        this.running = true;
+        connect();
+    }
+
+    /**
+     * 스트림 종료
+     */
+    public void stop() {
+        running = false;
+        scheduler.shutdownNow();
+        WebSocket socket;
+        synchronized (this) {
+            socket = current;
+            current = null;
+            webSocket = null;
+        }
+        if (socket != null) {
+            socket.close(1000, "agent shutdown");
+        }
+        failPending();
+    }
+
+    public boolean isConnected() {
+        return webSocket != null;
+    }
+
+    /**
+     * 메시지를 보내고 서버 응답을 기다림
+     * @return 서버가 응답한 전송 결과, 스트림으로 보내지 못했으면 null
+     */
+    public ApiClient.DeliveryStatus send(byte type, byte[] payload) {
+        try {
+            return sendAsync(type, payload).get();
+        } catch (ExecutionException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * 메시지를 보내고 바로 반환
+     * @return 서버 응답으로 완료되는 결과 (보내지 못했거나 응답 시간이 초과되면 null로 완료)
+     */
+    public CompletableFuture<ApiClient.DeliveryStatus> sendAsync(byte type, byte[] payload) {
+        CompletableFuture<ApiClient.DeliveryStatus> ack = new CompletableFuture<>();
+        WebSocket socket = webSocket;
+        if (socket == null) {
+            ack.complete(null);
+            return ack;
+        }
+
+        long seq = nextSeq.getAndIncrement();
+        ByteBuffer message = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+        message.put(type).putLong(seq).put(payload);
+
+        long startNanos = System.nanoTime();
+        pending.put(seq, ack);
+        ack.whenComplete((status, e) -> {
+            pending.remove(seq);
+            if (status != null) {
+                ackLatency.recordSince(startNanos);
+            }
+        });
+        if (!socket.send(ByteString.of(message.array(), 0, message.capacity()))) {
+            ack.complete(null);
+            return ack;
+        }
+        bytesSent.add(message.capacity());
+        try {
+            scheduler.schedule(() -> {
+                if (ack.complete(null)) {
+                    ackTimeouts.increment();
+                    log.warn("텔레메트리 스트림 응답 시간 초과: seq={}", seq);
+                }
+            }, ackTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // 종료 중
+            ack.complete(null);
+        }
+        return ack;
+    }
+
+    @Override
+    public void onOpen(WebSocket webSocket, Response response) {
+        synchronized (this) {
+            if (webSocket != current) {
+                webSocket.cancel();
+                return;
+            }
+            this.webSocket = webSocket;
+            reconnectDelayMillis = MIN_RECONNECT_MILLIS;
+        }
+        log.info("텔레메트리 스트림 연결: {}", url);
+    }
+
+    @Override
+    public void onMessage(WebSocket webSocket, ByteString bytes) {
+        ByteBuffer buffer = bytes.asByteBuffer();
+        if (buffer.remaining() < HEADER_SIZE + 1 || buffer.get() != TYPE_ACK) {
+            log.warn("알 수 없는 텔레메트리 스트림 응답 ({}바이트)", bytes.size());
+            return;
+        }
+        long seq = buffer.getLong();
+        byte status = buffer.get();
+
+        CompletableFuture<ApiClient.DeliveryStatus> ack = pending.get(seq);
+        if (ack != null) {
+            ack.complete(status == 0 ? ApiClient.DeliveryStatus.DELIVERED
+                : status == 1 ? ApiClient.DeliveryStatus.REJECTED : ApiClient.DeliveryStatus.FAILED);
+        }
+    }
+
+    @Override
+    public void onClosing(WebSocket webSocket, int code, String reason) {
+        webSocket.close(1000, null);
+        disconnected(webSocket, "서버 종료 " + code);
+    }
+
+    @Override
+    public void onClosed(WebSocket webSocket, int code, String reason) {
+        disconnected(webSocket, "종료 " + code);
+    }
+
+    @Override
+    public void onFailure(WebSocket webSocket, Throwable t, Response response) {
+        disconnected(webSocket, response != null ? "HTTP " + response.code() : String.valueOf(t.getMessage()));
+    }
+
+    private synchronized void connect() {
+        if (!running) {
+            return;
+        }
+        Request request = new Request.Builder()
+            .url(url)
+            .addHeader("Authorization", "Bearer " + apiKey)
+            .build();
+        current = client.newWebSocket(request, this);
+    }
+
+    /**
+     * 연결 종료/실패 처리 후 재연결 예약
+     */
+    private void disconnected(WebSocket socket, String reason) {
+        long delay;
+        synchronized (this) {
+            // 이미 처리한 소켓(onClosing 이후 onClosed 등)은 무시
+            if (socket != current) {
+                return;
+            }
+            current = null;
+            webSocket = null;
+            delay = reconnectDelayMillis;
+            reconnectDelayMillis = Math.min(reconnectDelayMillis * 2, MAX_RECONNECT_MILLIS);
+        }
+        failPending();
+        if (!running) {
+            return;
+        }
+        log.warn("텔레메트리 스트림 연결 끊김 ({}), {}ms 후 재연결 (그동안 HTTP로 전송)", reason, delay);
+        try {
+            scheduler.schedule(this::connect, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // 종료 중
+        }
+    }
+
+    /**
+     * 응답을 기다리는 전송을 모두 깨워 HTTP로 보내도록 함
+     */
+    private void failPending() {
+        for (CompletableFuture<ApiClient.DeliveryStatus> ack : pending.values()) {
+            ack.complete(null);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package led.mega.agent.collector;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * cgroup v2 + 자원 압박(PSI) 수집기
+ * 컨테이너 안에서는 free/top이 호스트 값을 보여주므로, 에이전트가 속한 cgroup의 memory.current/max/stat,
+ * cpu.stat/max, io.stat을 직접 읽어 컨테이너 기준 사용량과 CPU 스로틀링을 계산합니다.
+ * 압박 지표는 cgroup의 *.pressure가 있으면 그것(컨테이너 기준), 없으면 /proc/pressure/*(호스트 기준)를 읽습니다.
+ */
+@Slf4j
+public class CgroupCollector {
+
+    private static final byte[] UNIFIED = ProcFile.ascii("0::");
+    private static final byte[] ANON = ProcFile.ascii("anon ");
+    private static final byte[] FILE = ProcFile.ascii("file ");
+    private static final byte[] INACTIVE_FILE = ProcFile.ascii("inactive_file ");
+    private static final byte[] USAGE_USEC = ProcFile.ascii("usage_usec ");
+    private static final byte[] NR_PERIODS = ProcFile.ascii("nr_periods ");
+    private static final byte[] NR_THROTTLED = ProcFile.ascii("nr_throttled ");
+    private static final byte[] THROTTLED_USEC = ProcFile.ascii("throttled_usec ");
+    private static final byte[] RBYTES = ProcFile.ascii("rbytes");
+    private static final byte[] WBYTES = ProcFile.ascii("wbytes");
+    private static final byte[] RIOS = ProcFile.ascii("rios");
+    private static final byte[] WIOS = ProcFile.ascii("wios");
+    private static final byte[] SOME = ProcFile.ascii("some ");
+    private static final byte[] FULL = ProcFile.ascii("full ");
+    private static final byte EQUALS = '=';
+
+    // cgroup v2가 아니면 null
+    private final Path cgroupDir;
+    private final ProcFile memoryCurrent;
+    private final ProcFile memoryMax;
+    private final ProcFile memoryStat;
+    private final ProcFile cpuStat;
+    private final ProcFile cpuMax;
+    private final ProcFile ioStat;
+    // 없으면 null
+    private final ProcFile cpuPressure;
+    private final ProcFile memoryPressure;
+    private final ProcFile ioPressure;
+
+    // 직전 수집 시점의 누적 카운터
+    private long prevUsageUsec;
+    private long prevPeriods;
+    private long prevThrottled;
+    private long prevThrottledUsec;
+    private long prevReadBytes;
+    private long prevWriteBytes;
+    private long prevReadOps;
+    private long prevWriteOps;
+    private long previousNanos;
+
+    public CgroupCollector() {
+        this("/proc/self/cgroup", "/sys/fs/cgroup", "/proc/pressure");
+    }
+
+    /**
+     * @param selfCgroupPath 에이전트의 cgroup 경로 파일 (/proc/self/cgroup)
+     * @param cgroupRoot cgroup v2 마운트 위치
+     * @param pressureDir 시스템 전체 PSI 디렉터리
+     */
+    public CgroupCollector(String selfCgroupPath, String cgroupRoot, String pressureDir) {
+        this.cgroupDir = findCgroupDir(Paths.get(selfCgroupPath), Paths.get(cgroupRoot));
+        this.memoryCurrent = cgroupFile("memory.current");
+        this.memoryMax = cgroupFile("memory.max");
+        this.memoryStat = cgroupFile("memory.stat");
+        this.cpuStat = cgroupFile("cpu.stat");
+        this.cpuMax = cgroupFile("cpu.max");
+        this.ioStat = cgroupFile("io.stat");
+        this.cpuPressure = pressureFile("cpu", pressureDir);
+        this.memoryPressure = pressureFile("memory", pressureDir);
+        this.ioPressure = pressureFile("io", pressureDir);
+        if (cgroupDir != null) {
+            log.info("cgroup v2 수집 경로: {}", cgroupDir);
+        }
+    }
+
+    public boolean isCgroupV2() {
+        return cgroupDir != null;
+    }
+
+    public boolean isSupported() {
+        return cgroupDir != null || cpuPressure != null || memoryPressure != null || ioPressure != null;
+    }
+
+    /**
+     * cgroup 사용량과 압박 지표 수집
+     *
+     * @return 첫 수집이면 false (누적 카운터 기준값만 저장)
+     */
+    public synchronized boolean collect(CgroupSample sample) {
+        long nowNanos = System.nanoTime();
+        double elapsedSeconds = previousNanos > 0 ? (nowNanos - previousNanos) / 1e9 : 0;
+        previousNanos = nowNanos;
+
+        sample.reset();
+        readMemory(sample);
+        readCpu(sample, elapsedSeconds);
+        readIo(sample, elapsedSeconds);
+        readPressure(cpuPressure, sample.cpuPressure);
+        readPressure(memoryPressure, sample.memoryPressure);
+        readPressure(ioPressure, sample.ioPressure);
+        return elapsedSeconds > 0;
+    }
+
+    private void readMemory(CgroupSample sample) {
+        if (memoryCurrent != null && memoryCurrent.read()) {
+            sample.memoryCurrentBytes = memoryCurrent.nextLong();
+        }
+        // "max"면 숫자가 아니므로 -1 (제한 없음)
+        if (memoryMax != null && memoryMax.read()) {
+            sample.memoryMaxBytes = memoryMax.nextLong();
+        }
+        if (memoryStat != null && memoryStat.read()) {
+            do {
+                if (memoryStat.startsWith(ANON)) {
+                    memoryStat.skipToken();
+                    sample.memoryAnonBytes = memoryStat.nextLong();
+                } else if (memoryStat.startsWith(FILE)) {
+                    memoryStat.skipToken();
+                    sample.memoryFileBytes = memoryStat.nextLong();
+                } else if (memoryStat.startsWith(INACTIVE_FILE)) {
+                    memoryStat.skipToken();
+                    sample.memoryInactiveFileBytes = memoryStat.nextLong();
+                }
+            } while (memoryStat.nextLine());
+        }
+    }
+
+    private void readCpu(CgroupSample sample, double elapsedSeconds) {
+        if (cpuMax != null && cpuMax.read()) {
+            long quota = cpuMax.nextLong();  // "max"면 -1
+            long period = quota > 0 ? cpuMax.nextLong() : -1;
+            if (period > 0) {
+                sample.cpuLimitCores = (double) quota / period;
+            }
+        }
+        if (cpuStat == null || !cpuStat.read()) {
+            return;
+        }
+        long usageUsec = 0;
+        long periods = 0;
+        long throttled = 0;
+        long throttledUsec = 0;
+        do {
+            if (cpuStat.startsWith(USAGE_USEC)) {
+                cpuStat.skipToken();
+                usageUsec = cpuStat.nextLong();
+            } else if (cpuStat.startsWith(NR_PERIODS)) {
+                cpuStat.skipToken();
+                periods = cpuStat.nextLong();
+            } else if (cpuStat.startsWith(NR_THROTTLED)) {
+                cpuStat.skipToken();
+                throttled = cpuStat.nextLong();
+            } else if (cpuStat.startsWith(THROTTLED_USEC)) {
+                cpuStat.skipToken();
+                throttledUsec = cpuStat.nextLong();
+            }
+        } while (cpuStat.nextLine());
+
+        if (elapsedSeconds > 0) {
+            double usedCores = Math.max(0, usageUsec - prevUsageUsec) / 1e6 / elapsedSeconds;
+            double limitCores = sample.cpuLimitCores > 0 ? sample.cpuLimitCores : Runtime.getRuntime().availableProcessors();
+            long dPeriods = periods - prevPeriods;
+            sample.cpuUsagePercent = usedCores / limitCores * 100;
+            sample.cpuThrottledPercent = dPeriods > 0 ? (double) Math.max(0, throttled - prevThrottled) / dPeriods * 100 : 0;
+            sample.cpuThrottledMillisPerSecond = Math.max(0, throttledUsec - prevThrottledUsec) / 1e3 / elapsedSeconds;
+            sample.cpuStatRead = true;
+        }
+        prevUsageUsec = usageUsec;
+        prevPeriods = periods;
+        prevThrottled = throttled;
+        prevThrottledUsec = throttledUsec;
+    }
+
+    /**
+     * io.stat의 장치별 줄(예: 8:0 rbytes=1 wbytes=2 rios=3 wios=4 dbytes=0 dios=0)을 합산
+     */
+    private void readIo(CgroupSample sample, double elapsedSeconds) {
+        if (ioStat == null || !ioStat.read()) {
+            return;
+        }
+        long readBytes = 0;
+        long writeBytes = 0;
+        long readOps = 0;
+        long writeOps = 0;
+        do {
+            if (ioStat.atEndOfLine()) {
+                continue;
+            }
+            ioStat.skipToken();  // 장치 번호
+            while (!ioStat.atEndOfLine()) {
+                if (ioStat.fieldEquals(RBYTES, EQUALS)) {
+                    readBytes += Math.max(0, ioStat.nextLong());
+                } else if (ioStat.fieldEquals(WBYTES, EQUALS)) {
+                    writeBytes += Math.max(0, ioStat.nextLong());
+                } else if (ioStat.fieldEquals(RIOS, EQUALS)) {
+                    readOps += Math.max(0, ioStat.nextLong());
+                } else if (ioStat.fieldEquals(WIOS, EQUALS)) {
+                    writeOps += Math.max(0, ioStat.nextLong());
+                } else {
+                    ioStat.skipToken();
+                }
+            }
+        } while (ioStat.nextLine());
+
+        if (elapsedSeconds > 0) {
+            sample.ioReadBytesPerSecond = Math.max(0, readBytes - prevReadBytes) / elapsedSeconds;
+            sample.ioWriteBytesPerSecond = Math.max(0, writeBytes - prevWriteBytes) / elapsedSeconds;
+            sample.ioReadOpsPerSecond = Math.max(0, readOps - prevReadOps) / elapsedSeconds;
+            sample.ioWriteOpsPerSecond = Math.max(0, writeOps - prevWriteOps) / elapsedSeconds;
+            sample.ioStatRead = true;
+        }
+        prevReadBytes = readBytes;
+        prevWriteBytes = writeBytes;
+        prevReadOps = readOps;
+        prevWriteOps = writeOps;
+    }
+
+    /**
+     * PSI 파일 읽기 (줄 형식: some avg10=0.00 avg60=0.00 avg300=0.00 total=0)
+     */
+    private static void readPressure(ProcFile file, CgroupSample.Pressure pressure) {
+        if (file == null || !file.read()) {
+            return;
+        }
+        if (file.findLine(SOME)) {
+            pressure.someAvg10 = file.skipPast(EQUALS) ? file.nextDecimal() : -1;
+            pressure.someAvg60 = file.skipPast(EQUALS) ? file.nextDecimal() : -1;
+            pressure.read = true;
+        }
+        file.rewind();
+        if (file.findLine(FULL)) {
+            pressure.fullAvg10 = file.skipPast(EQUALS) ? file.nextDecimal() : -1;
+            pressure.fullAvg60 = file.skipPast(EQUALS) ? file.nextDecimal() : -1;
+        }
+    }
+
+    /**
+     * /proc/self/cgroup의 통합 계층(0::) 경로로 에이전트의 cgroup 디렉터리 찾기 (cgroup v2가 아니면 null)
+     */
+    private static Path findCgroupDir(Path selfCgroupPath, Path cgroupRoot) {
+        if (!Files.isReadable(cgroupRoot.resolve("cgroup.controllers"))) {
+            return null;
+        }
+        ProcFile selfCgroup = new ProcFile(selfCgroupPath, 1024);
+        try {
+            if (selfCgroup.read() && selfCgroup.findLine(UNIFIED)) {
+                String relative = selfCgroup.nextToken();
+                Path dir = cgroupRoot.resolve(relative.startsWith("/") ? relative.substring(1) : relative).normalize();
+                // cgroup 네임스페이스 밖의 경로면 마운트 위치에서 보이지 않으므로 루트 사용
+                if (dir.startsWith(cgroupRoot) && Files.isDirectory(dir)) {
+                    return dir;
+                }
+            }
+            return cgroupRoot;
+        } finally {
+            selfCgroup.close();
+        }
+    }
+
+    private ProcFile cgroupFile(String name) {
+        if (cgroupDir == null || !Files.isReadable(cgroupDir.resolve(name))) {
+            return null;
+        }
+        return new ProcFile(cgroupDir.resolve(name), 4096);
+    }
+
+    private ProcFile pressureFile(String resource, String pressureDir) {
+        ProcFile cgroupPressure = cgroupFile(resource + ".pressure");
+        if (cgroupPressure != null) {
+            return cgroupPressure;
+        }
+        Path path = Paths.get(pressureDir, resource);
+        return Files.isReadable(path) ? new ProcFile(path, 1024) : null;
+    }
+}
@@ -0,0 +1,126 @@
+package led.mega.agent.collector;
+
+/**
+ * cgroup v2 + PSI 샘플 (누적 카운터는 직전 수집 이후 증가분 기준 초당 값)
+ * 수집기마다 하나를 만들어 두고 매 수집 때 값만 덮어씁니다. 읽지 못한 값은 -1입니다.
+ */
+public class CgroupSample {
+
+    long memoryCurrentBytes;
+    long memoryMaxBytes;
+    long memoryAnonBytes;
+    long memoryFileBytes;
+    long memoryInactiveFileBytes;
+
+    boolean cpuStatRead;
+    double cpuUsagePercent;
+    double cpuLimitCores;
+    double cpuThrottledPercent;
+    double cpuThrottledMillisPerSecond;
+
+    boolean ioStatRead;
+    double ioReadBytesPerSecond;
+    double ioWriteBytesPerSecond;
+    double ioReadOpsPerSecond;
+    double ioWriteOpsPerSecond;
+
+    final Pressure cpuPressure = new Pressure();
+    final Pressure memoryPressure = new Pressure();
+    final Pressure ioPressure = new Pressure();
+
+    void reset() {
+        memoryCurrentBytes = memoryMaxBytes = memoryAnonBytes = memoryFileBytes = memoryInactiveFileBytes = -1;
+        cpuStatRead = ioStatRead = false;
+        cpuUsagePercent = cpuLimitCores = cpuThrottledPercent = cpuThrottledMillisPerSecond = -1;
+        ioReadBytesPerSecond = ioWriteBytesPerSecond = ioReadOpsPerSecond = ioWriteOpsPerSecond = -1;
+        cpuPressure.reset();
+        memoryPressure.reset();
+        ioPressure.reset();
+    }
+
+    public long getMemoryCurrentBytes() { return memoryCurrentBytes; }
+
+    /**
+     * memory.max (제한이 없으면 -1)
+     */
+    public long getMemoryMaxBytes() { return memoryMaxBytes; }
+    public long getMemoryAnonBytes() { return memoryAnonBytes; }
+    public long getMemoryFileBytes() { return memoryFileBytes; }
+
+    /**
+     * 작업 집합 (memory.current - inactive_file, 회수하기 어려운 메모리로 kubelet의 축출 기준과 같음)
+     */
+    public long getWorkingSetBytes() {
+        if (memoryCurrentBytes < 0) {
+            return -1;
+        }
+        return Math.max(0, memoryCurrentBytes - Math.max(0, memoryInactiveFileBytes));
+    }
+
+    /**
+     * 메모리 제한 대비 작업 집합 비율 (제한이 없으면 -1)
+     */
+    public double getMemoryUsagePercent() {
+        long workingSet = getWorkingSetBytes();
+        return memoryMaxBytes > 0 && workingSet >= 0 ? (double) workingSet / memoryMaxBytes * 100 : -1;
+    }
+
+    public boolean isCpuStatRead() { return cpuStatRead; }
+
+    /**
+     * CPU 제한(cpu.max, 없으면 사용 가능한 코어 수) 대비 사용률
+     */
+    public double getCpuUsagePercent() { return cpuUsagePercent; }
+
+    /**
+     * cpu.max의 코어 수 환산값 (제한이 없으면 -1)
+     */
+    public double getCpuLimitCores() { return cpuLimitCores; }
+
+    /**
+     * CFS 주기 중 할당량을 다 써서 멈춘 주기의 비율
+     */
+    public double getCpuThrottledPercent() { return cpuThrottledPercent; }
+
+    /**
+     * 초당 스로틀링으로 멈춘 시간 (ms)
+     */
+    public double getCpuThrottledMillisPerSecond() { return cpuThrottledMillisPerSecond; }
+
+    public boolean isIoStatRead() { return ioStatRead; }
+    public double getIoReadBytesPerSecond() { return ioReadBytesPerSecond; }
+    public double getIoWriteBytesPerSecond() { return ioWriteBytesPerSecond; }
+    public double getIoReadOpsPerSecond() { return ioReadOpsPerSecond; }
+    public double getIoWriteOpsPerSecond() { return ioWriteOpsPerSecond; }
+
+    public Pressure getCpuPressure() { return cpuPressure; }
+    public Pressure getMemoryPressure() { return memoryPressure; }
+    public Pressure getIoPressure() { return ioPressure; }
+
+    /**
+     * 자원 압박 지표 (PSI, 최근 10초/60초 동안 작업이 자원을 기다리며 멈춘 시간 비율, %)
+     * some: 하나 이상의 작업이 멈춤, full: 유휴가 아닌 모든 작업이 멈춤
+     */
+    public static class Pressure {
+        boolean read;
+        double someAvg10;
+        double someAvg60;
+        double fullAvg10;
+        double fullAvg60;
+
+        void reset() {
+            read = false;
+            someAvg10 = someAvg60 = fullAvg10 = fullAvg60 = -1;
+        }
+
+        public boolean isRead() { return read; }
+        public double getSomeAvg10() { return someAvg10; }
+        public double getSomeAvg60() { return someAvg60; }
+
+        /**
+         * full 줄이 없으면 -1 (커널 5.13 미만의 시스템 전체 CPU 등)
+         */
+        public double getFullAvg10() { return fullAvg10; }
+        public double getFullAvg60() { return fullAvg60; }
+    }
+}
@@ -0,0 +1,36 @@
+package led.mega.agent.collector;
+
+/**
+ * /proc 누적 카운터 계산
+ */
+final class Counters {
+
+    // 32비트 커널의 카운터 최댓값
+    private static final long COUNTER_32_MAX = 0xFFFFFFFFL;
+    // 한 바퀴 돈 것으로 볼 수 있는 최대 증가분 (카운터 범위의 절반, 그 이상이면 재설정으로 봄)
+    private static final long MAX_WRAP_DELTA = (COUNTER_32_MAX + 1) / 2;
+
+    private Counters() {
+    }
+
+    /**
+     * 카운터 증가분
+     * 값이 줄었을 때 이전 값이 32비트 최댓값에 가까워 한 바퀴 돈 증가분이 범위의 절반보다 작으면 한 바퀴 돈 것으로,
+     * 그 외에는 재설정(재부팅, 인터페이스 재생성 등)된 것으로 보고 현재 값을 증가분으로 사용
+     */
+    static long delta(long current, long previous) {
+        if (current < 0 || previous < 0) {
+            return 0;
+        }
+        if (current >= previous) {
+            return current - previous;
+        }
+        if (previous <= COUNTER_32_MAX) {
+            long wrapped = current + (COUNTER_32_MAX + 1) - previous;
+            if (wrapped < MAX_WRAP_DELTA) {
+                return wrapped;
+            }
+        }
+        return current;
+    }
+}
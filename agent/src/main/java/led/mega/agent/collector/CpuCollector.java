@@ -0,0 +1,90 @@
+package led.mega.agent.collector;
+
+/**
+ * CPU 사용률 수집기
+ * top 대신 /proc/stat의 전체 CPU 줄을 읽고, 직전 수집과의 jiffy 차이로 사용률을 계산합니다.
+ */
+public class CpuCollector {
+    
+    private static final byte[] CPU = ProcFile.ascii("cpu ");
+    
+    private final ProcFile stat;
+    
+    // 직전 수집 시점의 누적 jiffy
+    private long prevUser;
+    private long prevNice;
+    private long prevSystem;
+    private long prevIdle;
+    private long prevIowait;
+    private long prevIrq;
+    private long prevSoftirq;
+    private long prevSteal;
+    private boolean primed;
+    
+    public CpuCollector() {
+        this("/proc/stat");
+    }
+    
+    public CpuCollector(String statPath) {
+        this.stat = new ProcFile(statPath);
+        // 첫 수집부터 차이를 계산할 수 있도록 기준값 저장
+        collect(new CpuSample());
+    }
+    
+    public boolean isSupported() {
+        return stat.exists();
+    }
+    
+    /**
+     * CPU 샘플 수집
+     *
+     * @return 첫 수집이거나 경과 jiffy가 없으면 false
+     */
+    public synchronized boolean collect(CpuSample sample) {
+        if (!stat.read() || !stat.findLine(CPU)) {
+            return false;
+        }
+        long user = stat.nextLong();
+        long nice = stat.nextLong();
+        long system = stat.nextLong();
+        long idle = stat.nextLong();
+        long iowait = Math.max(0, stat.nextLong());
+        long irq = Math.max(0, stat.nextLong());
+        long softirq = Math.max(0, stat.nextLong());
+        long steal = Math.max(0, stat.nextLong());
+        
+        long dUser = user - prevUser;
+        long dNice = nice - prevNice;
+        long dSystem = system - prevSystem;
+        long dIdle = idle - prevIdle;
+        long dIowait = iowait - prevIowait;
+        long dIrq = irq - prevIrq;
+        long dSoftirq = softirq - prevSoftirq;
+        long dSteal = steal - prevSteal;
+        boolean wasPrimed = primed;
+        
+        prevUser = user;
+        prevNice = nice;
+        prevSystem = system;
+        prevIdle = idle;
+        prevIowait = iowait;
+        prevIrq = irq;
+        prevSoftirq = softirq;
+        prevSteal = steal;
+        primed = true;
+        
+        long total = dUser + dNice + dSystem + dIdle + dIowait + dIrq + dSoftirq + dSteal;
+        if (!wasPrimed || total <= 0) {
+            return false;
+        }
+        
+        double scale = 100.0 / total;
+        sample.usagePercent = (total - dIdle - dIowait) * scale;
+        sample.userPercent = (dUser + dNice) * scale;
+        sample.systemPercent = (dSystem + dIrq + dSoftirq) * scale;
+        sample.iowaitPercent = dIowait * scale;
+        sample.stealPercent = dSteal * scale;
+        sample.elapsedJiffies = total;
+        return true;
+    }
+}
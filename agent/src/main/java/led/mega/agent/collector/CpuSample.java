@@ -0,0 +1,21 @@
+package led.mega.agent.collector;
+
+/**
+ * CPU 샘플 (직전 수집 이후 jiffy 증가분 기준 비율, %)
+ */
+public class CpuSample {
+    
+    double usagePercent;
+    double userPercent;
+    double systemPercent;
+    double iowaitPercent;
+    double stealPercent;
+    long elapsedJiffies;
+    
+    public double getUsagePercent() { return usagePercent; }
+    public double getUserPercent() { return userPercent; }
+    public double getSystemPercent() { return systemPercent; }
+    public double getIowaitPercent() { return iowaitPercent; }
+    public double getStealPercent() { return stealPercent; }
+    public long getElapsedJiffies() { return elapsedJiffies; }
+}
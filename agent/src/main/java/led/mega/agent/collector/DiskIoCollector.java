@@ -0,0 +1,119 @@
+package led.mega.agent.collector;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 블록 장치 I/O 수집기
+ * iostat 대신 /proc/diskstats를 직접 읽어 직전 수집과의 카운터 차이로 장치별 IOPS, 처리량, 사용률, 평균 응답 시간을 계산합니다.
+ * 파티션(/sys/block에 없는 장치)과 제외 접두사(loop 등)에 해당하는 장치는 건너뛰고, 장치 이름은 처음 볼 때만 문자열로 만듭니다.
+ */
+public class DiskIoCollector {
+
+    private final ProcFile diskstats;
+    private final Path sysBlock;
+    private final boolean sysBlockAvailable;
+    private final List<String> excludedPrefixes;
+
+    // 지금까지 본 장치 (사라지면 제거)
+    private final List<DiskIoSample> devices = new ArrayList<>();
+    private final long[] counters = new long[DiskIoSample.FIELD_COUNT];
+    private long previousNanos;
+
+    public DiskIoCollector(List<String> excludedPrefixes) {
+        this("/proc/diskstats", "/sys/block", excludedPrefixes);
+    }
+
+    /**
+     * @param sysBlockPath 파티션이 아닌 장치 목록 (/sys/block, 없으면 파티션을 거르지 않음)
+     * @param excludedPrefixes 수집하지 않을 장치 이름 접두사 (loop, ram 등)
+     */
+    public DiskIoCollector(String diskstatsPath, String sysBlockPath, List<String> excludedPrefixes) {
+        this.diskstats = new ProcFile(Paths.get(diskstatsPath), 8192);
+        this.sysBlock = Paths.get(sysBlockPath);
+        this.sysBlockAvailable = Files.isDirectory(sysBlock);
+        this.excludedPrefixes = excludedPrefixes;
+    }
+
+    public boolean isSupported() {
+        return diskstats.exists();
+    }
+
+    /**
+     * 장치별 I/O 샘플 수집
+     *
+     * @return 첫 수집이거나 /proc/diskstats를 읽지 못하면 false (첫 수집은 기준값만 저장)
+     */
+    public synchronized boolean collect(List<DiskIoSample> samples) {
+        if (!diskstats.read()) {
+            return false;
+        }
+        long nowNanos = System.nanoTime();
+        double elapsedSeconds = previousNanos > 0 ? (nowNanos - previousNanos) / 1e9 : 0;
+        previousNanos = nowNanos;
+
+        samples.clear();
+        for (DiskIoSample device : devices) {
+            device.seen = false;
+        }
+        do {
+            if (diskstats.atEndOfLine()) {
+                continue;
+            }
+            diskstats.nextLong();  // major
+            diskstats.nextLong();  // minor
+            DiskIoSample device = findDevice();
+            if (device == null || device.excluded) {
+                continue;
+            }
+            for (int i = 0; i < counters.length; i++) {
+                counters[i] = diskstats.nextLong();
+            }
+            if (device.update(counters, elapsedSeconds)) {
+                samples.add(device);
+            }
+        } while (diskstats.nextLine());
+
+        // 사라진 장치 정리
+        for (Iterator<DiskIoSample> it = devices.iterator(); it.hasNext(); ) {
+            if (!it.next().seen) {
+                it.remove();
+            }
+        }
+        return elapsedSeconds > 0;
+    }
+
+    /**
+     * 현재 줄의 장치 (처음 보는 이름이면 등록)
+     */
+    private DiskIoSample findDevice() {
+        for (DiskIoSample device : devices) {
+            if (diskstats.tokenEquals(device.nameBytes)) {
+                device.seen = true;
+                return device;
+            }
+        }
+        String name = diskstats.nextToken();
+        if (name.isEmpty()) {
+            return null;
+        }
+        DiskIoSample device = new DiskIoSample(name, isExcluded(name));
+        device.seen = true;
+        devices.add(device);
+        return device;
+    }
+
+    private boolean isExcluded(String name) {
+        for (String prefix : excludedPrefixes) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        // 파티션은 /sys/block 아래에 없음 (장치 이름의 /는 !로 표시)
+        return sysBlockAvailable && !Files.exists(sysBlock.resolve(name.replace('/', '!')));
+    }
+}
@@ -0,0 +1,99 @@
+package led.mega.agent.collector;
+
+/**
+ * 블록 장치 I/O 샘플 (직전 수집 이후 /proc/diskstats 카운터 증가분 기준)
+ * 수집기가 장치마다 하나를 만들어 두고 매 수집 때 값만 덮어씁니다.
+ */
+public class DiskIoSample {
+
+    // /proc/diskstats의 장치 이름 뒤 필드 순서 (커널 Documentation/admin-guide/iostats.rst)
+    static final int FIELD_COUNT = 11;
+    private static final int READS = 0;
+    private static final int SECTORS_READ = 2;
+    private static final int READ_MILLIS = 3;
+    private static final int WRITES = 4;
+    private static final int SECTORS_WRITTEN = 6;
+    private static final int WRITE_MILLIS = 7;
+    private static final int IO_MILLIS = 9;
+    private static final int WEIGHTED_IO_MILLIS = 10;
+
+    // 섹터 크기는 장치와 관계없이 512바이트 단위로 기록됨
+    private static final int SECTOR_BYTES = 512;
+
+    private final String name;
+    final byte[] nameBytes;
+    final boolean excluded;
+    private final long[] previous = new long[FIELD_COUNT];
+    private boolean primed;
+    boolean seen;
+
+    double readsPerSecond;
+    double writesPerSecond;
+    double readBytesPerSecond;
+    double writeBytesPerSecond;
+    double utilizationPercent;
+    double averageQueueSize;
+    double readAwaitMillis;
+    double writeAwaitMillis;
+
+    DiskIoSample(String name, boolean excluded) {
+        this.name = name;
+        this.nameBytes = ProcFile.ascii(name);
+        this.excluded = excluded;
+    }
+
+    /**
+     * 누적 카운터로 초당 값 갱신 (iostat -x와 같은 계산)
+     *
+     * @return 첫 수집이거나 경과 시간이 없으면 false (기준값만 저장)
+     */
+    boolean update(long[] counters, double elapsedSeconds) {
+        boolean wasPrimed = primed;
+        if (wasPrimed && elapsedSeconds > 0) {
+            long reads = delta(counters, READS);
+            long writes = delta(counters, WRITES);
+            double elapsedMillis = elapsedSeconds * 1000;
+            readsPerSecond = reads / elapsedSeconds;
+            writesPerSecond = writes / elapsedSeconds;
+            readBytesPerSecond = (double) delta(counters, SECTORS_READ) * SECTOR_BYTES / elapsedSeconds;
+            writeBytesPerSecond = (double) delta(counters, SECTORS_WRITTEN) * SECTOR_BYTES / elapsedSeconds;
+            utilizationPercent = Math.min(100, delta(counters, IO_MILLIS) / elapsedMillis * 100);
+            averageQueueSize = delta(counters, WEIGHTED_IO_MILLIS) / elapsedMillis;
+            readAwaitMillis = reads > 0 ? (double) delta(counters, READ_MILLIS) / reads : 0;
+            writeAwaitMillis = writes > 0 ? (double) delta(counters, WRITE_MILLIS) / writes : 0;
+        }
+        System.arraycopy(counters, 0, previous, 0, FIELD_COUNT);
+        primed = true;
+        return wasPrimed && elapsedSeconds > 0;
+    }
+
+    private long delta(long[] counters, int field) {
+        return Counters.delta(counters[field], previous[field]);
+    }
+
+    public String getName() { return name; }
+    public double getReadsPerSecond() { return readsPerSecond; }
+    public double getWritesPerSecond() { return writesPerSecond; }
+    public double getReadBytesPerSecond() { return readBytesPerSecond; }
+    public double getWriteBytesPerSecond() { return writeBytesPerSecond; }
+
+    /**
+     * 장치가 I/O를 처리 중이던 시간 비율 (병렬 처리하는 SSD/NVMe에서는 100%여도 포화가 아닐 수 있음)
+     */
+    public double getUtilizationPercent() { return utilizationPercent; }
+
+    /**
+     * 평균 대기열 길이 (처리 중 + 대기 중인 요청 수)
+     */
+    public double getAverageQueueSize() { return averageQueueSize; }
+    public double getReadAwaitMillis() { return readAwaitMillis; }
+    public double getWriteAwaitMillis() { return writeAwaitMillis; }
+
+    /**
+     * 읽기/쓰기 전체 평균 응답 시간 (ms)
+     */
+    public double getAwaitMillis() {
+        double ops = readsPerSecond + writesPerSecond;
+        return ops > 0 ? (readAwaitMillis * readsPerSecond + writeAwaitMillis * writesPerSecond) / ops : 0;
+    }
+}
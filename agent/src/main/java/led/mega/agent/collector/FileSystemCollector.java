@@ -0,0 +1,104 @@
+package led.mega.agent.collector;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 파일시스템 사용량 수집기
+ * df -h 대신 /proc/mounts로 마운트 목록을 얻고 java.nio.file.FileStore로 용량을 조회합니다.
+ */
+@Slf4j
+public class FileSystemCollector {
+    
+    // 용량 개념이 없는 가상 파일시스템
+    private static final Set<String> PSEUDO_FS_TYPES = new HashSet<>(Arrays.asList(
+        "proc", "sysfs", "cgroup", "cgroup2", "devpts", "mqueue", "debugfs", "tracefs",
+        "securityfs", "pstore", "bpf", "configfs", "fusectl", "hugetlbfs", "autofs",
+        "binfmt_misc", "rpc_pipefs", "nsfs", "selinuxfs", "efivarfs", "squashfs", "ramfs"
+    ));
+    
+    private final ProcFile mounts;
+    
+    public FileSystemCollector() {
+        this("/proc/mounts");
+    }
+    
+    public FileSystemCollector(String mountsPath) {
+        this.mounts = new ProcFile(mountsPath);
+    }
+    
+    public boolean isSupported() {
+        return mounts.exists();
+    }
+    
+    /**
+     * 마운트 포인트별 사용량 수집
+     *
+     * @return 마운트 목록을 읽지 못하면 false
+     */
+    public boolean collect(List<FileSystemSample> samples) {
+        if (!mounts.read()) {
+            return false;
+        }
+        samples.clear();
+        Set<String> seenMountPoints = new HashSet<>();
+        
+        do {
+            if (mounts.atEndOfLine()) {
+                continue;
+            }
+            String device = mounts.nextToken();
+            String mountPoint = unescape(mounts.nextToken());
+            String fsType = mounts.nextToken();
+            if (PSEUDO_FS_TYPES.contains(fsType) || !seenMountPoints.add(mountPoint)) {
+                continue;
+            }
+            
+            try {
+                FileStore store = Files.getFileStore(Paths.get(mountPoint));
+                long total = store.getTotalSpace();
+                if (total <= 0) {
+                    continue;
+                }
+                long free = store.getUnallocatedSpace();
+                long available = store.getUsableSpace();
+                samples.add(new FileSystemSample(device, mountPoint, fsType, total, total - free, available));
+            } catch (IOException | SecurityException e) {
+                log.debug("파일시스템 용량 조회 실패: {} ({})", mountPoint, e.getMessage());
+            }
+        } while (mounts.nextLine());
+        return true;
+    }
+    
+    /**
+     * /proc/mounts의 8진수 이스케이프(\040 등) 복원
+     */
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 3 < value.length()) {
+                try {
+                    sb.append((char) Integer.parseInt(value.substring(i + 1, i + 4), 8));
+                    i += 3;
+                    continue;
+                } catch (NumberFormatException ignored) {
+                    // 이스케이프가 아니면 그대로 둠
+                }
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,42 @@
+package led.mega.agent.collector;
+
+/**
+ * 파일시스템 사용량 샘플 (마운트 포인트 단위, byte)
+ */
+public class FileSystemSample {
+    
+    private final String device;
+    private final String mountPoint;
+    private final String fsType;
+    private final long totalBytes;
+    private final long usedBytes;
+    private final long availableBytes;
+    
+    public FileSystemSample(String device, String mountPoint, String fsType,
+                            long totalBytes, long usedBytes, long availableBytes) {
+        this.device = device;
+        this.mountPoint = mountPoint;
+        this.fsType = fsType;
+        this.totalBytes = totalBytes;
+        this.usedBytes = usedBytes;
+        this.availableBytes = availableBytes;
+    }
+    
+    public String getDevice() { return device; }
+    public String getMountPoint() { return mountPoint; }
+    public String getFsType() { return fsType; }
+    public long getTotalBytes() { return totalBytes; }
+    public long getUsedBytes() { return usedBytes; }
+    public long getAvailableBytes() { return availableBytes; }
+    
+    /**
+     * 사용률 (df와 동일하게 used / (used + avail), 올림)
+     */
+    public double getUsePercent() {
+        long denominator = usedBytes + availableBytes;
+        if (denominator <= 0) {
+            return 0;
+        }
+        return Math.ceil((double) usedBytes * 100 / denominator);
+    }
+}
@@ -0,0 +1,71 @@
+package led.mega.agent.collector;
+
+/**
+ * 메모리 수집기
+ * free -m 대신 /proc/meminfo를 직접 읽습니다.
+ */
+public class MemoryCollector {
+    
+    private static final byte[] MEM_TOTAL = ProcFile.ascii("MemTotal:");
+    private static final byte[] MEM_FREE = ProcFile.ascii("MemFree:");
+    private static final byte[] MEM_AVAILABLE = ProcFile.ascii("MemAvailable:");
+    private static final byte[] BUFFERS = ProcFile.ascii("Buffers:");
+    private static final byte[] CACHED = ProcFile.ascii("Cached:");
+    private static final byte[] S_RECLAIMABLE = ProcFile.ascii("SReclaimable:");
+    private static final byte[] SWAP_TOTAL = ProcFile.ascii("SwapTotal:");
+    private static final byte[] SWAP_FREE = ProcFile.ascii("SwapFree:");
+    
+    private final ProcFile meminfo;
+    
+    public MemoryCollector() {
+        this("/proc/meminfo");
+    }
+    
+    public MemoryCollector(String meminfoPath) {
+        this.meminfo = new ProcFile(meminfoPath);
+    }
+    
+    public boolean isSupported() {
+        return meminfo.exists();
+    }
+    
+    /**
+     * 메모리 샘플 수집
+     *
+     * @return 읽기에 실패하면 false
+     */
+    public boolean collect(MemorySample sample) {
+        if (!meminfo.read()) {
+            return false;
+        }
+        sample.reset();
+        do {
+            if (meminfo.startsWith(MEM_TOTAL)) {
+                meminfo.skipToken();
+                sample.totalKb = meminfo.nextLong();
+            } else if (meminfo.startsWith(MEM_FREE)) {
+                meminfo.skipToken();
+                sample.freeKb = meminfo.nextLong();
+            } else if (meminfo.startsWith(MEM_AVAILABLE)) {
+                meminfo.skipToken();
+                sample.availableKb = meminfo.nextLong();
+            } else if (meminfo.startsWith(BUFFERS)) {
+                meminfo.skipToken();
+                sample.buffersKb = meminfo.nextLong();
+            } else if (meminfo.startsWith(CACHED)) {
+                meminfo.skipToken();
+                sample.cachedKb = meminfo.nextLong();
+            } else if (meminfo.startsWith(S_RECLAIMABLE)) {
+                meminfo.skipToken();
+                sample.reclaimableKb = meminfo.nextLong();
+            } else if (meminfo.startsWith(SWAP_TOTAL)) {
+                meminfo.skipToken();
+                sample.swapTotalKb = meminfo.nextLong();
+            } else if (meminfo.startsWith(SWAP_FREE)) {
+                meminfo.skipToken();
+                sample.swapFreeKb = meminfo.nextLong();
+            }
+        } while (meminfo.nextLine());
+        return sample.totalKb > 0;
+    }
+}
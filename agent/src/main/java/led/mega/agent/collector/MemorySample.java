@@ -0,0 +1,60 @@
+package led.mega.agent.collector;
+
+/**
+ * 메모리 샘플 (/proc/meminfo 값, kB 단위)
+ * 수집기마다 하나를 만들어 두고 매 수집 때 값만 덮어씁니다.
+ */
+public class MemorySample {
+    
+    long totalKb;
+    long freeKb;
+    long availableKb;
+    long buffersKb;
+    long cachedKb;
+    long reclaimableKb;
+    long swapTotalKb;
+    long swapFreeKb;
+    
+    void reset() {
+        totalKb = freeKb = buffersKb = cachedKb = reclaimableKb = swapTotalKb = swapFreeKb = 0;
+        availableKb = -1;
+    }
+    
+    public long getTotalKb() { return totalKb; }
+    public long getFreeKb() { return freeKb; }
+    public long getBuffersKb() { return buffersKb; }
+    public long getCachedKb() { return cachedKb; }
+    public long getSwapTotalKb() { return swapTotalKb; }
+    public long getSwapFreeKb() { return swapFreeKb; }
+    
+    /**
+     * 사용 가능 메모리 (MemAvailable이 없는 오래된 커널은 free + buffers + cache로 추정)
+     */
+    public long getAvailableKb() {
+        return availableKb >= 0 ? availableKb : freeKb + buffersKb + cachedKb + reclaimableKb;
+    }
+    
+    /**
+     * 사용 중 메모리 (최신 free 명령어와 동일하게 total - available)
+     */
+    public long getUsedKb() {
+        long used = totalKb - getAvailableKb();
+        return used >= 0 ? used : totalKb - freeKb;
+    }
+    
+    public long getSwapUsedKb() {
+        return swapTotalKb - swapFreeKb;
+    }
+    
+    public double getUsedPercent() {
+        return totalKb > 0 ? (double) getUsedKb() / totalKb * 100 : 0;
+    }
+    
+    public double getFreePercent() {
+        return totalKb > 0 ? (double) freeKb / totalKb * 100 : 0;
+    }
+    
+    public double getSwapUsedPercent() {
+        return swapTotalKb > 0 ? (double) getSwapUsedKb() / swapTotalKb * 100 : 0;
+    }
+}
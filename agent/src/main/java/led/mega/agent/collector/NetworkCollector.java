@@ -0,0 +1,164 @@
+package led.mega.agent.collector;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 네트워크 수집기
+ * ss/netstat 대신 /proc/net/dev(인터페이스별 누적 카운터)와 /proc/net/tcp, tcp6(소켓 상태)를 직접 읽습니다.
+ * 트래픽은 직전 수집과의 카운터 차이로 초당 값을 계산하고, 인터페이스 이름은 처음 볼 때만 문자열로 만듭니다.
+ */
+public class NetworkCollector {
+
+    private static final byte COLON = ':';
+
+    private final ProcFile dev;
+    private final ProcFile tcp;
+    private final ProcFile tcp6;
+    private final boolean tcpSupported;
+    private final boolean tcp6Supported;
+    private final List<String> excludedPrefixes;
+
+    // 지금까지 본 인터페이스 (사라지면 제거)
+    private final List<NetworkInterfaceSample> interfaces = new ArrayList<>();
+    private final long[] counters = new long[NetworkInterfaceSample.FIELD_COUNT];
+    private long previousNanos;
+
+    public NetworkCollector(List<String> excludedPrefixes) {
+        this("/proc/net", excludedPrefixes);
+    }
+
+    /**
+     * @param procNetPath /proc/net 경로
+     * @param excludedPrefixes 수집하지 않을 인터페이스 이름 접두사 (lo, veth 등)
+     */
+    public NetworkCollector(String procNetPath, List<String> excludedPrefixes) {
+        this.dev = new ProcFile(Paths.get(procNetPath, "dev"), 4096);
+        this.tcp = new ProcFile(Paths.get(procNetPath, "tcp"), 64 * 1024);
+        this.tcp6 = new ProcFile(Paths.get(procNetPath, "tcp6"), 64 * 1024);
+        this.tcpSupported = tcp.exists();
+        this.tcp6Supported = tcp6.exists();
+        this.excludedPrefixes = excludedPrefixes;
+    }
+
+    public boolean isSupported() {
+        return dev.exists();
+    }
+
+    /**
+     * 네트워크 샘플 수집
+     *
+     * @return 첫 수집이거나 /proc/net/dev를 읽지 못하면 false (첫 수집은 기준값만 저장)
+     */
+    public synchronized boolean collect(NetworkSample sample) {
+        if (!dev.read()) {
+            return false;
+        }
+        long nowNanos = System.nanoTime();
+        double elapsedSeconds = previousNanos > 0 ? (nowNanos - previousNanos) / 1e9 : 0;
+        previousNanos = nowNanos;
+
+        sample.interfaces.clear();
+        for (NetworkInterfaceSample iface : interfaces) {
+            iface.seen = false;
+        }
+        // 헤더 두 줄 건너뛰기
+        if (dev.nextLine() && dev.nextLine()) {
+            do {
+                if (dev.atEndOfLine()) {
+                    continue;
+                }
+                NetworkInterfaceSample iface = findInterface();
+                if (iface == null || iface.excluded) {
+                    continue;
+                }
+                for (int i = 0; i < counters.length; i++) {
+                    counters[i] = dev.nextLong();
+                }
+                if (iface.update(counters, elapsedSeconds)) {
+                    sample.interfaces.add(iface);
+                }
+            } while (dev.nextLine());
+        }
+        // 사라진 인터페이스 정리
+        for (Iterator<NetworkInterfaceSample> it = interfaces.iterator(); it.hasNext(); ) {
+            if (!it.next().seen) {
+                it.remove();
+            }
+        }
+
+        sample.resetTcp();
+        if (tcpSupported) {
+            sample.tcpCollected |= countTcp(tcp, sample);
+        }
+        if (tcp6Supported) {
+            sample.tcpCollected |= countTcp(tcp6, sample);
+        }
+        return elapsedSeconds > 0;
+    }
+
+    /**
+     * 현재 줄의 인터페이스 (처음 보는 이름이면 등록)
+     */
+    private NetworkInterfaceSample findInterface() {
+        for (NetworkInterfaceSample iface : interfaces) {
+            if (dev.fieldEquals(iface.nameBytes, COLON)) {
+                iface.seen = true;
+                return iface;
+            }
+        }
+        String name = dev.nextField(COLON);
+        if (name == null || name.isEmpty()) {
+            return null;
+        }
+        NetworkInterfaceSample iface = new NetworkInterfaceSample(name, isExcluded(name));
+        iface.seen = true;
+        interfaces.add(iface);
+        return iface;
+    }
+
+    private boolean isExcluded(String name) {
+        for (String prefix : excludedPrefixes) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * /proc/net/tcp(6)의 상태별 소켓 수와 리슨 소켓 accept 대기열 길이 합산
+     * (줄 형식: sl local_address rem_address st tx_queue:rx_queue ..., 리슨 소켓의 rx_queue는 accept 대기 연결 수)
+     */
+    private static boolean countTcp(ProcFile file, NetworkSample sample) {
+        if (!file.read()) {
+            return false;
+        }
+        if (file.nextLine()) {
+            do {
+                if (file.atEndOfLine()) {
+                    continue;
+                }
+                file.skipToken();  // sl
+                file.skipToken();  // local_address
+                file.skipToken();  // rem_address
+                long state = file.nextHex();
+                if (state <= 0 || state >= NetworkSample.TCP_STATE_COUNT) {
+                    continue;
+                }
+                sample.tcpStates[(int) state]++;
+                if (state == NetworkSample.TCP_LISTEN) {
+                    file.nextHex();  // tx_queue
+                    long backlog = file.skipPast(COLON) ? file.nextHex() : -1;
+                    if (backlog > 0) {
+                        sample.listenBacklog += backlog;
+                        sample.maxListenBacklog = Math.max(sample.maxListenBacklog, backlog);
+                    }
+                }
+            } while (file.nextLine());
+        }
+        return true;
+    }
+}
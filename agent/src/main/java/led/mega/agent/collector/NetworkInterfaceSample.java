@@ -0,0 +1,77 @@
+package led.mega.agent.collector;
+
+/**
+ * 네트워크 인터페이스 샘플 (직전 수집 이후 /proc/net/dev 카운터 증가분 기준 초당 값)
+ * 수집기가 인터페이스마다 하나를 만들어 두고 매 수집 때 값만 덮어씁니다.
+ */
+public class NetworkInterfaceSample {
+
+    // /proc/net/dev 필드 순서 (수신 8개, 송신 8개)
+    static final int FIELD_COUNT = 16;
+    private static final int RX_BYTES = 0;
+    private static final int RX_PACKETS = 1;
+    private static final int RX_ERRORS = 2;
+    private static final int RX_DROPS = 3;
+    private static final int TX_BYTES = 8;
+    private static final int TX_PACKETS = 9;
+    private static final int TX_ERRORS = 10;
+    private static final int TX_DROPS = 11;
+
+    private final String name;
+    final byte[] nameBytes;
+    final boolean excluded;
+    private final long[] previous = new long[FIELD_COUNT];
+    private boolean primed;
+    boolean seen;
+
+    double rxBytesPerSecond;
+    double txBytesPerSecond;
+    double rxPacketsPerSecond;
+    double txPacketsPerSecond;
+    double rxErrorsPerSecond;
+    double txErrorsPerSecond;
+    double rxDropsPerSecond;
+    double txDropsPerSecond;
+
+    NetworkInterfaceSample(String name, boolean excluded) {
+        this.name = name;
+        this.nameBytes = ProcFile.ascii(name);
+        this.excluded = excluded;
+    }
+
+    /**
+     * 누적 카운터로 초당 값 갱신
+     *
+     * @return 첫 수집이거나 경과 시간이 없으면 false (기준값만 저장)
+     */
+    boolean update(long[] counters, double elapsedSeconds) {
+        boolean wasPrimed = primed;
+        if (wasPrimed && elapsedSeconds > 0) {
+            rxBytesPerSecond = rate(counters, RX_BYTES, elapsedSeconds);
+            txBytesPerSecond = rate(counters, TX_BYTES, elapsedSeconds);
+            rxPacketsPerSecond = rate(counters, RX_PACKETS, elapsedSeconds);
+            txPacketsPerSecond = rate(counters, TX_PACKETS, elapsedSeconds);
+            rxErrorsPerSecond = rate(counters, RX_ERRORS, elapsedSeconds);
+            txErrorsPerSecond = rate(counters, TX_ERRORS, elapsedSeconds);
+            rxDropsPerSecond = rate(counters, RX_DROPS, elapsedSeconds);
+            txDropsPerSecond = rate(counters, TX_DROPS, elapsedSeconds);
+        }
+        System.arraycopy(counters, 0, previous, 0, FIELD_COUNT);
+        primed = true;
+        return wasPrimed && elapsedSeconds > 0;
+    }
+
+    private double rate(long[] counters, int field, double elapsedSeconds) {
+        return Counters.delta(counters[field], previous[field]) / elapsedSeconds;
+    }
+
+    public String getName() { return name; }
+    public double getRxBytesPerSecond() { return rxBytesPerSecond; }
+    public double getTxBytesPerSecond() { return txBytesPerSecond; }
+    public double getRxPacketsPerSecond() { return rxPacketsPerSecond; }
+    public double getTxPacketsPerSecond() { return txPacketsPerSecond; }
+    public double getRxErrorsPerSecond() { return rxErrorsPerSecond; }
+    public double getTxErrorsPerSecond() { return txErrorsPerSecond; }
+    public double getRxDropsPerSecond() { return rxDropsPerSecond; }
+    public double getTxDropsPerSecond() { return txDropsPerSecond; }
+}
@@ -0,0 +1,84 @@
+package led.mega.agent.collector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 네트워크 샘플 (인터페이스별 초당 트래픽 + TCP 상태별 연결 수)
+ * 수집기마다 하나를 만들어 두고 매 수집 때 값만 덮어씁니다.
+ */
+public class NetworkSample {
+
+    // /proc/net/tcp의 st 값 (커널 include/net/tcp_states.h 순서)
+    public static final int TCP_ESTABLISHED = 1;
+    public static final int TCP_SYN_SENT = 2;
+    public static final int TCP_SYN_RECV = 3;
+    public static final int TCP_FIN_WAIT1 = 4;
+    public static final int TCP_FIN_WAIT2 = 5;
+    public static final int TCP_TIME_WAIT = 6;
+    public static final int TCP_CLOSE = 7;
+    public static final int TCP_CLOSE_WAIT = 8;
+    public static final int TCP_LAST_ACK = 9;
+    public static final int TCP_LISTEN = 10;
+    public static final int TCP_CLOSING = 11;
+    public static final int TCP_NEW_SYN_RECV = 12;
+    public static final int TCP_STATE_COUNT = 13;
+
+    private static final String[] TCP_STATE_NAMES = {
+        null, "established", "synSent", "synRecv", "finWait1", "finWait2", "timeWait",
+        "close", "closeWait", "lastAck", "listen", "closing", "newSynRecv"
+    };
+
+    final List<NetworkInterfaceSample> interfaces = new ArrayList<>();
+    final int[] tcpStates = new int[TCP_STATE_COUNT];
+    long listenBacklog;
+    long maxListenBacklog;
+    boolean tcpCollected;
+
+    void resetTcp() {
+        Arrays.fill(tcpStates, 0);
+        listenBacklog = maxListenBacklog = 0;
+        tcpCollected = false;
+    }
+
+    /**
+     * 초당 값을 계산한 인터페이스 (제외 설정된 인터페이스와 첫 수집은 빠짐)
+     */
+    public List<NetworkInterfaceSample> getInterfaces() { return interfaces; }
+    public boolean isTcpCollected() { return tcpCollected; }
+
+    /**
+     * 리슨 소켓의 accept 대기열에 쌓인 연결 수 합계
+     */
+    public long getListenBacklog() { return listenBacklog; }
+
+    /**
+     * accept 대기열이 가장 긴 리슨 소켓의 대기 연결 수
+     */
+    public long getMaxListenBacklog() { return maxListenBacklog; }
+
+    /**
+     * 상태별 TCP 소켓 수 (IPv4 + IPv6)
+     */
+    public int getTcpStateCount(int state) {
+        return state > 0 && state < tcpStates.length ? tcpStates[state] : 0;
+    }
+
+    /**
+     * 리슨 소켓을 뺀 TCP 연결 수
+     */
+    public int getTcpConnections() {
+        int total = 0;
+        for (int state = 1; state < tcpStates.length; state++) {
+            if (state != TCP_LISTEN) {
+                total += tcpStates[state];
+            }
+        }
+        return total;
+    }
+
+    public static String getTcpStateName(int state) {
+        return state > 0 && state < TCP_STATE_NAMES.length ? TCP_STATE_NAMES[state] : null;
+    }
+}
@@ -0,0 +1,428 @@
+package led.mega.agent.collector;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * /proc 의사 파일 리더
+ * 파일 채널을 열어 둔 채 매번 0번 위치부터 다시 읽어 재사용 버퍼에 담고,
+ * 커서 기반으로 숫자/토큰을 직접 파싱합니다. (읽기/파싱 과정에서 객체를 생성하지 않음)
+ */
+public class ProcFile implements Closeable {
+    
+    private final Path path;
+    private FileChannel channel;
+    private byte[] data;
+    private ByteBuffer buffer;
+    private int length;
+    private int pos;
+    
+    public ProcFile(String path) {
+        this(Paths.get(path), 4096);
+    }
+    
+    /**
+     * 경로 없이 버퍼만 가진 리더 (readOnce로 여러 파일을 번갈아 읽을 때 사용)
+     */
+    public ProcFile(int initialCapacity) {
+        this(null, initialCapacity);
+    }
+    
+    public ProcFile(Path path, int initialCapacity) {
+        this.path = path;
+        this.data = new byte[initialCapacity];
+        this.buffer = ByteBuffer.wrap(data);
+    }
+    
+    /**
+     * 파일이 존재하는지 여부
+     */
+    public boolean exists() {
+        return path != null && Files.isReadable(path);
+    }
+    
+    /**
+     * 파일 전체를 버퍼로 다시 읽기 (커서는 처음으로 이동)
+     *
+     * @return 읽기에 실패하면 false
+     */
+    public boolean read() {
+        try {
+            if (channel == null) {
+                channel = FileChannel.open(path, StandardOpenOption.READ);
+            }
+            fill(channel);
+            return true;
+        } catch (IOException e) {
+            close();
+            length = 0;
+            pos = 0;
+            return false;
+        }
+    }
+    
+    /**
+     * 다른 파일을 열어 같은 버퍼로 한 번 읽고 닫기 (커서는 처음으로 이동)
+     * 프로세스별 파일처럼 대상이 많아 파일을 열어 둘 수 없을 때 사용합니다.
+     *
+     * @return 읽기에 실패하면 false (프로세스가 종료된 경우 등)
+     */
+    public boolean readOnce(Path file) {
+        try (FileChannel once = FileChannel.open(file, StandardOpenOption.READ)) {
+            fill(once);
+            return true;
+        } catch (IOException e) {
+            length = 0;
+            pos = 0;
+            return false;
+        }
+    }
+    
+    private void fill(FileChannel source) throws IOException {
+        while (true) {
+            buffer.clear();
+            long position = 0;
+            int read;
+            while (buffer.hasRemaining() && (read = source.read(buffer, position)) > 0) {
+                position += read;
+            }
+            if (!buffer.hasRemaining()) {
+                // 버퍼가 가득 찼으면 두 배로 늘려 처음부터 다시 읽기
+                data = new byte[data.length * 2];
+                buffer = ByteBuffer.wrap(data);
+                continue;
+            }
+            length = buffer.position();
+            pos = 0;
+            return;
+        }
+    }
+    
+    /**
+     * 커서를 처음으로 이동
+     */
+    public void rewind() {
+        pos = 0;
+    }
+    
+    public boolean hasRemaining() {
+        return pos < length;
+    }
+    
+    /**
+     * 현재 줄이 prefix로 시작하는 줄을 찾아 커서를 prefix 바로 뒤로 이동 (현재 위치부터 검색)
+     */
+    public boolean findLine(byte[] prefix) {
+        while (pos < length) {
+            if (startsWith(prefix)) {
+                pos += prefix.length;
+                return true;
+            }
+            if (!nextLine()) {
+                return false;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * 현재 위치가 prefix로 시작하는지 여부 (커서는 이동하지 않음)
+     */
+    public boolean startsWith(byte[] prefix) {
+        if (pos + prefix.length > length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (data[pos + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * 다음 줄의 시작으로 이동
+     *
+     * @return 다음 줄이 없으면 false
+     */
+    public boolean nextLine() {
+        while (pos < length && data[pos] != '\n') {
+            pos++;
+        }
+        if (pos < length) {
+            pos++;
+        }
+        return pos < length;
+    }
+    
+    /**
+     * 현재 줄의 끝인지 여부 (공백은 무시)
+     */
+    public boolean atEndOfLine() {
+        skipBlanks();
+        return pos >= length || data[pos] == '\n';
+    }
+    
+    /**
+     * 다음 정수 파싱 (앞의 공백은 건너뜀, 같은 줄에 숫자가 없으면 -1)
+     */
+    public long nextLong() {
+        skipBlanks();
+        if (pos >= length || data[pos] == '\n') {
+            return -1;
+        }
+        boolean negative = false;
+        if (data[pos] == '-') {
+            negative = true;
+            pos++;
+        }
+        long value = 0;
+        boolean digits = false;
+        while (pos < length) {
+            byte b = data[pos];
+            if (b < '0' || b > '9') {
+                break;
+            }
+            value = value * 10 + (b - '0');
+            digits = true;
+            pos++;
+        }
+        if (!digits) {
+            return -1;
+        }
+        return negative ? -value : value;
+    }
+    
+    /**
+     * 다음 0 이상의 소수 파싱 (PSI의 avg10=1.23 같은 고정 소수점 값용, 같은 줄에 숫자가 없으면 -1)
+     */
+    public double nextDecimal() {
+        long integer = nextLong();
+        if (integer < 0) {
+            return -1;
+        }
+        double fraction = 0;
+        if (pos < length && data[pos] == '.') {
+            pos++;
+            double scale = 0.1;
+            while (pos < length && data[pos] >= '0' && data[pos] <= '9') {
+                fraction += (data[pos] - '0') * scale;
+                scale /= 10;
+                pos++;
+            }
+        }
+        return integer + fraction;
+    }
+    
+    /**
+     * 다음 16진수 정수 파싱 (앞의 공백은 건너뜀, 같은 줄에 16진수가 없으면 -1)
+     */
+    public long nextHex() {
+        skipBlanks();
+        long value = 0;
+        boolean digits = false;
+        while (pos < length) {
+            int digit = hexDigit(data[pos]);
+            if (digit < 0) {
+                break;
+            }
+            value = (value << 4) | digit;
+            digits = true;
+            pos++;
+        }
+        return digits ? value : -1;
+    }
+    
+    /**
+     * 공백이 아닌 다음 토큰 건너뛰기
+     */
+    public void skipToken() {
+        skipBlanks();
+        while (pos < length && !isBlank(data[pos]) && data[pos] != '\n') {
+            pos++;
+        }
+    }
+    
+    /**
+     * 다음 토큰을 문자열로 반환 (이름처럼 드물게 바뀌는 값에만 사용)
+     */
+    public String nextToken() {
+        skipBlanks();
+        int start = pos;
+        while (pos < length && !isBlank(data[pos]) && data[pos] != '\n') {
+            pos++;
+        }
+        return new String(data, start, pos - start, StandardCharsets.US_ASCII);
+    }
+    
+    /**
+     * 다음 토큰이 expected와 같은지 비교하고, 같으면 건너뜀
+     */
+    public boolean tokenEquals(byte[] expected) {
+        skipBlanks();
+        int end = pos;
+        while (end < length && !isBlank(data[end]) && data[end] != '\n') {
+            end++;
+        }
+        if (end - pos != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (data[pos + i] != expected[i]) {
+                return false;
+            }
+        }
+        pos = end;
+        return true;
+    }
+    
+    /**
+     * 지정한 문자 앞까지의 필드가 expected와 같은지 비교하고, 같으면 그 문자 바로 뒤로 이동 (앞의 공백은 건너뜀)
+     */
+    public boolean fieldEquals(byte[] expected, byte delimiter) {
+        skipBlanks();
+        int end = pos + expected.length;
+        if (end >= length || data[end] != delimiter) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (data[pos + i] != expected[i]) {
+                return false;
+            }
+        }
+        pos = end + 1;
+        return true;
+    }
+    
+    /**
+     * 지정한 문자 앞까지의 필드를 문자열로 반환하고 그 문자 바로 뒤로 이동 (같은 줄에 없으면 null, 이름처럼 드물게 바뀌는 값에만 사용)
+     */
+    public String nextField(byte delimiter) {
+        skipBlanks();
+        int start = pos;
+        int end = pos;
+        while (end < length && data[end] != delimiter) {
+            if (data[end] == '\n') {
+                return null;
+            }
+            end++;
+        }
+        if (end >= length) {
+            return null;
+        }
+        pos = end + 1;
+        return new String(data, start, end - start, StandardCharsets.US_ASCII).trim();
+    }
+    
+    /**
+     * 지정한 문자까지 커서 이동 (같은 줄 안에서만, 찾으면 그 문자 바로 뒤)
+     */
+    public boolean skipPast(byte delimiter) {
+        while (pos < length && data[pos] != '\n') {
+            if (data[pos++] == delimiter) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * 같은 줄에서 마지막으로 나오는 지정한 문자 바로 뒤로 커서 이동 (/proc/[pid]/stat의 이름 뒤처럼 구분 문자가 이름에 섞일 수 있을 때)
+     */
+    public boolean skipPastLast(byte delimiter) {
+        int last = -1;
+        for (int i = pos; i < length && data[i] != '\n'; i++) {
+            if (data[i] == delimiter) {
+                last = i;
+            }
+        }
+        if (last < 0) {
+            return false;
+        }
+        pos = last + 1;
+        return true;
+    }
+    
+    /**
+     * 같은 줄에서 open 문자와 마지막 close 문자 사이의 문자열을 반환하고 close 문자 바로 뒤로 이동 (없으면 null)
+     */
+    public String nextEnclosed(byte open, byte close) {
+        if (!skipPast(open)) {
+            return null;
+        }
+        int start = pos;
+        if (!skipPastLast(close)) {
+            return null;
+        }
+        return new String(data, start, pos - 1 - start, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * 읽은 내용 전체를 문자열로 반환 (NUL 구분 문자는 공백으로 바꿈, /proc/[pid]/cmdline처럼 드물게 읽는 값에만 사용)
+     */
+    public String contentAsString() {
+        int end = length;
+        while (end > 0 && (data[end - 1] == 0 || data[end - 1] == '\n')) {
+            end--;
+        }
+        for (int i = 0; i < end; i++) {
+            if (data[i] == 0) {
+                data[i] = ' ';
+            }
+        }
+        return new String(data, 0, end, StandardCharsets.UTF_8);
+    }
+    
+    public Path getPath() {
+        return path;
+    }
+    
+    @Override
+    public void close() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // 닫기 실패는 무시
+            }
+            channel = null;
+        }
+    }
+    
+    private void skipBlanks() {
+        while (pos < length && isBlank(data[pos])) {
+            pos++;
+        }
+    }
+    
+    private static int hexDigit(byte b) {
+        if (b >= '0' && b <= '9') {
+            return b - '0';
+        }
+        if (b >= 'A' && b <= 'F') {
+            return b - 'A' + 10;
+        }
+        if (b >= 'a' && b <= 'f') {
+            return b - 'a' + 10;
+        }
+        return -1;
+    }
+    
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+    
+    /**
+     * 파싱용 ASCII 바이트 배열 생성
+     */
+    public static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,302 @@
+package led.mega.agent.collector;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 프로세스별 자원 수집기
+ * top/ps 대신 매 주기 /proc/[pid]/stat만 한 번씩 읽어 CPU 시간 차이로 사용률을 계산하고,
+ * 감시 목록 그룹과 CPU/메모리 사용량 상위 N개 그룹만 /proc/[pid]/status(RSS, 스왑)와 열린 fd 수를 추가로 조회합니다.
+ * 프로세스별 상태(파일 경로, 이름, 직전 CPU 시간)는 캐시해 두고, 읽기 버퍼 하나를 모든 파일에 재사용합니다.
+ */
+public class ProcessCollector {
+
+    // /proc/[pid]/stat의 CPU 시간 단위 (USER_HZ, 리눅스 사용자 공간 ABI에서 100으로 고정)
+    private static final double CLOCK_TICKS_PER_SECOND = 100;
+    private static final byte[] VM_RSS = ProcFile.ascii("VmRSS:");
+    private static final byte[] VM_SWAP = ProcFile.ascii("VmSwap:");
+
+    private static final Comparator<ProcessGroupSample> BY_CPU =
+        (a, b) -> Double.compare(b.cpuPercent, a.cpuPercent);
+    private static final Comparator<ProcessGroupSample> BY_RSS =
+        (a, b) -> Long.compare(b.rssPages, a.rssPages);
+
+    private final File procDir;
+    private final ProcFile reader = new ProcFile(4096);
+    private final int topCount;
+    private final List<String> watchNames;
+    private final Map<String, Pattern> watchCmdline = new LinkedHashMap<>();
+
+    // 디렉터리 이름(pid) → 프로세스 상태, 감시 목록 그룹, 그 외 이름별 그룹
+    private final Map<String, ProcessState> processes = new HashMap<>();
+    private final Map<String, ProcessGroupSample> watchedGroups = new LinkedHashMap<>();
+    private final Map<String, ProcessGroupSample> otherGroups = new HashMap<>();
+    private final List<ProcessGroupSample> ranking = new ArrayList<>();
+    private long generation;
+    private long previousNanos;
+
+    public ProcessCollector(int topCount, List<String> watchNames, Map<String, String> watchCmdline) {
+        this("/proc", topCount, watchNames, watchCmdline);
+    }
+
+    /**
+     * @param topCount CPU, 메모리 사용량 기준으로 각각 보고할 상위 그룹 수
+     * @param watchNames 항상 보고할 프로세스 이름 (/proc/[pid]/stat의 이름과 정확히 일치)
+     * @param watchCmdline 항상 보고할 그룹 이름 → 명령줄 정규식
+     */
+    public ProcessCollector(String procPath, int topCount, List<String> watchNames, Map<String, String> watchCmdline) {
+        this.procDir = new File(procPath);
+        this.topCount = Math.max(0, topCount);
+        this.watchNames = watchNames;
+        for (String name : watchNames) {
+            watchedGroups.put(name, new ProcessGroupSample(name, true));
+        }
+        for (Map.Entry<String, String> entry : watchCmdline.entrySet()) {
+            this.watchCmdline.put(entry.getKey(), Pattern.compile(entry.getValue()));
+            watchedGroups.putIfAbsent(entry.getKey(), new ProcessGroupSample(entry.getKey(), true));
+        }
+    }
+
+    public boolean isSupported() {
+        return new File(procDir, "self/stat").canRead();
+    }
+
+    /**
+     * 보고할 프로세스 그룹 수집 (감시 목록 그룹은 실행 중인 프로세스가 없어도 포함)
+     *
+     * @return 첫 수집이거나 /proc를 읽지 못하면 false (첫 수집은 기준값만 저장)
+     */
+    public synchronized boolean collect(List<ProcessGroupSample> samples) {
+        String[] entries = procDir.list();
+        if (entries == null) {
+            return false;
+        }
+        long nowNanos = System.nanoTime();
+        double elapsedSeconds = previousNanos > 0 ? (nowNanos - previousNanos) / 1e9 : 0;
+        previousNanos = nowNanos;
+        long current = ++generation;
+
+        for (ProcessGroupSample group : watchedGroups.values()) {
+            group.reset();
+        }
+        for (ProcessGroupSample group : otherGroups.values()) {
+            group.reset();
+        }
+
+        for (String entry : entries) {
+            if (!isPid(entry)) {
+                continue;
+            }
+            ProcessState state = processes.get(entry);
+            if (state == null) {
+                state = new ProcessState(Paths.get(procDir.getPath(), entry), Integer.parseInt(entry));
+                processes.put(entry, state);
+            }
+            if (!readStat(state, elapsedSeconds)) {
+                continue;  // 그 사이 종료된 프로세스
+            }
+            state.generation = current;
+
+            ProcessGroupSample group = state.watchLabel != null
+                ? watchedGroups.get(state.watchLabel)
+                : otherGroups.computeIfAbsent(state.name, name -> new ProcessGroupSample(name, false));
+            group.generation = current;
+            group.members.add(state);
+            group.cpuPercent += state.cpuPercent;
+            group.rssPages += state.rssPages;
+            group.threads += state.threads;
+        }
+        // 종료된 프로세스와 빈 그룹 정리
+        processes.values().removeIf(state -> state.generation != current);
+        otherGroups.values().removeIf(group -> group.generation != current);
+
+        samples.clear();
+        samples.addAll(watchedGroups.values());
+        selectTop(samples, BY_CPU);
+        selectTop(samples, BY_RSS);
+        for (ProcessGroupSample group : samples) {
+            readDetails(group);
+        }
+        return elapsedSeconds > 0;
+    }
+
+    /**
+     * /proc/[pid]/stat 읽기 (이름은 처음 볼 때만 문자열로 만들고, 이후에는 이름 뒤로 건너뛰어 숫자만 파싱)
+     * 필드: pid (comm) state ppid pgrp session tty_nr tpgid flags minflt cminflt majflt cmajflt
+     *       utime stime cutime cstime priority nice num_threads itrealvalue starttime vsize rss ...
+     */
+    private boolean readStat(ProcessState state, double elapsedSeconds) {
+        if (!reader.readOnce(state.statPath)) {
+            return false;
+        }
+        boolean identify = state.name == null;
+        if (identify) {
+            state.name = reader.nextEnclosed((byte) '(', (byte) ')');
+            if (state.name == null) {
+                return false;
+            }
+        } else if (!reader.skipPastLast((byte) ')')) {
+            return false;
+        }
+        reader.skipToken();  // state
+        for (int i = 0; i < 10; i++) {
+            reader.nextLong();  // ppid ~ cmajflt
+        }
+        long cpuTicks = reader.nextLong() + reader.nextLong();  // utime + stime
+        for (int i = 0; i < 4; i++) {
+            reader.nextLong();  // cutime ~ nice
+        }
+        long threads = reader.nextLong();
+        reader.nextLong();  // itrealvalue
+        long startTime = reader.nextLong();
+        reader.nextLong();  // vsize
+        long rssPages = reader.nextLong();
+
+        if (!identify && startTime != state.startTime) {
+            // 종료된 프로세스의 pid를 다른 프로세스가 재사용: 이름부터 다시 확인
+            state.name = null;
+            state.primed = false;
+            return readStat(state, elapsedSeconds);
+        }
+
+        state.cpuPercent = state.primed && elapsedSeconds > 0
+            ? Math.max(0, cpuTicks - state.cpuTicks) / CLOCK_TICKS_PER_SECOND / elapsedSeconds * 100
+            : 0;
+        state.cpuTicks = cpuTicks;
+        state.startTime = startTime;
+        state.threads = Math.max(0, threads);
+        state.rssPages = Math.max(0, rssPages);
+        state.primed = true;
+        if (identify) {
+            state.watchLabel = findWatchLabel(state);
+        }
+        return true;
+    }
+
+    /**
+     * 감시 목록 그룹 이름 (이름 일치가 명령줄 정규식보다 우선, 해당 없으면 null)
+     */
+    private String findWatchLabel(ProcessState state) {
+        if (watchNames.contains(state.name)) {
+            return state.name;
+        }
+        if (watchCmdline.isEmpty() || !reader.readOnce(state.directory.resolve("cmdline"))) {
+            return null;
+        }
+        String cmdline = reader.contentAsString();
+        for (Map.Entry<String, Pattern> entry : watchCmdline.entrySet()) {
+            if (entry.getValue().matcher(cmdline).find()) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 감시 목록 외 그룹 중 상위 N개 추가
+     */
+    private void selectTop(List<ProcessGroupSample> samples, Comparator<ProcessGroupSample> order) {
+        if (topCount == 0) {
+            return;
+        }
+        ranking.clear();
+        ranking.addAll(otherGroups.values());
+        ranking.sort(order);
+        for (int i = 0; i < ranking.size() && i < topCount; i++) {
+            ProcessGroupSample group = ranking.get(i);
+            if (!samples.contains(group)) {
+                samples.add(group);
+            }
+        }
+    }
+
+    /**
+     * 보고할 그룹만 /proc/[pid]/status(VmRSS, VmSwap)와 열린 fd 수 조회
+     */
+    private void readDetails(ProcessGroupSample group) {
+        for (ProcessState state : group.members) {
+            if (reader.readOnce(state.statusPath)) {
+                do {
+                    if (reader.startsWith(VM_RSS)) {
+                        reader.skipToken();
+                        group.rssKb += Math.max(0, reader.nextLong());
+                    } else if (reader.startsWith(VM_SWAP)) {
+                        reader.skipToken();
+                        group.swapKb += Math.max(0, reader.nextLong());
+                    }
+                } while (reader.nextLine());
+            }
+            long fds = countFds(state.fdPath);
+            if (fds >= 0) {
+                group.fds = Math.max(0, group.fds) + fds;
+            }
+        }
+    }
+
+    /**
+     * 열린 fd 수 (리눅스 6.2 이상은 fd 디렉터리 크기가 fd 수라 목록을 읽지 않음, 권한이 없으면 -1)
+     */
+    private static long countFds(Path fdPath) {
+        try {
+            long size = Files.size(fdPath);
+            if (size > 0) {
+                return size;
+            }
+        } catch (IOException | SecurityException e) {
+            return -1;
+        }
+        String[] fds = fdPath.toFile().list();
+        return fds != null ? fds.length : -1;
+    }
+
+    private static boolean isPid(String name) {
+        if (name.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 프로세스별 캐시 상태
+     */
+    static class ProcessState {
+        final int pid;
+        final Path directory;
+        final Path statPath;
+        final Path statusPath;
+        final Path fdPath;
+        String name;
+        String watchLabel;
+        long startTime;
+        long cpuTicks;
+        boolean primed;
+        long generation;
+        double cpuPercent;
+        long threads;
+        long rssPages;
+
+        ProcessState(Path directory, int pid) {
+            this.pid = pid;
+            this.directory = directory;
+            this.statPath = directory.resolve("stat");
+            this.statusPath = directory.resolve("status");
+            this.fdPath = directory.resolve("fd");
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package led.mega.agent.collector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 프로세스 그룹 샘플 (감시 목록 항목, 또는 같은 이름의 프로세스 묶음)
+ * 수집기가 그룹마다 하나를 만들어 두고 매 수집 때 값만 덮어씁니다.
+ */
+public class ProcessGroupSample {
+
+    private final String name;
+    private final String metricSuffix;
+    private final boolean watched;
+    final List<ProcessCollector.ProcessState> members = new ArrayList<>();
+    long generation;
+
+    double cpuPercent;
+    long rssPages;
+    long rssKb;
+    long swapKb;
+    long threads;
+    long fds;
+
+    ProcessGroupSample(String name, boolean watched) {
+        this.name = name;
+        this.metricSuffix = toMetricSuffix(name);
+        this.watched = watched;
+    }
+
+    void reset() {
+        members.clear();
+        cpuPercent = 0;
+        rssPages = rssKb = swapKb = threads = 0;
+        fds = -1;
+    }
+
+    /**
+     * 메트릭 이름에 쓸 수 있는 문자만 남긴 그룹 이름 (kworker/0:1 → kworker_0_1)
+     */
+    static String toMetricSuffix(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            boolean allowed = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '_' || c == '-' || c == '.';
+            sb.append(allowed ? c : '_');
+        }
+        return sb.toString();
+    }
+
+    public String getName() { return name; }
+    public String getMetricSuffix() { return metricSuffix; }
+    public boolean isWatched() { return watched; }
+    public int getProcessCount() { return members.size(); }
+
+    /**
+     * CPU 사용률 합계 (코어 하나를 100%로 봄, 여러 코어를 쓰면 100%를 넘음)
+     */
+    public double getCpuPercent() { return cpuPercent; }
+    public long getRssKb() { return rssKb; }
+    public long getSwapKb() { return swapKb; }
+    public long getThreads() { return threads; }
+
+    /**
+     * 열린 파일 디스크립터 수 합계 (권한이 없어 하나도 세지 못했으면 -1)
+     */
+    public long getFds() { return fds; }
+
+    /**
+     * 그룹에 속한 프로세스 ID (rawData용, 최대 limit개)
+     */
+    public List<Integer> getPids(int limit) {
+        List<Integer> pids = new ArrayList<>(Math.min(limit, members.size()));
+        for (int i = 0; i < members.size() && i < limit; i++) {
+            pids.add(members.get(i).pid);
+        }
+        return pids;
+    }
+}
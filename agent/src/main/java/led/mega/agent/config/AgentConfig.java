@@ -1,11 +1,17 @@
 package led.mega.agent.config;
 
+import led.mega.agent.scheduler.OverrunPolicy;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.TreeMap;
 
 /**
  * 에이전트 설정 관리 클래스
@@ -15,12 +21,71 @@ import java.util.Properties;
 @Getter
 public class AgentConfig {
     
+    // 서버가 JSON 일괄 전송 한 번에 받는 최대 건수 (MetricDataBatchRequestDto의 @Size, 넘으면 400으로 거부)
+    public static final int MAX_METRIC_BATCH_SIZE = 1000;
+    
     private String webserverUrl;
     private String apiKey;
     private String agentName;
     private String hostname;
     private String ipAddress;
     private int heartbeatIntervalSeconds;
+    private boolean requestCompressionEnabled;
+    private boolean metricFrameEnabled;
+    private boolean streamEnabled;
+    private int requestMaxInFlight;
+    private int requestQueueSize;
+    private int requestMaxAttempts;
+    private int streamAckTimeoutSeconds;
+    private int metricBatchSize;
+    private int metricBatchMaxAgeSeconds;
+    private int taskMemoryIntervalSeconds;
+    private int taskDiskIntervalSeconds;
+    private int taskCpuIntervalSeconds;
+    private int taskNetworkIntervalSeconds;
+    private List<String> taskNetworkExcludeInterfaces;
+    private int taskDiskIoIntervalSeconds;
+    private List<String> taskDiskIoExcludeDevices;
+    private int taskCgroupIntervalSeconds;
+    private int taskProcessIntervalSeconds;
+    private int taskProcessTopCount;
+    private List<String> taskProcessWatchNames;
+    private Map<String, String> taskProcessWatchCmdline;
+    private int taskExceptionIntervalSeconds;
+    private List<String> taskExceptionLogPaths;
+    private Map<String, List<String>> taskExceptionKeywords;
+    private Map<String, Integer> taskExceptionContextBefore;
+    private Map<String, Integer> taskExceptionContextAfter;
+    private String taskExceptionStateFile;
+    private int taskSyncIntervalSeconds;
+    private String taskLogStateDir;
+    private int commandTimeoutSeconds;
+    private int commandMaxOutputBytes;
+    private boolean commandCoprocessEnabled;
+    private long plannerShareWindowMillis;
+    private int telemetryReportIntervalSeconds;
+    private int aggregateWindowSeconds;
+    private int aggregateQuantileSamples;
+    private List<String> deadbandMetrics;
+    private double deadbandAbsolute;
+    private double deadbandRelative;
+    private Map<String, Double> deadbandAbsoluteOverrides;
+    private Map<String, Double> deadbandRelativeOverrides;
+    private int deadbandMaxSilenceSeconds;
+    private long schedulerTickMillis;
+    private int schedulerWorkerThreads;
+    private int schedulerWorkerQueueSize;
+    private OverrunPolicy schedulerOverrunPolicyDefault;
+    private Map<String, OverrunPolicy> schedulerOverrunPolicies;
+    private Map<String, Integer> schedulerDeadlineSeconds;
+    private int taskExceptionAggregateWindowSeconds;
+    private boolean taskExceptionReadFromStart;
+    private boolean taskExceptionWatchEnabled;
+    private long taskExceptionWatchDebounceMillis;
+    private boolean spoolEnabled;
+    private String spoolDir;
+    private long spoolSegmentSizeBytes;
+    private long spoolMaxSizeBytes;
     
     private static AgentConfig instance;
     
@@ -63,12 +128,223 @@ public class AgentConfig {
                 props.getProperty("heartbeat.interval.seconds", "30")
             );
             
+            // 작업 수집 주기 설정
+            taskMemoryIntervalSeconds = Integer.parseInt(
+                props.getProperty("task.memory.interval.seconds", "10")
+            );
+            taskDiskIntervalSeconds = Integer.parseInt(
+                props.getProperty("task.disk.interval.seconds", "600")
+            );
+            taskCpuIntervalSeconds = Integer.parseInt(
+                props.getProperty("task.cpu.interval.seconds", "5")
+            );
+            taskNetworkIntervalSeconds = Integer.parseInt(
+                props.getProperty("task.network.interval.seconds", "10")
+            );
+            taskNetworkExcludeInterfaces = splitList(props.getProperty("task.network.exclude.interfaces", "lo,veth"));
+            taskDiskIoIntervalSeconds = Integer.parseInt(
+                props.getProperty("task.diskio.interval.seconds", "5")
+            );
+            taskDiskIoExcludeDevices = splitList(props.getProperty("task.diskio.exclude.devices", "loop,ram"));
+            taskCgroupIntervalSeconds = Integer.parseInt(
+                props.getProperty("task.cgroup.interval.seconds", "10")
+            );
+            // 프로세스별 수집: 감시 목록(이름 또는 task.process.watch.cmdline.<이름>=정규식) + 상위 N개
+            taskProcessIntervalSeconds = Integer.parseInt(
+                props.getProperty("task.process.interval.seconds", "15")
+            );
+            taskProcessTopCount = Integer.parseInt(props.getProperty("task.process.top.count", "5"));
+            taskProcessWatchNames = splitList(props.getProperty("task.process.watch.names", ""));
+            taskProcessWatchCmdline = new TreeMap<>();
+            for (String key : props.stringPropertyNames()) {
+                if (key.startsWith("task.process.watch.cmdline.")) {
+                    taskProcessWatchCmdline.put(key.substring("task.process.watch.cmdline.".length()),
+                        props.getProperty(key).trim());
+                }
+            }
+            taskExceptionIntervalSeconds = Integer.parseInt(
+                props.getProperty("task.exception.interval.seconds", "600")
+            );
+            taskExceptionLogPaths = splitList(props.getProperty("task.exception.log.paths",
+                "/var/log/app/application.log,/var/log/app/error.log,/opt/app/logs/application.log,./logs/application.log"));
+            // Exception 키워드: 파일별 설정(task.exception.keywords.<경로>) > 공통 설정 > 기본 키워드
+            taskExceptionKeywords = new LinkedHashMap<>();
+            String commonKeywords = props.getProperty("task.exception.keywords");
+            for (String path : taskExceptionLogPaths) {
+                String keywords = props.getProperty("task.exception.keywords." + path, commonKeywords);
+                if (keywords != null && !keywords.trim().isEmpty()) {
+                    taskExceptionKeywords.put(path, splitList(keywords));
+                }
+            }
+            // Exception 앞뒤 컨텍스트 라인 수: 파일별 설정(task.exception.context.before.<경로>) > 공통 설정
+            taskExceptionContextBefore = new LinkedHashMap<>();
+            taskExceptionContextAfter = new LinkedHashMap<>();
+            String commonBefore = props.getProperty("task.exception.context.before", "5");
+            String commonAfter = props.getProperty("task.exception.context.after", "5");
+            for (String path : taskExceptionLogPaths) {
+                taskExceptionContextBefore.put(path, Integer.parseInt(
+                    props.getProperty("task.exception.context.before." + path, commonBefore).trim()));
+                taskExceptionContextAfter.put(path, Integer.parseInt(
+                    props.getProperty("task.exception.context.after." + path, commonAfter).trim()));
+            }
+            taskExceptionStateFile = props.getProperty("task.exception.state.file", "./state/log-offsets.json");
+            
+            // 서버에서 정의한 작업 동기화 주기 (0이면 동기화하지 않음)
+            taskSyncIntervalSeconds = Integer.parseInt(
+                props.getProperty("task.sync.interval.seconds", "30")
+            );
+            // LOG_PARSE 작업별 오프셋 상태 디렉터리
+            taskLogStateDir = props.getProperty("task.log.state.dir", "./state/tasks");
+            
+            // 명령어 실행 제한 (제한 시간을 넘으면 자식 프로세스까지 종료, 출력은 스트림별 최대 바이트까지만 보관)
+            commandTimeoutSeconds = Integer.parseInt(
+                props.getProperty("command.timeout.seconds", "30")
+            );
+            commandMaxOutputBytes = Integer.parseInt(
+                props.getProperty("command.max.output.bytes", "1048576")
+            );
+            // 서버 정의 COMMAND 작업을 계속 실행 중인 셸 하나에서 실행 (명령어마다 JVM에서 프로세스를 만들지 않음)
+            commandCoprocessEnabled = Boolean.parseBoolean(
+                props.getProperty("command.coprocess.enabled", "false")
+            );
+            
+            // 같은 tick에 같은 명령어를 쓰는 작업끼리 결과를 공유하는 구간 (밀리초, 작업 주기의 절반을 넘지 않음)
+            plannerShareWindowMillis = Long.parseLong(
+                props.getProperty("planner.share.window.millis", "1000")
+            );
+            
+            // CPU/메모리/디스크 샘플을 구간별 요약(평균, 최솟값, 최댓값, 합계, 95 백분위수)으로 묶어 전송 (0: 샘플마다 전송)
+            aggregateWindowSeconds = Integer.parseInt(
+                props.getProperty("aggregate.window.seconds", "60")
+            );
+            aggregateQuantileSamples = Integer.parseInt(
+                props.getProperty("aggregate.quantile.samples", "128")
+            );
+            
+            // 천천히 바뀌는 메트릭은 값이 임계값 이상 바뀌었거나 최대 침묵 시간이 지났을 때만 전송
+            // (메트릭 이름 접두사별로 deadband.absolute.<접두사>, deadband.relative.<접두사> 설정 가능)
+            deadbandMetrics = splitList(props.getProperty("deadband.metrics", "disk_usage_"));
+            deadbandAbsolute = Double.parseDouble(props.getProperty("deadband.absolute", "0.5"));
+            deadbandRelative = Double.parseDouble(props.getProperty("deadband.relative", "0"));
+            deadbandAbsoluteOverrides = new LinkedHashMap<>();
+            deadbandRelativeOverrides = new LinkedHashMap<>();
+            for (String key : props.stringPropertyNames()) {
+                if (key.startsWith("deadband.absolute.")) {
+                    deadbandAbsoluteOverrides.put(key.substring("deadband.absolute.".length()),
+                        Double.parseDouble(props.getProperty(key).trim()));
+                } else if (key.startsWith("deadband.relative.")) {
+                    deadbandRelativeOverrides.put(key.substring("deadband.relative.".length()),
+                        Double.parseDouble(props.getProperty(key).trim()));
+                }
+            }
+            deadbandMaxSilenceSeconds = Integer.parseInt(
+                props.getProperty("deadband.max.silence.seconds", "1800")
+            );
+            
+            // 에이전트 자체 텔레메트리(지연 시간 히스토그램, 대기열, 폐기 건수) 보고 주기 (0: 보고 안 함)
+            telemetryReportIntervalSeconds = Integer.parseInt(
+                props.getProperty("telemetry.report.interval.seconds", "60")
+            );
+            
+            // 작업 스케줄러 (타이머 휠 + 작업 실행 스레드 풀)
+            schedulerTickMillis = Long.parseLong(
+                props.getProperty("scheduler.tick.millis", "100")
+            );
+            schedulerWorkerThreads = Integer.parseInt(
+                props.getProperty("scheduler.worker.threads", "4")
+            );
+            schedulerWorkerQueueSize = Integer.parseInt(
+                props.getProperty("scheduler.worker.queue.size", "256")
+            );
+            // 이전 실행이 끝나지 않았을 때의 처리: 작업별 설정(scheduler.overrun.policy.<작업 이름>) > 공통 설정
+            schedulerOverrunPolicyDefault = OverrunPolicy.valueOf(
+                props.getProperty("scheduler.overrun.policy", "SKIP").trim().toUpperCase()
+            );
+            schedulerOverrunPolicies = new LinkedHashMap<>();
+            schedulerDeadlineSeconds = new LinkedHashMap<>();
+            for (String key : props.stringPropertyNames()) {
+                if (key.startsWith("scheduler.overrun.policy.")) {
+                    schedulerOverrunPolicies.put(key.substring("scheduler.overrun.policy.".length()),
+                        OverrunPolicy.valueOf(props.getProperty(key).trim().toUpperCase()));
+                } else if (key.startsWith("scheduler.deadline.seconds.")) {
+                    schedulerDeadlineSeconds.put(key.substring("scheduler.deadline.seconds.".length()),
+                        Integer.parseInt(props.getProperty(key).trim()));
+                }
+            }
+            taskExceptionAggregateWindowSeconds = Integer.parseInt(
+                props.getProperty("task.exception.aggregate.window.seconds", "60")
+            );
+            taskExceptionReadFromStart = Boolean.parseBoolean(
+                props.getProperty("task.exception.read.from.start", "false")
+            );
+            taskExceptionWatchEnabled = Boolean.parseBoolean(
+                props.getProperty("task.exception.watch.enabled", "true")
+            );
+            taskExceptionWatchDebounceMillis = Long.parseLong(
+                props.getProperty("task.exception.watch.debounce.millis", "200")
+            );
+            
+            // 요청 본문 압축 (등록 시 서버와 협상)
+            requestCompressionEnabled = Boolean.parseBoolean(
+                props.getProperty("request.compression.enabled", "true")
+            );
+            
+            // 메트릭 바이너리 프레임 전송 (등록 시 서버와 협상)
+            metricFrameEnabled = Boolean.parseBoolean(
+                props.getProperty("metric.frame.enabled", "true")
+            );
+            
+            // 텔레메트리 스트림 (서버가 등록 응답에 엔드포인트를 알려준 경우에만 연결)
+            streamEnabled = Boolean.parseBoolean(
+                props.getProperty("stream.enabled", "true")
+            );
+            streamAckTimeoutSeconds = Integer.parseInt(
+                props.getProperty("stream.ack.timeout.seconds", "10")
+            );
+            
+            // 비동기 전송 (동시 요청 수 제한, 실패 시 지수 백오프 재시도)
+            requestMaxInFlight = Integer.parseInt(
+                props.getProperty("request.max.in.flight", "4")
+            );
+            requestQueueSize = Integer.parseInt(
+                props.getProperty("request.queue.size", "100")
+            );
+            requestMaxAttempts = Integer.parseInt(
+                props.getProperty("request.max.attempts", "5")
+            );
+            
+            // 메트릭 일괄 전송 설정
+            metricBatchSize = Integer.parseInt(
+                props.getProperty("metric.batch.size", "100")
+            );
+            if (metricBatchSize > MAX_METRIC_BATCH_SIZE) {
+                log.warn("metric.batch.size({})가 서버의 최대 일괄 전송 건수를 넘어 {}로 제한합니다",
+                    metricBatchSize, MAX_METRIC_BATCH_SIZE);
+                metricBatchSize = MAX_METRIC_BATCH_SIZE;
+            }
+            metricBatchMaxAgeSeconds = Integer.parseInt(
+                props.getProperty("metric.batch.max.age.seconds", "5")
+            );
+            
+            // 디스크 스풀 설정 (서버 장애 시 전송 데이터 보관)
+            spoolEnabled = Boolean.parseBoolean(props.getProperty("spool.enabled", "true"));
+            spoolDir = props.getProperty("spool.dir", "./spool");
+            spoolSegmentSizeBytes = Long.parseLong(
+                props.getProperty("spool.segment.size.mb", "16")
+            ) * 1024 * 1024;
+            spoolMaxSizeBytes = Long.parseLong(
+                props.getProperty("spool.max.size.mb", "256")
+            ) * 1024 * 1024;
+            
             log.info("에이전트 설정 로드 완료");
             log.info("웹서버 URL: {}", webserverUrl);
             log.info("에이전트 이름: {}", agentName);
             log.info("호스트명: {}", hostname);
             log.info("IP 주소: {}", ipAddress);
             log.info("하트비트 간격: {}초", heartbeatIntervalSeconds);
+            log.info("메트릭 일괄 전송: {}건 / {}초", metricBatchSize, metricBatchMaxAgeSeconds);
+            log.info("디스크 스풀: {} ({})", spoolEnabled ? "사용" : "미사용", spoolDir);
+            log.info("Exception 로그 파일: {}", taskExceptionLogPaths);
             
         } catch (IOException e) {
             log.error("설정 파일 로드 실패", e);
@@ -76,6 +352,27 @@ public class AgentConfig {
         }
     }
     
+    /**
+     * 작업별 중복 실행 처리 방식 (작업별 설정이 없으면 공통 설정)
+     */
+    public OverrunPolicy getSchedulerOverrunPolicy(String taskName) {
+        OverrunPolicy policy = schedulerOverrunPolicies.get(taskName);
+        return policy != null ? policy : schedulerOverrunPolicyDefault;
+    }
+    
+    /**
+     * 쉼표로 구분된 값을 리스트로 변환 (빈 값 제외)
+     */
+    private List<String> splitList(String value) {
+        List<String> result = new ArrayList<>();
+        for (String item : value.split(",")) {
+            if (!item.trim().isEmpty()) {
+                result.add(item.trim());
+            }
+        }
+        return result;
+    }
+    
     private String getSystemProperty(String key, String defaultValue) {
         String value = System.getenv(key);
         if (value == null || value.isEmpty()) {
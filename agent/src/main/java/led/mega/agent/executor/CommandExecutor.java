@@ -1,81 +1,221 @@
 package led.mega.agent.executor;
 
+import led.mega.agent.telemetry.AgentTelemetry;
+import led.mega.agent.telemetry.LatencyHistogram;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
 /**
  * 리눅스 명령어 실행 모듈
+ * 표준 출력과 에러 출력을 별도 스레드에서 동시에 읽어 파이프가 가득 차 멈추는 일을 막고,
+ * 제한 시간을 넘긴 명령어는 자식 프로세스까지 종료합니다. 저장하는 출력은 스트림별 최대 바이트 수까지만 보관합니다.
+ * 셸 명령어(executeShell)는 설정에 따라 계속 실행 중인 셸(CoprocessShell)에서 실행할 수 있습니다.
  */
 @Slf4j
 public class CommandExecutor {
-    
+
+    private static final long DEFAULT_TIMEOUT_MILLIS = 30000;
+    private static final int DEFAULT_MAX_OUTPUT_BYTES = 1024 * 1024;
+
+    // CPU 시간 샘플링 주기 (/proc/<pid>/stat)
+    private static final long CPU_SAMPLE_INTERVAL_MILLIS = 100;
+    // 프로세스 종료 후 출력 스트림이 닫히기를 기다리는 시간 (백그라운드 자식이 파이프를 잡고 있는 경우)
+    private static final long DRAIN_GRACE_MILLIS = 1000;
+
+    private final long defaultTimeoutMillis;
+    private final int maxOutputBytes;
+    private final ExecutorService streamReaders;
+    private final CoprocessShell coprocessShell;  // 사용하지 않으면 null
+    private final LatencyHistogram forkLatency = AgentTelemetry.getInstance().histogram("command.fork");
+    private final LatencyHistogram coprocessLatency = AgentTelemetry.getInstance().histogram("command.coprocess");
+    private final LongAdder timeouts = AgentTelemetry.getInstance().counter("command.timeouts");
+    private final LongAdder truncations = AgentTelemetry.getInstance().counter("command.truncated");
+
+    public CommandExecutor() {
+        this(DEFAULT_TIMEOUT_MILLIS, DEFAULT_MAX_OUTPUT_BYTES, false);
+    }
+
+    /**
+     * @param defaultTimeoutMillis 명령어 제한 시간 (0 이하: 제한 없음)
+     * @param maxOutputBytes 스트림별로 보관할 최대 출력 바이트 수
+     * @param coprocessEnabled 셸 명령어를 계속 실행 중인 셸 하나에서 실행할지 여부
+     */
+    public CommandExecutor(long defaultTimeoutMillis, int maxOutputBytes, boolean coprocessEnabled) {
+        this.defaultTimeoutMillis = defaultTimeoutMillis;
+        this.maxOutputBytes = Math.max(0, maxOutputBytes);
+        this.coprocessShell = coprocessEnabled ? new CoprocessShell(this.maxOutputBytes) : null;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.streamReaders = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "command-output-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     /**
      * 명령어 실행 및 결과 반환
-     * 
+     *
      * @param command 실행할 명령어 (예: "free -m")
      * @return 명령어 실행 결과 (줄별 리스트)
      */
     public CommandResult execute(String command) {
         return execute(command.split("\\s+"));
     }
-    
+
     /**
      * 명령어 실행 및 결과 반환
-     * 
+     *
      * @param commandParts 명령어를 공백으로 분리한 배열 (예: ["free", "-m"])
      * @return 명령어 실행 결과
      */
     public CommandResult execute(String[] commandParts) {
-        List<String> output = new ArrayList<>();
-        List<String> error = new ArrayList<>();
+        return execute(commandParts, defaultTimeoutMillis, null);
+    }
+
+    /**
+     * 셸 명령어 실행 (파이프, 리다이렉션 등 셸 문법 사용 가능)
+     * 계속 실행 중인 셸을 사용하도록 설정했으면 그 셸에서 실행하고, 셸을 쓸 수 없거나 다른 명령어가
+     * 제한 시간 안에 끝나지 않으면 명령어마다 /bin/sh -c 프로세스를 만들어 실행합니다.
+     *
+     * @param script 셸 명령어
+     * @param timeoutMillis 제한 시간 (0 이하: 제한 없음)
+     * @param outputConsumer 표준 출력 줄을 받을 콜백 (null이면 결과에 보관)
+     */
+    public CommandResult executeShell(String script, long timeoutMillis, Consumer<String> outputConsumer) {
+        if (coprocessShell != null) {
+            try {
+                long startNanos = System.nanoTime();
+                CommandResult result = coprocessShell.execute(script, timeoutMillis, outputConsumer);
+                if (result != null) {
+                    coprocessLatency.recordSince(startNanos);
+                    logResult(script, result);
+                    return result;
+                }
+                log.debug("명령어 셸을 사용할 수 없어 새 프로세스로 실행합니다: {}", script);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new CommandResult(-1, new ArrayList<String>(),
+                    Collections.singletonList("명령어 실행 중 인터럽트"));
+            }
+        }
+        return execute(new String[]{"/bin/sh", "-c", script}, timeoutMillis, outputConsumer);
+    }
+
+    /**
+     * 명령어 실행 및 결과 반환
+     *
+     * @param commandParts 명령어를 공백으로 분리한 배열
+     * @param timeoutMillis 제한 시간 (0 이하: 제한 없음), 넘으면 자식 프로세스까지 강제 종료
+     * @param outputConsumer 표준 출력 줄을 받을 콜백 (null이면 결과에 보관), 읽기 스레드에서 호출됨
+     * @return 명령어 실행 결과 (outputConsumer를 준 경우 표준 출력은 비어 있음)
+     */
+    public CommandResult execute(String[] commandParts, long timeoutMillis, Consumer<String> outputConsumer) {
+        String commandLine = String.join(" ", commandParts);
+        long startNanos = System.nanoTime();
+        OutputCollector output = new OutputCollector(outputConsumer, maxOutputBytes);
+        OutputCollector error = new OutputCollector(null, maxOutputBytes);
         int exitCode = -1;
-        
+        boolean timedOut = false;
+        long cpuTimeMillis = 0;
+
+        Process process = null;
         try {
             ProcessBuilder processBuilder = new ProcessBuilder(commandParts);
             processBuilder.redirectErrorStream(false);
-            
-            Process process = processBuilder.start();
-            
-            // 표준 출력 읽기
-            try (BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    output.add(line);
+
+            process = processBuilder.start();
+            process.getOutputStream().close();
+            long pid = ProcessTree.pidOf(process);
+
+            // 표준 출력/에러 출력을 동시에 읽기
+            Future<?> outputReader = streamReaders.submit(new StreamDrainer(process.getInputStream(), output));
+            Future<?> errorReader = streamReaders.submit(new StreamDrainer(process.getErrorStream(), error));
+
+            // 종료 대기 (대기 중에 CPU 시간 샘플링)
+            long deadlineNanos = timeoutMillis > 0 ? startNanos + TimeUnit.MILLISECONDS.toNanos(timeoutMillis) : Long.MAX_VALUE;
+            while (true) {
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+                if (remainingMillis <= 0) {
+                    timedOut = true;
+                    break;
                 }
-            }
-            
-            // 에러 출력 읽기
-            try (BufferedReader errorReader = new BufferedReader(
-                    new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
-                String line;
-                while ((line = errorReader.readLine()) != null) {
-                    error.add(line);
+                if (process.waitFor(Math.min(remainingMillis, CPU_SAMPLE_INTERVAL_MILLIS), TimeUnit.MILLISECONDS)) {
+                    break;
                 }
+                cpuTimeMillis = Math.max(cpuTimeMillis, ProcessTree.cpuTimeMillis(pid));
             }
-            
-            exitCode = process.waitFor();
-            
-            if (exitCode != 0) {
-                log.warn("명령어 실행 실패: {} (exit code: {})", String.join(" ", commandParts), exitCode);
-                if (!error.isEmpty()) {
-                    log.warn("에러 출력: {}", String.join("\n", error));
-                }
+
+            if (timedOut) {
+                log.warn("명령어 제한 시간 초과, 강제 종료: {} ({}ms)", commandLine, timeoutMillis);
+                ProcessTree.destroy(process, pid);
+                process.waitFor(DRAIN_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+            } else {
+                exitCode = process.exitValue();
+            }
+
+            awaitDrain(process, outputReader, errorReader);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("명령어 실행 중 인터럽트: {}", commandLine);
+            if (process != null) {
+                ProcessTree.destroy(process, ProcessTree.pidOf(process));
             }
-            
+            error.addMessage("명령어 실행 중 인터럽트");
         } catch (Exception e) {
-            log.error("명령어 실행 중 오류 발생: {}", String.join(" ", commandParts), e);
-            error.add("명령어 실행 중 오류: " + e.getMessage());
+            log.error("명령어 실행 중 오류 발생: {}", commandLine, e);
+            error.addMessage("명령어 실행 중 오류: " + e.getMessage());
+        }
+
+        long wallTimeMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        CommandResult result = new CommandResult(exitCode, output.getLines(), error.getLines(), timedOut,
+            output.isTruncated() || error.isTruncated(), wallTimeMillis, cpuTimeMillis);
+        forkLatency.recordSince(startNanos);
+        logResult(commandLine, result);
+        return result;
+    }
+
+    /**
+     * 계속 실행 중인 셸 종료
+     */
+    public void close() {
+        if (coprocessShell != null) {
+            coprocessShell.close();
+        }
+    }
+
+    private void logResult(String commandLine, CommandResult result) {
+        if (!result.isSuccess() && !result.isTimedOut()) {
+            log.warn("명령어 실행 실패: {} (exit code: {})", commandLine, result.getExitCode());
+            if (!result.getError().isEmpty()) {
+                log.warn("에러 출력: {}", result.getErrorAsString());
+            }
+        }
+        if (result.isTimedOut()) {
+            timeouts.increment();
+        }
+        if (result.isTruncated()) {
+            truncations.increment();
+            log.warn("명령어 출력이 {}바이트를 넘어 일부만 보관합니다: {}", maxOutputBytes, commandLine);
         }
-        
-        return new CommandResult(exitCode, output, error);
+        log.debug("명령어 실행 완료: {} (exit code: {}, 실행 {}ms, CPU {}ms)",
+            commandLine, result.getExitCode(), result.getWallTimeMillis(), result.getCpuTimeMillis());
     }
-    
+
     /**
      * 명령어 실행 결과를 단일 문자열로 반환
      */
@@ -83,7 +223,58 @@ public class CommandExecutor {
         CommandResult result = execute(command);
         return String.join("\n", result.getOutput());
     }
-    
+
+    /**
+     * 출력 읽기 스레드 종료 대기 (프로세스가 끝나도 자식이 파이프를 잡고 있으면 스트림을 닫아 끝냄)
+     */
+    private void awaitDrain(Process process, Future<?>... readers) throws InterruptedException {
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DRAIN_GRACE_MILLIS);
+        for (Future<?> reader : readers) {
+            try {
+                reader.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                closeQuietly(process.getInputStream());
+                closeQuietly(process.getErrorStream());
+            } catch (ExecutionException e) {
+                log.warn("명령어 출력 읽기 실패", e.getCause());
+            }
+        }
+    }
+
+    private static void closeQuietly(InputStream input) {
+        try {
+            input.close();
+        } catch (IOException e) {
+            // 무시
+        }
+    }
+
+    /**
+     * 스트림을 끝까지 줄 단위로 읽어 수집기에 넘김
+     */
+    private class StreamDrainer implements Runnable {
+        private final InputStream input;
+        private final OutputCollector collector;
+
+        StreamDrainer(InputStream input, OutputCollector collector) {
+            this.input = input;
+            this.collector = collector;
+        }
+
+        @Override
+        public void run() {
+            LineReader reader = new LineReader(input, maxOutputBytes);
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    collector.accept(line, reader.isLastLineTruncated());
+                }
+            } catch (IOException e) {
+                // 제한 시간 초과 등으로 스트림이 닫힘
+            }
+        }
+    }
+
     /**
      * 명령어 실행 결과 클래스
      */
@@ -91,36 +282,76 @@ public class CommandExecutor {
         private final int exitCode;
         private final List<String> output;
         private final List<String> error;
-        
+        private final boolean timedOut;
+        private final boolean truncated;
+        private final long wallTimeMillis;
+        private final long cpuTimeMillis;
+
         public CommandResult(int exitCode, List<String> output, List<String> error) {
+            this(exitCode, output, error, false, false, 0, 0);
+        }
+
+        public CommandResult(int exitCode, List<String> output, List<String> error, boolean timedOut,
+                             boolean truncated, long wallTimeMillis, long cpuTimeMillis) {
             this.exitCode = exitCode;
             this.output = output;
             this.error = error;
+            this.timedOut = timedOut;
+            this.truncated = truncated;
+            this.wallTimeMillis = wallTimeMillis;
+            this.cpuTimeMillis = cpuTimeMillis;
         }
-        
+
         public int getExitCode() {
             return exitCode;
         }
-        
+
         public List<String> getOutput() {
             return output;
         }
-        
+
         public List<String> getError() {
             return error;
         }
-        
+
+        /**
+         * 제한 시간을 넘겨 강제 종료되었는지 여부
+         */
+        public boolean isTimedOut() {
+            return timedOut;
+        }
+
+        /**
+         * 출력이 최대 바이트 수를 넘어 일부만 보관되었는지 여부
+         */
+        public boolean isTruncated() {
+            return truncated;
+        }
+
+        /**
+         * 실행 시간 (시작부터 출력을 모두 읽을 때까지)
+         */
+        public long getWallTimeMillis() {
+            return wallTimeMillis;
+        }
+
+        /**
+         * CPU 시간 (실행 중 /proc에서 마지막으로 관측한 값, 100ms 안에 끝난 명령은 0일 수 있음)
+         */
+        public long getCpuTimeMillis() {
+            return cpuTimeMillis;
+        }
+
         public boolean isSuccess() {
             return exitCode == 0;
         }
-        
+
         public String getOutputAsString() {
             return String.join("\n", output);
         }
-        
+
         public String getErrorAsString() {
             return String.join("\n", error);
         }
     }
 }
-
@@ -0,0 +1,247 @@
+package led.mega.agent.executor;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 계속 실행 중인 /bin/sh 하나에 명령어를 보내 실행하는 백엔드
+ * JVM에서 명령어마다 프로세스를 만드는 비용(힙이 큰 JVM의 fork/exec)을 없애기 위해, 명령어를 고유한 구분자와 함께
+ * 셸의 표준 입력에 쓰고 표준 출력/에러 출력에서 구분자가 나올 때까지를 해당 명령어의 출력으로 나눕니다.
+ * 명령어는 서브셸( )에서 실행되어 cd, exit 등이 다음 명령어에 영향을 주지 않습니다.
+ * 셸은 하나이므로 명령어는 한 번에 하나씩 실행되며, 셸이 죽거나 제한 시간을 넘기면 종료 후 다음 실행 때 다시 시작합니다.
+ */
+@Slf4j
+class CoprocessShell {
+
+    private static final String SHELL = "/bin/sh";
+
+    private final int maxOutputBytes;
+    private final String markerPrefix = "__MEGA_CMD_" + UUID.randomUUID().toString().replace("-", "") + "_";
+    private final AtomicLong nextSeq = new AtomicLong(1);
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // lock으로 보호
+    private Process process;
+    private OutputStream stdin;
+    private long pid;
+    private volatile boolean closed;
+
+    // 실행 중인 명령어 (출력 읽기 스레드에서 사용)
+    private volatile Pending current;
+
+    CoprocessShell(int maxOutputBytes) {
+        this.maxOutputBytes = maxOutputBytes;
+    }
+
+    /**
+     * 셸에서 명령어 실행
+     *
+     * @return 실행 결과, 셸이 다른 명령어를 실행 중이라 제한 시간 안에 차례가 오지 않거나 셸을 시작할 수 없으면 null
+     */
+    CommandExecutor.CommandResult execute(String script, long timeoutMillis, Consumer<String> outputConsumer)
+            throws InterruptedException {
+        long startNanos = System.nanoTime();
+        long deadlineNanos = timeoutMillis > 0 ? startNanos + TimeUnit.MILLISECONDS.toNanos(timeoutMillis) : Long.MAX_VALUE;
+        if (!lock.tryLock(Math.max(0, deadlineNanos - startNanos), TimeUnit.NANOSECONDS)) {
+            return null;
+        }
+        try {
+            if (closed || !ensureStarted()) {
+                return null;
+            }
+
+            String marker = markerPrefix + nextSeq.getAndIncrement() + "__";
+            Pending pending = new Pending(process, marker, new OutputCollector(outputConsumer, maxOutputBytes),
+                new OutputCollector(null, maxOutputBytes));
+            current = pending;
+            long cpuBefore = ProcessTree.childrenCpuTimeMillis(pid);
+
+            try {
+                stdin.write(wrap(script, marker).getBytes(StandardCharsets.UTF_8));
+                stdin.flush();
+            } catch (IOException e) {
+                log.warn("명령어 셸에 쓰기 실패, 셸을 다시 시작합니다: {}", e.getMessage());
+                current = null;
+                destroy();
+                return null;
+            }
+
+            boolean completed = pending.done.await(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            current = null;
+            long wallTimeMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            if (!completed) {
+                log.warn("명령어 제한 시간 초과, 명령어 셸을 종료합니다: {} ({}ms)", script, timeoutMillis);
+                destroy();
+                return new CommandExecutor.CommandResult(-1, pending.output.getLines(), pending.error.getLines(),
+                    true, pending.output.isTruncated() || pending.error.isTruncated(), wallTimeMillis, 0);
+            }
+            if (pending.exitCode < 0) {
+                // 셸이 도중에 종료됨
+                pending.error.addMessage("명령어 셸이 종료되었습니다");
+                destroy();
+            }
+
+            long cpuAfter = ProcessTree.childrenCpuTimeMillis(pid);
+            long cpuTimeMillis = cpuBefore >= 0 && cpuAfter >= cpuBefore ? cpuAfter - cpuBefore : 0;
+            return new CommandExecutor.CommandResult(pending.exitCode, pending.output.getLines(), pending.error.getLines(),
+                false, pending.output.isTruncated() || pending.error.isTruncated(), wallTimeMillis, cpuTimeMillis);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 셸 종료
+     */
+    void close() {
+        closed = true;
+        lock.lock();
+        try {
+            destroy();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 명령어를 서브셸로 감싸고, 끝나면 표준 출력에 "구분자 종료코드", 에러 출력에 구분자를 씀
+     * 출력이 줄바꿈 없이 끝나도 구분자가 항상 새 줄에서 시작하도록 앞에 줄바꿈을 넣음 (읽는 쪽에서 그 빈 줄은 버림)
+     */
+    private String wrap(String script, String marker) {
+        return "(\n" + script + "\n) </dev/null\n"
+            + "printf '\\n%s %d\\n' '" + marker + "' \"$?\"\n"
+            + "printf '\\n%s\\n' '" + marker + "' >&2\n";
+    }
+
+    private boolean ensureStarted() {
+        if (process != null && process.isAlive()) {
+            return true;
+        }
+        destroy();
+        try {
+            Process started = new ProcessBuilder(SHELL).start();
+            process = started;
+            stdin = started.getOutputStream();
+            pid = ProcessTree.pidOf(started);
+            startReader(started, started.getInputStream(), true);
+            startReader(started, started.getErrorStream(), false);
+            log.info("명령어 셸 시작 (pid: {})", pid);
+            return true;
+        } catch (IOException e) {
+            log.warn("명령어 셸 시작 실패, 명령어마다 프로세스를 만들어 실행합니다: {}", e.getMessage());
+            process = null;
+            return false;
+        }
+    }
+
+    private void destroy() {
+        if (process == null) {
+            return;
+        }
+        ProcessTree.destroy(process, pid);
+        process = null;
+        stdin = null;
+        pid = -1;
+    }
+
+    /**
+     * 셸 출력 읽기 스레드 (구분자가 나오면 실행 중인 명령어를 완료 처리)
+     * 빈 줄은 다음 줄을 볼 때까지 미뤄 두었다가, 다음 줄이 구분자이면 wrap()이 넣은 줄바꿈이므로 버림
+     */
+    private void startReader(Process owner, InputStream input, boolean stdout) {
+        Thread thread = new Thread(() -> {
+            LineReader reader = new LineReader(input, maxOutputBytes);
+            boolean heldEmptyLine = false;
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    Pending pending = current;
+                    if (pending == null) {
+                        // 종료된 명령어의 백그라운드 출력 등
+                        heldEmptyLine = false;
+                        continue;
+                    }
+                    OutputCollector collector = stdout ? pending.output : pending.error;
+                    boolean truncated = reader.isLastLineTruncated();
+                    String markerLine = line;
+                    int markerIndex = line.indexOf(pending.marker);
+                    if (markerIndex < 0 && truncated) {
+                        // 최대 크기를 넘어 잘린 줄이면 보관된 끝부분에서 구분자 확인
+                        markerLine = reader.getLastLineTail();
+                        markerIndex = markerLine.indexOf(pending.marker);
+                    }
+                    if (heldEmptyLine && markerIndex < 0) {
+                        collector.accept("", false);
+                    }
+                    heldEmptyLine = false;
+                    if (markerIndex < 0) {
+                        if (line.isEmpty() && !truncated) {
+                            heldEmptyLine = true;
+                        } else {
+                            collector.accept(line, truncated);
+                        }
+                        continue;
+                    }
+                    // 구분자 앞에 출력이 붙은 경우 (백그라운드 출력 등)
+                    if (markerLine != line) {
+                        collector.accept(line, true);
+                    } else if (markerIndex > 0) {
+                        collector.accept(line.substring(0, markerIndex), false);
+                    }
+                    if (stdout) {
+                        pending.exitCode = parseExitCode(markerLine.substring(markerIndex + pending.marker.length()).trim());
+                    }
+                    pending.done.countDown();
+                }
+            } catch (IOException e) {
+                // 셸 종료
+            }
+            // 셸이 끝났으면 이 셸에서 실행 중인 명령어를 깨움 (종료 코드는 -1로 남음)
+            Pending pending = current;
+            if (pending != null && pending.shell == owner) {
+                while (pending.done.getCount() > 0) {
+                    pending.done.countDown();
+                }
+            }
+        }, stdout ? "command-shell-out" : "command-shell-err");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static int parseExitCode(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 실행 중인 명령어 (표준 출력/에러 출력 두 구분자를 모두 받으면 완료)
+     */
+    private static class Pending {
+        private final Process shell;
+        private final String marker;
+        private final OutputCollector output;
+        private final OutputCollector error;
+        private final CountDownLatch done = new CountDownLatch(2);
+        private volatile int exitCode = -1;
+
+        Pending(Process shell, String marker, OutputCollector output, OutputCollector error) {
+            this.shell = shell;
+            this.marker = marker;
+            this.output = output;
+            this.error = error;
+        }
+    }
+}
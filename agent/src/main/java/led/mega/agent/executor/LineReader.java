@@ -0,0 +1,95 @@
+package led.mega.agent.executor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 바이트 스트림을 UTF-8 줄 단위로 읽기
+ * 한 줄은 최대 바이트 수까지만 보관하고 나머지는 읽어서 버리므로, 줄바꿈 없는 출력이 커도 메모리가 늘지 않습니다.
+ * 잘린 줄은 끝부분 일부를 따로 보관하여, 줄 끝에 붙은 구분자 등을 확인할 수 있게 합니다.
+ */
+class LineReader {
+
+    // 잘린 줄에서 보관할 끝부분 크기
+    private static final int TAIL_BYTES = 256;
+
+    private final InputStream input;
+    private final int maxLineBytes;
+    private final byte[] buffer = new byte[8192];
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+    private final byte[] tail = new byte[TAIL_BYTES];
+    private long tailCount;
+    private int position;
+    private int limit;
+    private boolean lastLineTruncated;
+
+    LineReader(InputStream input, int maxLineBytes) {
+        this.input = input;
+        this.maxLineBytes = Math.max(0, maxLineBytes);
+    }
+
+    /**
+     * 다음 줄 (줄 끝의 \r 제거), 스트림이 끝나면 null
+     */
+    String readLine() throws IOException {
+        line.reset();
+        lastLineTruncated = false;
+        tailCount = 0;
+        while (true) {
+            if (position >= limit) {
+                limit = input.read(buffer);
+                position = 0;
+                if (limit == -1) {
+                    limit = 0;
+                    return line.size() > 0 || lastLineTruncated ? toLine() : null;
+                }
+            }
+            while (position < limit) {
+                byte b = buffer[position++];
+                if (b == '\n') {
+                    return toLine();
+                }
+                if (line.size() < maxLineBytes) {
+                    line.write(b);
+                } else {
+                    lastLineTruncated = true;
+                    tail[(int) (tailCount++ % TAIL_BYTES)] = b;
+                }
+            }
+        }
+    }
+
+    /**
+     * 마지막으로 읽은 줄이 최대 바이트 수를 넘어 잘렸는지 여부
+     */
+    boolean isLastLineTruncated() {
+        return lastLineTruncated;
+    }
+
+    /**
+     * 마지막으로 읽은 줄이 잘렸으면 버린 부분의 끝 TAIL_BYTES 바이트 (줄 끝의 \r 제거), 잘리지 않았으면 빈 문자열
+     */
+    String getLastLineTail() {
+        int length = (int) Math.min(tailCount, TAIL_BYTES);
+        byte[] bytes = new byte[length];
+        int start = (int) ((tailCount - length) % TAIL_BYTES);
+        for (int i = 0; i < length; i++) {
+            bytes[i] = tail[(start + i) % TAIL_BYTES];
+        }
+        return decode(bytes);
+    }
+
+    private String toLine() {
+        return decode(line.toByteArray());
+    }
+
+    private static String decode(byte[] bytes) {
+        int length = bytes.length;
+        if (length > 0 && bytes[length - 1] == '\r') {
+            length--;
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,61 @@
+package led.mega.agent.executor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 명령어 출력 한 스트림의 줄 수집 (콜백이 있으면 넘기고, 없으면 최대 바이트 수까지만 보관)
+ */
+class OutputCollector {
+
+    private final Consumer<String> consumer;
+    private final int maxBytes;
+    private final List<String> lines = new ArrayList<>();
+    private long storedBytes;
+    private volatile boolean truncated;
+
+    OutputCollector(Consumer<String> consumer, int maxBytes) {
+        this.consumer = consumer;
+        this.maxBytes = maxBytes;
+    }
+
+    void accept(String line, boolean lineTruncated) {
+        if (lineTruncated) {
+            truncated = true;
+        }
+        if (consumer != null) {
+            consumer.accept(line);
+            return;
+        }
+        int length = line.getBytes(StandardCharsets.UTF_8).length;
+        synchronized (lines) {
+            if (storedBytes + length > maxBytes) {
+                truncated = true;
+                return;
+            }
+            storedBytes += length + 1;
+            lines.add(line);
+        }
+    }
+
+    /**
+     * 실행기 자체의 오류 메시지 추가 (최대 바이트 수와 무관)
+     */
+    void addMessage(String message) {
+        synchronized (lines) {
+            lines.add(message);
+        }
+    }
+
+    List<String> getLines() {
+        synchronized (lines) {
+            return new ArrayList<>(lines);
+        }
+    }
+
+    boolean isTruncated() {
+        return truncated;
+    }
+}
@@ -0,0 +1,158 @@
+package led.mega.agent.executor;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /proc 기반 프로세스 도구 (PID 조회, 자손 프로세스 종료, CPU 시간)
+ */
+@Slf4j
+final class ProcessTree {
+
+    // /proc/<pid>/stat의 시간 단위 (USER_HZ)
+    private static final long CLOCK_TICKS_PER_SECOND = 100;
+    private static final long KILL_WAIT_MILLIS = 1000;
+
+    private ProcessTree() {
+    }
+
+    /**
+     * 프로세스 PID (Java 9 이상은 Process.pid(), Java 8은 내부 필드, 알 수 없으면 -1)
+     */
+    static long pidOf(Process process) {
+        try {
+            return ((Number) Process.class.getMethod("pid").invoke(process)).longValue();
+        } catch (Exception e) {
+            // Java 8
+        }
+        try {
+            Field field = process.getClass().getDeclaredField("pid");
+            field.setAccessible(true);
+            return field.getLong(process);
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 프로세스와 모든 자손 프로세스 강제 종료
+     */
+    static void destroy(Process process, long pid) {
+        List<Long> descendants = pid > 0 ? findDescendants(pid) : new ArrayList<Long>();
+        process.destroyForcibly();
+        if (descendants.isEmpty()) {
+            return;
+        }
+        List<String> killCommand = new ArrayList<>();
+        killCommand.add("kill");
+        killCommand.add("-KILL");
+        for (Long descendant : descendants) {
+            killCommand.add(String.valueOf(descendant));
+        }
+        try {
+            new ProcessBuilder(killCommand).redirectErrorStream(true)
+                .redirectOutput(new File("/dev/null")).start()
+                .waitFor(KILL_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (IOException e) {
+            log.warn("자식 프로세스 종료 실패: {}", descendants, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 프로세스가 지금까지 사용한 CPU 시간 (자신 + 기다려 준 자식, 측정할 수 없으면 0)
+     */
+    static long cpuTimeMillis(long pid) {
+        return cpuTimeMillis(pid, true);
+    }
+
+    /**
+     * 프로세스가 기다려 준(종료된) 자식들이 사용한 CPU 시간 (측정할 수 없으면 -1)
+     */
+    static long childrenCpuTimeMillis(long pid) {
+        return cpuTimeMillis(pid, false);
+    }
+
+    private static long cpuTimeMillis(long pid, boolean includeSelf) {
+        if (pid <= 0) {
+            return includeSelf ? 0 : -1;
+        }
+        String[] stat = readStat(String.valueOf(pid));
+        if (stat == null || stat.length < 16) {
+            return includeSelf ? 0 : -1;
+        }
+        // comm 이후 필드 기준: utime(11), stime(12), cutime(13), cstime(14)
+        long ticks = Long.parseLong(stat[13]) + Long.parseLong(stat[14]);
+        if (includeSelf) {
+            ticks += Long.parseLong(stat[11]) + Long.parseLong(stat[12]);
+        }
+        return ticks * 1000 / CLOCK_TICKS_PER_SECOND;
+    }
+
+    /**
+     * /proc에서 부모 PID를 따라 자손 프로세스 목록 수집
+     */
+    private static List<Long> findDescendants(long pid) {
+        Map<Long, List<Long>> children = new HashMap<>();
+        File[] entries = new File("/proc").listFiles();
+        if (entries != null) {
+            for (File entry : entries) {
+                String name = entry.getName();
+                if (name.isEmpty() || !Character.isDigit(name.charAt(0))) {
+                    continue;
+                }
+                String[] stat = readStat(name);
+                if (stat != null) {
+                    // stat 필드: comm 이후 state, ppid 순서
+                    long parent = Long.parseLong(stat[1]);
+                    List<Long> list = children.get(parent);
+                    if (list == null) {
+                        list = new ArrayList<>();
+                        children.put(parent, list);
+                    }
+                    list.add(Long.parseLong(name));
+                }
+            }
+        }
+
+        List<Long> result = new ArrayList<>();
+        List<Long> queue = new ArrayList<>();
+        queue.add(pid);
+        for (int i = 0; i < queue.size(); i++) {
+            List<Long> list = children.get(queue.get(i));
+            if (list != null) {
+                queue.addAll(list);
+                result.addAll(list);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * /proc/<pid>/stat에서 comm(괄호) 이후 필드를 공백으로 분리해 반환
+     */
+    private static String[] readStat(String pid) {
+        try {
+            String stat = new String(Files.readAllBytes(Paths.get("/proc", pid, "stat")), StandardCharsets.UTF_8);
+            int end = stat.lastIndexOf(')');
+            if (end < 0) {
+                return null;
+            }
+            return stat.substring(end + 2).trim().split("\\s+");
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+}
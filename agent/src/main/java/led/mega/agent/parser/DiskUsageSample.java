@@ -0,0 +1,39 @@
+package led.mega.agent.parser;
+
+/**
+ * df -h 출력 샘플 (마운트 위치 한 줄, byte)
+ * 파서가 목록의 샘플을 순서대로 재사용하며, 장치/마운트 위치 문자열은 값이 바뀔 때만 새로 만듭니다.
+ */
+public class DiskUsageSample {
+
+    String filesystem;
+    String mountPoint;
+    private String metricSuffix;
+    double sizeBytes;
+    double usedBytes;
+    double availableBytes;
+    double usePercent;
+
+    void setMountPoint(String mountPoint) {
+        if (!mountPoint.equals(this.mountPoint)) {
+            this.mountPoint = mountPoint;
+            this.metricSuffix = mountPoint.replace("/", "_");
+        }
+    }
+
+    public String getFilesystem() { return filesystem; }
+    public String getMountPoint() { return mountPoint; }
+
+    /**
+     * 메트릭 이름에 붙일 마운트 위치 (/ → _)
+     */
+    public String getMetricSuffix() { return metricSuffix; }
+
+    /**
+     * df -h의 크기 (K/M/G/T 등 1024 단위 접미사를 byte로 환산한 값이라 유효 자릿수가 2~3자리)
+     */
+    public double getSizeBytes() { return sizeBytes; }
+    public double getUsedBytes() { return usedBytes; }
+    public double getAvailableBytes() { return availableBytes; }
+    public double getUsePercent() { return usePercent; }
+}
@@ -0,0 +1,135 @@
+package led.mega.agent.parser;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 반복 Exception 집계기
+ * 지문별로 처음 발생한 Exception은 즉시 보고하고, 집계 구간(window) 안에서 반복된 것은
+ * 발생 횟수와 처음/마지막 발생 시간을 담은 보고 하나로 묶어 구간이 끝날 때 보고합니다.
+ */
+@Slf4j
+public class ExceptionAggregator {
+    
+    // 동시에 추적할 최대 지문 수 (초과 시 집계하지 않고 바로 보고)
+    private static final int MAX_TRACKED = 1000;
+    
+    private final long windowMillis;
+    private final Map<String, Occurrence> occurrences = new LinkedHashMap<>();
+    
+    public ExceptionAggregator(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+    
+    /**
+     * Exception 추가
+     *
+     * @param info 파싱된 Exception
+     * @param sink 지금 보고할 내용을 받을 콜백 (반복이면 호출되지 않음)
+     */
+    public synchronized void add(LogParser.ExceptionInfo info, Consumer<Report> sink) {
+        String fingerprint = ExceptionFingerprint.of(info);
+        LocalDateTime now = LocalDateTime.now();
+        
+        Occurrence occurrence = occurrences.get(fingerprint);
+        if (occurrence != null) {
+            if (occurrence.repeatCount++ == 0) {
+                occurrence.repeatFirstSeen = now;
+            }
+            occurrence.repeatLastSeen = now;
+            return;
+        }
+        
+        if (windowMillis > 0 && occurrences.size() < MAX_TRACKED) {
+            occurrences.put(fingerprint, new Occurrence(info, System.currentTimeMillis()));
+        }
+        sink.accept(new Report(info, fingerprint, 1, now, now));
+    }
+    
+    /**
+     * 집계 구간이 끝난 지문의 반복 횟수 보고
+     * 반복이 있었던 지문은 새 구간으로 계속 추적하고, 없었던 지문은 추적을 끝냅니다.
+     */
+    public synchronized void flushExpired(Consumer<Report> sink) {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<String, Occurrence>> iterator = occurrences.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Occurrence> entry = iterator.next();
+            Occurrence occurrence = entry.getValue();
+            if (now - occurrence.windowStart < windowMillis) {
+                continue;
+            }
+            if (occurrence.repeatCount == 0) {
+                iterator.remove();
+                continue;
+            }
+            sink.accept(occurrence.toReport(entry.getKey()));
+            log.info("반복 Exception 집계 보고: {} ({}회)", occurrence.info.getExceptionType(), occurrence.repeatCount);
+            occurrence.repeatCount = 0;
+            occurrence.windowStart = now;
+        }
+    }
+    
+    /**
+     * 모든 반복 횟수 보고 (종료 시)
+     */
+    public synchronized void flushAll(Consumer<Report> sink) {
+        for (Map.Entry<String, Occurrence> entry : occurrences.entrySet()) {
+            if (entry.getValue().repeatCount > 0) {
+                sink.accept(entry.getValue().toReport(entry.getKey()));
+            }
+        }
+        occurrences.clear();
+    }
+    
+    /**
+     * 지문별 추적 상태 (대표 Exception은 처음 발생한 것)
+     */
+    private static class Occurrence {
+        private final LogParser.ExceptionInfo info;
+        private long windowStart;
+        private int repeatCount;
+        private LocalDateTime repeatFirstSeen;
+        private LocalDateTime repeatLastSeen;
+        
+        Occurrence(LogParser.ExceptionInfo info, long windowStart) {
+            this.info = info;
+            this.windowStart = windowStart;
+        }
+        
+        Report toReport(String fingerprint) {
+            return new Report(info, fingerprint, repeatCount, repeatFirstSeen, repeatLastSeen);
+        }
+    }
+    
+    /**
+     * 보고 내용
+     */
+    public static class Report {
+        private final LogParser.ExceptionInfo info;
+        private final String fingerprint;
+        private final int occurrenceCount;
+        private final LocalDateTime firstSeen;
+        private final LocalDateTime lastSeen;
+        
+        public Report(LogParser.ExceptionInfo info, String fingerprint, int occurrenceCount,
+                     LocalDateTime firstSeen, LocalDateTime lastSeen) {
+            this.info = info;
+            this.fingerprint = fingerprint;
+            this.occurrenceCount = occurrenceCount;
+            this.firstSeen = firstSeen;
+            this.lastSeen = lastSeen;
+        }
+        
+        public LogParser.ExceptionInfo getInfo() { return info; }
+        public String getFingerprint() { return fingerprint; }
+        public int getOccurrenceCount() { return occurrenceCount; }
+        public LocalDateTime getFirstSeen() { return firstSeen; }
+        public LocalDateTime getLastSeen() { return lastSeen; }
+    }
+}
@@ -0,0 +1,73 @@
+package led.mega.agent.parser;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.regex.Pattern;
+
+/**
+ * Exception 지문 계산
+ * Exception 타입과 정규화된 상위 스택 프레임(줄 번호, 16진수 ID, 숫자 제거)으로 SHA-1을 계산합니다.
+ * 스택 트레이스가 없으면 정규화된 메시지를 대신 사용합니다.
+ */
+public final class ExceptionFingerprint {
+    
+    // 지문에 사용할 상위 스택 프레임 수
+    private static final int TOP_FRAMES = 5;
+    private static final int MAX_MESSAGE_LENGTH = 200;
+    
+    private static final Pattern LINE_NUMBER = Pattern.compile(":\\d+\\)");
+    private static final Pattern HEX_ID = Pattern.compile("0x[0-9a-fA-F]+|@[0-9a-fA-F]{4,}|\\b[0-9a-fA-F]{8,}\\b");
+    private static final Pattern DIGITS = Pattern.compile("\\d+");
+    
+    private ExceptionFingerprint() {
+    }
+    
+    public static String of(LogParser.ExceptionInfo info) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(info.getExceptionType()).append('\n');
+        
+        int frames = 0;
+        String stackTrace = info.getFullStackTrace();
+        if (stackTrace != null && !stackTrace.isEmpty()) {
+            for (String line : stackTrace.split("\n")) {
+                String trimmed = line.trim();
+                if (!trimmed.startsWith("at ")) {
+                    // 원인 Exception(Caused by) 이후는 제외
+                    if (frames > 0) {
+                        break;
+                    }
+                    continue;
+                }
+                sb.append(normalize(LINE_NUMBER.matcher(trimmed).replaceAll(")"))).append('\n');
+                if (++frames >= TOP_FRAMES) {
+                    break;
+                }
+            }
+        }
+        if (frames == 0) {
+            String message = info.getExceptionMessage() != null ? info.getExceptionMessage() : info.getExceptionLine();
+            String normalized = normalize(message != null ? message : "");
+            sb.append(normalized.length() > MAX_MESSAGE_LENGTH ? normalized.substring(0, MAX_MESSAGE_LENGTH) : normalized);
+        }
+        return sha1(sb.toString());
+    }
+    
+    private static String normalize(String value) {
+        String result = HEX_ID.matcher(value).replaceAll("#");
+        return DIGITS.matcher(result).replaceAll("#");
+    }
+    
+    private static String sha1(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1을 사용할 수 없습니다", e);
+        }
+    }
+}
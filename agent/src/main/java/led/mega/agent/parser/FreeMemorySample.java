@@ -0,0 +1,51 @@
+package led.mega.agent.parser;
+
+/**
+ * free -m 출력 샘플 (MB 단위)
+ * 호출하는 쪽이 하나를 만들어 두고 매 파싱 때 값만 덮어씁니다. 읽지 못한 값은 -1입니다.
+ */
+public class FreeMemorySample {
+
+    boolean memoryRead;
+    long totalMb;
+    long usedMb;
+    long freeMb;
+    long availableMb;
+    long swapTotalMb;
+    long swapUsedMb;
+    long swapFreeMb;
+
+    void reset() {
+        memoryRead = false;
+        totalMb = usedMb = freeMb = availableMb = -1;
+        swapTotalMb = swapUsedMb = swapFreeMb = -1;
+    }
+
+    /**
+     * Mem: 줄을 읽었는지 여부
+     */
+    public boolean isMemoryRead() { return memoryRead; }
+    public long getTotalMb() { return totalMb; }
+    public long getUsedMb() { return usedMb; }
+    public long getFreeMb() { return freeMb; }
+
+    /**
+     * 사용 가능 메모리 (available 열이 없는 오래된 free는 free 값)
+     */
+    public long getAvailableMb() { return availableMb >= 0 ? availableMb : freeMb; }
+    public long getSwapTotalMb() { return swapTotalMb; }
+    public long getSwapUsedMb() { return swapUsedMb; }
+    public long getSwapFreeMb() { return swapFreeMb; }
+
+    public double getUsedPercent() {
+        return totalMb > 0 ? (double) usedMb / totalMb * 100 : 0;
+    }
+
+    public double getFreePercent() {
+        return totalMb > 0 ? (double) freeMb / totalMb * 100 : 0;
+    }
+
+    public double getSwapUsedPercent() {
+        return swapTotalMb > 0 ? (double) swapUsedMb / swapTotalMb * 100 : 0;
+    }
+}
@@ -0,0 +1,169 @@
+package led.mega.agent.parser;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.TreeSet;
+
+/**
+ * 다중 키워드 매처 (Aho-Corasick, 대소문자 무시)
+ * 키워드 전체를 하나의 상태 전이표로 컴파일해 두고, 라인을 한 번만 훑어서
+ * 키워드가 하나라도 포함되어 있는지 확인합니다. 검사 중에는 객체를 생성하지 않습니다.
+ */
+public class KeywordMatcher {
+    
+    private static final int ASCII_SIZE = 128;
+    
+    // 문자 → 알파벳 인덱스 (-1: 키워드에 없는 문자)
+    private final int[] asciiClass = new int[ASCII_SIZE];
+    private final char[] extraChars;
+    private final int[] extraClass;
+    
+    private final int alphabetSize;
+    // 상태 × 알파벳 → 다음 상태 (실패 전이까지 반영된 DFA)
+    private final int[] transitions;
+    private final boolean[] accepting;
+    
+    public KeywordMatcher(Collection<String> keywords) {
+        List<String> folded = new ArrayList<>();
+        TreeSet<Character> alphabet = new TreeSet<>();
+        for (String keyword : keywords) {
+            if (keyword == null || keyword.trim().isEmpty()) {
+                continue;
+            }
+            String value = fold(keyword.trim());
+            folded.add(value);
+            for (int i = 0; i < value.length(); i++) {
+                alphabet.add(value.charAt(i));
+            }
+        }
+        if (folded.isEmpty()) {
+            throw new IllegalArgumentException("키워드가 하나 이상 필요합니다");
+        }
+        
+        // 알파벳 인덱스 부여 (ASCII는 배열, 나머지는 정렬된 배열에서 이진 검색)
+        Arrays.fill(asciiClass, -1);
+        List<Character> extras = new ArrayList<>();
+        int index = 0;
+        for (char c : alphabet) {
+            if (c < ASCII_SIZE) {
+                asciiClass[c] = index++;
+            } else {
+                extras.add(c);
+            }
+        }
+        extraChars = new char[extras.size()];
+        extraClass = new int[extras.size()];
+        for (int i = 0; i < extras.size(); i++) {
+            extraChars[i] = extras.get(i);
+            extraClass[i] = index++;
+        }
+        alphabetSize = index;
+        
+        // 트라이 구성
+        List<int[]> trie = new ArrayList<>();
+        List<Boolean> terminal = new ArrayList<>();
+        trie.add(newRow());
+        terminal.add(false);
+        for (String keyword : folded) {
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                int cls = classOf(keyword.charAt(i));
+                if (trie.get(state)[cls] < 0) {
+                    trie.get(state)[cls] = trie.size();
+                    trie.add(newRow());
+                    terminal.add(false);
+                }
+                state = trie.get(state)[cls];
+            }
+            terminal.set(state, true);
+        }
+        
+        // 실패 링크를 BFS로 계산하면서 전이표를 완성
+        int stateCount = trie.size();
+        transitions = new int[stateCount * alphabetSize];
+        accepting = new boolean[stateCount];
+        int[] fail = new int[stateCount];
+        Queue<Integer> queue = new ArrayDeque<>();
+        
+        accepting[0] = terminal.get(0);
+        for (int cls = 0; cls < alphabetSize; cls++) {
+            int next = trie.get(0)[cls];
+            if (next < 0) {
+                transitions[cls] = 0;
+            } else {
+                transitions[cls] = next;
+                fail[next] = 0;
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            accepting[state] = terminal.get(state) || accepting[fail[state]];
+            for (int cls = 0; cls < alphabetSize; cls++) {
+                int next = trie.get(state)[cls];
+                if (next < 0) {
+                    transitions[state * alphabetSize + cls] = transitions[fail[state] * alphabetSize + cls];
+                } else {
+                    transitions[state * alphabetSize + cls] = next;
+                    fail[next] = transitions[fail[state] * alphabetSize + cls];
+                    queue.add(next);
+                }
+            }
+        }
+    }
+    
+    /**
+     * 라인에 키워드가 하나라도 포함되어 있는지 확인
+     */
+    public boolean matches(CharSequence line) {
+        if (line == null) {
+            return false;
+        }
+        int state = 0;
+        for (int i = 0, length = line.length(); i < length; i++) {
+            int cls = classOf(foldChar(line.charAt(i)));
+            state = cls < 0 ? 0 : transitions[state * alphabetSize + cls];
+            if (accepting[state]) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private int[] newRow() {
+        int[] row = new int[alphabetSize];
+        Arrays.fill(row, -1);
+        return row;
+    }
+    
+    private int classOf(char c) {
+        if (c < ASCII_SIZE) {
+            return asciiClass[c];
+        }
+        int found = Arrays.binarySearch(extraChars, c);
+        return found >= 0 ? extraClass[found] : -1;
+    }
+    
+    /**
+     * 대소문자 통일 (ASCII가 아닌 문자는 ASCII로 바뀌지 않게 함, 'İ'가 'i'로 접히면 기존 정규식과 달라짐)
+     */
+    private static char foldChar(char c) {
+        if (c < ASCII_SIZE) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        char lower = Character.toLowerCase(c);
+        return lower < ASCII_SIZE ? c : lower;
+    }
+    
+    private static String fold(String keyword) {
+        StringBuilder sb = new StringBuilder(keyword.length());
+        for (int i = 0; i < keyword.length(); i++) {
+            sb.append(foldChar(keyword.charAt(i)));
+        }
+        return sb.toString();
+    }
+}
@@ -1,40 +1,79 @@
 package led.mega.agent.parser;
 
+import led.mega.agent.telemetry.AgentTelemetry;
+import led.mega.agent.telemetry.LatencyHistogram;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * 로그 파일 파싱 모듈
- * Exception 로그를 찾아서 위아래 5줄씩 컨텍스트를 포함하여 반환합니다.
+ * Exception 로그를 찾아서 위아래 컨텍스트(기본 5줄)와 스택 트레이스를 포함하여 반환합니다.
+ * 라인을 하나씩 받아 처리하는 상태 머신이므로 파일 크기와 관계없이 메모리 사용량이 일정하고,
+ * 로그 파일별 상태를 유지하여 여러 번에 나눠 읽은 로그에 걸친 Exception도 하나로 묶습니다.
  */
 @Slf4j
 public class LogParser {
     
-    // Exception 패턴 (Java, Python, Node.js 등 다양한 언어 지원)
-    private static final Pattern EXCEPTION_PATTERN = Pattern.compile(
-        "(?i)(exception|error|fatal|panic|traceback|stack trace)",
-        Pattern.CASE_INSENSITIVE
-    );
+    public static final int DEFAULT_CONTEXT_LINES = 5;
+    
+    // Exception 라인 이후로 살펴볼 최대 라인 수
+    private static final int MAX_BLOCK_LINES = 50;
+    
+    // Exception 키워드 (Java, Python, Node.js 등 다양한 언어 지원, 대소문자 무시)
+    public static final List<String> DEFAULT_KEYWORDS = Collections.unmodifiableList(Arrays.asList(
+        "exception", "error", "fatal", "panic", "traceback", "stack trace"
+    ));
+    
+    // 키워드 없이 Exception 라인으로 보는 Java 타입 (라인 전체가 "Throwable" 또는 "Throwable: ...")
+    private static final String BARE_THROWABLE = "Throwable";
     
-    // Java Exception 패턴
+    // Java Exception 패턴 (키워드가 포함된 라인에서 타입 추출에만 사용)
     private static final Pattern JAVA_EXCEPTION_PATTERN = Pattern.compile(
         "^([a-zA-Z][a-zA-Z0-9_.]*Exception|Error|Throwable)(:.*)?$"
     );
     
+    // 라인 하나 처리 시간 (에이전트 자체 텔레메트리)
+    private static final LatencyHistogram PARSE_LOG_LINE = AgentTelemetry.getInstance().histogram("parse.log_line");
+    
+    private final KeywordMatcher defaultMatcher = new KeywordMatcher(DEFAULT_KEYWORDS);
+    
+    // 로그 파일별 설정 및 스트리밍 상태
+    private final Map<String, SourceOptions> sourceOptions = new HashMap<>();
+    private final Map<String, SourceState> sourceStates = new HashMap<>();
+    
+    /**
+     * 로그 파일별 설정
+     *
+     * @param logFilePath 로그 파일 경로
+     * @param keywords Exception 키워드 (null이면 기본 키워드)
+     * @param contextBefore Exception 앞 컨텍스트 라인 수
+     * @param contextAfter Exception 뒤 컨텍스트 라인 수
+     */
+    public synchronized void configureSource(String logFilePath, List<String> keywords, int contextBefore, int contextAfter) {
+        KeywordMatcher matcher = keywords == null || keywords.isEmpty() ? defaultMatcher : new KeywordMatcher(keywords);
+        sourceOptions.put(logFilePath, new SourceOptions(matcher, Math.max(0, contextBefore), Math.max(0, contextAfter)));
+        sourceStates.remove(logFilePath);
+    }
+    
     /**
-     * 로그 파일에서 Exception을 찾아서 파싱
+     * 로그 파일 전체에서 Exception을 찾아서 파싱
      * 
      * @param logFilePath 로그 파일 경로
      * @return 파싱된 Exception 정보 리스트
@@ -48,25 +87,14 @@ public class LogParser {
             return exceptions;
         }
         
-        try {
-            List<String> lines = Files.readAllLines(Paths.get(logFilePath), StandardCharsets.UTF_8);
-            
-            for (int i = 0; i < lines.size(); i++) {
-                String line = lines.get(i);
-                
-                // Exception 패턴 매칭
-                if (isExceptionLine(line)) {
-                    ExceptionInfo exceptionInfo = extractExceptionInfo(lines, i, logFilePath);
-                    if (exceptionInfo != null) {
-                        exceptions.add(exceptionInfo);
-                        // 다음 Exception을 찾기 위해 스택 트레이스 건너뛰기
-                        i = skipStackTrace(lines, i);
-                    }
-                }
+        SourceState state = new SourceState(logFilePath, optionsFor(logFilePath));
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(logFilePath), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                state.accept(line, exceptions::add);
             }
-            
+            state.flush(exceptions::add);
             log.info("로그 파일에서 {}개의 Exception을 찾았습니다: {}", exceptions.size(), logFilePath);
-            
         } catch (IOException e) {
             log.error("로그 파일 읽기 실패: {}", logFilePath, e);
         }
@@ -75,94 +103,97 @@ public class LogParser {
     }
     
     /**
-     * Exception 라인인지 확인
+     * 주어진 로그 라인에서 Exception을 찾아서 파싱 (이전 호출과 상태를 공유하지 않음)
+     * 
+     * @param logFilePath 로그 파일 경로
+     * @param lines 로그 라인
+     * @return 파싱된 Exception 정보 리스트
      */
-    private boolean isExceptionLine(String line) {
-        if (line == null || line.trim().isEmpty()) {
-            return false;
-        }
-        
-        // Java Exception 패턴 확인
-        Matcher javaMatcher = JAVA_EXCEPTION_PATTERN.matcher(line.trim());
-        if (javaMatcher.find()) {
-            return true;
+    public List<ExceptionInfo> parseExceptions(String logFilePath, List<String> lines) {
+        List<ExceptionInfo> exceptions = new ArrayList<>();
+        SourceState state = new SourceState(logFilePath, optionsFor(logFilePath));
+        for (String line : lines) {
+            state.accept(line, exceptions::add);
         }
-        
-        // 일반 Exception 패턴 확인
-        Matcher matcher = EXCEPTION_PATTERN.matcher(line);
-        return matcher.find();
+        state.flush(exceptions::add);
+        return exceptions;
     }
     
     /**
-     * Exception 정보 추출 (위아래 5줄 컨텍스트 포함)
+     * 로그 라인 하나를 스트리밍으로 처리 (로그 파일별 상태 유지)
+     * Exception 블록이 끝나면 sink로 전달합니다. 아직 끝나지 않은 블록은 다음 호출에서 이어서 수집합니다.
+     * 
+     * @param logFilePath 로그 파일 경로
+     * @param line 로그 라인
+     * @param sink 완성된 Exception 정보를 받을 콜백
      */
-    private ExceptionInfo extractExceptionInfo(List<String> lines, int exceptionLineIndex, String logFilePath) {
-        if (exceptionLineIndex < 0 || exceptionLineIndex >= lines.size()) {
-            return null;
+    public synchronized void accept(String logFilePath, String line, Consumer<ExceptionInfo> sink) {
+        long start = System.nanoTime();
+        stateFor(logFilePath).accept(line, sink);
+        PARSE_LOG_LINE.recordSince(start);
+    }
+    
+    /**
+     * 수집 중인 Exception 블록을 지금까지의 내용으로 마무리 (더 이상 새 로그가 없을 때)
+     */
+    public synchronized void flush(String logFilePath, Consumer<ExceptionInfo> sink) {
+        SourceState state = sourceStates.get(logFilePath);
+        if (state != null) {
+            state.flush(sink);
         }
-        
-        String exceptionLine = lines.get(exceptionLineIndex);
-        
-        // Exception 타입 추출
-        String exceptionType = extractExceptionType(exceptionLine);
-        
-        // Exception 메시지 추출
-        String exceptionMessage = extractExceptionMessage(exceptionLine);
-        
-        // 위 5줄 컨텍스트
-        List<String> contextBefore = new ArrayList<>();
-        int startIndex = Math.max(0, exceptionLineIndex - 5);
-        for (int i = startIndex; i < exceptionLineIndex; i++) {
-            contextBefore.add(lines.get(i));
+    }
+    
+    /**
+     * 모든 로그 파일의 수집 중인 Exception 블록 마무리 (종료 시)
+     */
+    public synchronized void flushAll(Consumer<ExceptionInfo> sink) {
+        for (SourceState state : sourceStates.values()) {
+            state.flush(sink);
         }
-        
-        // 아래 5줄 컨텍스트 및 스택 트레이스
-        List<String> contextAfter = new ArrayList<>();
-        List<String> stackTrace = new ArrayList<>();
-        int endIndex = Math.min(lines.size(), exceptionLineIndex + 50); // 최대 50줄까지
-        boolean inStackTrace = false;
-        
-        for (int i = exceptionLineIndex + 1; i < endIndex; i++) {
-            String line = lines.get(i);
-            
-            // 스택 트레이스 시작 확인 (at, Caused by 등)
-            if (line.trim().startsWith("at ") || 
-                line.trim().startsWith("Caused by:") ||
-                line.trim().matches("^\\s+at .*")) {
-                inStackTrace = true;
-                stackTrace.add(line);
-            } else if (inStackTrace && (line.trim().isEmpty() || 
-                       line.trim().startsWith("...") ||
-                       isExceptionLine(line))) {
-                // 스택 트레이스 종료 또는 새로운 Exception 시작
-                break;
-            } else if (inStackTrace) {
-                stackTrace.add(line);
-            } else {
-                // 컨텍스트 (아래 5줄)
-                if (contextAfter.size() < 5) {
-                    contextAfter.add(line);
-                } else {
-                    break;
-                }
-            }
+    }
+    
+    /**
+     * 아직 끝나지 않은 Exception 블록이 있는지 확인
+     */
+    public synchronized boolean hasPending(String logFilePath) {
+        SourceState state = sourceStates.get(logFilePath);
+        return state != null && !state.openBlocks.isEmpty();
+    }
+    
+    private SourceOptions optionsFor(String logFilePath) {
+        SourceOptions options = sourceOptions.get(logFilePath);
+        return options != null ? options : new SourceOptions(defaultMatcher, DEFAULT_CONTEXT_LINES, DEFAULT_CONTEXT_LINES);
+    }
+    
+    private SourceState stateFor(String logFilePath) {
+        SourceState state = sourceStates.get(logFilePath);
+        if (state == null) {
+            state = new SourceState(logFilePath, optionsFor(logFilePath));
+            sourceStates.put(logFilePath, state);
         }
-        
-        return new ExceptionInfo(
-            logFilePath,
-            exceptionType,
-            exceptionMessage,
-            String.join("\n", contextBefore),
-            String.join("\n", contextAfter),
-            String.join("\n", stackTrace),
-            exceptionLine
-        );
+        return state;
+    }
+    
+    /**
+     * Exception 라인인지 확인 (키워드 포함, 또는 Java의 "Throwable" 라인)
+     */
+    static boolean isExceptionLine(KeywordMatcher matcher, String line, String trimmed) {
+        return matcher.matches(line)
+            || (trimmed.startsWith(BARE_THROWABLE)
+                && (trimmed.length() == BARE_THROWABLE.length() || trimmed.charAt(BARE_THROWABLE.length()) == ':'));
+    }
+    
+    /**
+     * 스택 트레이스 라인인지 확인 (앞뒤 공백을 제거한 라인 기준)
+     */
+    private static boolean isStackTraceLine(String trimmed) {
+        return trimmed.startsWith("at ") || trimmed.startsWith("Caused by:");
     }
     
     /**
      * Exception 타입 추출
      */
-    private String extractExceptionType(String line) {
+    private static String extractExceptionType(String line) {
         Matcher matcher = JAVA_EXCEPTION_PATTERN.matcher(line.trim());
         if (matcher.find()) {
             return matcher.group(1);
@@ -183,7 +214,7 @@ public class LogParser {
     /**
      * Exception 메시지 추출
      */
-    private String extractExceptionMessage(String line) {
+    private static String extractExceptionMessage(String line) {
         int colonIndex = line.indexOf(':');
         if (colonIndex > 0 && colonIndex < line.length() - 1) {
             return line.substring(colonIndex + 1).trim();
@@ -192,24 +223,157 @@ public class LogParser {
     }
     
     /**
-     * 스택 트레이스 건너뛰기
+     * 로그 파일별 설정
+     */
+    private static class SourceOptions {
+        private final KeywordMatcher matcher;
+        private final int contextBefore;
+        private final int contextAfter;
+        
+        SourceOptions(KeywordMatcher matcher, int contextBefore, int contextAfter) {
+            this.matcher = matcher;
+            this.contextBefore = contextBefore;
+            this.contextAfter = contextAfter;
+        }
+    }
+    
+    /**
+     * 로그 파일 하나의 스트리밍 파싱 상태
+     * 최근 라인은 고정 크기 링 버퍼에, 수집 중인 Exception 블록은 발견 순서대로 큐에 보관합니다.
+     */
+    private static class SourceState {
+        private final String logFilePath;
+        private final SourceOptions options;
+        private final String[] recentLines;
+        private int recentStart;
+        private int recentCount;
+        private final Deque<ExceptionBlock> openBlocks = new ArrayDeque<>();
+        
+        // Exception 직후의 스택 트레이스 구간에서는 새 Exception을 찾지 않음
+        private boolean skippingStackTrace;
+        
+        SourceState(String logFilePath, SourceOptions options) {
+            this.logFilePath = logFilePath;
+            this.options = options;
+            this.recentLines = new String[options.contextBefore];
+        }
+        
+        void accept(String line, Consumer<ExceptionInfo> sink) {
+            // 1. 수집 중인 블록에 라인 전달
+            for (ExceptionBlock block : openBlocks) {
+                block.accept(line);
+            }
+            
+            // 2. 새 Exception 확인
+            String trimmed = line.trim();
+            boolean exceptionLine = isExceptionLine(options.matcher, line, trimmed);
+            if (skippingStackTrace) {
+                skippingStackTrace = isStackTraceLine(trimmed) || trimmed.isEmpty() || exceptionLine;
+            } else if (exceptionLine) {
+                openBlocks.add(new ExceptionBlock(logFilePath, options, line, recentContext()));
+                skippingStackTrace = true;
+            }
+            
+            // 3. 링 버퍼에 기록하고 끝난 블록을 순서대로 전달
+            remember(line);
+            while (!openBlocks.isEmpty() && openBlocks.peekFirst().closed) {
+                sink.accept(openBlocks.pollFirst().toExceptionInfo());
+            }
+        }
+        
+        void flush(Consumer<ExceptionInfo> sink) {
+            while (!openBlocks.isEmpty()) {
+                sink.accept(openBlocks.pollFirst().toExceptionInfo());
+            }
+            skippingStackTrace = false;
+        }
+        
+        private void remember(String line) {
+            if (recentLines.length == 0) {
+                return;
+            }
+            if (recentCount < recentLines.length) {
+                recentLines[(recentStart + recentCount++) % recentLines.length] = line;
+            } else {
+                recentLines[recentStart] = line;
+                recentStart = (recentStart + 1) % recentLines.length;
+            }
+        }
+        
+        private String recentContext() {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < recentCount; i++) {
+                if (i > 0) {
+                    sb.append('\n');
+                }
+                sb.append(recentLines[(recentStart + i) % recentLines.length]);
+            }
+            return sb.toString();
+        }
+    }
+    
+    /**
+     * 수집 중인 Exception 블록 (뒤 컨텍스트 및 스택 트레이스)
      */
-    private int skipStackTrace(List<String> lines, int currentIndex) {
-        int i = currentIndex + 1;
-        while (i < lines.size()) {
-            String line = lines.get(i).trim();
+    private static class ExceptionBlock {
+        private final String logFilePath;
+        private final SourceOptions options;
+        private final String exceptionLine;
+        private final String contextBefore;
+        private final List<String> contextAfter = new ArrayList<>();
+        private final List<String> stackTrace = new ArrayList<>();
+        private boolean inStackTrace;
+        private int followingLines;
+        private boolean closed;
+        
+        ExceptionBlock(String logFilePath, SourceOptions options, String exceptionLine, String contextBefore) {
+            this.logFilePath = logFilePath;
+            this.options = options;
+            this.exceptionLine = exceptionLine;
+            this.contextBefore = contextBefore;
+        }
+        
+        void accept(String line) {
+            if (closed) {
+                return;
+            }
+            String trimmed = line.trim();
             
-            // 스택 트레이스가 아닌 라인을 만나면 종료
-            if (!line.startsWith("at ") && 
-                !line.startsWith("Caused by:") &&
-                !line.matches("^\\s+at .*") &&
-                !line.isEmpty() &&
-                !isExceptionLine(lines.get(i))) {
-                break;
+            // 스택 트레이스 시작 확인 (at, Caused by 등)
+            if (isStackTraceLine(trimmed)) {
+                inStackTrace = true;
+                stackTrace.add(line);
+            } else if (inStackTrace && (trimmed.isEmpty() ||
+                       trimmed.startsWith("...") ||
+                       isExceptionLine(options.matcher, line, trimmed))) {
+                // 스택 트레이스 종료 또는 새로운 Exception 시작
+                closed = true;
+                return;
+            } else if (inStackTrace) {
+                stackTrace.add(line);
+            } else if (contextAfter.size() < options.contextAfter) {
+                contextAfter.add(line);
+            } else {
+                closed = true;
+                return;
             }
-            i++;
+            
+            if (++followingLines >= MAX_BLOCK_LINES - 1) {
+                closed = true;
+            }
+        }
+        
+        ExceptionInfo toExceptionInfo() {
+            return new ExceptionInfo(
+                logFilePath,
+                extractExceptionType(exceptionLine),
+                extractExceptionMessage(exceptionLine),
+                contextBefore,
+                String.join("\n", contextAfter),
+                String.join("\n", stackTrace),
+                exceptionLine
+            );
         }
-        return i - 1;
     }
     
     /**
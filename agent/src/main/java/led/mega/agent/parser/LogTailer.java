@@ -0,0 +1,351 @@
+package led.mega.agent.parser;
+
+import com.google.gson.Gson;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * 로그 파일 증분 읽기 (tail -F 방식)
+ * 파일별로 마지막으로 읽은 byte 위치와 inode/앞부분 지문을 상태 파일에 저장하고,
+ * 실행할 때마다 새로 추가된 줄만 읽습니다. 잘림(truncate)과 로테이션(이름 변경 후 새 파일 생성)을 감지합니다.
+ */
+@Slf4j
+public class LogTailer {
+    
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int FINGERPRINT_SIZE = 1024;
+    private static final int MAX_LINE_LENGTH = 64 * 1024;
+    
+    // 한 번 실행에서 파일당 읽을 최대 크기 (나머지는 다음 실행에서 이어서 읽음)
+    private static final long MAX_READ_BYTES_PER_RUN = 32L * 1024 * 1024;
+    
+    private final Path stateFile;
+    private final boolean readFromStart;
+    private final Gson gson = new Gson();
+    private final Map<String, TailState> states = new HashMap<>();
+    
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+    private final ByteBuffer fingerprintBuffer = ByteBuffer.allocate(FINGERPRINT_SIZE);
+    private final CRC32 crc = new CRC32();
+    private byte[] lineBuffer = new byte[1024];
+    private int lineLength;
+    private boolean discardingLine;
+    private boolean dirty;
+    
+    /**
+     * @param stateFile 오프셋 상태 파일 경로
+     * @param readFromStart 처음 보는 파일을 처음부터 읽을지 여부 (false면 현재 끝부터 추적)
+     */
+    public LogTailer(String stateFile, boolean readFromStart) {
+        this.stateFile = Paths.get(stateFile);
+        this.readFromStart = readFromStart;
+        loadState();
+    }
+    
+    /**
+     * 마지막으로 읽은 위치 이후에 추가된 줄 읽기
+     *
+     * @param logFilePath 로그 파일 경로
+     * @param consumer 완성된 줄(개행 제외)을 받을 콜백
+     * @return 읽은 byte 수
+     */
+    public synchronized long readNewLines(String logFilePath, Consumer<String> consumer) {
+        Path path = Paths.get(logFilePath);
+        if (!Files.isRegularFile(path)) {
+            log.debug("로그 파일이 존재하지 않습니다: {}", logFilePath);
+            return 0;
+        }
+        
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+            String fileKey = attrs.fileKey() != null ? attrs.fileKey().toString() : null;
+            long size = attrs.size();
+            
+            TailState state = states.get(logFilePath);
+            if (state == null) {
+                state = new TailState();
+                state.fileKey = fileKey;
+                state.offset = readFromStart ? 0 : size;
+                updateFingerprint(path, state, size);
+                states.put(logFilePath, state);
+                dirty = true;
+                log.info("로그 파일 추적 시작: {} (시작 위치: {})", logFilePath, state.offset);
+            }
+            
+            long bytesRead = 0;
+            if (fileKey != null && state.fileKey != null && !fileKey.equals(state.fileKey)) {
+                // 로테이션: 이름이 바뀐 이전 파일의 남은 부분을 먼저 읽고 새 파일은 처음부터
+                Path rotated = findRotatedFile(path, state.fileKey);
+                if (rotated != null) {
+                    discardingLine = state.discardingLine;
+                    bytesRead += readLines(rotated, state.offset, Long.MAX_VALUE, true, false, consumer) - state.offset;
+                    log.info("로그 로테이션 감지: {} → {} (이전 파일 나머지 읽기 완료)", logFilePath, rotated.getFileName());
+                } else {
+                    log.info("로그 로테이션 감지: {} (이전 파일을 찾을 수 없어 새 파일부터 읽음)", logFilePath);
+                }
+                state.reset(fileKey);
+            } else if (size < state.offset || !fingerprintMatches(path, state, size)) {
+                log.info("로그 파일 잘림 또는 교체 감지: {} (저장 위치: {}, 현재 크기: {})", logFilePath, state.offset, size);
+                state.reset(fileKey);
+            }
+            
+            if (size > state.offset) {
+                long limit = Math.min(size, state.offset + MAX_READ_BYTES_PER_RUN);
+                discardingLine = state.discardingLine;
+                long newOffset = readLines(path, state.offset, limit, false, limit < size, consumer);
+                bytesRead += newOffset - state.offset;
+                state.offset = newOffset;
+                if (state.discardingLine != discardingLine) {
+                    state.discardingLine = discardingLine;
+                    dirty = true;
+                }
+                if (limit < size) {
+                    log.info("로그 파일 읽기 제한 도달, 다음 실행에서 이어서 읽습니다: {} ({}/{} bytes)", logFilePath, newOffset, size);
+                }
+            }
+            if (state.fingerprintLength < FINGERPRINT_SIZE && size > state.fingerprintLength) {
+                updateFingerprint(path, state, size);
+            }
+            if (bytesRead > 0) {
+                dirty = true;
+            }
+            return bytesRead;
+            
+        } catch (IOException e) {
+            log.error("로그 파일 읽기 실패: {}", logFilePath, e);
+            return 0;
+        }
+    }
+    
+    /**
+     * 변경된 오프셋 상태를 파일에 저장 (임시 파일 기록 후 교체)
+     */
+    public synchronized void saveState() {
+        if (!dirty) {
+            return;
+        }
+        try {
+            Path parent = stateFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path temp = stateFile.resolveSibling(stateFile.getFileName() + ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                StateFile content = new StateFile();
+                content.files = states;
+                gson.toJson(content, writer);
+            }
+            try {
+                Files.move(temp, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, stateFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            dirty = false;
+        } catch (IOException e) {
+            log.error("로그 오프셋 상태 저장 실패: {}", stateFile, e);
+        }
+    }
+    
+    private void loadState() {
+        if (!Files.isRegularFile(stateFile)) {
+            return;
+        }
+        try (Reader reader = Files.newBufferedReader(stateFile, StandardCharsets.UTF_8)) {
+            StateFile content = gson.fromJson(reader, StateFile.class);
+            if (content != null && content.files != null) {
+                states.putAll(content.files);
+            }
+            log.info("로그 오프셋 상태 로드 완료: {}개 파일", states.size());
+        } catch (Exception e) {
+            log.warn("로그 오프셋 상태 파일을 읽을 수 없어 새로 시작합니다: {}", stateFile, e);
+        }
+    }
+    
+    /**
+     * from부터 limit까지 읽어 완성된 줄을 전달
+     * discardingLine이면 다음 개행까지는 이미 잘라서 전달한 줄의 나머지이므로 버립니다.
+     *
+     * @param flushPartial 마지막 줄에 개행이 없어도 전달할지 여부 (더 이상 쓰이지 않는 로테이션된 파일용)
+     * @param cutAtLimit 읽기 제한에 걸렸는지 여부 (구간 안에 개행이 하나도 없으면 줄을 잘라 전달하고 나머지는 버림)
+     * @return 마지막으로 전달한 줄의 다음 위치
+     */
+    private long readLines(Path path, long from, long limit, boolean flushPartial, boolean cutAtLimit,
+                           Consumer<String> consumer) throws IOException {
+        long committed = from;
+        lineLength = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long position = from;
+            while (position < limit) {
+                readBuffer.clear();
+                if (limit - position < readBuffer.capacity()) {
+                    readBuffer.limit((int) (limit - position));
+                }
+                int read = channel.read(readBuffer, position);
+                if (read <= 0) {
+                    break;
+                }
+                byte[] bytes = readBuffer.array();
+                for (int i = 0; i < read; i++) {
+                    byte b = bytes[i];
+                    if (b == '\n') {
+                        if (discardingLine) {
+                            discardingLine = false;
+                            lineLength = 0;
+                        } else {
+                            consumer.accept(decodeLine());
+                        }
+                        committed = position + i + 1;
+                    } else if (!discardingLine) {
+                        appendToLine(b);
+                    }
+                }
+                position += read;
+            }
+            if (flushPartial && (lineLength > 0 || discardingLine)) {
+                if (!discardingLine) {
+                    consumer.accept(decodeLine());
+                }
+                discardingLine = false;
+                committed = position;
+            } else if (cutAtLimit && committed == from && position > from) {
+                // 개행 없는 줄이 읽기 제한보다 길면 다음 실행에서도 같은 위치에 머무르므로, 앞부분만 전달하고 건너뜀
+                if (!discardingLine) {
+                    log.warn("개행 없는 줄이 읽기 제한보다 길어 잘라서 전달합니다: {} (위치: {})", path, from);
+                    consumer.accept(decodeLine());
+                    discardingLine = true;
+                }
+                committed = position;
+            }
+        }
+        return committed;
+    }
+    
+    private void appendToLine(byte b) {
+        if (lineLength >= MAX_LINE_LENGTH) {
+            // 너무 긴 줄은 잘라서 보관 (오프셋 계산에는 영향 없음)
+            return;
+        }
+        if (lineLength == lineBuffer.length) {
+            byte[] grown = new byte[Math.min(lineBuffer.length * 2, MAX_LINE_LENGTH)];
+            System.arraycopy(lineBuffer, 0, grown, 0, lineLength);
+            lineBuffer = grown;
+        }
+        lineBuffer[lineLength++] = b;
+    }
+    
+    private String decodeLine() {
+        int length = lineLength;
+        if (length > 0 && lineBuffer[length - 1] == '\r') {
+            length--;
+        }
+        lineLength = 0;
+        return new String(lineBuffer, 0, length, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * 같은 디렉토리에서 이전 inode를 가진 파일(로테이션된 파일) 찾기
+     */
+    private Path findRotatedFile(Path path, String fileKey) {
+        Path directory = path.toAbsolutePath().getParent();
+        String baseName = path.getFileName().toString();
+        if (directory == null) {
+            return null;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, baseName + "*")) {
+            for (Path candidate : stream) {
+                if (candidate.getFileName().toString().equals(baseName) || !Files.isRegularFile(candidate)) {
+                    continue;
+                }
+                Object key = Files.readAttributes(candidate, BasicFileAttributes.class).fileKey();
+                if (key != null && fileKey.equals(key.toString())) {
+                    return candidate;
+                }
+            }
+        } catch (IOException e) {
+            log.debug("로테이션된 파일 검색 실패: {}", path, e);
+        }
+        return null;
+    }
+    
+    private boolean fingerprintMatches(Path path, TailState state, long size) throws IOException {
+        if (state.fingerprintLength == 0) {
+            return true;
+        }
+        if (size < state.fingerprintLength) {
+            return false;
+        }
+        return checksum(path, state.fingerprintLength) == state.fingerprint;
+    }
+    
+    private void updateFingerprint(Path path, TailState state, long size) throws IOException {
+        int length = (int) Math.min(size, FINGERPRINT_SIZE);
+        state.fingerprint = length > 0 ? checksum(path, length) : 0;
+        state.fingerprintLength = length;
+    }
+    
+    /**
+     * 파일 앞부분 length byte의 CRC32
+     */
+    private long checksum(Path path, int length) throws IOException {
+        fingerprintBuffer.clear();
+        fingerprintBuffer.limit(length);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long position = 0;
+            while (fingerprintBuffer.hasRemaining()) {
+                int read = channel.read(fingerprintBuffer, position);
+                if (read <= 0) {
+                    break;
+                }
+                position += read;
+            }
+        }
+        crc.reset();
+        crc.update(fingerprintBuffer.array(), 0, fingerprintBuffer.position());
+        return crc.getValue();
+    }
+    
+    /**
+     * 파일별 추적 상태
+     */
+    private static class TailState {
+        private String fileKey;
+        private long offset;
+        private long fingerprint;
+        private int fingerprintLength;
+        // 잘라서 전달한 긴 줄의 나머지를 다음 개행까지 버리는 중인지 여부
+        private boolean discardingLine;
+        
+        void reset(String newFileKey) {
+            fileKey = newFileKey;
+            offset = 0;
+            discardingLine = false;
+            fingerprint = 0;
+            fingerprintLength = 0;
+        }
+    }
+    
+    /**
+     * 상태 파일 형식
+     */
+    private static class StateFile {
+        private Map<String, TailState> files;
+    }
+}
@@ -0,0 +1,186 @@
+package led.mega.agent.parser;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 로그 파일 변경 감지기
+ * 로그 파일이 있는 디렉토리를 WatchService에 등록하고, 파일이 바뀌면 짧은 대기 시간(debounce) 동안
+ * 들어온 이벤트를 모아 파일당 한 번만 콜백을 호출합니다.
+ * 이벤트를 받을 수 없는 경우(디렉토리 없음, 네트워크 파일시스템 등)는 주기적 폴링이 처리합니다.
+ */
+@Slf4j
+public class LogWatcher {
+    
+    // 쓰기가 계속 이어져도 이 시간 안에는 한 번 읽도록 보장
+    private static final int MAX_DELAY_MULTIPLIER = 10;
+    
+    private final List<Path> logPaths = new ArrayList<>();
+    private final long debounceMillis;
+    private final Consumer<String> onChange;
+    
+    // 디렉토리 → 감시 대상 파일 (절대 경로 → 설정에 적힌 경로)
+    private final Map<Path, Map<Path, String>> watchedFiles = new HashMap<>();
+    
+    private WatchService watchService;
+    private Thread watchThread;
+    private volatile boolean running;
+    
+    /**
+     * @param logPaths 감시할 로그 파일 경로
+     * @param debounceMillis 이벤트를 모으는 대기 시간
+     * @param onChange 변경된 로그 파일 경로(설정에 적힌 그대로)를 받을 콜백
+     */
+    public LogWatcher(List<String> logPaths, long debounceMillis, Consumer<String> onChange) {
+        for (String logPath : logPaths) {
+            this.logPaths.add(Paths.get(logPath));
+        }
+        this.debounceMillis = Math.max(10, debounceMillis);
+        this.onChange = onChange;
+    }
+    
+    /**
+     * 감시 시작
+     *
+     * @return 하나 이상의 디렉토리를 등록했으면 true
+     */
+    public boolean start() {
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+        } catch (IOException | UnsupportedOperationException e) {
+            log.warn("WatchService를 사용할 수 없어 폴링으로만 로그를 수집합니다", e);
+            return false;
+        }
+        
+        for (int i = 0; i < logPaths.size(); i++) {
+            Path file = logPaths.get(i).toAbsolutePath().normalize();
+            Path directory = file.getParent();
+            if (directory == null || !Files.isDirectory(directory)) {
+                log.info("로그 디렉토리가 없어 감시하지 않습니다 (폴링으로 수집): {}", logPaths.get(i));
+                continue;
+            }
+            try {
+                if (!watchedFiles.containsKey(directory)) {
+                    directory.register(watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY);
+                    watchedFiles.put(directory, new HashMap<Path, String>());
+                }
+                watchedFiles.get(directory).put(file, logPaths.get(i).toString());
+            } catch (IOException e) {
+                log.warn("로그 디렉토리 감시 등록 실패 (폴링으로 수집): {}", directory, e);
+            }
+        }
+        
+        if (watchedFiles.isEmpty()) {
+            close();
+            return false;
+        }
+        
+        running = true;
+        watchThread = new Thread(this::watchLoop, "log-watcher");
+        watchThread.setDaemon(true);
+        watchThread.start();
+        log.info("로그 파일 변경 감지 시작: {}개 디렉토리 (대기 시간: {}ms)", watchedFiles.size(), debounceMillis);
+        return true;
+    }
+    
+    /**
+     * 감시 중지
+     */
+    public void stop() {
+        running = false;
+        close();
+        if (watchThread != null) {
+            watchThread.interrupt();
+            try {
+                watchThread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        log.info("로그 파일 변경 감지 중지");
+    }
+    
+    private void watchLoop() {
+        Set<String> pending = new LinkedHashSet<>();
+        try {
+            while (running) {
+                // 첫 이벤트는 무한 대기, 이후에는 debounce 동안 추가 이벤트를 모음
+                collectEvents(watchService.take(), pending);
+                long deadline = System.currentTimeMillis() + debounceMillis * MAX_DELAY_MULTIPLIER;
+                WatchKey key;
+                while ((key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                    collectEvents(key, pending);
+                    if (System.currentTimeMillis() >= deadline) {
+                        break;
+                    }
+                }
+                
+                for (String logPath : pending) {
+                    try {
+                        onChange.accept(logPath);
+                    } catch (Exception e) {
+                        log.error("로그 변경 처리 실패: {}", logPath, e);
+                    }
+                }
+                pending.clear();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // 중지 요청
+        }
+    }
+    
+    private void collectEvents(WatchKey key, Set<String> pending) {
+        Path directory = (Path) key.watchable();
+        Map<Path, String> files = watchedFiles.get(directory);
+        
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (files == null) {
+                continue;
+            }
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // 이벤트가 유실되었으면 디렉토리의 모든 감시 대상을 다시 읽음
+                pending.addAll(files.values());
+                continue;
+            }
+            String logPath = files.get(directory.resolve((Path) event.context()));
+            if (logPath != null) {
+                pending.add(logPath);
+            }
+        }
+        
+        if (!key.reset()) {
+            log.warn("로그 디렉토리 감시가 해제되었습니다 (폴링으로 수집): {}", directory);
+            watchedFiles.remove(directory);
+        }
+    }
+    
+    private void close() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                log.debug("WatchService 종료 실패", e);
+            }
+        }
+    }
+}
@@ -1,191 +1,242 @@
 package led.mega.agent.parser;
 
-import lombok.extern.slf4j.Slf4j;
+import led.mega.agent.telemetry.AgentTelemetry;
+import led.mega.agent.telemetry.LatencyHistogram;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.List;
 
 /**
  * 메트릭 데이터 파서
  * 명령어 실행 결과를 파싱하여 메트릭 데이터로 변환합니다.
+ * 출력을 커서로 한 번만 훑으며 호출하는 쪽의 샘플에 원시 값으로 채우므로, 파싱 과정에서 Map/박싱/BigDecimal을 만들지 않습니다.
+ * 여러 작업 스레드가 함께 쓰므로 커서는 스레드마다 하나를 재사용합니다.
  */
-@Slf4j
 public class MetricParser {
-    
+
+    // 파싱 시간 (에이전트 자체 텔레메트리)
+    private static final LatencyHistogram PARSE_FREE_MEMORY = AgentTelemetry.getInstance().histogram("parse.free_memory");
+    private static final LatencyHistogram PARSE_DISK_USAGE = AgentTelemetry.getInstance().histogram("parse.disk_usage");
+    private static final LatencyHistogram PARSE_CPU_USAGE = AgentTelemetry.getInstance().histogram("parse.cpu_usage");
+    private static final LatencyHistogram PARSE_FIRST_NUMBER = AgentTelemetry.getInstance().histogram("parse.first_number");
+
+    // df -h 크기 접미사 (1024 단위)
+    private static final String SIZE_UNITS = "KMGTPE";
+
+    private final ThreadLocal<TextCursor> cursors = ThreadLocal.withInitial(TextCursor::new);
+
     /**
      * free -m 명령어 결과 파싱
-     * 
+     *
      * @param output free -m 명령어 출력
-     * @return 파싱된 메모리 메트릭 데이터
+     * @param sample 값을 채울 샘플
+     * @return Mem: 줄이 없으면 false
      */
-    public Map<String, Object> parseFreeMemory(String output) {
-        Map<String, Object> metrics = new HashMap<>();
-        
+    public boolean parseFreeMemory(CharSequence output, FreeMemorySample sample) {
+        long start = System.nanoTime();
+        TextCursor cursor = cursors.get().reset(output);
         try {
-            String[] lines = output.split("\n");
-            for (String line : lines) {
-                if (line.startsWith("Mem:")) {
-                    String[] parts = line.trim().split("\\s+");
-                    if (parts.length >= 4) {
-                        long total = Long.parseLong(parts[1]);
-                        long used = Long.parseLong(parts[2]);
-                        long free = Long.parseLong(parts[3]);
-                        long available = parts.length >= 7 ? Long.parseLong(parts[6]) : free;
-                        
-                        metrics.put("total", total);
-                        metrics.put("used", used);
-                        metrics.put("free", free);
-                        metrics.put("available", available);
-                        metrics.put("usedPercent", (double) used / total * 100);
-                        metrics.put("freePercent", (double) free / total * 100);
-                    }
-                } else if (line.startsWith("Swap:")) {
-                    String[] parts = line.trim().split("\\s+");
-                    if (parts.length >= 4) {
-                        long swapTotal = Long.parseLong(parts[1]);
-                        long swapUsed = Long.parseLong(parts[2]);
-                        long swapFree = Long.parseLong(parts[3]);
-                        
-                        metrics.put("swapTotal", swapTotal);
-                        metrics.put("swapUsed", swapUsed);
-                        metrics.put("swapFree", swapFree);
-                        if (swapTotal > 0) {
-                            metrics.put("swapUsedPercent", (double) swapUsed / swapTotal * 100);
-                        }
-                    }
-                }
+            return doParseFreeMemory(cursor, sample);
+        } finally {
+            cursor.clear();
+            PARSE_FREE_MEMORY.recordSince(start);
+        }
+    }
+
+    /**
+     * 형식: Mem: total used free shared buff/cache available / Swap: total used free
+     * 오래된 free는 여섯 번째 열이 cached라서, 헤더에 available이 있을 때만 사용 가능 메모리로 읽음
+     */
+    private boolean doParseFreeMemory(TextCursor cursor, FreeMemorySample sample) {
+        sample.reset();
+        boolean availableColumn = cursor.find("available");
+        cursor.rewind();
+        if (cursor.findLine("Mem:")) {
+            sample.totalMb = cursor.nextLong();
+            sample.usedMb = cursor.nextLong();
+            sample.freeMb = cursor.nextLong();
+            cursor.nextLong();  // shared
+            cursor.nextLong();  // buff/cache
+            if (availableColumn) {
+                sample.availableMb = cursor.nextLong();
             }
-        } catch (Exception e) {
-            log.error("메모리 메트릭 파싱 실패", e);
+            sample.memoryRead = sample.totalMb > 0 && sample.usedMb >= 0 && sample.freeMb >= 0;
+        }
+        cursor.rewind();
+        if (cursor.findLine("Swap:")) {
+            sample.swapTotalMb = cursor.nextLong();
+            sample.swapUsedMb = cursor.nextLong();
+            sample.swapFreeMb = cursor.nextLong();
         }
-        
-        return metrics;
+        return sample.memoryRead;
     }
-    
+
     /**
      * df -h 명령어 결과 파싱
-     * 
+     *
      * @param output df -h 명령어 출력
-     * @return 파싱된 디스크 메트릭 데이터 리스트
+     * @param samples 값을 채울 샘플 목록 (이전 파싱의 샘플을 순서대로 재사용하고, 남는 샘플은 제거)
+     * @return 파싱한 마운트 위치 수
      */
-    public Map<String, Map<String, Object>> parseDiskUsage(String output) {
-        Map<String, Map<String, Object>> diskMetrics = new HashMap<>();
-        
+    public int parseDiskUsage(CharSequence output, List<DiskUsageSample> samples) {
+        long start = System.nanoTime();
+        TextCursor cursor = cursors.get().reset(output);
         try {
-            String[] lines = output.split("\n");
-            // 첫 번째 줄은 헤더이므로 건너뛰기
-            for (int i = 1; i < lines.length; i++) {
-                String line = lines[i].trim();
-                if (line.isEmpty()) continue;
-                
-                String[] parts = line.split("\\s+");
-                if (parts.length >= 6) {
-                    String filesystem = parts[0];
-                    String size = parts[1];
-                    String used = parts[2];
-                    String avail = parts[3];
-                    String usePercent = parts[4].replace("%", "");
-                    String mountedOn = parts[5];
-                    
-                    Map<String, Object> diskInfo = new HashMap<>();
-                    diskInfo.put("filesystem", filesystem);
-                    diskInfo.put("size", size);
-                    diskInfo.put("used", used);
-                    diskInfo.put("avail", avail);
-                    diskInfo.put("usePercent", Double.parseDouble(usePercent));
-                    diskInfo.put("mountedOn", mountedOn);
-                    
-                    diskMetrics.put(mountedOn, diskInfo);
+            return doParseDiskUsage(cursor, samples);
+        } finally {
+            cursor.clear();
+            PARSE_DISK_USAGE.recordSince(start);
+        }
+    }
+
+    /**
+     * 형식: Filesystem Size Used Avail Use% Mounted on (첫 줄은 헤더, 사용률이 "-"인 줄은 건너뜀)
+     * 장치 이름이 길면 df가 나머지 값을 다음 줄로 넘기므로, 이름만 있는 줄은 다음 줄과 이어서 읽음
+     */
+    private int doParseDiskUsage(TextCursor cursor, List<DiskUsageSample> samples) {
+        int count = 0;
+        String pendingFilesystem = null;
+        while (cursor.nextLine()) {
+            if (cursor.atEndOfLine()) {
+                continue;
+            }
+            DiskUsageSample sample = count < samples.size() ? samples.get(count) : null;
+            String filesystem = pendingFilesystem;
+            pendingFilesystem = null;
+            if (filesystem == null) {
+                filesystem = cursor.nextToken(sample != null ? sample.filesystem : null);
+                if (cursor.atEndOfLine()) {
+                    pendingFilesystem = filesystem;
+                    continue;
                 }
             }
-        } catch (Exception e) {
-            log.error("디스크 메트릭 파싱 실패", e);
+            double size = parseSize(cursor);
+            double used = parseSize(cursor);
+            double available = parseSize(cursor);
+            double usePercent = cursor.nextDecimal();
+            if (Double.isNaN(usePercent)) {
+                continue;
+            }
+            cursor.skipSuffix();  // %
+            String mountPoint = cursor.restOfLine(sample != null ? sample.mountPoint : null);
+            if (mountPoint == null) {
+                continue;
+            }
+            if (sample == null) {
+                sample = new DiskUsageSample();
+                samples.add(sample);
+            }
+            sample.filesystem = filesystem;
+            sample.setMountPoint(mountPoint);
+            sample.sizeBytes = size;
+            sample.usedBytes = used;
+            sample.availableBytes = available;
+            sample.usePercent = usePercent;
+            count++;
         }
-        
-        return diskMetrics;
+        while (samples.size() > count) {
+            samples.remove(samples.size() - 1);
+        }
+        return count;
     }
-    
+
+    /**
+     * df -h 크기 파싱 (예: 20G, 1.5T, 512K, 0, 숫자가 아니면 0)
+     */
+    private static double parseSize(TextCursor cursor) {
+        double value = cursor.nextDecimal();
+        if (Double.isNaN(value)) {
+            return 0;
+        }
+        for (int i = 0; i < SIZE_UNITS.length(); i++) {
+            if (cursor.skipIf(SIZE_UNITS.charAt(i)) || cursor.skipIf(Character.toLowerCase(SIZE_UNITS.charAt(i)))) {
+                value *= Math.pow(1024, i + 1);
+                break;
+            }
+        }
+        cursor.skipSuffix();  // "Gi" 같은 나머지 접미사
+        return value;
+    }
+
     /**
      * CPU 사용률 파싱 (top 또는 /proc/stat 사용)
-     * 
+     *
      * @param output top 명령어 출력 또는 /proc/stat 내용
-     * @return CPU 사용률 (퍼센트)
+     * @return CPU 사용률 (퍼센트), 찾지 못하면 NaN
      */
-    public BigDecimal parseCpuUsage(String output) {
+    public double parseCpuUsage(CharSequence output) {
+        long start = System.nanoTime();
+        TextCursor cursor = cursors.get().reset(output);
         try {
-            // top 명령어 출력에서 CPU 사용률 추출
-            Pattern pattern = Pattern.compile("%Cpu\\(s\\):\\s+(\\d+\\.\\d+)%us");
-            Matcher matcher = pattern.matcher(output);
-            if (matcher.find()) {
-                return new BigDecimal(matcher.group(1));
+            return doParseCpuUsage(cursor);
+        } finally {
+            cursor.clear();
+            PARSE_CPU_USAGE.recordSince(start);
+        }
+    }
+
+    private double doParseCpuUsage(TextCursor cursor) {
+        // top 요약 줄: "%Cpu(s):  1.2 us,  0.3 sy, ... 98.3 id,  0.1 wa, ..." (procps-ng) 또는 "Cpu(s):  1.2%us, ..." (procps 3.2)
+        if (cursor.find("Cpu(s):")) {
+            double user = Double.NaN;
+            double idle = Double.NaN;
+            double iowait = 0;
+            do {
+                double value = cursor.nextDecimal();
+                if (Double.isNaN(value)) {
+                    break;
+                }
+                cursor.skipIf('%');
+                if (cursor.wordEquals("id")) {
+                    idle = value;
+                } else if (cursor.wordEquals("us")) {
+                    user = value;
+                } else if (cursor.wordEquals("wa")) {
+                    iowait = value;
+                }
+            } while (cursor.skipPast(','));
+            // /proc/stat 기반 수집과 같게 idle, iowait를 뺀 나머지를 사용률로 봄
+            if (!Double.isNaN(idle)) {
+                return Math.max(0, 100 - idle - iowait);
             }
-            
-            // /proc/stat 형식 파싱
-            if (output.contains("cpu ")) {
-                String[] lines = output.split("\n");
-                for (String line : lines) {
-                    if (line.startsWith("cpu ")) {
-                        String[] parts = line.trim().split("\\s+");
-                        if (parts.length >= 8) {
-                            long user = Long.parseLong(parts[1]);
-                            long nice = Long.parseLong(parts[2]);
-                            long system = Long.parseLong(parts[3]);
-                            long idle = Long.parseLong(parts[4]);
-                            long iowait = Long.parseLong(parts[5]);
-                            long irq = Long.parseLong(parts[6]);
-                            long softirq = Long.parseLong(parts[7]);
-                            
-                            long total = user + nice + system + idle + iowait + irq + softirq;
-                            long used = user + nice + system;
-                            
-                            if (total > 0) {
-                                double usage = (double) used / total * 100;
-                                return new BigDecimal(usage).setScale(2, RoundingMode.HALF_UP);
-                            }
-                        }
-                    }
+            if (!Double.isNaN(user)) {
+                return user;
+            }
+        }
+
+        // /proc/stat 형식: cpu user nice system idle iowait irq softirq ... (부팅 이후 누적 기준)
+        cursor.rewind();
+        if (cursor.findLine("cpu ")) {
+            long user = cursor.nextLong();
+            long nice = cursor.nextLong();
+            long system = cursor.nextLong();
+            long idle = cursor.nextLong();
+            long iowait = cursor.nextLong();
+            long irq = cursor.nextLong();
+            long softirq = cursor.nextLong();
+            if (softirq >= 0) {
+                long total = user + nice + system + idle + iowait + irq + softirq;
+                if (total > 0) {
+                    return (double) (user + nice + system) / total * 100;
                 }
             }
-        } catch (Exception e) {
-            log.error("CPU 사용률 파싱 실패", e);
         }
-        
-        return BigDecimal.ZERO;
+        return Double.NaN;
     }
-    
+
     /**
-     * 숫자 문자열을 BigDecimal로 변환 (K, M, G, T 단위 지원)
+     * 출력에서 첫 번째 숫자 추출 (서버에서 정의한 COMMAND 작업 결과)
+     *
+     * @param output 명령어 출력
+     * @return 첫 번째 숫자 (-?정수(.소수)? 형식), 숫자가 없으면 NaN
      */
-    public BigDecimal parseSize(String sizeStr) {
-        if (sizeStr == null || sizeStr.isEmpty()) {
-            return BigDecimal.ZERO;
-        }
-        
-        sizeStr = sizeStr.trim().toUpperCase();
+    public double parseFirstNumber(CharSequence output) {
+        long start = System.nanoTime();
+        TextCursor cursor = cursors.get().reset(output);
         try {
-            if (sizeStr.endsWith("K")) {
-                return new BigDecimal(sizeStr.substring(0, sizeStr.length() - 1))
-                    .multiply(new BigDecimal("1024"));
-            } else if (sizeStr.endsWith("M")) {
-                return new BigDecimal(sizeStr.substring(0, sizeStr.length() - 1))
-                    .multiply(new BigDecimal("1048576"));
-            } else if (sizeStr.endsWith("G")) {
-                return new BigDecimal(sizeStr.substring(0, sizeStr.length() - 1))
-                    .multiply(new BigDecimal("1073741824"));
-            } else if (sizeStr.endsWith("T")) {
-                return new BigDecimal(sizeStr.substring(0, sizeStr.length() - 1))
-                    .multiply(new BigDecimal("1099511627776"));
-            } else {
-                return new BigDecimal(sizeStr);
-            }
-        } catch (NumberFormatException e) {
-            log.warn("크기 파싱 실패: {}", sizeStr);
-            return BigDecimal.ZERO;
+            return cursor.findDecimal();
+        } finally {
+            cursor.clear();
+            PARSE_FIRST_NUMBER.recordSince(start);
         }
     }
 }
-
@@ -0,0 +1,330 @@
+package led.mega.agent.parser;
+
+/**
+ * 명령어 출력용 커서
+ * ProcFile과 같은 방식으로 문자열을 한 번만 훑으며 숫자/토큰을 직접 파싱합니다. (split/정규식, 중간 문자열을 만들지 않음)
+ * 파서가 스레드마다 하나를 재사용하므로, 다 쓰면 clear()로 출력 문자열 참조를 놓습니다.
+ */
+final class TextCursor {
+
+    // 10^0 ~ 10^18 (소수 부분 자릿수 보정용, 모두 double로 정확히 표현됨)
+    private static final double[] POWERS_OF_TEN = new double[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private CharSequence text;
+    private int length;
+    private int pos;
+
+    TextCursor reset(CharSequence text) {
+        this.text = text;
+        this.length = text != null ? text.length() : 0;
+        this.pos = 0;
+        return this;
+    }
+
+    void clear() {
+        text = null;
+        length = pos = 0;
+    }
+
+    /**
+     * 커서를 처음으로 이동
+     */
+    void rewind() {
+        pos = 0;
+    }
+
+    /**
+     * 현재 위치가 prefix로 시작하는지 여부 (커서는 이동하지 않음)
+     */
+    boolean startsWith(String prefix) {
+        if (pos + prefix.length() > length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (text.charAt(pos + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 현재 줄이 prefix로 시작하는 줄을 찾아 커서를 prefix 바로 뒤로 이동 (현재 위치부터 검색, 줄 앞의 공백은 무시)
+     */
+    boolean findLine(String prefix) {
+        while (pos < length) {
+            skipBlanks();
+            if (startsWith(prefix)) {
+                pos += prefix.length();
+                return true;
+            }
+            if (!nextLine()) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 다음 줄의 시작으로 이동
+     *
+     * @return 다음 줄이 없으면 false
+     */
+    boolean nextLine() {
+        while (pos < length && text.charAt(pos) != '\n') {
+            pos++;
+        }
+        if (pos < length) {
+            pos++;
+            return pos < length;
+        }
+        return false;
+    }
+
+    /**
+     * 현재 줄의 끝인지 여부 (공백은 무시)
+     */
+    boolean atEndOfLine() {
+        skipBlanks();
+        return pos >= length || text.charAt(pos) == '\n';
+    }
+
+    /**
+     * 다음 정수 파싱 (앞의 공백은 건너뜀, 숫자가 아닌 토큰이면 그 토큰을 건너뛰고 -1)
+     */
+    long nextLong() {
+        skipBlanks();
+        long value = 0;
+        boolean digits = false;
+        while (pos < length) {
+            char c = text.charAt(pos);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            value = value * 10 + (c - '0');
+            digits = true;
+            pos++;
+        }
+        if (!digits) {
+            skipToken();
+            return -1;
+        }
+        return value;
+    }
+
+    /**
+     * 다음 소수 파싱 (앞의 공백은 건너뜀, 숫자 바로 뒤의 단위 문자는 남겨 둠, 숫자가 아닌 토큰이면 그 토큰을 건너뛰고 NaN)
+     */
+    double nextDecimal() {
+        skipBlanks();
+        boolean negative = pos + 1 < length && text.charAt(pos) == '-' && isDigit(text.charAt(pos + 1));
+        if (negative) {
+            pos++;
+        }
+        if (pos >= length || !isDigit(text.charAt(pos))) {
+            skipToken();
+            return Double.NaN;
+        }
+        double value = readDecimal();
+        return negative ? -value : value;
+    }
+
+    /**
+     * 현재 위치부터 처음 나오는 숫자 파싱 (-?정수(.소수)? 형식, 줄을 넘어 검색, 없으면 NaN)
+     */
+    double findDecimal() {
+        while (pos < length) {
+            if (isDigit(text.charAt(pos))) {
+                boolean negative = pos > 0 && text.charAt(pos - 1) == '-';
+                double value = readDecimal();
+                return negative ? -value : value;
+            }
+            pos++;
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * 숫자로 시작하는 위치에서 정수부와 소수부를 읽기 (유효 자릿수 18자리까지 long으로 모은 뒤 10의 거듭제곱으로 한 번만 나눔)
+     */
+    private double readDecimal() {
+        long mantissa = 0;
+        int significant = 0;
+        int exponent = 0;
+        while (pos < length && isDigit(text.charAt(pos))) {
+            if (significant < 18) {
+                mantissa = mantissa * 10 + (text.charAt(pos) - '0');
+                if (mantissa > 0) {
+                    significant++;
+                }
+            } else {
+                exponent++;
+            }
+            pos++;
+        }
+        if (pos + 1 < length && text.charAt(pos) == '.' && isDigit(text.charAt(pos + 1))) {
+            pos++;
+            while (pos < length && isDigit(text.charAt(pos))) {
+                if (significant < 18) {
+                    mantissa = mantissa * 10 + (text.charAt(pos) - '0');
+                    if (mantissa > 0) {
+                        significant++;
+                    }
+                    exponent--;
+                }
+                pos++;
+            }
+        }
+        if (exponent >= 0) {
+            return exponent == 0 ? mantissa : mantissa * Math.pow(10, exponent);
+        }
+        return -exponent < POWERS_OF_TEN.length ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * Math.pow(10, exponent);
+    }
+
+    /**
+     * 현재 위치의 문자가 c이면 건너뜀
+     */
+    boolean skipIf(char c) {
+        if (pos < length && text.charAt(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 지정한 문자까지 커서 이동 (같은 줄 안에서만, 찾으면 그 문자 바로 뒤)
+     */
+    boolean skipPast(char delimiter) {
+        while (pos < length && text.charAt(pos) != '\n') {
+            if (text.charAt(pos++) == delimiter) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 텍스트 전체에서 needle을 찾아 커서를 바로 뒤로 이동 (현재 위치부터 검색)
+     */
+    boolean find(String needle) {
+        while (pos < length) {
+            if (startsWith(needle)) {
+                pos += needle.length();
+                return true;
+            }
+            pos++;
+        }
+        return false;
+    }
+
+    /**
+     * 공백이 아닌 다음 토큰 건너뛰기
+     */
+    void skipToken() {
+        skipBlanks();
+        while (pos < length && !isBlank(text.charAt(pos)) && text.charAt(pos) != '\n') {
+            pos++;
+        }
+    }
+
+    /**
+     * 현재 토큰의 나머지 건너뛰기 (숫자 뒤에 붙은 단위 문자 등, 공백 전까지)
+     */
+    void skipSuffix() {
+        while (pos < length && !isBlank(text.charAt(pos)) && text.charAt(pos) != '\n') {
+            pos++;
+        }
+    }
+
+    /**
+     * 이어지는 영문자 단어가 expected와 같으면 건너뜀 (다르면 커서는 이동하지 않음, top의 "us,"처럼 구두점이 붙은 레이블용)
+     */
+    boolean wordEquals(String expected) {
+        skipBlanks();
+        int end = pos;
+        while (end < length && isLetter(text.charAt(end))) {
+            end++;
+        }
+        if (!regionEquals(pos, end, expected)) {
+            return false;
+        }
+        pos = end;
+        return true;
+    }
+
+    /**
+     * 다음 토큰이 current와 같으면 current를, 다르면 새 문자열을 반환 (같은 이름이 반복되는 동안 문자열을 새로 만들지 않음)
+     */
+    String nextToken(String current) {
+        skipBlanks();
+        int start = pos;
+        while (pos < length && !isBlank(text.charAt(pos)) && text.charAt(pos) != '\n') {
+            pos++;
+        }
+        return stringOf(start, pos, current);
+    }
+
+    /**
+     * 줄의 나머지(앞뒤 공백 제외)를 nextToken과 같은 방식으로 반환 (공백이 들어간 마운트 위치용)
+     */
+    String restOfLine(String current) {
+        skipBlanks();
+        int start = pos;
+        int end = pos;
+        while (pos < length && text.charAt(pos) != '\n') {
+            if (!isBlank(text.charAt(pos))) {
+                end = pos + 1;
+            }
+            pos++;
+        }
+        return stringOf(start, end, current);
+    }
+
+    private String stringOf(int start, int end, String current) {
+        if (start == end) {
+            return null;
+        }
+        if (current != null && regionEquals(start, end, current)) {
+            return current;
+        }
+        return text.subSequence(start, end).toString();
+    }
+
+    private boolean regionEquals(int start, int end, String expected) {
+        if (end - start != expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < expected.length(); i++) {
+            if (text.charAt(start + i) != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void skipBlanks() {
+        while (pos < length && isBlank(text.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private static boolean isBlank(char c) {
+        return c == ' ' || c == '\t' || c == '\r';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+}
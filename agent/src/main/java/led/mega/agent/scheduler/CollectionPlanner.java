@@ -0,0 +1,196 @@
+package led.mega.agent.scheduler;
+
+import led.mega.agent.executor.CommandExecutor;
+import led.mega.agent.telemetry.AgentTelemetry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 수집 주기 계획기
+ * 작업의 첫 실행을 주기의 배수 시각(epoch 기준)에 맞춰, 주기가 배수 관계인 작업들이 같은 tick에 실행되도록 합니다.
+ * 같은 tick에 같은 명령어(또는 /proc 파일)를 필요로 하는 작업이 여럿이면 한 번만 실행/읽고,
+ * 결과와 파싱된 값을 모든 작업이 나눠 씁니다. 절약한 실행 횟수는 통계로 남깁니다.
+ */
+@Slf4j
+public class CollectionPlanner {
+
+    // "cat /proc/..." 명령어는 프로세스를 만들지 않고 파일을 직접 읽음
+    private static final Pattern CAT_PROC_FILE = Pattern.compile("^cat\\s+(/proc/[\\w./-]+)$");
+    private static final String FILE_KEY_PREFIX = "file:";
+
+    private final CommandExecutor commandExecutor;
+    private final long shareWindowMillis;
+    private final int maxFileBytes;
+    private final Map<String, Source> sources = new ConcurrentHashMap<>();
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong savedExecutions = new AtomicLong();
+
+    /**
+     * @param shareWindowMillis 이 시간 안에 끝난 결과는 같은 tick의 결과로 보고 다시 실행하지 않음
+     * @param maxFileBytes /proc 파일을 직접 읽을 때 보관할 최대 바이트 수
+     */
+    public CollectionPlanner(CommandExecutor commandExecutor, long shareWindowMillis, int maxFileBytes) {
+        this.commandExecutor = commandExecutor;
+        this.shareWindowMillis = Math.max(0, shareWindowMillis);
+        this.maxFileBytes = maxFileBytes;
+        AgentTelemetry.getInstance().gauge("planner.executions", executions::get);
+        AgentTelemetry.getInstance().gauge("planner.saved_executions", savedExecutions::get);
+    }
+
+    /**
+     * 다음 주기 배수 시각까지의 지연 시간 (주기가 배수 관계인 작업끼리 같은 시각에 실행되도록 정렬)
+     */
+    public long alignedInitialDelayMillis(long periodMillis) {
+        if (periodMillis <= 0) {
+            return 0;
+        }
+        return (periodMillis - System.currentTimeMillis() % periodMillis) % periodMillis;
+    }
+
+    /**
+     * 셸 명령어 실행 (같은 tick에 이미 실행했거나 실행 중이면 그 결과를 공유)
+     *
+     * @param periodMillis 호출하는 작업의 주기 (공유 구간은 주기의 절반을 넘지 않음)
+     */
+    public SharedOutput runCommand(String command, long timeoutMillis, long periodMillis) {
+        String normalized = normalize(command);
+        String key = sourceKey(normalized);
+        Source source = sources.computeIfAbsent(key, k -> new Source());
+
+        long window = Math.min(shareWindowMillis, periodMillis / 2);
+        synchronized (source) {
+            // 앞서 실행한 작업이 있으면 그 실행이 끝날 때까지 기다렸다가 결과 공유
+            SharedOutput latest = source.latest;
+            if (latest != null && System.currentTimeMillis() - latest.completedAtMillis <= window) {
+                savedExecutions.incrementAndGet();
+                return latest;
+            }
+            CommandExecutor.CommandResult result = key.startsWith(FILE_KEY_PREFIX)
+                ? readFile(key.substring(FILE_KEY_PREFIX.length()))
+                : commandExecutor.executeShell(normalized, timeoutMillis, null);
+            executions.incrementAndGet();
+            source.latest = new SharedOutput(result, System.currentTimeMillis());
+            return source.latest;
+        }
+    }
+
+    /**
+     * 더 이상 쓰지 않는 명령어의 마지막 결과 정리 (작업 정의가 바뀐 뒤 호출)
+     */
+    public void retainCommands(List<String> commands) {
+        List<String> keys = new ArrayList<>();
+        for (String command : commands) {
+            keys.add(sourceKey(normalize(command)));
+        }
+        sources.keySet().retainAll(keys);
+    }
+
+    /**
+     * 실제로 실행한 명령어/파일 읽기 횟수
+     */
+    public long getExecutions() {
+        return executions.get();
+    }
+
+    /**
+     * 결과를 공유해 실행하지 않은 횟수
+     */
+    public long getSavedExecutions() {
+        return savedExecutions.get();
+    }
+
+    private static String normalize(String command) {
+        return command.trim().replaceAll("\\s+", " ");
+    }
+
+    /**
+     * 공유 단위 (같은 /proc 파일을 읽는 명령어는 파일 경로로, 나머지는 명령어 문자열로 구분)
+     */
+    private static String sourceKey(String normalized) {
+        Matcher matcher = CAT_PROC_FILE.matcher(normalized);
+        return matcher.matches() ? FILE_KEY_PREFIX + matcher.group(1) : "command:" + normalized;
+    }
+
+    private CommandExecutor.CommandResult readFile(String path) {
+        long startNanos = System.nanoTime();
+        try {
+            byte[] bytes = Files.readAllBytes(Paths.get(path));
+            boolean truncated = bytes.length > maxFileBytes;
+            String text = new String(bytes, 0, Math.min(bytes.length, maxFileBytes), StandardCharsets.UTF_8);
+            List<String> lines = new ArrayList<>(Arrays.asList(text.split("\n")));
+            return new CommandExecutor.CommandResult(0, lines, new ArrayList<String>(), false, truncated,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), 0);
+        } catch (IOException e) {
+            log.warn("파일 읽기 실패: {} ({})", path, e.getMessage());
+            List<String> error = new ArrayList<>();
+            error.add("cat: " + path + ": " + e.getMessage());
+            return new CommandExecutor.CommandResult(1, new ArrayList<String>(), error, false, false,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), 0);
+        }
+    }
+
+    /**
+     * 명령어별 마지막 결과 (source로 동기화)
+     */
+    private static class Source {
+        private SharedOutput latest;
+    }
+
+    /**
+     * 여러 작업이 나눠 쓰는 한 번의 실행 결과 (파싱한 값은 처음 요청한 작업만 계산)
+     */
+    public static class SharedOutput {
+        private final CommandExecutor.CommandResult result;
+        private final long completedAtMillis;
+        private final Map<String, Object> parsed = new HashMap<>();
+        private String output;
+
+        SharedOutput(CommandExecutor.CommandResult result, long completedAtMillis) {
+            this.result = result;
+            this.completedAtMillis = completedAtMillis;
+        }
+
+        public CommandExecutor.CommandResult getResult() {
+            return result;
+        }
+
+        /**
+         * 표준 출력 전체 (줄바꿈으로 연결)
+         */
+        public synchronized String getOutput() {
+            if (output == null) {
+                output = result.getOutputAsString();
+            }
+            return output;
+        }
+
+        /**
+         * 파싱한 값 (같은 key로 처음 요청할 때만 파싱)
+         */
+        @SuppressWarnings("unchecked")
+        public <T> T getParsed(String key, Function<String, T> parser) {
+            String text = getOutput();
+            synchronized (this) {
+                if (!parsed.containsKey(key)) {
+                    parsed.put(key, parser.apply(text));
+                }
+                return (T) parsed.get(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package led.mega.agent.scheduler;
+
+/**
+ * 이전 실행이 끝나기 전에 다음 실행 시각이 된 경우의 처리 방식
+ */
+public enum OverrunPolicy {
+    SKIP,         // 이번 실행을 건너뜀
+    COALESCE      // 밀린 실행을 한 번으로 합쳐 이전 실행이 끝나면 바로 실행
+}
@@ -0,0 +1,106 @@
+package led.mega.agent.scheduler;
+
+import led.mega.agent.telemetry.AgentTelemetry;
+import led.mega.agent.telemetry.LatencyHistogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 주기 작업과 실행 통계
+ */
+public class ScheduledJob {
+
+    // 모든 작업의 건너뛴 실행 수 합계 (텔레메트리)
+    private static final LongAdder TOTAL_MISSED_RUNS = AgentTelemetry.getInstance().counter("scheduler.missed_runs");
+
+    private final String name;
+    private final Runnable task;
+    private final long periodMillis;
+    private final long deadlineMillis;
+    private final OverrunPolicy overrunPolicy;
+
+    final AtomicBoolean running = new AtomicBoolean();
+    final AtomicBoolean rerunPending = new AtomicBoolean();
+    long nextFireNanos;  // 휠 스레드에서만 사용
+    volatile TimerWheel.Timeout timeout;
+    volatile long lastStartedNanos;
+    private volatile boolean cancelled;
+
+    private final AtomicLong runCount = new AtomicLong();
+    private final AtomicLong overrunCount = new AtomicLong();
+    private final AtomicLong missedRunCount = new AtomicLong();
+    private final AtomicLong deadlineMissCount = new AtomicLong();
+    private volatile long lastDurationMillis;
+    private volatile long maxDurationMillis;
+    private final LatencyHistogram durations;
+
+    ScheduledJob(String name, Runnable task, long periodMillis, long deadlineMillis, OverrunPolicy overrunPolicy) {
+        this.name = name;
+        this.task = task;
+        this.periodMillis = periodMillis;
+        this.deadlineMillis = deadlineMillis;
+        this.overrunPolicy = overrunPolicy;
+        this.durations = AgentTelemetry.getInstance().histogram(latencyName(name));
+    }
+
+    /**
+     * 실행 시간 히스토그램 이름 (task.<작업 이름>)
+     */
+    public static String latencyName(String name) {
+        return "task." + name;
+    }
+
+    /**
+     * 다음 실행부터 중지 (실행 중인 작업은 끝까지 실행)
+     */
+    public void cancel() {
+        cancelled = true;
+        TimerWheel.Timeout current = timeout;
+        if (current != null) {
+            current.cancel();
+        }
+    }
+
+    Runnable getTask() {
+        return task;
+    }
+
+    void recordRun(long durationNanos) {
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        durations.record(durationNanos);
+        runCount.incrementAndGet();
+        lastDurationMillis = durationMillis;
+        if (durationMillis > maxDurationMillis) {
+            maxDurationMillis = durationMillis;
+        }
+    }
+
+    void recordOverrun() {
+        overrunCount.incrementAndGet();
+    }
+
+    void recordMissedRuns(long count) {
+        missedRunCount.addAndGet(count);
+        TOTAL_MISSED_RUNS.add(count);
+    }
+
+    void recordDeadlineMiss() {
+        deadlineMissCount.incrementAndGet();
+    }
+
+    public String getName() { return name; }
+    public long getPeriodMillis() { return periodMillis; }
+    public long getDeadlineMillis() { return deadlineMillis; }
+    public OverrunPolicy getOverrunPolicy() { return overrunPolicy; }
+    public boolean isCancelled() { return cancelled; }
+    public boolean isRunning() { return running.get(); }
+    public long getRunCount() { return runCount.get(); }
+    public long getOverrunCount() { return overrunCount.get(); }        // 이전 실행이 끝나지 않은 상태에서 실행 시각이 된 횟수
+    public long getMissedRunCount() { return missedRunCount.get(); }    // 건너뛴 실행 수 (중복 실행, 대기열 초과, 지연)
+    public long getDeadlineMissCount() { return deadlineMissCount.get(); }  // 제한 시간을 넘긴 실행 수
+    public long getLastDurationMillis() { return lastDurationMillis; }
+    public long getMaxDurationMillis() { return maxDurationMillis; }
+}
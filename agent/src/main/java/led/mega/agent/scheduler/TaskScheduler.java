@@ -1,22 +1,58 @@
 package led.mega.agent.scheduler;
 
 import com.google.gson.Gson;
+import led.mega.agent.aggregate.DeadbandFilter;
+import led.mega.agent.aggregate.MetricAggregator;
 import led.mega.agent.client.ApiClient;
+import led.mega.agent.client.AsyncSender;
+import led.mega.agent.client.MetricBatchSender;
+import led.mega.agent.collector.CgroupCollector;
+import led.mega.agent.collector.CgroupSample;
+import led.mega.agent.collector.CpuCollector;
+import led.mega.agent.collector.CpuSample;
+import led.mega.agent.collector.DiskIoCollector;
+import led.mega.agent.collector.DiskIoSample;
+import led.mega.agent.collector.FileSystemCollector;
+import led.mega.agent.collector.FileSystemSample;
+import led.mega.agent.collector.MemoryCollector;
+import led.mega.agent.collector.MemorySample;
+import led.mega.agent.collector.NetworkCollector;
+import led.mega.agent.collector.NetworkInterfaceSample;
+import led.mega.agent.collector.NetworkSample;
+import led.mega.agent.collector.ProcessCollector;
+import led.mega.agent.collector.ProcessGroupSample;
 import led.mega.agent.config.AgentConfig;
 import led.mega.agent.executor.CommandExecutor;
+import led.mega.agent.parser.DiskUsageSample;
+import led.mega.agent.parser.ExceptionAggregator;
+import led.mega.agent.parser.FreeMemorySample;
 import led.mega.agent.parser.LogParser;
+import led.mega.agent.parser.LogTailer;
+import led.mega.agent.parser.LogWatcher;
 import led.mega.agent.parser.MetricParser;
+import led.mega.agent.spool.TelemetrySpool;
+import led.mega.agent.telemetry.AgentTelemetry;
+import led.mega.agent.telemetry.LatencyHistogram;
 import lombok.extern.slf4j.Slf4j;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 /**
  * 작업 스케줄러
@@ -25,27 +61,114 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 public class TaskScheduler {
     
-    private final ScheduledExecutorService scheduler;
+    private static final long MB = 1024 * 1024;
+    
+    // 수집 중인 Exception 블록을 마무리하기 전 새 로그를 기다리는 시간
+    private static final long PENDING_EXCEPTION_FLUSH_SECONDS = 2;
+    
+    // 서버 정의 작업 결과(rawData)에 담을 최대 출력 길이
+    private static final int MAX_RAW_OUTPUT_CHARS = 4000;
+    
+    // /proc 미지원 환경에서 쓰는 명령어 (서버 정의 작업과 같은 명령어면 결과 공유)
+    private static final String FREE_COMMAND = "free -m";
+    private static final String DF_COMMAND = "df -h";
+    
+    // 프로세스 그룹 rawData에 넣을 최대 pid 수
+    private static final int PROCESS_RAW_PIDS = 20;
+    
+    // 작업별 실행 통계 기록 주기
+    private static final long TASK_STATS_INTERVAL_SECONDS = 300;
+    
+    private final WheelScheduler scheduler;
     private final CommandExecutor commandExecutor;
     private final MetricParser metricParser;
     private final LogParser logParser;
     private final ApiClient apiClient;
+    private final AsyncSender asyncSender;
+    private final MetricBatchSender metricBatchSender;
+    private final TelemetrySpool telemetrySpool;
     private final AgentConfig config;
+    private final Gson gson = new Gson();
+    
+    // /proc 기반 수집기 (명령어 fork 없이 수집)
+    private final MemoryCollector memoryCollector = new MemoryCollector();
+    private final CpuCollector cpuCollector = new CpuCollector();
+    private final FileSystemCollector fileSystemCollector = new FileSystemCollector();
+    private final MemorySample memorySample = new MemorySample();
+    private final CpuSample cpuSample = new CpuSample();
+    private final NetworkCollector networkCollector;
+    private final NetworkSample networkSample = new NetworkSample();
+    private final DiskIoCollector diskIoCollector;
+    private final List<DiskIoSample> diskIoSamples = new ArrayList<>();
+    private final CgroupCollector cgroupCollector = new CgroupCollector();
+    private final CgroupSample cgroupSample = new CgroupSample();
+    private final ProcessCollector processCollector;
+    private final List<ProcessGroupSample> processSamples = new ArrayList<>();
+    
+    // 명령어 기반 수집 샘플 (/proc 미지원 환경용)
+    private final FreeMemorySample freeMemorySample = new FreeMemorySample();
+    private final List<DiskUsageSample> diskUsageSamples = new ArrayList<>();
+    
+    // 같은 tick의 같은 명령어/파일 읽기를 한 번으로 합침
+    private final CollectionPlanner collectionPlanner;
+    
+    // CPU/메모리/디스크/네트워크 샘플 구간 요약 (null이면 샘플마다 전송)
+    private final MetricAggregator metricAggregator;
+    
+    // 천천히 바뀌는 메트릭은 값이 바뀌었거나 최대 침묵 시간이 지났을 때만 전송 (null이면 항상 전송)
+    private final DeadbandFilter deadbandFilter;
+    private final LongAdder deadbandSuppressed = AgentTelemetry.getInstance().counter("deadband.suppressed");
+    
+    // 로그 파일 증분 읽기 (파일별 오프셋 유지)
+    private final LogTailer logTailer;
+    private final Object exceptionLock = new Object();
+    private final Set<String> pendingFlushPaths = new HashSet<>();
+    private LogWatcher logWatcher;
+    private final ExceptionAggregator exceptionAggregator;
     
     private String agentId;
     private String apiKey;
     
-    // 스케줄된 작업들
-    private final Map<String, ScheduledFuture<?>> scheduledTasks = new HashMap<>();
+    // 스케줄된 작업들 (작업 이름 → 주기 작업과 실행 통계)
+    private final Map<String, ScheduledJob> scheduledTasks = new HashMap<>();
+    
+    // 기본 작업 (서버에서 같은 이름의 작업으로 주기 변경 가능)
+    private final Map<String, Runnable> builtinTasks = new LinkedHashMap<>();
+    private final Map<String, Long> builtinIntervals = new HashMap<>();
+    
+    // 서버에서 정의한 작업 (작업 ID → 정의), 마지막으로 적용한 정의 버전(ETag)
+    private final Map<Long, ApiClient.TaskDefinition> serverTasks = new HashMap<>();
+    private volatile String taskVersion;
     
-    public TaskScheduler(AgentConfig config, ApiClient apiClient, 
+    public TaskScheduler(AgentConfig config, ApiClient apiClient, AsyncSender asyncSender,
+                        MetricBatchSender metricBatchSender, TelemetrySpool telemetrySpool,
                         CommandExecutor commandExecutor, MetricParser metricParser, LogParser logParser) {
         this.config = config;
         this.apiClient = apiClient;
+        this.asyncSender = asyncSender;
+        this.metricBatchSender = metricBatchSender;
+        this.telemetrySpool = telemetrySpool;
         this.commandExecutor = commandExecutor;
         this.metricParser = metricParser;
         this.logParser = logParser;
-        this.scheduler = Executors.newScheduledThreadPool(10);
+        this.logTailer = new LogTailer(config.getTaskExceptionStateFile(), config.isTaskExceptionReadFromStart());
+        this.exceptionAggregator = new ExceptionAggregator(
+            TimeUnit.SECONDS.toMillis(config.getTaskExceptionAggregateWindowSeconds()));
+        this.scheduler = new WheelScheduler(config.getSchedulerTickMillis(),
+            config.getSchedulerWorkerThreads(), config.getSchedulerWorkerQueueSize());
+        this.networkCollector = new NetworkCollector(config.getTaskNetworkExcludeInterfaces());
+        this.diskIoCollector = new DiskIoCollector(config.getTaskDiskIoExcludeDevices());
+        this.processCollector = new ProcessCollector(config.getTaskProcessTopCount(),
+            config.getTaskProcessWatchNames(), config.getTaskProcessWatchCmdline());
+        this.collectionPlanner = new CollectionPlanner(commandExecutor, config.getPlannerShareWindowMillis(),
+            config.getCommandMaxOutputBytes());
+        this.metricAggregator = config.getAggregateWindowSeconds() > 0
+            ? new MetricAggregator(config.getAggregateWindowSeconds(), config.getAggregateQuantileSamples())
+            : null;
+        this.deadbandFilter = config.getDeadbandMetrics().isEmpty() ? null
+            : new DeadbandFilter(config.getDeadbandMetrics(), config.getDeadbandAbsolute(), config.getDeadbandRelative(),
+                config.getDeadbandAbsoluteOverrides(), config.getDeadbandRelativeOverrides(),
+                config.getDeadbandMaxSilenceSeconds());
     }
     
     /**
@@ -62,143 +185,1022 @@ public class TaskScheduler {
     public void startAllTasks() {
         log.info("작업 스케줄러 시작");
         
-        // 1분마다 free -m 실행
-        scheduleTask("free-memory", () -> {
+        // 메모리 사용량 수집 (/proc/meminfo, 미지원 시 free -m)
+        scheduleBuiltinTask("free-memory", () -> {
             try {
-                String output = commandExecutor.executeToString("free -m");
-                Map<String, Object> metrics = metricParser.parseFreeMemory(output);
-                
-                // 메모리 사용량 전송
-                BigDecimal usedPercent = new BigDecimal(metrics.get("usedPercent").toString());
-                String rawData = new Gson().toJson(metrics);
-                
-                apiClient.sendMetricData(agentId, apiKey, new ApiClient.MetricRequest(
-                    null, "MEMORY", "memory_usage_percent", 
-                    usedPercent, "%", rawData, LocalDateTime.now()
-                ));
-                
-                // 사용 가능한 메모리 전송
-                BigDecimal available = new BigDecimal(metrics.get("available").toString());
-                apiClient.sendMetricData(agentId, apiKey, new ApiClient.MetricRequest(
-                    null, "MEMORY", "available_memory", 
-                    available, "MB", rawData, LocalDateTime.now()
-                ));
-                
-                log.debug("메모리 메트릭 전송 완료");
+                if (memoryCollector.isSupported()) {
+                    collectMemory();
+                } else {
+                    collectMemoryByCommand();
+                }
+                log.debug("메모리 메트릭 수집 완료");
             } catch (Exception e) {
                 log.error("메모리 메트릭 수집 실패", e);
             }
-        }, 1, TimeUnit.MINUTES);
+        }, config.getTaskMemoryIntervalSeconds());
         
-        // 10분마다 df -h 실행
-        scheduleTask("disk-usage", () -> {
+        // 디스크 사용량 수집 (/proc/mounts + FileStore, 미지원 시 df -h)
+        scheduleBuiltinTask("disk-usage", () -> {
             try {
-                String output = commandExecutor.executeToString("df -h");
-                Map<String, Map<String, Object>> diskMetrics = metricParser.parseDiskUsage(output);
-                
-                Gson gson = new Gson();
-                for (Map.Entry<String, Map<String, Object>> entry : diskMetrics.entrySet()) {
-                    String mountPoint = entry.getKey();
-                    Map<String, Object> diskInfo = entry.getValue();
-                    
-                    BigDecimal usePercent = new BigDecimal(diskInfo.get("usePercent").toString());
-                    String rawData = gson.toJson(diskInfo);
-                    
-                    apiClient.sendMetricData(agentId, apiKey, new ApiClient.MetricRequest(
-                        null, "DISK", "disk_usage_" + mountPoint.replace("/", "_"),
-                        usePercent, "%", rawData, LocalDateTime.now()
-                    ));
-                }
-                
-                log.debug("디스크 메트릭 전송 완료");
+                if (fileSystemCollector.isSupported()) {
+                    collectDisk();
+                } else {
+                    collectDiskByCommand();
+                }
+                log.debug("디스크 메트릭 수집 완료");
             } catch (Exception e) {
                 log.error("디스크 메트릭 수집 실패", e);
             }
-        }, 10, TimeUnit.MINUTES);
+        }, config.getTaskDiskIntervalSeconds());
         
-        // 30초마다 CPU 사용률 수집
-        scheduleTask("cpu-usage", () -> {
+        // CPU 사용률 수집 (/proc/stat jiffy 차이, 미지원 시 top)
+        scheduleBuiltinTask("cpu-usage", () -> {
             try {
-                // top 명령어로 CPU 사용률 수집 (1초 동안)
-                CommandExecutor.CommandResult result = commandExecutor.execute(
-                    new String[]{"top", "-bn1", "-d1"}
-                );
-                
-                if (result.isSuccess()) {
-                    String output = result.getOutputAsString();
-                    BigDecimal cpuUsage = metricParser.parseCpuUsage(output);
-                    
-                    Map<String, Object> rawData = new HashMap<>();
-                    rawData.put("cpuUsage", cpuUsage);
-                    String rawDataJson = new Gson().toJson(rawData);
-                    
-                    apiClient.sendMetricData(agentId, apiKey, new ApiClient.MetricRequest(
-                        null, "CPU", "cpu_usage_percent",
-                        cpuUsage, "%", rawDataJson, LocalDateTime.now()
-                    ));
-                    
-                    log.debug("CPU 메트릭 전송 완료: {}%", cpuUsage);
+                if (cpuCollector.isSupported()) {
+                    collectCpu();
+                } else {
+                    collectCpuByCommand();
                 }
             } catch (Exception e) {
                 log.error("CPU 메트릭 수집 실패", e);
             }
-        }, 30, TimeUnit.SECONDS);
+        }, config.getTaskCpuIntervalSeconds());
         
-        // 10분마다 로그 파일에서 Exception 파싱
-        scheduleTask("exception-log", () -> {
-            try {
-                // 일반적인 로그 파일 경로들
-                String[] logPaths = {
-                    "/var/log/app/application.log",
-                    "/var/log/app/error.log",
-                    "/opt/app/logs/application.log",
-                    "./logs/application.log"
-                };
-                
-                for (String logPath : logPaths) {
-                    List<LogParser.ExceptionInfo> exceptions = logParser.parseExceptions(logPath);
-                    
-                    for (LogParser.ExceptionInfo exceptionInfo : exceptions) {
-                        apiClient.sendExceptionLog(agentId, apiKey, new ApiClient.ExceptionRequest(
-                            null, exceptionInfo.getLogFilePath(),
-                            exceptionInfo.getExceptionType(),
-                            exceptionInfo.getExceptionMessage(),
-                            exceptionInfo.getContextBefore(),
-                            exceptionInfo.getContextAfter(),
-                            exceptionInfo.getFullStackTrace(),
-                            LocalDateTime.now()
-                        ));
-                    }
+        // 네트워크 트래픽/TCP 연결 수집 (/proc/net/dev, /proc/net/tcp, 미지원 시 수집 안 함)
+        if (networkCollector.isSupported()) {
+            scheduleBuiltinTask("network", () -> {
+                try {
+                    collectNetwork();
+                } catch (Exception e) {
+                    log.error("네트워크 메트릭 수집 실패", e);
                 }
-                
+            }, config.getTaskNetworkIntervalSeconds());
+        } else {
+            log.info("/proc/net/dev가 없어 네트워크 메트릭을 수집하지 않습니다");
+        }
+        
+        // 블록 장치별 IOPS/처리량/사용률/응답 시간 수집 (/proc/diskstats, 미지원 시 수집 안 함)
+        if (diskIoCollector.isSupported()) {
+            scheduleBuiltinTask("disk-io", () -> {
+                try {
+                    collectDiskIo();
+                } catch (Exception e) {
+                    log.error("디스크 I/O 메트릭 수집 실패", e);
+                }
+            }, config.getTaskDiskIoIntervalSeconds());
+        } else {
+            log.info("/proc/diskstats가 없어 디스크 I/O 메트릭을 수집하지 않습니다");
+        }
+        
+        // 컨테이너(cgroup v2) 기준 사용량/CPU 스로틀링과 자원 압박(PSI) 수집
+        if (cgroupCollector.isSupported()) {
+            scheduleBuiltinTask("cgroup", () -> {
+                try {
+                    collectCgroup();
+                } catch (Exception e) {
+                    log.error("cgroup 메트릭 수집 실패", e);
+                }
+            }, config.getTaskCgroupIntervalSeconds());
+        } else {
+            log.info("cgroup v2와 /proc/pressure가 없어 cgroup/PSI 메트릭을 수집하지 않습니다");
+        }
+        
+        // 프로세스별 CPU/메모리/스레드/fd 수집 (/proc/[pid], 감시 목록 + 상위 N개 그룹)
+        if (processCollector.isSupported()) {
+            scheduleBuiltinTask("process", () -> {
+                try {
+                    collectProcesses();
+                } catch (Exception e) {
+                    log.error("프로세스 메트릭 수집 실패", e);
+                }
+            }, config.getTaskProcessIntervalSeconds());
+        } else {
+            log.info("/proc/[pid]를 읽을 수 없어 프로세스 메트릭을 수집하지 않습니다");
+        }
+        
+        // 로그 파일에 새로 추가된 부분에서 Exception 파싱
+        scheduleBuiltinTask("exception-log", () -> {
+            try {
+                collectExceptions();
                 log.debug("Exception 로그 전송 완료");
             } catch (Exception e) {
                 log.error("Exception 로그 수집 실패", e);
             }
-        }, 10, TimeUnit.MINUTES);
+        }, config.getTaskExceptionIntervalSeconds());
+        
+        // 집계 구간이 끝난 반복 Exception 보고
+        if (config.getTaskExceptionAggregateWindowSeconds() > 0) {
+            scheduleTask("exception-aggregate", () -> exceptionAggregator.flushExpired(this::sendException),
+                Math.max(1, config.getTaskExceptionAggregateWindowSeconds() / 4), TimeUnit.SECONDS);
+        }
+        
+        // 로그 파일이 바뀌면 바로 Exception 파싱 (폴링은 놓친 변경을 위한 대비책으로 유지)
+        if (config.isTaskExceptionWatchEnabled()) {
+            logWatcher = new LogWatcher(config.getTaskExceptionLogPaths(),
+                config.getTaskExceptionWatchDebounceMillis(), this::collectExceptions);
+            if (!logWatcher.start()) {
+                logWatcher = null;
+            }
+        }
+        
+        // 구간이 끝날 때마다 CPU/메모리/디스크/네트워크 요약 전송 (구간 경계를 시각의 배수에 맞춤)
+        if (metricAggregator != null) {
+            long windowMillis = TimeUnit.SECONDS.toMillis(metricAggregator.getWindowSeconds());
+            scheduleTask("metric-aggregate", () -> metricAggregator.flush(this::sendSeriesMetric),
+                windowMillis, TimeUnit.MILLISECONDS, collectionPlanner.alignedInitialDelayMillis(windowMillis));
+        }
+        
+        // 작업별 실행 통계 기록
+        scheduleTask("task-stats", this::logTaskStats, TASK_STATS_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        
+        // 에이전트 자체 텔레메트리 보고
+        if (config.getTelemetryReportIntervalSeconds() > 0) {
+            scheduleTask("agent-telemetry", this::reportTelemetry,
+                config.getTelemetryReportIntervalSeconds(), TimeUnit.SECONDS);
+        }
+        
+        // 서버에서 정의한 작업 동기화
+        if (config.getTaskSyncIntervalSeconds() > 0) {
+            scheduleTask("task-sync", this::syncTaskDefinitions, config.getTaskSyncIntervalSeconds(), TimeUnit.SECONDS);
+        }
         
         log.info("모든 작업 스케줄 완료");
     }
     
     /**
-     * 작업 스케줄
+     * 서버에서 작업 정의를 받아 변경된 작업만 다시 스케줄
+     * 응답은 OkHttp 디스패처 스레드에서 처리하므로 스케줄러 스레드는 기다리지 않습니다.
      */
-    private void scheduleTask(String taskName, Runnable task, long period, TimeUnit unit) {
-        ScheduledFuture<?> future = scheduler.scheduleAtFixedRate(
-            () -> {
-                try {
-                    task.run();
-                } catch (Exception e) {
-                    log.error("작업 실행 중 오류 발생: {}", taskName, e);
+    private void syncTaskDefinitions() {
+        if (agentId == null || apiKey == null) {
+            return;
+        }
+        apiClient.fetchTaskDefinitionsAsync(agentId, apiKey, taskVersion, response -> {
+            if (response == null || response.isNotModified()) {
+                return;
+            }
+            try {
+                applyTaskDefinitions(response.getTasks());
+                taskVersion = response.getEtag();
+            } catch (Exception e) {
+                log.error("작업 정의 적용 실패", e);
+            }
+        });
+    }
+    
+    /**
+     * 작업 정의 비교 후 추가/변경/삭제된 작업만 다시 스케줄
+     * 기본 작업과 이름이 같은 작업은 해당 기본 작업의 주기만 변경합니다.
+     */
+    private void applyTaskDefinitions(List<ApiClient.TaskDefinition> definitions) {
+        synchronized (scheduledTasks) {
+            if (scheduler.isShutdown()) {
+                return;
+            }
+            
+            Map<Long, ApiClient.TaskDefinition> latest = new HashMap<>();
+            Map<String, Long> builtinOverrides = new HashMap<>();
+            for (ApiClient.TaskDefinition definition : definitions) {
+                if (definition.getId() == null || definition.getIntervalSeconds() == null
+                        || definition.getIntervalSeconds() <= 0) {
+                    continue;
+                }
+                if (builtinTasks.containsKey(definition.getTaskName())) {
+                    builtinOverrides.put(definition.getTaskName(), (long) definition.getIntervalSeconds());
+                } else {
+                    latest.put(definition.getId(), definition);
+                }
+            }
+            
+            int added = 0;
+            int changed = 0;
+            int removed = 0;
+            
+            // 삭제되거나 비활성화된 작업 중지
+            Iterator<Long> ids = serverTasks.keySet().iterator();
+            while (ids.hasNext()) {
+                Long id = ids.next();
+                if (!latest.containsKey(id)) {
+                    cancelTask(serverTaskName(id));
+                    ids.remove();
+                    removed++;
+                }
+            }
+            
+            // 새 작업 스케줄, 내용이 바뀐 작업만 다시 스케줄
+            for (ApiClient.TaskDefinition definition : latest.values()) {
+                ApiClient.TaskDefinition current = serverTasks.get(definition.getId());
+                if (current != null && isSameDefinition(current, definition)) {
+                    continue;
+                }
+                String taskName = serverTaskName(definition.getId());
+                if (current != null) {
+                    cancelTask(taskName);
+                    changed++;
+                } else {
+                    added++;
+                }
+                // 잘못된 정의도 기록해 두어 다음 동기화 때 같은 오류를 반복하지 않음
+                serverTasks.put(definition.getId(), definition);
+                Runnable job = createServerTask(definition);
+                if (job != null) {
+                    // 주기가 배수 관계인 작업끼리 같은 tick에 실행되도록 첫 실행 시각 정렬
+                    long periodMillis = TimeUnit.SECONDS.toMillis(definition.getIntervalSeconds());
+                    scheduleTask(taskName, job, periodMillis, TimeUnit.MILLISECONDS,
+                        collectionPlanner.alignedInitialDelayMillis(periodMillis));
+                }
+            }
+            
+            List<String> commands = new ArrayList<>();
+            commands.add(FREE_COMMAND);
+            commands.add(DF_COMMAND);
+            for (ApiClient.TaskDefinition definition : serverTasks.values()) {
+                if ("COMMAND".equals(definition.getTaskType()) && !isBlank(definition.getCommand())) {
+                    commands.add(definition.getCommand());
                 }
-            },
-            0, // 초기 지연 시간
-            period, // 실행 주기
-            unit
+            }
+            collectionPlanner.retainCommands(commands);
+            
+            // 기본 작업 주기 변경 (서버 정의가 없어지면 설정 파일의 주기로 복원)
+            for (Map.Entry<String, Runnable> builtin : builtinTasks.entrySet()) {
+                String taskName = builtin.getKey();
+                long interval = builtinOverrides.containsKey(taskName)
+                    ? builtinOverrides.get(taskName) : builtinIntervals.get(taskName);
+                ScheduledJob current = scheduledTasks.get(taskName);
+                if (current == null || current.getPeriodMillis() != TimeUnit.SECONDS.toMillis(interval)) {
+                    cancelTask(taskName);
+                    scheduleTask(taskName, builtin.getValue(), interval, TimeUnit.SECONDS);
+                    changed++;
+                }
+            }
+            
+            log.info("작업 정의 동기화: 추가 {}, 변경 {}, 삭제 {} (서버 작업 {}개)",
+                added, changed, removed, serverTasks.size());
+        }
+    }
+    
+    private static String serverTaskName(Long id) {
+        return "task-" + id;
+    }
+    
+    private static boolean isSameDefinition(ApiClient.TaskDefinition a, ApiClient.TaskDefinition b) {
+        return Objects.equals(a.getTaskName(), b.getTaskName())
+            && Objects.equals(a.getTaskType(), b.getTaskType())
+            && Objects.equals(a.getCommand(), b.getCommand())
+            && Objects.equals(a.getLogPath(), b.getLogPath())
+            && Objects.equals(a.getLogPattern(), b.getLogPattern())
+            && Objects.equals(a.getIntervalSeconds(), b.getIntervalSeconds());
+    }
+    
+    /**
+     * 서버 작업 정의로 실행할 작업 생성
+     *
+     * @return 정의가 올바르지 않으면 null
+     */
+    private Runnable createServerTask(ApiClient.TaskDefinition definition) {
+        String taskType = definition.getTaskType();
+        if ("COMMAND".equals(taskType)) {
+            if (isBlank(definition.getCommand())) {
+                log.warn("명령어가 없는 작업은 실행하지 않습니다: {}", definition.getTaskName());
+                return null;
+            }
+            return () -> runCommandTask(definition);
+        }
+        if ("LOG_PARSE".equals(taskType)) {
+            if (isBlank(definition.getLogPath())) {
+                log.warn("로그 파일 경로가 없는 작업은 실행하지 않습니다: {}", definition.getTaskName());
+                return null;
+            }
+            Pattern pattern;
+            try {
+                pattern = isBlank(definition.getLogPattern()) ? null : Pattern.compile(definition.getLogPattern());
+            } catch (PatternSyntaxException e) {
+                log.warn("로그 패턴이 올바르지 않아 작업을 실행하지 않습니다: {} ({})",
+                    definition.getTaskName(), e.getDescription());
+                return null;
+            }
+            // 같은 로그 파일을 읽는 다른 작업과 오프셋이 섞이지 않도록 작업별로 위치 저장
+            LogTailer tailer = new LogTailer(
+                Paths.get(config.getTaskLogStateDir(), serverTaskName(definition.getId()) + ".json").toString(), false);
+            return () -> runLogParseTask(definition, pattern, tailer);
+        }
+        log.warn("지원하지 않는 작업 타입입니다: {} ({})", taskType, definition.getTaskName());
+        return null;
+    }
+    
+    /**
+     * COMMAND 작업: 명령어 출력의 첫 번째 숫자를 값으로 전송
+     * 같은 tick에 같은 명령어를 쓰는 작업이 있으면 한 번 실행한 결과와 파싱한 값을 공유
+     */
+    private void runCommandTask(ApiClient.TaskDefinition definition) {
+        try {
+            CollectionPlanner.SharedOutput shared = collectionPlanner.runCommand(definition.getCommand(),
+                TimeUnit.SECONDS.toMillis(config.getCommandTimeoutSeconds()),
+                TimeUnit.SECONDS.toMillis(definition.getIntervalSeconds()));
+            CommandExecutor.CommandResult result = shared.getResult();
+            if (result.isTimedOut()) {
+                log.warn("작업 명령어 제한 시간 초과: {} ({}초)", definition.getTaskName(), config.getCommandTimeoutSeconds());
+                return;
+            }
+            if (!result.isSuccess()) {
+                log.warn("작업 명령어 실패: {} (exit code: {})", definition.getTaskName(), result.getExitCode());
+                return;
+            }
+            String output = shared.getParsed("truncated", TaskScheduler::truncate);
+            
+            Map<String, Object> rawData = new LinkedHashMap<>();
+            rawData.put("command", definition.getCommand());
+            rawData.put("output", output);
+            rawData.put("wallTimeMillis", result.getWallTimeMillis());
+            rawData.put("cpuTimeMillis", result.getCpuTimeMillis());
+            sendMetric(new ApiClient.MetricRequest(
+                definition.getId(), "CUSTOM", definition.getTaskName(),
+                shared.getParsed("firstNumber", this::parseFirstNumber), null,
+                gson.toJson(rawData), LocalDateTime.now()
+            ));
+        } catch (Exception e) {
+            log.error("작업 실행 실패: {}", definition.getTaskName(), e);
+        }
+    }
+    
+    /**
+     * LOG_PARSE 작업: 지난 실행 이후 추가된 줄 중 패턴과 일치하는 줄 수를 값으로 전송
+     */
+    private void runLogParseTask(ApiClient.TaskDefinition definition, Pattern pattern, LogTailer tailer) {
+        try {
+            long[] matched = {0};
+            String[] lastMatch = {null};
+            tailer.readNewLines(definition.getLogPath(), line -> {
+                if (pattern == null || pattern.matcher(line).find()) {
+                    matched[0]++;
+                    lastMatch[0] = line;
+                }
+            });
+            tailer.saveState();
+            
+            Map<String, Object> rawData = new LinkedHashMap<>();
+            rawData.put("logPath", definition.getLogPath());
+            if (lastMatch[0] != null) {
+                rawData.put("lastMatch", truncate(lastMatch[0]));
+            }
+            sendMetric(new ApiClient.MetricRequest(
+                definition.getId(), "CUSTOM", definition.getTaskName(),
+                BigDecimal.valueOf(matched[0]), "count", gson.toJson(rawData), LocalDateTime.now()
+            ));
+        } catch (Exception e) {
+            log.error("작업 실행 실패: {}", definition.getTaskName(), e);
+        }
+    }
+    
+    /**
+     * 출력의 첫 번째 숫자 (숫자가 없으면 null)
+     */
+    private BigDecimal parseFirstNumber(String output) {
+        double value = metricParser.parseFirstNumber(output);
+        return Double.isNaN(value) ? null : BigDecimal.valueOf(value);
+    }
+    
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+    
+    private static String truncate(String value) {
+        return value.length() <= MAX_RAW_OUTPUT_CHARS ? value : value.substring(0, MAX_RAW_OUTPUT_CHARS);
+    }
+    
+    /**
+     * 모든 로그 파일에서 마지막으로 읽은 위치 이후의 로그만 읽어서 Exception 전송
+     */
+    private void collectExceptions() {
+        for (String logPath : config.getTaskExceptionLogPaths()) {
+            collectExceptions(logPath);
+        }
+    }
+    
+    /**
+     * 로그 파일 하나의 새 로그를 읽어서 Exception 전송
+     * 읽은 라인을 바로 파서에 넘기므로 한 번에 읽는 양과 관계없이 메모리 사용량이 일정합니다.
+     * 폴링과 변경 감지 스레드가 함께 호출하므로 한 번에 하나씩 처리합니다.
+     * 전송(또는 스풀 기록)이 끝난 뒤 오프셋을 저장하므로, 중간에 종료되면 다음 실행에서 다시 읽습니다.
+     */
+    private void collectExceptions(String logPath) {
+        synchronized (exceptionLock) {
+            long bytesRead = logTailer.readNewLines(logPath,
+                line -> logParser.accept(logPath, line, this::sendException));
+            
+            if (bytesRead == 0) {
+                // 새 로그가 없으면 수집 중이던 Exception 블록을 마무리
+                logParser.flush(logPath, this::sendException);
+            } else if (logParser.hasPending(logPath) && pendingFlushPaths.add(logPath) && !scheduler.isShutdown()) {
+                // 블록 뒤에 더 이상 로그가 쓰이지 않아도 잠시 후 다시 확인하여 전송
+                scheduler.schedule(() -> {
+                    synchronized (exceptionLock) {
+                        pendingFlushPaths.remove(logPath);
+                    }
+                    collectExceptions(logPath);
+                }, TimeUnit.SECONDS.toMillis(PENDING_EXCEPTION_FLUSH_SECONDS));
+            }
+            logTailer.saveState();
+        }
+    }
+    
+    /**
+     * 파싱된 Exception 전송 (같은 지문의 반복은 집계기에서 묶어서 나중에 전송)
+     */
+    private void sendException(LogParser.ExceptionInfo exceptionInfo) {
+        exceptionAggregator.add(exceptionInfo, this::sendException);
+    }
+    
+    /**
+     * 집계된 Exception 전송
+     */
+    private void sendException(ExceptionAggregator.Report report) {
+        LogParser.ExceptionInfo exceptionInfo = report.getInfo();
+        sendException(new ApiClient.ExceptionRequest(
+            null, exceptionInfo.getLogFilePath(),
+            exceptionInfo.getExceptionType(),
+            exceptionInfo.getExceptionMessage(),
+            exceptionInfo.getContextBefore(),
+            exceptionInfo.getContextAfter(),
+            exceptionInfo.getFullStackTrace(),
+            report.getFirstSeen(),
+            report.getFingerprint(),
+            report.getOccurrenceCount(),
+            report.getLastSeen()
+        ));
+    }
+    
+    /**
+     * /proc/meminfo 기반 메모리 메트릭 수집
+     */
+    private void collectMemory() {
+        if (!memoryCollector.collect(memorySample)) {
+            log.warn("메모리 정보를 읽지 못했습니다");
+            return;
+        }
+        
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("total", memorySample.getTotalKb() / 1024);
+        metrics.put("used", memorySample.getUsedKb() / 1024);
+        metrics.put("free", memorySample.getFreeKb() / 1024);
+        metrics.put("available", memorySample.getAvailableKb() / 1024);
+        metrics.put("usedPercent", memorySample.getUsedPercent());
+        metrics.put("freePercent", memorySample.getFreePercent());
+        metrics.put("swapTotal", memorySample.getSwapTotalKb() / 1024);
+        metrics.put("swapUsed", memorySample.getSwapUsedKb() / 1024);
+        metrics.put("swapFree", memorySample.getSwapFreeKb() / 1024);
+        if (memorySample.getSwapTotalKb() > 0) {
+            metrics.put("swapUsedPercent", memorySample.getSwapUsedPercent());
+        }
+        String rawData = gson.toJson(metrics);
+        LocalDateTime now = LocalDateTime.now();
+        
+        sendSample("MEMORY", "memory_usage_percent",
+            memorySample.getUsedPercent(), "%", rawData, now);
+        sendSample("MEMORY", "available_memory",
+            memorySample.getAvailableKb() / 1024, "MB", rawData, now);
+    }
+    
+    /**
+     * free -m 기반 메모리 메트릭 수집 (/proc 미지원 환경용)
+     */
+    private void collectMemoryByCommand() {
+        String output = collectionPlanner.runCommand(FREE_COMMAND,
+                TimeUnit.SECONDS.toMillis(config.getCommandTimeoutSeconds()), builtinPeriodMillis("free-memory"))
+            .getOutput();
+        if (!metricParser.parseFreeMemory(output, freeMemorySample)) {
+            log.warn("free 출력에서 메모리 정보를 찾지 못했습니다");
+            return;
+        }
+        
+        FreeMemoryRawData rawData = new FreeMemoryRawData(freeMemorySample);
+        LocalDateTime now = LocalDateTime.now();
+        
+        sendSample("MEMORY", "memory_usage_percent", freeMemorySample.getUsedPercent(), "%", rawData, now);
+        sendSample("MEMORY", "available_memory", freeMemorySample.getAvailableMb(), "MB", rawData, now);
+    }
+    
+    /**
+     * /proc/mounts + FileStore 기반 디스크 메트릭 수집
+     */
+    private void collectDisk() {
+        List<FileSystemSample> samples = new ArrayList<>();
+        if (!fileSystemCollector.collect(samples)) {
+            log.warn("마운트 정보를 읽지 못했습니다");
+            return;
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        for (FileSystemSample sample : samples) {
+            Map<String, Object> diskInfo = new LinkedHashMap<>();
+            diskInfo.put("filesystem", sample.getDevice());
+            diskInfo.put("type", sample.getFsType());
+            diskInfo.put("sizeMb", sample.getTotalBytes() / MB);
+            diskInfo.put("usedMb", sample.getUsedBytes() / MB);
+            diskInfo.put("availMb", sample.getAvailableBytes() / MB);
+            diskInfo.put("usePercent", sample.getUsePercent());
+            diskInfo.put("mountedOn", sample.getMountPoint());
+            
+            sendSample("DISK", "disk_usage_" + sample.getMountPoint().replace("/", "_"),
+                sample.getUsePercent(), "%", gson.toJson(diskInfo), now);
+        }
+    }
+    
+    /**
+     * df -h 기반 디스크 메트릭 수집 (/proc 미지원 환경용)
+     */
+    private void collectDiskByCommand() {
+        String output = collectionPlanner.runCommand(DF_COMMAND,
+                TimeUnit.SECONDS.toMillis(config.getCommandTimeoutSeconds()), builtinPeriodMillis("disk-usage"))
+            .getOutput();
+        metricParser.parseDiskUsage(output, diskUsageSamples);
+        
+        LocalDateTime now = LocalDateTime.now();
+        for (DiskUsageSample sample : diskUsageSamples) {
+            sendSample("DISK", "disk_usage_" + sample.getMetricSuffix(),
+                sample.getUsePercent(), "%", new DiskUsageRawData(sample), now);
+        }
+    }
+    
+    /**
+     * /proc/stat 기반 CPU 메트릭 수집
+     */
+    private void collectCpu() {
+        if (!cpuCollector.collect(cpuSample)) {
+            log.debug("CPU 기준값 수집 (다음 주기부터 사용률 계산)");
+            return;
+        }
+        
+        Map<String, Object> rawData = new LinkedHashMap<>();
+        rawData.put("cpuUsage", cpuSample.getUsagePercent());
+        rawData.put("user", cpuSample.getUserPercent());
+        rawData.put("system", cpuSample.getSystemPercent());
+        rawData.put("iowait", cpuSample.getIowaitPercent());
+        rawData.put("steal", cpuSample.getStealPercent());
+        
+        sendSample("CPU", "cpu_usage_percent", cpuSample.getUsagePercent(), "%", gson.toJson(rawData), LocalDateTime.now());
+        log.debug("CPU 메트릭 수집 완료: {}%", cpuSample.getUsagePercent());
+    }
+    
+    /**
+     * top 기반 CPU 메트릭 수집 (/proc 미지원 환경용)
+     */
+    private void collectCpuByCommand() {
+        // top 명령어로 CPU 사용률 수집 (1초 동안)
+        CommandExecutor.CommandResult result = commandExecutor.execute(
+            new String[]{"top", "-bn1", "-d1"}
         );
         
-        scheduledTasks.put(taskName, future);
-        log.info("작업 스케줄 등록: {} (주기: {} {})", taskName, period, unit);
+        if (result.isSuccess()) {
+            String output = result.getOutputAsString();
+            double cpuUsage = metricParser.parseCpuUsage(output);
+            if (Double.isNaN(cpuUsage)) {
+                log.warn("top 출력에서 CPU 사용률을 찾지 못했습니다");
+                return;
+            }
+            
+            Map<String, Object> rawData = new HashMap<>();
+            rawData.put("cpuUsage", cpuUsage);
+            String rawDataJson = gson.toJson(rawData);
+            
+            sendSample("CPU", "cpu_usage_percent", cpuUsage, "%", rawDataJson, LocalDateTime.now());
+            
+            log.debug("CPU 메트릭 수집 완료: {}%", cpuUsage);
+        }
+    }
+    
+    /**
+     * /proc/net 기반 네트워크 메트릭 수집 (인터페이스별 초당 트래픽, TCP 상태별 연결 수)
+     */
+    private void collectNetwork() {
+        if (!networkCollector.collect(networkSample)) {
+            log.debug("네트워크 기준값 수집 (다음 주기부터 초당 값 계산)");
+            return;
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        for (NetworkInterfaceSample iface : networkSample.getInterfaces()) {
+            Map<String, Object> rawData = new LinkedHashMap<>();
+            rawData.put("interface", iface.getName());
+            rawData.put("rxBytes", iface.getRxBytesPerSecond());
+            rawData.put("txBytes", iface.getTxBytesPerSecond());
+            rawData.put("rxPackets", iface.getRxPacketsPerSecond());
+            rawData.put("txPackets", iface.getTxPacketsPerSecond());
+            rawData.put("rxErrors", iface.getRxErrorsPerSecond());
+            rawData.put("txErrors", iface.getTxErrorsPerSecond());
+            rawData.put("rxDrops", iface.getRxDropsPerSecond());
+            rawData.put("txDrops", iface.getTxDropsPerSecond());
+            String rawDataJson = gson.toJson(rawData);
+            String suffix = "_" + iface.getName();
+            
+            sendSample("NETWORK", "network_rx_bytes" + suffix,
+                iface.getRxBytesPerSecond(), "bytes/s", rawDataJson, now);
+            sendSample("NETWORK", "network_tx_bytes" + suffix,
+                iface.getTxBytesPerSecond(), "bytes/s", rawDataJson, now);
+            sendSample("NETWORK", "network_rx_packets" + suffix,
+                iface.getRxPacketsPerSecond(), "packets/s", rawDataJson, now);
+            sendSample("NETWORK", "network_tx_packets" + suffix,
+                iface.getTxPacketsPerSecond(), "packets/s", rawDataJson, now);
+            sendSample("NETWORK", "network_errors" + suffix,
+                iface.getRxErrorsPerSecond() + iface.getTxErrorsPerSecond(), "packets/s", rawDataJson, now);
+            sendSample("NETWORK", "network_drops" + suffix,
+                iface.getRxDropsPerSecond() + iface.getTxDropsPerSecond(), "packets/s", rawDataJson, now);
+        }
+        
+        if (networkSample.isTcpCollected()) {
+            Map<String, Object> rawData = new LinkedHashMap<>();
+            for (int state = 1; state < NetworkSample.TCP_STATE_COUNT; state++) {
+                rawData.put(NetworkSample.getTcpStateName(state), networkSample.getTcpStateCount(state));
+            }
+            rawData.put("listenBacklog", networkSample.getListenBacklog());
+            rawData.put("maxListenBacklog", networkSample.getMaxListenBacklog());
+            String rawDataJson = gson.toJson(rawData);
+            
+            sendSample("NETWORK", "tcp_connections",
+                networkSample.getTcpConnections(), "count", rawDataJson, now);
+            sendSample("NETWORK", "tcp_established",
+                networkSample.getTcpStateCount(NetworkSample.TCP_ESTABLISHED), "count", rawDataJson, now);
+            sendSample("NETWORK", "tcp_time_wait",
+                networkSample.getTcpStateCount(NetworkSample.TCP_TIME_WAIT), "count", rawDataJson, now);
+            sendSample("NETWORK", "tcp_close_wait",
+                networkSample.getTcpStateCount(NetworkSample.TCP_CLOSE_WAIT), "count", rawDataJson, now);
+            sendSample("NETWORK", "tcp_listen_backlog",
+                networkSample.getListenBacklog(), "count", rawDataJson, now);
+        }
+        log.debug("네트워크 메트릭 수집 완료: 인터페이스 {}개", networkSample.getInterfaces().size());
+    }
+    
+    /**
+     * /proc/diskstats 기반 블록 장치 I/O 메트릭 수집
+     */
+    private void collectDiskIo() {
+        if (!diskIoCollector.collect(diskIoSamples)) {
+            log.debug("디스크 I/O 기준값 수집 (다음 주기부터 초당 값 계산)");
+            return;
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        for (DiskIoSample device : diskIoSamples) {
+            Map<String, Object> rawData = new LinkedHashMap<>();
+            rawData.put("device", device.getName());
+            rawData.put("readsPerSecond", device.getReadsPerSecond());
+            rawData.put("writesPerSecond", device.getWritesPerSecond());
+            rawData.put("readBytes", device.getReadBytesPerSecond());
+            rawData.put("writeBytes", device.getWriteBytesPerSecond());
+            rawData.put("utilPercent", device.getUtilizationPercent());
+            rawData.put("queueSize", device.getAverageQueueSize());
+            rawData.put("readAwaitMs", device.getReadAwaitMillis());
+            rawData.put("writeAwaitMs", device.getWriteAwaitMillis());
+            String rawDataJson = gson.toJson(rawData);
+            String suffix = "_" + device.getName().replace('/', '_');
+            
+            sendSample("DISK", "disk_read_ops" + suffix, device.getReadsPerSecond(), "ops/s", rawDataJson, now);
+            sendSample("DISK", "disk_write_ops" + suffix, device.getWritesPerSecond(), "ops/s", rawDataJson, now);
+            sendSample("DISK", "disk_read_bytes" + suffix,
+                device.getReadBytesPerSecond(), "bytes/s", rawDataJson, now);
+            sendSample("DISK", "disk_write_bytes" + suffix,
+                device.getWriteBytesPerSecond(), "bytes/s", rawDataJson, now);
+            sendSample("DISK", "disk_util" + suffix, device.getUtilizationPercent(), "%", rawDataJson, now);
+            sendSample("DISK", "disk_queue" + suffix, device.getAverageQueueSize(), "count", rawDataJson, now);
+            sendSample("DISK", "disk_await" + suffix, device.getAwaitMillis(), "ms", rawDataJson, now);
+        }
+        log.debug("디스크 I/O 메트릭 수집 완료: 장치 {}개", diskIoSamples.size());
+    }
+    
+    /**
+     * cgroup v2 사용량과 PSI 메트릭 수집 (읽지 못한 항목은 전송하지 않음)
+     */
+    private void collectCgroup() {
+        if (!cgroupCollector.collect(cgroupSample)) {
+            log.debug("cgroup 기준값 수집 (다음 주기부터 초당 값 계산)");
+            return;
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        if (cgroupSample.getMemoryCurrentBytes() >= 0) {
+            Map<String, Object> rawData = new LinkedHashMap<>();
+            rawData.put("currentMb", cgroupSample.getMemoryCurrentBytes() / MB);
+            rawData.put("workingSetMb", cgroupSample.getWorkingSetBytes() / MB);
+            rawData.put("anonMb", cgroupSample.getMemoryAnonBytes() / MB);
+            rawData.put("fileMb", cgroupSample.getMemoryFileBytes() / MB);
+            if (cgroupSample.getMemoryMaxBytes() > 0) {
+                rawData.put("maxMb", cgroupSample.getMemoryMaxBytes() / MB);
+            }
+            String rawDataJson = gson.toJson(rawData);
+            
+            sendSample("MEMORY", "cgroup_memory_current",
+                cgroupSample.getMemoryCurrentBytes() / MB, "MB", rawDataJson, now);
+            sendSample("MEMORY", "cgroup_memory_working_set",
+                cgroupSample.getWorkingSetBytes() / MB, "MB", rawDataJson, now);
+            if (cgroupSample.getMemoryUsagePercent() >= 0) {
+                sendSample("MEMORY", "cgroup_memory_usage_percent",
+                    cgroupSample.getMemoryUsagePercent(), "%", rawDataJson, now);
+            }
+        }
+        if (cgroupSample.isCpuStatRead()) {
+            Map<String, Object> rawData = new LinkedHashMap<>();
+            rawData.put("usagePercent", cgroupSample.getCpuUsagePercent());
+            if (cgroupSample.getCpuLimitCores() > 0) {
+                rawData.put("limitCores", cgroupSample.getCpuLimitCores());
+            }
+            rawData.put("throttledPercent", cgroupSample.getCpuThrottledPercent());
+            rawData.put("throttledMsPerSecond", cgroupSample.getCpuThrottledMillisPerSecond());
+            String rawDataJson = gson.toJson(rawData);
+            
+            sendSample("CPU", "cgroup_cpu_usage_percent",
+                cgroupSample.getCpuUsagePercent(), "%", rawDataJson, now);
+            sendSample("CPU", "cgroup_cpu_throttled_percent",
+                cgroupSample.getCpuThrottledPercent(), "%", rawDataJson, now);
+            sendSample("CPU", "cgroup_cpu_throttled_time",
+                cgroupSample.getCpuThrottledMillisPerSecond(), "ms/s", rawDataJson, now);
+        }
+        if (cgroupSample.isIoStatRead()) {
+            Map<String, Object> rawData = new LinkedHashMap<>();
+            rawData.put("readBytes", cgroupSample.getIoReadBytesPerSecond());
+            rawData.put("writeBytes", cgroupSample.getIoWriteBytesPerSecond());
+            rawData.put("readOps", cgroupSample.getIoReadOpsPerSecond());
+            rawData.put("writeOps", cgroupSample.getIoWriteOpsPerSecond());
+            String rawDataJson = gson.toJson(rawData);
+            
+            sendSample("DISK", "cgroup_io_read_bytes",
+                cgroupSample.getIoReadBytesPerSecond(), "bytes/s", rawDataJson, now);
+            sendSample("DISK", "cgroup_io_write_bytes",
+                cgroupSample.getIoWriteBytesPerSecond(), "bytes/s", rawDataJson, now);
+        }
+        sendPressure("CPU", "pressure_cpu", cgroupSample.getCpuPressure(), now);
+        sendPressure("MEMORY", "pressure_memory", cgroupSample.getMemoryPressure(), now);
+        sendPressure("DISK", "pressure_io", cgroupSample.getIoPressure(), now);
+    }
+    
+    /**
+     * PSI 전송 (some은 항상, full은 커널이 제공할 때만)
+     */
+    private void sendPressure(String metricType, String metricName, CgroupSample.Pressure pressure,
+                              LocalDateTime collectedAt) {
+        if (!pressure.isRead()) {
+            return;
+        }
+        Map<String, Object> rawData = new LinkedHashMap<>();
+        rawData.put("someAvg10", pressure.getSomeAvg10());
+        rawData.put("someAvg60", pressure.getSomeAvg60());
+        if (pressure.getFullAvg10() >= 0) {
+            rawData.put("fullAvg10", pressure.getFullAvg10());
+            rawData.put("fullAvg60", pressure.getFullAvg60());
+        }
+        String rawDataJson = gson.toJson(rawData);
+        
+        sendSample(metricType, metricName + "_some", pressure.getSomeAvg10(), "%", rawDataJson, collectedAt);
+        if (pressure.getFullAvg10() >= 0) {
+            sendSample(metricType, metricName + "_full", pressure.getFullAvg10(), "%", rawDataJson, collectedAt);
+        }
+    }
+    
+    /**
+     * /proc/[pid] 기반 프로세스 그룹 메트릭 수집 (감시 목록 그룹 + CPU/메모리 상위 N개 그룹)
+     */
+    private void collectProcesses() {
+        if (!processCollector.collect(processSamples)) {
+            log.debug("프로세스 기준값 수집 (다음 주기부터 CPU 사용률 계산)");
+            return;
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        for (ProcessGroupSample group : processSamples) {
+            Map<String, Object> rawData = new LinkedHashMap<>();
+            rawData.put("name", group.getName());
+            rawData.put("watched", group.isWatched());
+            rawData.put("processes", group.getProcessCount());
+            rawData.put("cpuPercent", group.getCpuPercent());
+            rawData.put("rssKb", group.getRssKb());
+            rawData.put("swapKb", group.getSwapKb());
+            rawData.put("threads", group.getThreads());
+            if (group.getFds() >= 0) {
+                rawData.put("fds", group.getFds());
+            }
+            rawData.put("pids", group.getPids(PROCESS_RAW_PIDS));
+            String rawDataJson = gson.toJson(rawData);
+            String suffix = "_" + group.getMetricSuffix();
+            
+            sendSample("PROCESS", "process_cpu_percent" + suffix,
+                group.getCpuPercent(), "%", rawDataJson, now);
+            sendSample("PROCESS", "process_rss" + suffix,
+                group.getRssKb() / 1024, "MB", rawDataJson, now);
+            sendSample("PROCESS", "process_threads" + suffix,
+                group.getThreads(), "count", rawDataJson, now);
+            if (group.getFds() >= 0) {
+                sendSample("PROCESS", "process_fds" + suffix,
+                    group.getFds(), "count", rawDataJson, now);
+            }
+            if (group.isWatched()) {
+                // 감시 대상이 내려가면 0으로 보고
+                sendSample("PROCESS", "process_count" + suffix,
+                    group.getProcessCount(), "count", rawDataJson, now);
+            }
+        }
+        log.debug("프로세스 메트릭 수집 완료: {}개 그룹", processSamples.size());
+    }
+    
+    /**
+     * 샘플 값을 전송용으로 변환 (소수점 둘째 자리까지, 구간 요약 없이 바로 보낼 때만 만듦)
+     */
+    private static BigDecimal toMetricValue(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+    
+    /**
+     * 기본 수집 작업의 샘플 전송 (구간 요약을 사용하면 누적만 하고 구간이 끝날 때 요약으로 전송)
+     */
+    private void sendSample(String metricType, String metricName, double value, String unit,
+                            String rawData, LocalDateTime collectedAt) {
+        if (metricAggregator != null) {
+            metricAggregator.record(metricType, metricName, unit, value, rawData);
+        } else {
+            sendSeriesMetric(new ApiClient.MetricRequest(null, metricType, metricName, toMetricValue(value), unit, rawData, collectedAt));
+        }
+    }
+    
+    /**
+     * 기본 수집 작업의 샘플 전송 (구간 요약을 사용하면 rawData는 구간의 마지막 샘플 것만 요약을 보낼 때 만듦)
+     */
+    private void sendSample(String metricType, String metricName, double value, String unit,
+                            Supplier<String> rawData, LocalDateTime collectedAt) {
+        if (metricAggregator != null) {
+            metricAggregator.record(metricType, metricName, unit, value, rawData);
+        } else {
+            sendSeriesMetric(new ApiClient.MetricRequest(null, metricType, metricName, toMetricValue(value), unit, rawData.get(), collectedAt));
+        }
+    }
+    
+    /**
+     * 기본 수집 작업의 메트릭 전송 (변화 기반 전송 대상이면 값이 바뀌지 않은 동안 건너뛰고, 보낼 때 유지 시간을 붙임)
+     */
+    private void sendSeriesMetric(ApiClient.MetricRequest request) {
+        if (deadbandFilter != null && request.getMetricValue() != null
+                && deadbandFilter.appliesTo(request.getMetricName())) {
+            String seriesKey = request.getMetricType() + '\u0000' + request.getMetricName();
+            if (!deadbandFilter.accept(seriesKey, request.getMetricName(), request.getMetricValue().doubleValue(),
+                    System.currentTimeMillis())) {
+                deadbandSuppressed.increment();
+                return;
+            }
+            request.setHoldSeconds(deadbandFilter.getMaxSilenceSeconds());
+        }
+        sendMetric(request);
+    }
+    
+    /**
+     * 메트릭 전송 (스풀 사용 시 디스크에 먼저 기록)
+     */
+    private void sendMetric(ApiClient.MetricRequest request) {
+        if (telemetrySpool != null) {
+            telemetrySpool.offerMetric(request);
+        } else {
+            metricBatchSender.add(request);
+        }
+    }
+    
+    /**
+     * Exception 로그 전송 (스풀 사용 시 디스크에 먼저 기록, 아니면 비동기 전송)
+     */
+    private void sendException(ApiClient.ExceptionRequest request) {
+        if (telemetrySpool != null) {
+            telemetrySpool.offerException(request);
+            return;
+        }
+        boolean accepted = asyncSender.submit("Exception 로그 전송",
+            callback -> apiClient.sendExceptionLogAsync(agentId, apiKey, request, callback));
+        if (!accepted) {
+            // 같은 예외의 반복은 집계기에서 이미 묶이므로, 전송이 밀린 동안의 새 예외만 건너뜀
+            log.warn("전송이 밀려 Exception 로그를 건너뜁니다: {}", request.getExceptionType());
+        }
+    }
+    
+    /**
+     * 기본 작업 스케줄 (서버 작업 정의로 주기를 바꿀 수 있도록 실행 내용과 설정 주기를 기억)
+     */
+    private void scheduleBuiltinTask(String taskName, Runnable task, long intervalSeconds) {
+        synchronized (scheduledTasks) {
+            builtinTasks.put(taskName, task);
+            builtinIntervals.put(taskName, intervalSeconds);
+            scheduleTask(taskName, task, intervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+    
+    /**
+     * 작업 중지
+     */
+    private void cancelTask(String taskName) {
+        synchronized (scheduledTasks) {
+            ScheduledJob job = scheduledTasks.remove(taskName);
+            if (job != null) {
+                job.cancel();
+                AgentTelemetry.getInstance().removeHistogram(ScheduledJob.latencyName(taskName));
+                log.info("작업 중지: {}", taskName);
+            }
+        }
+    }
+    
+    /**
+     * 작업 스케줄
+     * 제한 시간은 설정(scheduler.deadline.seconds.<작업 이름>)이 없으면 실행 주기와 같습니다.
+     */
+    private void scheduleTask(String taskName, Runnable task, long period, TimeUnit unit) {
+        scheduleTask(taskName, task, period, unit, 0);
+    }
+    
+    private void scheduleTask(String taskName, Runnable task, long period, TimeUnit unit, long initialDelayMillis) {
+        long periodMillis = unit.toMillis(period);
+        Integer deadlineSeconds = config.getSchedulerDeadlineSeconds().get(taskName);
+        long deadlineMillis = deadlineSeconds != null ? TimeUnit.SECONDS.toMillis(deadlineSeconds) : periodMillis;
+        OverrunPolicy overrunPolicy = config.getSchedulerOverrunPolicy(taskName);
+        
+        ScheduledJob job = scheduler.scheduleAtFixedRate(taskName, task, initialDelayMillis, periodMillis,
+            deadlineMillis, overrunPolicy);
+        
+        synchronized (scheduledTasks) {
+            scheduledTasks.put(taskName, job);
+        }
+        log.info("작업 스케줄 등록: {} (주기: {} {}, 제한 시간: {}ms, 중복 실행: {})",
+            taskName, period, unit, deadlineMillis, overrunPolicy);
+    }
+    
+    /**
+     * 기본 작업의 현재 주기 (서버 정의로 바뀌었을 수 있음)
+     */
+    private long builtinPeriodMillis(String taskName) {
+        synchronized (scheduledTasks) {
+            ScheduledJob job = scheduledTasks.get(taskName);
+            return job != null ? job.getPeriodMillis() : 0;
+        }
+    }
+    
+    /**
+     * 실행이 밀리거나 제한 시간을 넘긴 작업의 통계 기록
+     */
+    private void logTaskStats() {
+        if (collectionPlanner.getSavedExecutions() > 0) {
+            log.info("수집 계획: 명령어/파일 읽기 {}회 실행, 결과 공유로 {}회 절약",
+                collectionPlanner.getExecutions(), collectionPlanner.getSavedExecutions());
+        }
+        synchronized (scheduledTasks) {
+            for (ScheduledJob job : scheduledTasks.values()) {
+                if (job.getMissedRunCount() > 0 || job.getDeadlineMissCount() > 0) {
+                    log.info("작업 통계: {} (실행 {}회, 최근 {}ms, 최대 {}ms, 중복 {}회, 건너뜀 {}회, 제한 시간 초과 {}회)",
+                        job.getName(), job.getRunCount(), job.getLastDurationMillis(), job.getMaxDurationMillis(),
+                        job.getOverrunCount(), job.getMissedRunCount(), job.getDeadlineMissCount());
+                } else {
+                    log.debug("작업 통계: {} (실행 {}회, 최근 {}ms, 최대 {}ms)",
+                        job.getName(), job.getRunCount(), job.getLastDurationMillis(), job.getMaxDurationMillis());
+                }
+            }
+        }
+    }
+    
+    /**
+     * 에이전트 자체 텔레메트리 전송
+     * 지연 시간은 보고 주기 동안의 p99 값을 메트릭 값으로, 건수와 평균/분위수/최댓값을 rawData로 보냅니다.
+     * 카운터는 보고 주기 동안 증가한 값, 게이지는 현재 값입니다.
+     */
+    private void reportTelemetry() {
+        LocalDateTime now = LocalDateTime.now();
+        AgentTelemetry.getInstance().report(new AgentTelemetry.Reporter() {
+            @Override
+            public void histogram(String name, LatencyHistogram.Snapshot snapshot) {
+                Map<String, Object> rawData = new LinkedHashMap<>();
+                rawData.put("count", snapshot.getCount());
+                rawData.put("meanMs", nanosToMillis(snapshot.getMeanNanos()));
+                rawData.put("p50Ms", nanosToMillis(snapshot.getPercentileNanos(0.5)));
+                rawData.put("p90Ms", nanosToMillis(snapshot.getPercentileNanos(0.9)));
+                rawData.put("p99Ms", nanosToMillis(snapshot.getPercentileNanos(0.99)));
+                rawData.put("maxMs", nanosToMillis(snapshot.getMaxNanos()));
+                sendMetric(new ApiClient.MetricRequest(
+                    null, "AGENT", name + ".p99",
+                    nanosToMillis(snapshot.getPercentileNanos(0.99)), "ms", gson.toJson(rawData), now
+                ));
+            }
+            
+            @Override
+            public void counter(String name, long delta) {
+                sendMetric(new ApiClient.MetricRequest(
+                    null, "AGENT", name, BigDecimal.valueOf(delta), telemetryUnit(name), null, now
+                ));
+            }
+            
+            @Override
+            public void gauge(String name, long value) {
+                sendMetric(new ApiClient.MetricRequest(
+                    null, "AGENT", name, BigDecimal.valueOf(value), telemetryUnit(name), null, now
+                ));
+            }
+        });
+    }
+    
+    private static BigDecimal nanosToMillis(long nanos) {
+        return BigDecimal.valueOf(nanos, 6).setScale(3, RoundingMode.HALF_UP);
+    }
+    
+    private static String telemetryUnit(String name) {
+        return name.contains("bytes") ? "bytes" : "count";
     }
     
     /**
@@ -207,24 +1209,132 @@ public class TaskScheduler {
     public void stopAllTasks() {
         log.info("작업 스케줄러 중지");
         
-        for (Map.Entry<String, ScheduledFuture<?>> entry : scheduledTasks.entrySet()) {
-            entry.getValue().cancel(false);
-            log.info("작업 중지: {}", entry.getKey());
+        if (logWatcher != null) {
+            logWatcher.stop();
         }
         
-        scheduledTasks.clear();
-        scheduler.shutdown();
-        
-        try {
-            if (!scheduler.awaitTermination(10, TimeUnit.SECONDS)) {
-                scheduler.shutdownNow();
+        synchronized (scheduledTasks) {
+            for (Map.Entry<String, ScheduledJob> entry : scheduledTasks.entrySet()) {
+                entry.getValue().cancel();
+                log.info("작업 중지: {}", entry.getKey());
             }
-        } catch (InterruptedException e) {
-            scheduler.shutdownNow();
-            Thread.currentThread().interrupt();
+            
+            scheduledTasks.clear();
+        }
+        scheduler.shutdown(TimeUnit.SECONDS.toMillis(10));
+        
+        // 끝나지 않은 구간의 샘플도 요약으로 전송
+        if (metricAggregator != null) {
+            metricAggregator.flush(this::sendSeriesMetric);
+        }
+        
+        // 수집 중이던 Exception 블록은 지금까지의 내용으로 전송
+        synchronized (exceptionLock) {
+            logParser.flushAll(this::sendException);
+            exceptionAggregator.flushAll(this::sendException);
+            logTailer.saveState();
         }
         
         log.info("작업 스케줄러 종료 완료");
     }
+    
+    /**
+     * 전송할 때 한 번만 JSON으로 만드는 rawData (샘플 값은 만들 때 복사해 두어 다음 수집이 덮어써도 유지)
+     */
+    private abstract class LazyRawData implements Supplier<String> {
+        private String json;
+        
+        @Override
+        public String get() {
+            if (json == null) {
+                json = gson.toJson(toMap());
+            }
+            return json;
+        }
+        
+        abstract Map<String, Object> toMap();
+    }
+    
+    /**
+     * free -m 메모리 rawData
+     */
+    private final class FreeMemoryRawData extends LazyRawData {
+        private final long totalMb;
+        private final long usedMb;
+        private final long freeMb;
+        private final long availableMb;
+        private final double usedPercent;
+        private final double freePercent;
+        private final long swapTotalMb;
+        private final long swapUsedMb;
+        private final long swapFreeMb;
+        private final double swapUsedPercent;
+        
+        FreeMemoryRawData(FreeMemorySample sample) {
+            this.totalMb = sample.getTotalMb();
+            this.usedMb = sample.getUsedMb();
+            this.freeMb = sample.getFreeMb();
+            this.availableMb = sample.getAvailableMb();
+            this.usedPercent = sample.getUsedPercent();
+            this.freePercent = sample.getFreePercent();
+            this.swapTotalMb = sample.getSwapTotalMb();
+            this.swapUsedMb = sample.getSwapUsedMb();
+            this.swapFreeMb = sample.getSwapFreeMb();
+            this.swapUsedPercent = sample.getSwapUsedPercent();
+        }
+        
+        @Override
+        Map<String, Object> toMap() {
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            metrics.put("total", totalMb);
+            metrics.put("used", usedMb);
+            metrics.put("free", freeMb);
+            metrics.put("available", availableMb);
+            metrics.put("usedPercent", usedPercent);
+            metrics.put("freePercent", freePercent);
+            if (swapTotalMb >= 0) {
+                metrics.put("swapTotal", swapTotalMb);
+                metrics.put("swapUsed", swapUsedMb);
+                metrics.put("swapFree", swapFreeMb);
+            }
+            if (swapTotalMb > 0) {
+                metrics.put("swapUsedPercent", swapUsedPercent);
+            }
+            return metrics;
+        }
+    }
+    
+    /**
+     * df -h 마운트 위치 하나의 rawData
+     */
+    private final class DiskUsageRawData extends LazyRawData {
+        private final String filesystem;
+        private final String mountPoint;
+        private final double sizeBytes;
+        private final double usedBytes;
+        private final double availableBytes;
+        private final double usePercent;
+        
+        DiskUsageRawData(DiskUsageSample sample) {
+            this.filesystem = sample.getFilesystem();
+            this.mountPoint = sample.getMountPoint();
+            this.sizeBytes = sample.getSizeBytes();
+            this.usedBytes = sample.getUsedBytes();
+            this.availableBytes = sample.getAvailableBytes();
+            this.usePercent = sample.getUsePercent();
+        }
+        
+        @Override
+        Map<String, Object> toMap() {
+            Map<String, Object> diskInfo = new LinkedHashMap<>();
+            diskInfo.put("filesystem", filesystem);
+            diskInfo.put("sizeMb", (long) (sizeBytes / MB));
+            diskInfo.put("usedMb", (long) (usedBytes / MB));
+            diskInfo.put("availMb", (long) (availableBytes / MB));
+            diskInfo.put("usePercent", usePercent);
+            diskInfo.put("mountedOn", mountPoint);
+            return diskInfo;
+        }
+    }
 }
 
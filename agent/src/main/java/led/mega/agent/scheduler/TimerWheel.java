@@ -0,0 +1,157 @@
+package led.mega.agent.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 해시 타이머 휠
+ * 등록된 타이머를 (만료 tick % 휠 크기) 버킷에 넣고, 스레드 하나가 tick마다 한 버킷만 확인합니다.
+ * 타이머 수와 관계없이 등록/취소가 O(1)이며, 만료된 작업은 휠 스레드에서 바로 실행되므로
+ * 작업은 다른 스레드에 넘기는 정도로 짧아야 합니다.
+ */
+@Slf4j
+public class TimerWheel {
+
+    private final long tickNanos;
+    private final int mask;
+    private final List<Timeout>[] buckets;
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private final Thread workerThread;
+
+    private volatile boolean running = true;
+    private final long startNanos;
+    private long tick;  // 휠 스레드에서만 사용
+
+    /**
+     * @param tickMillis tick 간격 (타이머 정밀도)
+     * @param wheelSize 버킷 수 (2의 거듭제곱으로 올림)
+     */
+    @SuppressWarnings("unchecked")
+    public TimerWheel(long tickMillis, int wheelSize) {
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, tickMillis));
+        int size = Integer.highestOneBit(Math.max(2, wheelSize) - 1) << 1;
+        this.mask = size - 1;
+        this.buckets = new List[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+        this.startNanos = System.nanoTime();
+        this.workerThread = new Thread(this::run, "timer-wheel");
+        this.workerThread.setDaemon(true);
+        this.workerThread.start();
+    }
+
+    /**
+     * 타이머 등록 (어느 스레드에서나 호출 가능)
+     */
+    public Timeout schedule(Runnable task, long delayMillis) {
+        Timeout timeout = new Timeout(task, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMillis)));
+        pendingTimeouts.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * 휠 스레드 종료 (남은 타이머는 실행하지 않음)
+     */
+    public void stop() {
+        running = false;
+        workerThread.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            if (!waitForNextTick()) {
+                break;
+            }
+            transferPendingTimeouts();
+            expireBucket(buckets[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    /**
+     * 다음 tick 시각까지 대기
+     */
+    private boolean waitForNextTick() {
+        long deadline = startNanos + (tick + 1) * tickNanos;
+        while (running) {
+            long sleepNanos = deadline - System.nanoTime();
+            if (sleepNanos <= 0) {
+                return true;
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(sleepNanos);
+            } catch (InterruptedException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 새로 등록된 타이머를 만료 tick에 해당하는 버킷으로 이동
+     */
+    private void transferPendingTimeouts() {
+        Timeout timeout;
+        while ((timeout = pendingTimeouts.poll()) != null) {
+            if (timeout.cancelled) {
+                continue;
+            }
+            long expireTick = Math.max((timeout.deadlineNanos - startNanos) / tickNanos, tick);
+            timeout.remainingRounds = (expireTick - tick) / buckets.length;
+            buckets[(int) (expireTick & mask)].add(timeout);
+        }
+    }
+
+    /**
+     * 현재 버킷에서 만료된 타이머 실행, 남은 바퀴가 있는 타이머는 유지
+     */
+    private void expireBucket(List<Timeout> bucket) {
+        int kept = 0;
+        for (int i = 0; i < bucket.size(); i++) {
+            Timeout timeout = bucket.get(i);
+            if (timeout.cancelled) {
+                continue;
+            }
+            if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+                bucket.set(kept++, timeout);
+                continue;
+            }
+            try {
+                timeout.task.run();
+            } catch (Throwable t) {
+                log.error("타이머 작업 실행 중 오류 발생", t);
+            }
+        }
+        bucket.subList(kept, bucket.size()).clear();
+    }
+
+    /**
+     * 등록된 타이머 (취소 시 버킷에서는 다음 확인 때 제거)
+     */
+    public static final class Timeout {
+        private final Runnable task;
+        private final long deadlineNanos;
+        private long remainingRounds;  // 휠 스레드에서만 사용
+        private volatile boolean cancelled;
+
+        private Timeout(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package led.mega.agent.scheduler;
+
+import led.mega.agent.telemetry.AgentTelemetry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 타이머 휠 + 작업 스레드 풀 스케줄러
+ * 휠 스레드는 실행 시각이 된 작업을 작업 풀에 넘기기만 하므로, 느린 작업이 있어도 다른 작업의 실행 시각이 밀리지 않습니다.
+ * 이전 실행이 아직 끝나지 않았으면 작업별 정책(OverrunPolicy)에 따라 건너뛰거나 한 번으로 합쳐 실행합니다.
+ */
+@Slf4j
+public class WheelScheduler {
+
+    private static final int WHEEL_SIZE = 512;
+
+    private final TimerWheel wheel;
+    private final ThreadPoolExecutor workers;
+    private volatile boolean shutdown;
+
+    /**
+     * @param tickMillis 타이머 정밀도
+     * @param workerThreads 작업 실행 스레드 수
+     * @param queueSize 실행을 기다리는 작업의 최대 수 (넘으면 해당 실행은 건너뜀)
+     */
+    public WheelScheduler(long tickMillis, int workerThreads, int queueSize) {
+        this.wheel = new TimerWheel(tickMillis, WHEEL_SIZE);
+        AtomicInteger threadNumber = new AtomicInteger();
+        int threads = Math.max(1, workerThreads);
+        this.workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueSize)), r -> {
+                Thread thread = new Thread(r, "task-worker-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        AgentTelemetry.getInstance().gauge("scheduler.worker_queue", () -> workers.getQueue().size());
+    }
+
+    /**
+     * 고정 주기 작업 등록
+     *
+     * @param deadlineMillis 한 번 실행의 제한 시간 (넘으면 경고 및 통계 기록)
+     */
+    public ScheduledJob scheduleAtFixedRate(String name, Runnable task, long initialDelayMillis, long periodMillis,
+                                            long deadlineMillis, OverrunPolicy overrunPolicy) {
+        ScheduledJob job = new ScheduledJob(name, task, Math.max(1, periodMillis), deadlineMillis, overrunPolicy);
+        job.nextFireNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, initialDelayMillis));
+        arm(job);
+        return job;
+    }
+
+    /**
+     * 한 번 실행할 작업 등록
+     */
+    public TimerWheel.Timeout schedule(Runnable task, long delayMillis) {
+        return wheel.schedule(() -> {
+            try {
+                workers.execute(task);
+            } catch (RejectedExecutionException e) {
+                log.warn("작업 대기열이 가득 차 예약 작업을 건너뜁니다");
+            }
+        }, delayMillis);
+    }
+
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    /**
+     * 종료 (실행 중인 작업은 최대 timeoutMillis까지 기다림)
+     */
+    public void shutdown(long timeoutMillis) {
+        shutdown = true;
+        wheel.stop();
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void arm(ScheduledJob job) {
+        long delayMillis = TimeUnit.NANOSECONDS.toMillis(job.nextFireNanos - System.nanoTime());
+        job.timeout = wheel.schedule(() -> fire(job), delayMillis);
+    }
+
+    /**
+     * 실행 시각 도달 (휠 스레드): 다음 실행을 먼저 예약하고 작업 풀에 넘김
+     */
+    private void fire(ScheduledJob job) {
+        if (job.isCancelled() || shutdown) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        long periodNanos = TimeUnit.MILLISECONDS.toNanos(job.getPeriodMillis());
+        job.nextFireNanos += periodNanos;
+        if (job.nextFireNanos <= now) {
+            // 휠이 밀려 지나간 주기는 실행하지 않음
+            long behind = (now - job.nextFireNanos) / periodNanos + 1;
+            job.nextFireNanos += behind * periodNanos;
+            job.recordMissedRuns(behind);
+        }
+        arm(job);
+
+        if (!job.running.compareAndSet(false, true)) {
+            handleOverrun(job, now);
+            return;
+        }
+        submit(job);
+    }
+
+    /**
+     * 이전 실행이 끝나지 않은 경우
+     */
+    private void handleOverrun(ScheduledJob job, long now) {
+        job.recordOverrun();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(now - job.lastStartedNanos);
+        if (job.getOverrunPolicy() == OverrunPolicy.COALESCE && job.rerunPending.compareAndSet(false, true)) {
+            log.debug("작업 실행 중, 끝나면 한 번 더 실행: {} ({}ms 경과)", job.getName(), elapsedMillis);
+        } else {
+            job.recordMissedRuns(1);
+            log.warn("작업이 아직 실행 중이라 이번 실행을 건너뜁니다: {} ({}ms 경과, 제한 {}ms)",
+                job.getName(), elapsedMillis, job.getDeadlineMillis());
+        }
+    }
+
+    private void submit(ScheduledJob job) {
+        try {
+            workers.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            job.running.set(false);
+            job.recordMissedRuns(1);
+            log.warn("작업 대기열이 가득 차 실행을 건너뜁니다: {}", job.getName());
+        }
+    }
+
+    private void run(ScheduledJob job) {
+        long start = System.nanoTime();
+        job.lastStartedNanos = start;
+        try {
+            job.getTask().run();
+        } catch (Throwable t) {
+            log.error("작업 실행 중 오류 발생: {}", job.getName(), t);
+        } finally {
+            long durationNanos = System.nanoTime() - start;
+            long durationMillis = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+            job.recordRun(durationNanos);
+            if (job.getDeadlineMillis() > 0 && durationMillis > job.getDeadlineMillis()) {
+                job.recordDeadlineMiss();
+                log.warn("작업 실행 시간이 제한 시간을 넘었습니다: {} ({}ms > {}ms)",
+                    job.getName(), durationMillis, job.getDeadlineMillis());
+            }
+            job.running.set(false);
+
+            // 실행 중에 밀린 실행은 한 번으로 합쳐 바로 실행
+            if (job.rerunPending.getAndSet(false) && !job.isCancelled() && !shutdown
+                    && job.running.compareAndSet(false, true)) {
+                submit(job);
+            }
+        }
+    }
+}
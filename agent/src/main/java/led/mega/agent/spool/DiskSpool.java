@@ -0,0 +1,389 @@
+package led.mega.agent.spool;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * 디스크 기반 append-only 스풀
+ * 레코드를 세그먼트 파일에 순차 기록하고, 읽기 위치(spool.pos)를 커밋한 만큼만 소비된 것으로 봅니다.
+ *
+ * <pre>
+ * 레코드 형식: [길이(4)][CRC32(4)][타입(1)][페이로드(길이)]
+ * </pre>
+ *
+ * 전체 크기가 상한을 넘으면 가장 오래된 세그먼트부터 삭제합니다.
+ * 기록한 데이터는 최대 SYNC_INTERVAL_NANOS마다 디스크에 강제 기록(fsync)하고,
+ * 읽기 위치는 항상 강제 기록된 데이터까지만 저장합니다.
+ */
+@Slf4j
+public class DiskSpool implements Closeable {
+    
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".spool";
+    private static final String POSITION_FILE = "spool.pos";
+    private static final int HEADER_SIZE = 9;
+    private static final int MAX_RECORD_SIZE = 16 * 1024 * 1024;
+    private static final long SYNC_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    
+    private final Path directory;
+    private final long segmentSize;
+    private final long maxTotalSize;
+    
+    // 세그먼트 번호 → 파일 크기 (오래된 순)
+    private final TreeMap<Long, Long> segments = new TreeMap<>();
+    private long totalSize;
+    
+    private long writeSegment;
+    private long writeOffset;
+    private FileChannel writeChannel;
+    // 쓰기 세그먼트에서 디스크에 강제 기록된 위치
+    private long syncedOffset;
+    private long lastSyncNanos = System.nanoTime();
+    
+    private long readSegment;
+    private long readOffset;
+    private long openReadSegment = -1;
+    private FileChannel readChannel;
+    
+    private final FileChannel positionChannel;
+    private final ByteBuffer headerBuffer = ByteBuffer.allocate(HEADER_SIZE);
+    private final ByteBuffer positionBuffer = ByteBuffer.allocate(16);
+    private final CRC32 crc = new CRC32();
+    
+    private long evictedSegments;
+    
+    public DiskSpool(String directory, long segmentSize, long maxTotalSize) throws IOException {
+        this.directory = Paths.get(directory);
+        this.segmentSize = segmentSize;
+        this.maxTotalSize = Math.max(maxTotalSize, segmentSize * 2);
+        
+        Files.createDirectories(this.directory);
+        loadSegments();
+        
+        this.positionChannel = FileChannel.open(this.directory.resolve(POSITION_FILE),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        loadPosition();
+        
+        // 비정상 종료로 마지막 세그먼트 끝이 잘렸을 수 있으므로 쓰기는 항상 새 세그먼트에서 시작
+        openWriteSegment(segments.isEmpty() ? 1 : segments.lastKey() + 1);
+        if (!segments.containsKey(readSegment) || readSegment > writeSegment) {
+            // 읽던 세그먼트가 빈 파일이라 삭제되었으면 그 다음 세그먼트부터 읽음
+            Long next = readSegment > writeSegment ? null : segments.ceilingKey(readSegment);
+            readSegment = next != null ? next : segments.firstKey();
+            readOffset = 0;
+        }
+        
+        log.info("스풀 열기 완료: {} (세그먼트 {}개, {} bytes)", this.directory.toAbsolutePath(), segments.size(), totalSize);
+    }
+    
+    /**
+     * 레코드 추가
+     */
+    public synchronized void append(byte type, byte[] payload) throws IOException {
+        if (payload.length > MAX_RECORD_SIZE) {
+            throw new IOException("스풀 레코드가 너무 큽니다: " + payload.length + " bytes");
+        }
+        int recordSize = HEADER_SIZE + payload.length;
+        if (writeOffset > 0 && writeOffset + recordSize > segmentSize) {
+            rollWriteSegment();
+        }
+        
+        crc.reset();
+        crc.update(type);
+        crc.update(payload, 0, payload.length);
+        
+        ByteBuffer buffer = ByteBuffer.allocate(recordSize);
+        buffer.putInt(payload.length);
+        buffer.putInt((int) crc.getValue());
+        buffer.put(type);
+        buffer.put(payload);
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            writeChannel.write(buffer);
+        }
+        
+        writeOffset += recordSize;
+        totalSize += recordSize;
+        segments.put(writeSegment, writeOffset);
+        enforceSizeLimit();
+        
+        if (System.nanoTime() - lastSyncNanos >= SYNC_INTERVAL_NANOS) {
+            sync();
+        }
+    }
+    
+    /**
+     * 쓰기 세그먼트에 기록한 데이터를 디스크에 강제 기록
+     */
+    public synchronized void sync() throws IOException {
+        if (writeOffset > syncedOffset) {
+            writeChannel.force(false);
+            syncedOffset = writeOffset;
+        }
+        lastSyncNanos = System.nanoTime();
+    }
+    
+    /**
+     * 커밋된 위치부터 최대 maxRecords개의 레코드 읽기 (읽기 위치는 commit 전까지 유지)
+     */
+    public synchronized List<SpoolRecord> read(int maxRecords) throws IOException {
+        List<SpoolRecord> records = new ArrayList<>();
+        long segment = readSegment;
+        long offset = readOffset;
+        
+        while (records.size() < maxRecords) {
+            Long size = segments.get(segment);
+            if (size == null) {
+                Long next = segments.ceilingKey(segment);
+                if (next == null) {
+                    break;
+                }
+                segment = next;
+                offset = 0;
+                continue;
+            }
+            if (offset + HEADER_SIZE > size) {
+                // 세그먼트 끝 (또는 비정상 종료로 잘린 꼬리)
+                if (segment == writeSegment) {
+                    break;
+                }
+                segment = segment + 1;
+                offset = 0;
+                continue;
+            }
+            
+            FileChannel channel = readChannel(segment);
+            headerBuffer.clear();
+            readFully(channel, headerBuffer, offset);
+            headerBuffer.flip();
+            int length = headerBuffer.getInt();
+            int checksum = headerBuffer.getInt();
+            byte type = headerBuffer.get();
+            
+            if (length < 0 || length > MAX_RECORD_SIZE || offset + HEADER_SIZE + length > size) {
+                log.warn("손상된 스풀 레코드 발견, 세그먼트 나머지를 건너뜁니다: segment={}, offset={}", segment, offset);
+                if (segment == writeSegment) {
+                    break;
+                }
+                segment = segment + 1;
+                offset = 0;
+                continue;
+            }
+            
+            byte[] payload = new byte[length];
+            readFully(channel, ByteBuffer.wrap(payload), offset + HEADER_SIZE);
+            offset += HEADER_SIZE + length;
+            
+            crc.reset();
+            crc.update(type);
+            crc.update(payload, 0, payload.length);
+            if ((int) crc.getValue() != checksum) {
+                log.warn("스풀 레코드 CRC 불일치, 건너뜁니다: segment={}, offset={}", segment, offset);
+                continue;
+            }
+            records.add(new SpoolRecord(type, payload, segment, offset));
+        }
+        return records;
+    }
+    
+    /**
+     * 해당 레코드까지 전송 완료로 기록하고, 다 소비한 세그먼트 삭제
+     */
+    public synchronized void commit(SpoolRecord record) throws IOException {
+        if (record.getSegment() < readSegment
+            || (record.getSegment() == readSegment && record.getNextOffset() <= readOffset)) {
+            return;
+        }
+        // 강제 기록되지 않은 데이터 너머로 위치가 저장되면 비정상 종료 시 그 레코드가 유실됨
+        if (record.getSegment() == writeSegment && record.getNextOffset() > syncedOffset) {
+            sync();
+        }
+        readSegment = record.getSegment();
+        readOffset = record.getNextOffset();
+        
+        positionBuffer.clear();
+        positionBuffer.putLong(readSegment);
+        positionBuffer.putLong(readOffset);
+        positionBuffer.flip();
+        while (positionBuffer.hasRemaining()) {
+            positionChannel.write(positionBuffer, positionBuffer.position());
+        }
+        
+        while (!segments.isEmpty() && segments.firstKey() < readSegment) {
+            deleteSegment(segments.firstKey());
+        }
+    }
+    
+    /**
+     * 전송할 레코드가 남아 있지 않은지 여부
+     */
+    public synchronized boolean isEmpty() {
+        for (Map.Entry<Long, Long> entry : segments.tailMap(readSegment, true).entrySet()) {
+            long consumed = entry.getKey() == readSegment ? readOffset : 0;
+            if (entry.getValue() > consumed) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    public synchronized long getTotalSize() {
+        return totalSize;
+    }
+    
+    public synchronized long getEvictedSegments() {
+        return evictedSegments;
+    }
+    
+    @Override
+    public synchronized void close() throws IOException {
+        if (writeChannel != null) {
+            writeChannel.force(false);
+            writeChannel.close();
+        }
+        if (readChannel != null) {
+            readChannel.close();
+        }
+        positionChannel.force(false);
+        positionChannel.close();
+    }
+    
+    private void loadSegments() throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                String number = name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length());
+                try {
+                    long segment = Long.parseLong(number);
+                    long size = Files.size(path);
+                    if (size == 0) {
+                        // 재시작마다 새 세그먼트를 만들기 때문에 기록 없이 종료되면 빈 파일이 남음
+                        log.info("빈 스풀 세그먼트를 삭제합니다: {}", path);
+                        Files.deleteIfExists(path);
+                        continue;
+                    }
+                    segments.put(segment, size);
+                    totalSize += size;
+                } catch (NumberFormatException e) {
+                    log.warn("알 수 없는 스풀 파일을 무시합니다: {}", path);
+                }
+            }
+        }
+    }
+    
+    private void loadPosition() throws IOException {
+        positionBuffer.clear();
+        if (positionChannel.size() >= 16) {
+            readFully(positionChannel, positionBuffer, 0);
+            positionBuffer.flip();
+            readSegment = positionBuffer.getLong();
+            readOffset = positionBuffer.getLong();
+        }
+    }
+    
+    private void openWriteSegment(long segment) throws IOException {
+        writeChannel = FileChannel.open(segmentPath(segment),
+            StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        writeSegment = segment;
+        writeOffset = 0;
+        syncedOffset = 0;
+        segments.put(segment, 0L);
+    }
+    
+    private void rollWriteSegment() throws IOException {
+        writeChannel.force(false);
+        writeChannel.close();
+        openWriteSegment(writeSegment + 1);
+    }
+    
+    private void enforceSizeLimit() throws IOException {
+        while (totalSize > maxTotalSize && segments.size() > 1) {
+            long oldest = segments.firstKey();
+            if (oldest == writeSegment) {
+                break;
+            }
+            log.warn("스풀 용량 초과로 가장 오래된 세그먼트를 삭제합니다: segment={}, {} bytes", oldest, segments.get(oldest));
+            deleteSegment(oldest);
+            evictedSegments++;
+            if (readSegment <= oldest) {
+                readSegment = segments.firstKey();
+                readOffset = 0;
+            }
+        }
+    }
+    
+    private void deleteSegment(long segment) throws IOException {
+        if (segment == openReadSegment) {
+            readChannel.close();
+            readChannel = null;
+            openReadSegment = -1;
+        }
+        Long size = segments.remove(segment);
+        if (size != null) {
+            totalSize -= size;
+        }
+        Files.deleteIfExists(segmentPath(segment));
+    }
+    
+    private FileChannel readChannel(long segment) throws IOException {
+        if (segment != openReadSegment) {
+            if (readChannel != null) {
+                readChannel.close();
+            }
+            readChannel = FileChannel.open(segmentPath(segment), StandardOpenOption.READ);
+            openReadSegment = segment;
+        }
+        return readChannel;
+    }
+    
+    private Path segmentPath(long segment) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+    
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("스풀 파일이 예상보다 짧습니다");
+            }
+            position += read;
+        }
+    }
+    
+    /**
+     * 스풀 레코드 (읽은 뒤의 위치를 함께 보관하여 commit에 사용)
+     */
+    public static class SpoolRecord {
+        private final byte type;
+        private final byte[] payload;
+        private final long segment;
+        private final long nextOffset;
+        
+        public SpoolRecord(byte type, byte[] payload, long segment, long nextOffset) {
+            this.type = type;
+            this.payload = payload;
+            this.segment = segment;
+            this.nextOffset = nextOffset;
+        }
+        
+        public byte getType() { return type; }
+        public byte[] getPayload() { return payload; }
+        public long getSegment() { return segment; }
+        public long getNextOffset() { return nextOffset; }
+    }
+}
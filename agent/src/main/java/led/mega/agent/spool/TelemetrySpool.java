@@ -0,0 +1,225 @@
+package led.mega.agent.spool;
+
+import com.google.gson.Gson;
+import led.mega.agent.client.ApiClient;
+import led.mega.agent.telemetry.AgentTelemetry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 전송 데이터 스풀
+ * 모든 메트릭/Exception을 먼저 디스크 스풀에 기록하고,
+ * 백그라운드 드레이너가 서버에 접속 가능할 때 기록된 순서대로 일괄 재전송합니다.
+ */
+@Slf4j
+public class TelemetrySpool {
+    
+    private static final byte TYPE_METRIC = 1;
+    private static final byte TYPE_EXCEPTION = 2;
+    
+    private static final long MIN_BACKOFF_MILLIS = 1000;
+    private static final long MAX_BACKOFF_MILLIS = 60000;
+    
+    private final DiskSpool spool;
+    private final ApiClient apiClient;
+    private final Gson gson;
+    private final int batchSize;
+    private final long drainIntervalMillis;
+    
+    private final Object signal = new Object();
+    private int appendedSinceDrain;
+    private volatile boolean running;
+    private Thread drainerThread;
+    
+    private volatile String agentId;
+    private volatile String apiKey;
+    
+    public TelemetrySpool(DiskSpool spool, ApiClient apiClient, int batchSize, long drainIntervalMillis) {
+        this.spool = spool;
+        this.apiClient = apiClient;
+        this.gson = apiClient.getGson();
+        this.batchSize = Math.max(1, batchSize);
+        this.drainIntervalMillis = Math.max(100, drainIntervalMillis);
+        AgentTelemetry.getInstance().gauge("spool.bytes", spool::getTotalSize);
+        AgentTelemetry.getInstance().gauge("spool.evicted_segments", spool::getEvictedSegments);
+    }
+    
+    /**
+     * 드레이너 시작 (에이전트 등록 후 호출)
+     */
+    public void start(String agentId, String apiKey) {
+        this.agentId = agentId;
+        this.apiKey = apiKey;
+        this.running = true;
+        
+        drainerThread = new Thread(this::drainLoop, "spool-drainer");
+        drainerThread.setDaemon(true);
+        drainerThread.start();
+        log.info("스풀 드레이너 시작 (배치 크기: {}, 주기: {}ms)", batchSize, drainIntervalMillis);
+    }
+    
+    /**
+     * 메트릭 기록
+     */
+    public void offerMetric(ApiClient.MetricRequest request) {
+        append(TYPE_METRIC, gson.toJson(request));
+    }
+    
+    /**
+     * Exception 로그 기록
+     */
+    public void offerException(ApiClient.ExceptionRequest request) {
+        append(TYPE_EXCEPTION, gson.toJson(request));
+    }
+    
+    /**
+     * 드레이너 중지 및 스풀 닫기 (미전송 데이터는 다음 실행 시 재전송)
+     */
+    public void stop() {
+        running = false;
+        synchronized (signal) {
+            signal.notifyAll();
+        }
+        if (drainerThread != null) {
+            try {
+                drainerThread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            spool.close();
+        } catch (IOException e) {
+            log.error("스풀 닫기 실패", e);
+        }
+        log.info("스풀 드레이너 중지");
+    }
+    
+    private void append(byte type, String json) {
+        try {
+            spool.append(type, json.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            log.error("스풀 기록 실패, 데이터가 유실됩니다", e);
+            return;
+        }
+        synchronized (signal) {
+            if (++appendedSinceDrain >= batchSize) {
+                signal.notifyAll();
+            }
+        }
+    }
+    
+    private void drainLoop() {
+        long backoffMillis = MIN_BACKOFF_MILLIS;
+        while (running) {
+            boolean delivered;
+            int drained;
+            try {
+                synchronized (signal) {
+                    appendedSinceDrain = 0;
+                }
+                // 기록이 뜸해도 마지막 레코드가 드레인 주기 안에 디스크에 강제 기록되도록 함
+                spool.sync();
+                List<DiskSpool.SpoolRecord> records = spool.read(batchSize);
+                drained = records.size();
+                delivered = records.isEmpty() || deliver(records);
+            } catch (Exception e) {
+                log.error("스풀 재전송 중 오류 발생", e);
+                drained = 0;
+                delivered = false;
+            }
+            
+            if (!delivered) {
+                // 서버 접속 불가: 지수 백오프 후 같은 위치부터 재시도
+                log.warn("서버 전송 실패, {}ms 후 스풀 재전송을 다시 시도합니다", backoffMillis);
+                await(backoffMillis, false);
+                backoffMillis = Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+                continue;
+            }
+            backoffMillis = MIN_BACKOFF_MILLIS;
+            if (drained < batchSize) {
+                // 밀린 데이터가 없으면 다음 배치가 찰 때까지 대기
+                await(drainIntervalMillis, true);
+            }
+        }
+    }
+    
+    /**
+     * 읽은 레코드를 순서대로 전송 (연속된 메트릭은 한 번에 일괄 전송)
+     *
+     * @return 모두 전송(또는 서버가 거부하여 폐기)했으면 true
+     */
+    private boolean deliver(List<DiskSpool.SpoolRecord> records) throws IOException {
+        List<ApiClient.MetricRequest> metrics = new ArrayList<>();
+        DiskSpool.SpoolRecord lastMetric = null;
+        
+        for (DiskSpool.SpoolRecord record : records) {
+            String json = new String(record.getPayload(), StandardCharsets.UTF_8);
+            if (record.getType() == TYPE_METRIC) {
+                metrics.add(gson.fromJson(json, ApiClient.MetricRequest.class));
+                lastMetric = record;
+                continue;
+            }
+            
+            if (!metrics.isEmpty()) {
+                if (!deliverMetrics(metrics, lastMetric)) {
+                    return false;
+                }
+                metrics = new ArrayList<>();
+            }
+            if (record.getType() == TYPE_EXCEPTION) {
+                ApiClient.ExceptionRequest request = gson.fromJson(json, ApiClient.ExceptionRequest.class);
+                ApiClient.DeliveryStatus status = apiClient.sendExceptionLog(agentId, apiKey, request);
+                if (status == ApiClient.DeliveryStatus.FAILED) {
+                    return false;
+                }
+                if (status == ApiClient.DeliveryStatus.REJECTED) {
+                    log.warn("서버가 거부한 Exception 로그 1건을 스풀에서 폐기합니다");
+                }
+            } else {
+                log.warn("알 수 없는 스풀 레코드 타입을 건너뜁니다: {}", record.getType());
+            }
+            spool.commit(record);
+        }
+        
+        return metrics.isEmpty() || deliverMetrics(metrics, lastMetric);
+    }
+    
+    private boolean deliverMetrics(List<ApiClient.MetricRequest> metrics, DiskSpool.SpoolRecord last) throws IOException {
+        ApiClient.DeliveryStatus status = apiClient.sendMetricBatch(agentId, apiKey, metrics);
+        if (status == ApiClient.DeliveryStatus.FAILED) {
+            return false;
+        }
+        if (status == ApiClient.DeliveryStatus.REJECTED) {
+            log.warn("서버가 거부한 메트릭 {}건을 스풀에서 폐기합니다", metrics.size());
+        }
+        spool.commit(last);
+        return true;
+    }
+    
+    /**
+     * 대기 (wakeOnBatch가 true면 배치가 찼을 때 바로 깨어나고, false면 백오프 시간을 모두 채움)
+     */
+    private void await(long millis, boolean wakeOnBatch) {
+        long deadline = System.currentTimeMillis() + millis;
+        synchronized (signal) {
+            while (running && !(wakeOnBatch && appendedSinceDrain >= batchSize)) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return;
+                }
+                try {
+                    signal.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    running = false;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package led.mega.agent.telemetry;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 에이전트 자체 텔레메트리 저장소
+ * 수집/파싱/전송 구간의 지연 시간 히스토그램, 누적 카운터(전송 바이트, 폐기 건수 등), 현재 값 게이지(대기열 길이 등)를
+ * 이름별로 보관하고, 보고 주기마다 구간 값을 꺼내 AGENT 메트릭으로 전송할 수 있게 합니다.
+ * 자주 호출되는 경로에서는 histogram()/counter() 결과를 필드에 보관해 두고 기록만 합니다.
+ */
+public final class AgentTelemetry {
+
+    private static final AgentTelemetry INSTANCE = new AgentTelemetry();
+
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    private AgentTelemetry() {
+    }
+
+    public static AgentTelemetry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 이름별 지연 시간 히스토그램 (없으면 생성)
+     */
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, k -> new LatencyHistogram());
+    }
+
+    /**
+     * 이름별 누적 카운터 (없으면 생성), 보고할 때는 보고 주기 동안 증가한 값만 전송
+     */
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, k -> new LongAdder());
+    }
+
+    /**
+     * 보고 시점의 현재 값을 읽을 게이지 등록 (같은 이름이면 교체)
+     */
+    public void gauge(String name, LongSupplier supplier) {
+        gauges.put(name, supplier);
+    }
+
+    /**
+     * 히스토그램 제거 (작업이 삭제된 경우 등)
+     */
+    public void removeHistogram(String name) {
+        histograms.remove(name);
+    }
+
+    /**
+     * 보고 주기 동안의 값을 꺼내 전달 (히스토그램은 기록이 있는 것만, 카운터는 증가분)
+     */
+    public void report(Reporter reporter) {
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(histograms).entrySet()) {
+            LatencyHistogram.Snapshot snapshot = entry.getValue().snapshotAndReset();
+            if (snapshot.getCount() > 0) {
+                reporter.histogram(entry.getKey(), snapshot);
+            }
+        }
+        for (Map.Entry<String, LongAdder> entry : new TreeMap<>(counters).entrySet()) {
+            reporter.counter(entry.getKey(), entry.getValue().sumThenReset());
+        }
+        for (Map.Entry<String, LongSupplier> entry : new TreeMap<>(gauges).entrySet()) {
+            reporter.gauge(entry.getKey(), entry.getValue().getAsLong());
+        }
+    }
+
+    /**
+     * 보고 대상
+     */
+    public interface Reporter {
+        void histogram(String name, LatencyHistogram.Snapshot snapshot);
+
+        void counter(String name, long delta);
+
+        void gauge(String name, long value);
+    }
+}
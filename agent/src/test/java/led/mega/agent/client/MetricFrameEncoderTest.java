@@ -0,0 +1,283 @@
+package led.mega.agent.client;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * MetricFrameEncoder 인코딩 → 디코딩 왕복 테스트
+ * 프레임 형식 그대로 읽는 테스트용 리더로 되읽고, 서버 MetricFrameDecoderTest의 고정 프레임과 같은 바이트가 나오는지 확인합니다.
+ */
+public class MetricFrameEncoderTest {
+
+    private static final LocalDateTime T = LocalDateTime.of(2026, 1, 1, 0, 0, 10);
+
+    // 서버 MetricFrameDecoderTest와 같은 프레임 (한쪽 형식이 바뀌면 두 테스트가 함께 깨짐)
+    static final String FRAME_V1 = "4d46010000019b76dacf100603435055096370752e7573616765012506435553544f4d036a6f62077b2261223a317d"
+        + "020102030004050008040000402900000000000000008f4e402a8000000000000001007ff800000000000006018452bff000000000000006";
+    static final String FRAME_V2 = "4d46020000019b76dacf100603435055096370752e75736167650125064d454d4f52590b6d656d6f72792e7573656402"
+        + "4d42020102030004050600030000401400000000000000043ff80000000000004022000000000000403400000000000040210000000000003c"
+        + "01004080000000000000000000c0a907400800000000000000024000000000000000401000000000000040180000000000007ff80000000000003c";
+    static final String FRAME_V3 = "4d46030000019b76dacf1005044449534b0c6469736b2e75736167652e2f012503435055096370752e7573616765"
+        + "0201020300ad020405030000040000404400000000000000000100402900000000000000000100401400000000000000043ff8000000000000"
+        + "4022000000000000403400000000000040210000000000003c00cf0f40448000000000000000";
+
+    private final MetricFrameEncoder encoder = new MetricFrameEncoder();
+
+    @Test
+    public void version1RoundTrip() throws IOException {
+        Frame frame = Frame.read(encoder.encode(version1Metrics()));
+
+        assertEquals(MetricFrameEncoder.VERSION, frame.version);
+        // 시리즈와 문자열은 한 번만 기록 (같은 rawData도 테이블 항목 하나를 공유)
+        assertEquals(2, frame.series.size());
+        assertEquals(Arrays.asList("CPU", "cpu.usage", "%", "CUSTOM", "job", "{\"a\":1}"), frame.strings);
+        assertEquals(4, frame.samples.size());
+
+        Sample first = frame.samples.get(0);
+        assertEquals(0, first.series);
+        assertEquals(T, first.collectedAt);
+        assertEquals(12.5, first.value, 0);
+        assertNull(first.rawData);
+
+        // 음수 시간 차이
+        assertEquals(T.minusSeconds(5), frame.samples.get(1).collectedAt);
+        assertEquals(13.25, frame.samples.get(1).value, 0);
+
+        // 값/단위 없음, 작업 ID 있음
+        Sample custom = frame.samples.get(2);
+        Series customSeries = frame.series.get(custom.series);
+        assertEquals("CUSTOM", customSeries.type);
+        assertNull(customSeries.unit);
+        assertEquals(Long.valueOf(7), customSeries.taskId);
+        assertTrue(Double.isNaN(custom.value));
+        assertEquals("{\"a\":1}", custom.rawData);
+        assertEquals(T.minusSeconds(5), custom.collectedAt);
+
+        Sample last = frame.samples.get(3);
+        assertEquals(custom.series, last.series);
+        assertEquals(T.plusNanos(250_000_000), last.collectedAt);
+        assertEquals(-1, last.value, 0);
+        assertEquals(custom.rawData, last.rawData);
+    }
+
+    @Test
+    public void version2RoundTrip() throws IOException {
+        Frame frame = Frame.read(encoder.encode(version2Metrics()));
+
+        assertEquals(MetricFrameEncoder.VERSION_SUMMARY, frame.version);
+        assertEquals(3, frame.samples.size());
+
+        Sample summary = frame.samples.get(0);
+        assertEquals(4, summary.sampleCount);
+        assertEquals(5, summary.value, 0);
+        assertEquals(1.5, summary.min, 0);
+        assertEquals(9, summary.max, 0);
+        assertEquals(20, summary.sum, 0);
+        assertEquals(8.5, summary.p95, 0);
+        assertEquals(60, summary.windowSeconds);
+
+        // 요약이 섞인 프레임의 단일 값은 sampleCount 0
+        Sample single = frame.samples.get(1);
+        assertEquals(0, single.sampleCount);
+        assertEquals(512, single.value, 0);
+        assertEquals("MB", frame.series.get(single.series).unit);
+
+        Sample noP95 = frame.samples.get(2);
+        assertEquals(summary.series, noP95.series);
+        assertEquals(2, noP95.sampleCount);
+        assertTrue(Double.isNaN(noP95.p95));
+        assertEquals(T.plusSeconds(60), noP95.collectedAt);
+    }
+
+    @Test
+    public void version3RoundTrip() throws IOException {
+        Frame frame = Frame.read(encoder.encode(version3Metrics()));
+
+        assertEquals(MetricFrameEncoder.VERSION_HOLD, frame.version);
+        // 유지 시간이 다르면 다른 시리즈, 요약 시리즈와 단일 값 시리즈는 같은 시리즈
+        assertEquals(2, frame.series.size());
+        assertEquals(Integer.valueOf(300), frame.series.get(0).holdSeconds);
+        assertNull(frame.series.get(1).holdSeconds);
+
+        assertEquals(4, frame.samples.size());
+        assertEquals(0, frame.samples.get(1).sampleCount);
+        assertEquals(4, frame.samples.get(2).sampleCount);
+        assertEquals(60, frame.samples.get(2).windowSeconds);
+
+        Sample held = frame.samples.get(3);
+        assertEquals(0, held.series);
+        assertEquals(41, held.value, 0);
+        assertEquals(T.minusSeconds(1), held.collectedAt);
+    }
+
+    @Test
+    public void matchesServerFixtures() {
+        assertArrayEquals(hex(FRAME_V1), encoder.encode(version1Metrics()));
+        assertArrayEquals(hex(FRAME_V2), encoder.encode(version2Metrics()));
+        assertArrayEquals(hex(FRAME_V3), encoder.encode(version3Metrics()));
+    }
+
+    @Test
+    public void emptyBatch() throws IOException {
+        Frame frame = Frame.read(encoder.encode(new ArrayList<ApiClient.MetricRequest>()));
+
+        assertEquals(MetricFrameEncoder.VERSION, frame.version);
+        assertTrue(frame.strings.isEmpty());
+        assertTrue(frame.samples.isEmpty());
+    }
+
+    static List<ApiClient.MetricRequest> version1Metrics() {
+        return Arrays.asList(
+            new ApiClient.MetricRequest(null, "CPU", "cpu.usage", new BigDecimal("12.5"), "%", null, T),
+            new ApiClient.MetricRequest(null, "CPU", "cpu.usage", new BigDecimal("13.25"), "%", null, T.minusSeconds(5)),
+            new ApiClient.MetricRequest(7L, "CUSTOM", "job", null, null, "{\"a\":1}", T.minusSeconds(5)),
+            new ApiClient.MetricRequest(7L, "CUSTOM", "job", new BigDecimal("-1"), null, "{\"a\":1}", T.plusNanos(250_000_000)));
+    }
+
+    static List<ApiClient.MetricRequest> version2Metrics() {
+        return Arrays.asList(
+            ApiClient.MetricRequest.summary("CPU", "cpu.usage", "%", null, T, 4,
+                new BigDecimal("1.5"), new BigDecimal("9"), new BigDecimal("20"), new BigDecimal("8.5"), 60),
+            new ApiClient.MetricRequest(null, "MEMORY", "memory.used", new BigDecimal("512"), "MB", null, T),
+            ApiClient.MetricRequest.summary("CPU", "cpu.usage", "%", null, T.plusSeconds(60), 2,
+                new BigDecimal("2"), new BigDecimal("4"), new BigDecimal("6"), null, 60));
+    }
+
+    static List<ApiClient.MetricRequest> version3Metrics() {
+        ApiClient.MetricRequest held = new ApiClient.MetricRequest(null, "DISK", "disk.usage./", new BigDecimal("40"), "%", null, T);
+        held.setHoldSeconds(300);
+        ApiClient.MetricRequest heldAgain = new ApiClient.MetricRequest(null, "DISK", "disk.usage./", new BigDecimal("41"), "%", null, T.minusSeconds(1));
+        heldAgain.setHoldSeconds(300);
+        return Arrays.asList(
+            held,
+            new ApiClient.MetricRequest(null, "CPU", "cpu.usage", new BigDecimal("12.5"), "%", null, T),
+            ApiClient.MetricRequest.summary("CPU", "cpu.usage", "%", null, T, 4,
+                new BigDecimal("1.5"), new BigDecimal("9"), new BigDecimal("20"), new BigDecimal("8.5"), 60),
+            heldAgain);
+    }
+
+    private static byte[] hex(String value) {
+        byte[] bytes = new byte[value.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(value.substring(i * 2, i * 2 + 2), 16);
+        }
+        return bytes;
+    }
+
+    /**
+     * 테스트용 프레임 리더 (클래스 주석의 형식을 그대로 따름)
+     */
+    private static class Frame {
+        int version;
+        final List<String> strings = new ArrayList<>();
+        final List<Series> series = new ArrayList<>();
+        final List<Sample> samples = new ArrayList<>();
+
+        static Frame read(byte[] bytes) throws IOException {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            Frame frame = new Frame();
+            assertEquals('M', in.readUnsignedByte());
+            assertEquals('F', in.readUnsignedByte());
+            frame.version = in.readUnsignedByte();
+            long millis = in.readLong();
+
+            long stringCount = readVarint(in);
+            for (int i = 0; i < stringCount; i++) {
+                byte[] value = new byte[(int) readVarint(in)];
+                in.readFully(value);
+                frame.strings.add(new String(value, StandardCharsets.UTF_8));
+            }
+
+            long seriesCount = readVarint(in);
+            for (int i = 0; i < seriesCount; i++) {
+                Series entry = new Series();
+                entry.type = frame.string(readVarint(in));
+                entry.name = frame.string(readVarint(in));
+                entry.unit = frame.string(readVarint(in));
+                long taskRef = readVarint(in);
+                entry.taskId = taskRef == 0 ? null : taskRef - 1;
+                if (frame.version >= MetricFrameEncoder.VERSION_HOLD) {
+                    long holdRef = readVarint(in);
+                    entry.holdSeconds = holdRef == 0 ? null : (int) holdRef - 1;
+                }
+                frame.series.add(entry);
+            }
+
+            long sampleCount = readVarint(in);
+            for (int i = 0; i < sampleCount; i++) {
+                Sample sample = new Sample();
+                sample.series = (int) readVarint(in);
+                long delta = readVarint(in);
+                millis += (delta >>> 1) ^ -(delta & 1);
+                sample.collectedAt = LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000),
+                    (int) Math.floorMod(millis, 1000) * 1_000_000, ZoneOffset.UTC);
+                sample.value = in.readDouble();
+                sample.rawData = frame.string(readVarint(in));
+                if (frame.version >= MetricFrameEncoder.VERSION_SUMMARY) {
+                    sample.sampleCount = (int) readVarint(in);
+                    if (sample.sampleCount > 0) {
+                        sample.min = in.readDouble();
+                        sample.max = in.readDouble();
+                        sample.sum = in.readDouble();
+                        sample.p95 = in.readDouble();
+                        sample.windowSeconds = (int) readVarint(in);
+                    }
+                }
+                frame.samples.add(sample);
+            }
+            assertEquals("프레임 뒤에 남은 바이트", -1, in.read());
+            return frame;
+        }
+
+        private String string(long ref) {
+            return ref == 0 ? null : strings.get((int) ref - 1);
+        }
+
+        private static long readVarint(DataInputStream in) throws IOException {
+            long result = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = in.readUnsignedByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+        }
+    }
+
+    private static class Series {
+        String type;
+        String name;
+        String unit;
+        Long taskId;
+        Integer holdSeconds;
+    }
+
+    private static class Sample {
+        int series;
+        LocalDateTime collectedAt;
+        double value;
+        String rawData;
+        int sampleCount;
+        double min;
+        double max;
+        double sum;
+        double p95;
+        int windowSeconds;
+    }
+}
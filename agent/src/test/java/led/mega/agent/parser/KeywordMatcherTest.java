@@ -0,0 +1,84 @@
+package led.mega.agent.parser;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 기본 키워드의 KeywordMatcher(와 LogParser의 "Throwable" 라인 처리)가 이전의 두 정규식
+ * (EXCEPTION_PATTERN, JAVA_EXCEPTION_PATTERN)과 정확히 같은 라인을 찾는지 확인
+ */
+public class KeywordMatcherTest {
+
+    private final KeywordMatcher matcher = new KeywordMatcher(LogParser.DEFAULT_KEYWORDS);
+
+    @Test
+    public void matchesKeywordsIgnoringCase() {
+        assertTrue(matcher.matches("ERROR failed"));
+        assertTrue(matcher.matches("java.lang.IllegalStateException: boom"));
+        assertFalse(matcher.matches("Throwable"));
+        assertTrue(matcher.matches("kernel: PANIC"));
+        assertTrue(matcher.matches("Stack Trace:"));
+        assertTrue(matcher.matches("errerror"));
+        assertFalse(matcher.matches("stack  trace"));
+        assertFalse(matcher.matches("INFO ok"));
+        assertFalse(matcher.matches(""));
+        assertFalse(matcher.matches(null));
+    }
+
+    @Test
+    public void sameLinesAsBaselinePatterns() {
+        String[] samples = {
+            "", "   ", "\t", "INFO ok", "Error", "Error: x", "error", "  java.io.IOException", "Throwable: t",
+            "Exception in thread \"main\"", "Traceback (most recent call last):", "stack trace", "STACK\tTRACE",
+            "fatal", "FaTaL", "paniC", "EXCEPTİON", "panİc", "ſtack trace", "ERRОR", "errror", "exceptio n",
+            "Key error", "오류 Error 발생", "에러", "Throwable", "  Throwable  ", "Throwable:", "Throwable: x",
+            "throwable", "Throwables", "java.lang.Throwable", "Throwable x"
+        };
+        for (String line : samples) {
+            assertSameAsBaseline(line);
+        }
+    }
+
+    @Test
+    public void randomLinesMatchBaseline() {
+        // 키워드 조각과 대소문자/비ASCII 변형을 섞어 부분 일치와 실패 전이를 많이 만듦
+        String[] pieces = {
+            "e", "E", "x", "err", "ERR", "or", "OR", "exce", "ption", "PTION", "fat", "al", "pan", "ic", "IC",
+            "trace", "back", "stack", " ", "  ", "\t", ":", ".", "java.lang.", "Throw", "able", "İ", "ı", "ſ",
+            "K", "é", "한", "0", "-", "Error", "Exception", "Throwable"
+        };
+        Random random = new Random(7);
+        for (int run = 0; run < 200_000; run++) {
+            StringBuilder sb = new StringBuilder();
+            int count = random.nextInt(8);
+            for (int i = 0; i < count; i++) {
+                sb.append(pieces[random.nextInt(pieces.length)]);
+            }
+            assertSameAsBaseline(sb.toString());
+        }
+    }
+
+    @Test
+    public void customKeywords() {
+        KeywordMatcher custom = new KeywordMatcher(Arrays.asList("timeout", " OOM ", "", null, "오류"));
+        assertTrue(custom.matches("Read TIMEOUT"));
+        assertTrue(custom.matches("killed: oom"));
+        assertTrue(custom.matches("처리 오류"));
+        assertFalse(custom.matches("error"));
+    }
+
+    private void assertSameAsBaseline(String line) {
+        assertEquals(line, LogParserTest.baselineIsExceptionLine(line), LogParser.isExceptionLine(matcher, line, line.trim()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyKeywords() {
+        new KeywordMatcher(Arrays.asList(" ", ""));
+    }
+}
@@ -0,0 +1,248 @@
+package led.mega.agent.parser;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * LogParser 스트리밍 상태 머신이 이전의 파일 전체 기반 블록 규칙과 같은 Exception 블록을 만드는지 확인
+ * (앞뒤 컨텍스트, 스택 트레이스 구간 건너뛰기, 최대 49줄, 두 번에 나눠 받은 로그)
+ */
+public class LogParserTest {
+
+    private static final String PATH = "/var/log/app.log";
+
+    // 무작위 로그를 만들 라인 종류 (키워드, 스택 트레이스, 종료 조건이 섞이도록)
+    private static final String[] VOCABULARY = {
+        "2026-01-01 00:00:00 INFO started",
+        "2026-01-01 00:00:01 DEBUG request handled",
+        "plain line",
+        "ERROR failed to connect",
+        "java.lang.IllegalStateException: boom",
+        "java.io.IOException",
+        "Exception in thread \"main\" java.lang.NullPointerException",
+        "Traceback (most recent call last):",
+        "WARN Panic averted",
+        "Throwable",
+        "\tat led.mega.Foo.bar(Foo.java:10)",
+        "    at led.mega.Foo.baz(Foo.java:20)",
+        "at top.level(Main.java:1)",
+        "Caused by: java.net.SocketTimeoutException: Read timed out",
+        "\t... 12 more",
+        "",
+        "   ",
+        "  File \"app.py\", line 3, in <module>",
+    };
+
+    private final LogParser parser = new LogParser();
+
+    @Test
+    public void contextBeforeAndAfter() {
+        assertSameBlocks(Arrays.asList(
+            "line 1", "line 2", "line 3", "line 4", "line 5", "line 6",
+            "ERROR something failed",
+            "after 1", "after 2", "after 3", "after 4", "after 5", "after 6"));
+        // 파일 앞부분이라 앞 컨텍스트가 5줄보다 적음
+        assertSameBlocks(Arrays.asList("only one", "fatal: disk full", "next"));
+    }
+
+    @Test
+    public void skipsStackTraceOfReportedException() {
+        assertSameBlocks(Arrays.asList(
+            "before",
+            "java.lang.IllegalStateException: boom",
+            "\tat led.mega.Foo.bar(Foo.java:10)",
+            "Caused by: java.io.IOException: closed",
+            "\tat led.mega.Foo.baz(Foo.java:20)",
+            "",
+            "java.lang.RuntimeException: inside skipped range",
+            "\t... 3 more",
+            "after",
+            "ERROR second"));
+    }
+
+    @Test
+    public void capsBlockAtFortyNineFollowingLines() {
+        List<String> lines = new ArrayList<>();
+        lines.add("java.lang.IllegalStateException: deep");
+        for (int i = 0; i < 60; i++) {
+            lines.add("\tat frame" + i + "(Foo.java:" + i + ")");
+        }
+        lines.add("tail");
+        List<LogParser.ExceptionInfo> blocks = parser.parseExceptions(PATH, lines);
+        assertEquals(1, blocks.size());
+        assertEquals(49, blocks.get(0).getFullStackTrace().split("\n").length);
+        assertSameBlocks(lines);
+    }
+
+    @Test
+    public void blockSplitAcrossTwoStreams() {
+        List<String> lines = Arrays.asList(
+            "a", "b", "c",
+            "ERROR first",
+            "x", "y",
+            "java.lang.IllegalStateException: boom",
+            "\tat led.mega.Foo.bar(Foo.java:10)",
+            "\tat led.mega.Foo.baz(Foo.java:20)",
+            "done", "d", "e", "f", "g", "h");
+        for (int split = 0; split <= lines.size(); split++) {
+            assertEquals("split " + split, describe(baseline(lines)), describe(streamed(lines, split)));
+        }
+
+        // 첫 번째 스트림이 스택 트레이스 중간에서 끝나면 두 블록 모두 전달하지 않고 다음 스트림을 기다림
+        LogParser streaming = new LogParser();
+        List<LogParser.ExceptionInfo> blocks = new ArrayList<>();
+        for (String line : lines.subList(0, 8)) {
+            streaming.accept(PATH, line, blocks::add);
+        }
+        assertTrue(blocks.isEmpty());
+        assertTrue(streaming.hasPending(PATH));
+    }
+
+    @Test
+    public void randomLogsMatchBaseline() {
+        Random random = new Random(42);
+        for (int run = 0; run < 2000; run++) {
+            List<String> lines = new ArrayList<>();
+            int length = random.nextInt(120);
+            for (int i = 0; i < length; i++) {
+                lines.add(VOCABULARY[random.nextInt(VOCABULARY.length)]);
+            }
+            String expected = describe(baseline(lines));
+            assertEquals("run " + run, expected, describe(parser.parseExceptions(PATH, lines)));
+            assertEquals("run " + run + " (split)", expected, describe(streamed(lines, random.nextInt(length + 1))));
+        }
+    }
+
+    private void assertSameBlocks(List<String> lines) {
+        assertEquals(describe(baseline(lines)), describe(parser.parseExceptions(PATH, lines)));
+    }
+
+    /**
+     * split 앞뒤를 두 번에 나눠 같은 로그 파일 상태로 받고 마지막에 flush (새 파서라 이전 로그의 상태가 없음)
+     */
+    private static List<LogParser.ExceptionInfo> streamed(List<String> lines, int split) {
+        LogParser streaming = new LogParser();
+        List<LogParser.ExceptionInfo> blocks = new ArrayList<>();
+        for (String line : lines.subList(0, split)) {
+            streaming.accept(PATH, line, blocks::add);
+        }
+        for (String line : lines.subList(split, lines.size())) {
+            streaming.accept(PATH, line, blocks::add);
+        }
+        streaming.flush(PATH, blocks::add);
+        return blocks;
+    }
+
+    private static String describe(List<LogParser.ExceptionInfo> blocks) {
+        StringBuilder sb = new StringBuilder();
+        for (LogParser.ExceptionInfo info : blocks) {
+            sb.append("[line=").append(info.getExceptionLine())
+                .append("|type=").append(info.getExceptionType())
+                .append("|message=").append(info.getExceptionMessage())
+                .append("|before=").append(info.getContextBefore())
+                .append("|after=").append(info.getContextAfter())
+                .append("|stack=").append(info.getFullStackTrace())
+                .append("]\n");
+        }
+        return sb.toString();
+    }
+
+    // ---- 이전 LogParser의 블록 규칙 (파일 전체를 읽은 뒤 인덱스로 앞뒤를 살펴봄) ----
+
+    private static final Pattern EXCEPTION_PATTERN = Pattern.compile(
+        "(?i)(exception|error|fatal|panic|traceback|stack trace)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern JAVA_EXCEPTION_PATTERN = Pattern.compile(
+        "^([a-zA-Z][a-zA-Z0-9_.]*Exception|Error|Throwable)(:.*)?$");
+
+    static boolean baselineIsExceptionLine(String line) {
+        if (line == null || line.trim().isEmpty()) {
+            return false;
+        }
+        return JAVA_EXCEPTION_PATTERN.matcher(line.trim()).find() || EXCEPTION_PATTERN.matcher(line).find();
+    }
+
+    private static List<LogParser.ExceptionInfo> baseline(List<String> lines) {
+        List<LogParser.ExceptionInfo> exceptions = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            if (baselineIsExceptionLine(lines.get(i))) {
+                exceptions.add(baselineExtract(lines, i));
+                i = baselineSkipStackTrace(lines, i);
+            }
+        }
+        return exceptions;
+    }
+
+    private static LogParser.ExceptionInfo baselineExtract(List<String> lines, int index) {
+        String exceptionLine = lines.get(index);
+        List<String> contextBefore = new ArrayList<>(lines.subList(Math.max(0, index - 5), index));
+        List<String> contextAfter = new ArrayList<>();
+        List<String> stackTrace = new ArrayList<>();
+        int endIndex = Math.min(lines.size(), index + 50);
+        boolean inStackTrace = false;
+        for (int i = index + 1; i < endIndex; i++) {
+            String line = lines.get(i);
+            if (line.trim().startsWith("at ") || line.trim().startsWith("Caused by:")
+                || line.trim().matches("^\\s+at .*")) {
+                inStackTrace = true;
+                stackTrace.add(line);
+            } else if (inStackTrace && (line.trim().isEmpty() || line.trim().startsWith("...")
+                       || baselineIsExceptionLine(line))) {
+                break;
+            } else if (inStackTrace) {
+                stackTrace.add(line);
+            } else if (contextAfter.size() < 5) {
+                contextAfter.add(line);
+            } else {
+                break;
+            }
+        }
+        return new LogParser.ExceptionInfo(PATH, baselineType(exceptionLine), baselineMessage(exceptionLine),
+            String.join("\n", contextBefore), String.join("\n", contextAfter), String.join("\n", stackTrace),
+            exceptionLine);
+    }
+
+    private static String baselineType(String line) {
+        Matcher matcher = JAVA_EXCEPTION_PATTERN.matcher(line.trim());
+        if (matcher.find()) {
+            return matcher.group(1);
+        }
+        int colonIndex = line.indexOf(':');
+        if (colonIndex > 0) {
+            String beforeColon = line.substring(0, colonIndex).trim();
+            if (beforeColon.contains("Exception") || beforeColon.contains("Error")) {
+                return beforeColon;
+            }
+        }
+        return "UnknownException";
+    }
+
+    private static String baselineMessage(String line) {
+        int colonIndex = line.indexOf(':');
+        if (colonIndex > 0 && colonIndex < line.length() - 1) {
+            return line.substring(colonIndex + 1).trim();
+        }
+        return line.trim();
+    }
+
+    private static int baselineSkipStackTrace(List<String> lines, int index) {
+        int i = index + 1;
+        while (i < lines.size()) {
+            String line = lines.get(i).trim();
+            if (!line.startsWith("at ") && !line.startsWith("Caused by:") && !line.matches("^\\s+at .*")
+                && !line.isEmpty() && !baselineIsExceptionLine(lines.get(i))) {
+                break;
+            }
+            i++;
+        }
+        return i - 1;
+    }
+}
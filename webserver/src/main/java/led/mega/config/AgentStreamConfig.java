@@ -0,0 +1,42 @@
+package led.mega.config;
+
+import led.mega.controller.AgentStreamHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
+
+/**
+ * 에이전트 텔레메트리 스트림 설정
+ * 대시보드용 STOMP 엔드포인트(/ws)와 별도로, 에이전트가 연결을 유지한 채 바이너리 메시지를 보내는 엔드포인트를 등록합니다.
+ */
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+public class AgentStreamConfig implements WebSocketConfigurer {
+
+    /** STOMP/SockJS 엔드포인트가 /ws/**를 처리하므로 그 밖에 둠 (핸들러 매핑 순서와 관계없이 이 핸들러로 연결) */
+    public static final String AGENT_STREAM_PATH = "/agent-stream";
+
+    /** 메시지 하나의 최대 크기 (메트릭 프레임 일괄 전송 기준) */
+    private static final int MAX_MESSAGE_BYTES = 4 * 1024 * 1024;
+
+    private final AgentStreamHandler agentStreamHandler;
+    private final AgentStreamHandshakeInterceptor agentStreamHandshakeInterceptor;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(agentStreamHandler, AGENT_STREAM_PATH)
+                .addInterceptors(agentStreamHandshakeInterceptor);
+    }
+
+    @Bean
+    public ServletServerContainerFactoryBean webSocketContainer() {
+        ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
+        container.setMaxBinaryMessageBufferSize(MAX_MESSAGE_BYTES);
+        return container;
+    }
+}
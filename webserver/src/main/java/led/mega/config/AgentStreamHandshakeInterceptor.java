@@ -0,0 +1,45 @@
+package led.mega.config;
+
+import led.mega.entity.Agent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.util.Map;
+
+/**
+ * 에이전트 스트림 핸드셰이크 인증
+ * ApiKeyAuthenticationFilter가 인증한 에이전트를 세션 속성에 저장해, 연결 이후에는 API 키를 다시 조회하지 않습니다.
+ */
+@Slf4j
+@Component
+public class AgentStreamHandshakeInterceptor implements HandshakeInterceptor {
+
+    public static final String AGENT_ATTRIBUTE = "agent";
+
+    @Override
+    public boolean beforeHandshake(@NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response,
+                                   @NonNull WebSocketHandler wsHandler, @NonNull Map<String, Object> attributes) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof Agent agent)) {
+            log.warn("에이전트 스트림 인증 실패: {}", request.getRemoteAddress());
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+
+        attributes.put(AGENT_ATTRIBUTE, agent);
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(@NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response,
+                               @NonNull WebSocketHandler wsHandler, Exception exception) {
+    }
+}
@@ -135,6 +135,11 @@ public class DatabaseInitializer implements ApplicationRunner {
                 initializeTable(stmt, createStmt);
             }
 
+            // 기존 테이블에 추가된 컬럼/인덱스 반영
+            for (String alterStatement : parseAlterTableStatements(schemaSql)) {
+                alterTable(stmt, alterStatement);
+            }
+
         } catch (Exception e) {
             log.error("✗ 테이블 초기화 중 오류 발생: {}", e.getMessage(), e);
             throw new RuntimeException("테이블 초기화 실패", e);
@@ -197,6 +202,42 @@ public class DatabaseInitializer implements ApplicationRunner {
         return statements;
     }
 
+    /**
+     * SQL 파일에서 ALTER TABLE 문들을 파싱하여 추출
+     */
+    private List<String> parseAlterTableStatements(String sql) {
+        List<String> statements = new ArrayList<>();
+
+        String cleanedSql = sql.lines()
+                .filter(line -> !line.trim().startsWith("--"))
+                .filter(line -> !line.trim().isEmpty())
+                .collect(Collectors.joining("\n"));
+
+        Pattern alterTablePattern = Pattern.compile(
+            "(?i)(ALTER\\s+TABLE\\s+[`']?[\\w]+[`']?[^;]*;)",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL
+        );
+
+        Matcher matcher = alterTablePattern.matcher(cleanedSql);
+        while (matcher.find()) {
+            statements.add(matcher.group(1).trim());
+        }
+        return statements;
+    }
+
+    /**
+     * 기존 테이블 스키마 변경 (ADD COLUMN IF NOT EXISTS 등 여러 번 실행해도 안전한 문만 사용)
+     */
+    private void alterTable(Statement stmt, String alterStatement) {
+        try {
+            stmt.executeUpdate(alterStatement);
+            log.info("✓ 스키마 변경 적용: {}", alterStatement.lines().findFirst().orElse(alterStatement));
+        } catch (Exception e) {
+            log.error("✗ 스키마 변경 중 오류 발생: {}", e.getMessage(), e);
+            throw new RuntimeException("스키마 변경 실패: " + alterStatement, e);
+        }
+    }
+
     /**
      * 개별 테이블 초기화
      */
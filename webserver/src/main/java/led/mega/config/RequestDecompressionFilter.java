@@ -0,0 +1,194 @@
+package led.mega.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 에이전트 API 요청 본문 압축 해제 필터
+ * Content-Encoding: gzip 요청을 스트리밍으로 풀어서 뒤쪽 필터와 Jackson에 전달합니다.
+ * ApiKeyAuthenticationFilter보다 먼저 실행됩니다.
+ * 압축 해제는 블로킹 읽기로만 제공하므로, gzip 본문을 논블로킹(ReadListener)으로 읽는 핸들러에는 사용할 수 없습니다.
+ */
+@Slf4j
+@Component
+public class RequestDecompressionFilter extends OncePerRequestFilter {
+
+    /** 서버가 받을 수 있는 요청 본문 압축 방식 (등록 시 에이전트와 협상) */
+    public static final List<String> SUPPORTED_ENCODINGS = List.of("gzip");
+
+    // 압축 해제 후 최대 크기 (압축 폭탄 방지)
+    private static final long MAX_INFLATED_BYTES = 32L * 1024 * 1024;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/") || request.getHeader("Content-Encoding") == null;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        String encoding = request.getHeader("Content-Encoding").trim();
+        if ("identity".equalsIgnoreCase(encoding)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!"gzip".equalsIgnoreCase(encoding)) {
+            log.warn("지원하지 않는 요청 압축 방식: {}", encoding);
+            response.setStatus(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE);
+            response.getWriter().write("{\"error\":\"Unsupported Content-Encoding\"}");
+            return;
+        }
+
+        filterChain.doFilter(new GzipRequestWrapper(request), response);
+    }
+
+    /**
+     * 압축이 풀린 본문을 제공하는 요청 래퍼 (Content-Encoding/Content-Length 헤더 제거)
+     */
+    private static class GzipRequestWrapper extends HttpServletRequestWrapper {
+
+        private ServletInputStream inputStream;
+
+        GzipRequestWrapper(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (inputStream == null) {
+                inputStream = new InflatingInputStream(new GZIPInputStream(super.getInputStream(), 8192));
+            }
+            return inputStream;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String charset = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            if (isRemovedHeader(name)) {
+                return null;
+            }
+            return super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (isRemovedHeader(name)) {
+                return Collections.emptyEnumeration();
+            }
+            return super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            List<String> names = Collections.list(super.getHeaderNames());
+            names.removeIf(GzipRequestWrapper::isRemovedHeader);
+            return Collections.enumeration(names);
+        }
+
+        private static boolean isRemovedHeader(String name) {
+            return "Content-Encoding".equalsIgnoreCase(name) || "Content-Length".equalsIgnoreCase(name);
+        }
+    }
+
+    /**
+     * 압축 해제 스트림 (최대 크기 제한)
+     */
+    private static class InflatingInputStream extends ServletInputStream {
+
+        private final InputStream delegate;
+        private long totalRead;
+        private boolean finished;
+
+        InflatingInputStream(InputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = delegate.read();
+            if (value < 0) {
+                finished = true;
+            } else {
+                count(1);
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = delegate.read(b, off, len);
+            if (read < 0) {
+                finished = true;
+            } else {
+                count(read);
+            }
+            return read;
+        }
+
+        private void count(int read) throws IOException {
+            totalRead += read;
+            if (totalRead > MAX_INFLATED_BYTES) {
+                throw new IOException("압축 해제된 요청 본문이 너무 큽니다 (최대 " + MAX_INFLATED_BYTES + " bytes)");
+            }
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        /**
+         * 논블로킹 읽기 미지원 (서블릿 명세대로 IllegalStateException)
+         */
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            throw new IllegalStateException(
+                    "gzip으로 압축된 요청 본문은 논블로킹 읽기(ReadListener)를 지원하지 않습니다. 블로킹 getInputStream()으로 읽으세요");
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
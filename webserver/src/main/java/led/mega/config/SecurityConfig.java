@@ -18,6 +18,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final ApiKeyAuthenticationFilter apiKeyAuthenticationFilter;
+    private final RequestDecompressionFilter requestDecompressionFilter;
 
     @Bean
     public PasswordEncoder passwordEncoder() {
@@ -43,10 +44,14 @@ public class SecurityConfig {
                 .requestMatchers("/api/agents/register").permitAll()
                 // 나머지 API는 API 키 인증 필요
                 .requestMatchers("/api/**").authenticated()
+                // 에이전트 텔레메트리 스트림은 핸드셰이크 시 API 키 인증
+                .requestMatchers(AgentStreamConfig.AGENT_STREAM_PATH).hasRole("AGENT")
                 // 나머지 모든 요청은 웹 로그인 필요
                 .anyRequest().authenticated()
             )
             .addFilterBefore(apiKeyAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            // 압축된 요청 본문은 인증 필터보다 먼저 해제
+            .addFilterBefore(requestDecompressionFilter, ApiKeyAuthenticationFilter.class)
             .formLogin(form -> form
                 .loginPage("/login")
                 .loginProcessingUrl("/login")  // 로그인 처리 URL
@@ -1,16 +1,19 @@
 package led.mega.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import led.mega.dto.*;
 import led.mega.entity.Agent;
 import led.mega.service.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 @Slf4j
@@ -23,6 +26,7 @@ public class AgentApiController {
     private final MetricDataService metricDataService;
     private final ExceptionLogService exceptionLogService;
     private final AgentHeartbeatService heartbeatService;
+    private final TaskService taskService;
 
     /**
      * 에이전트 목록 조회 (웹 대시보드용)
@@ -85,6 +89,48 @@ public class AgentApiController {
         }
     }
 
+    /**
+     * 메트릭 데이터 일괄 전송 (인증 필요)
+     */
+    @PostMapping("/{agentId}/metrics/batch")
+    public ResponseEntity<MetricDataBatchResponseDto> sendMetricDataBatch(
+            @PathVariable String agentId,
+            @Valid @RequestBody MetricDataBatchRequestDto requestDto,
+            Authentication authentication) {
+        
+        try {
+            Agent agent = getAuthenticatedAgent(authentication, agentId);
+            MetricDataBatchResponseDto response = metricDataService.saveMetricDataBatch(agent.getId(), requestDto.getMetrics());
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (IllegalArgumentException e) {
+            log.error("메트릭 데이터 일괄 전송 실패: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    /**
+     * 메트릭 데이터 일괄 전송 - 바이너리 프레임 (인증 필요)
+     */
+    @PostMapping(value = "/{agentId}/metrics/batch", consumes = MetricDataService.METRIC_FRAME_CONTENT_TYPE)
+    public ResponseEntity<MetricDataBatchResponseDto> sendMetricDataFrame(
+            @PathVariable String agentId,
+            HttpServletRequest request,
+            Authentication authentication) {
+        
+        try {
+            Agent agent = getAuthenticatedAgent(authentication, agentId);
+            MetricDataBatchResponseDto response = metricDataService.saveMetricFrame(agent.getId(), request.getInputStream());
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (IllegalArgumentException e) {
+            log.error("메트릭 프레임 전송 실패: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (IOException e) {
+            // 본문을 끝까지 읽지 못함 (저장한 청크는 롤백됨): 에이전트가 거부로 버리지 않고 재전송하도록 5xx
+            log.error("메트릭 프레임 본문 읽기 실패: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
     /**
      * Exception 로그 전송 (인증 필요)
      */
@@ -104,6 +150,30 @@ public class AgentApiController {
         }
     }
 
+    /**
+     * 에이전트에 할당된 활성 작업 조회 (인증 필요)
+     * If-None-Match가 현재 버전과 같으면 목록을 읽지 않고 304를 반환합니다.
+     */
+    @GetMapping("/{agentId}/task-definitions")
+    public ResponseEntity<List<TaskResponseDto>> getTaskDefinitions(
+            @PathVariable String agentId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            Authentication authentication) {
+        
+        try {
+            Agent agent = getAuthenticatedAgent(authentication, agentId);
+            String version = taskService.getTaskVersion(agent.getId());
+            if (version.equals(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(version).build();
+            }
+            List<TaskResponseDto> tasks = taskService.getEnabledTasksByAgentId(agent.getId());
+            return ResponseEntity.ok().eTag(version).body(tasks);
+        } catch (IllegalArgumentException e) {
+            log.error("작업 정의 조회 실패: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
     /**
      * 인증된 에이전트 확인
      */
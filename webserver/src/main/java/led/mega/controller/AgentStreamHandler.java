@@ -0,0 +1,139 @@
+package led.mega.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import led.mega.config.AgentStreamHandshakeInterceptor;
+import led.mega.dto.ExceptionLogRequestDto;
+import led.mega.dto.HeartbeatRequestDto;
+import led.mega.entity.Agent;
+import led.mega.service.AgentHeartbeatService;
+import led.mega.service.ExceptionLogService;
+import led.mega.service.MetricDataService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.BinaryWebSocketHandler;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Set;
+
+/**
+ * 에이전트 텔레메트리 스트림 처리
+ *
+ * 요청 메시지: type(1바이트) + seq(int64) + payload
+ *   - 1: 메트릭 프레임 (application/x-mega-frame)
+ *   - 2: Exception 로그 (ExceptionLogRequestDto JSON)
+ *   - 3: 하트비트 (HeartbeatRequestDto JSON)
+ * 응답 메시지: 0x80 + seq(int64) + 결과(0: 저장, 1: 거부, 2: 실패 - 재전송 필요)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AgentStreamHandler extends BinaryWebSocketHandler {
+
+    static final byte TYPE_METRIC_FRAME = 1;
+    static final byte TYPE_EXCEPTION = 2;
+    static final byte TYPE_HEARTBEAT = 3;
+    static final byte TYPE_ACK = (byte) 0x80;
+
+    static final byte STATUS_DELIVERED = 0;
+    static final byte STATUS_REJECTED = 1;
+    static final byte STATUS_FAILED = 2;
+
+    private static final int HEADER_SIZE = 1 + Long.BYTES;
+
+    private final MetricDataService metricDataService;
+    private final ExceptionLogService exceptionLogService;
+    private final AgentHeartbeatService heartbeatService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Override
+    public void afterConnectionEstablished(@NonNull WebSocketSession session) {
+        log.info("에이전트 스트림 연결: agentId={}", getAgent(session).getAgentId());
+    }
+
+    @Override
+    protected void handleBinaryMessage(@NonNull WebSocketSession session, @NonNull BinaryMessage message) throws Exception {
+        ByteBuffer buffer = message.getPayload();
+        if (buffer.remaining() < HEADER_SIZE) {
+            session.close(CloseStatus.BAD_DATA.withReason("메시지 헤더가 올바르지 않습니다."));
+            return;
+        }
+
+        byte type = buffer.get();
+        long seq = buffer.getLong();
+        byte status = process(getAgent(session), type, toInputStream(buffer));
+
+        ByteBuffer ack = ByteBuffer.allocate(HEADER_SIZE + 1);
+        ack.put(TYPE_ACK).putLong(seq).put(status).flip();
+        session.sendMessage(new BinaryMessage(ack));
+    }
+
+    @Override
+    public void afterConnectionClosed(@NonNull WebSocketSession session, @NonNull CloseStatus status) {
+        log.info("에이전트 스트림 종료: agentId={}, status={}", getAgent(session).getAgentId(), status);
+    }
+
+    /**
+     * 메시지 종류별로 기존 서비스에 저장
+     */
+    private byte process(Agent agent, byte type, InputStream payload) {
+        try {
+            switch (type) {
+                case TYPE_METRIC_FRAME -> metricDataService.saveMetricFrame(agent.getId(), payload);
+                case TYPE_EXCEPTION -> {
+                    ExceptionLogRequestDto requestDto = objectMapper.readValue(payload, ExceptionLogRequestDto.class);
+                    validate(requestDto);
+                    exceptionLogService.saveExceptionLog(agent.getId(), requestDto);
+                }
+                case TYPE_HEARTBEAT -> {
+                    HeartbeatRequestDto requestDto = objectMapper.readValue(payload, HeartbeatRequestDto.class);
+                    validate(requestDto);
+                    heartbeatService.saveHeartbeat(agent.getId(), requestDto);
+                }
+                default -> throw new IllegalArgumentException("알 수 없는 메시지 종류입니다: " + type);
+            }
+            return STATUS_DELIVERED;
+        } catch (IllegalArgumentException | IOException e) {
+            // 검증 실패, JSON/메트릭 프레임 형식 오류는 재전송해도 저장할 수 없음
+            log.error("에이전트 스트림 메시지 거부: agentId={}, type={}, {}", agent.getAgentId(), type, e.getMessage());
+            return STATUS_REJECTED;
+        } catch (RuntimeException e) {
+            log.error("에이전트 스트림 메시지 저장 실패: agentId={}, type={}", agent.getAgentId(), type, e);
+            return STATUS_FAILED;
+        }
+    }
+
+    /**
+     * HTTP API의 @Valid와 같은 검증
+     */
+    private void validate(Object requestDto) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(requestDto);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<Object> violation = violations.iterator().next();
+            throw new IllegalArgumentException(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+    }
+
+    private Agent getAgent(WebSocketSession session) {
+        return (Agent) session.getAttributes().get(AgentStreamHandshakeInterceptor.AGENT_ATTRIBUTE);
+    }
+
+    private InputStream toInputStream(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return new ByteArrayInputStream(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return new ByteArrayInputStream(bytes);
+    }
+}
@@ -4,6 +4,8 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
 
+import java.util.List;
+
 @Data
 public class AgentRegisterDto {
     
@@ -23,5 +25,9 @@ public class AgentRegisterDto {
     
     @Size(max = 50, message = "OS 타입은 50자 이하여야 합니다")
     private String osType;
+    
+    private List<String> supportedEncodings;  // 에이전트가 보낼 수 있는 요청 본문 압축 방식 (예: gzip)
+    
+    private List<String> supportedContentTypes;  // 에이전트가 보낼 수 있는 메트릭 전송 형식 (예: application/x-mega-frame)
 }
 
@@ -16,5 +16,8 @@ public class AgentRegisterResponseDto {
     private String agentId;
     private AgentStatus status;
     private String apiKey;
+    private String requestEncoding;  // 에이전트가 사용할 요청 본문 압축 방식 (null이면 압축 안 함)
+    private String metricContentType;  // 에이전트가 사용할 메트릭 일괄 전송 형식 (null이면 JSON)
+    private String streamPath;  // 텔레메트리 스트림 엔드포인트 경로
 }
 
@@ -1,5 +1,6 @@
 package led.mega.dto;
 
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
@@ -26,6 +27,14 @@ public class ExceptionLogRequestDto {
     private String fullStackTrace;
     
     @NotNull(message = "발생 시간은 필수입니다")
-    private LocalDateTime occurredAt;
+    private LocalDateTime occurredAt;  // 첫 발생 시간
+    
+    @Size(max = 64, message = "지문은 64자 이하여야 합니다")
+    private String fingerprint;     // 같은 Exception 판별용 (타입 + 정규화된 상위 스택 프레임)
+    
+    @Min(value = 1, message = "발생 횟수는 1 이상이어야 합니다")
+    private Integer occurrenceCount;  // 집계 구간 내 발생 횟수 (없으면 1)
+    
+    private LocalDateTime lastOccurredAt;  // 마지막 발생 시간
 }
 
@@ -23,6 +23,9 @@ public class ExceptionLogResponseDto {
     private String contextAfter;
     private String fullStackTrace;
     private LocalDateTime occurredAt;
+    private String fingerprint;
+    private Integer occurrenceCount;
+    private LocalDateTime lastOccurredAt;
     private LocalDateTime createdAt;
 }
 
@@ -0,0 +1,17 @@
+package led.mega.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class MetricDataBatchRequestDto {
+    
+    @NotEmpty(message = "메트릭 데이터는 1건 이상이어야 합니다")
+    @Size(max = 1000, message = "한 번에 전송할 수 있는 메트릭은 1000건 이하여야 합니다")
+    @Valid
+    private List<MetricDataRequestDto> metrics;
+}
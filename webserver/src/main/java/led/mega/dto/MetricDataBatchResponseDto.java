@@ -0,0 +1,16 @@
+package led.mega.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MetricDataBatchResponseDto {
+    
+    private Long agentId;
+    private int savedCount;
+}
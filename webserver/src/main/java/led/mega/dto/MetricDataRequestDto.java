@@ -3,6 +3,7 @@ package led.mega.dto;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
 
@@ -16,12 +17,12 @@ public class MetricDataRequestDto {
     
     @NotBlank(message = "메트릭 타입은 필수입니다")
     @Size(max = 50, message = "메트릭 타입은 50자 이하여야 합니다")
-    private String metricType;  // CPU, MEMORY, DISK, NETWORK
+    private String metricType;  // CPU, MEMORY, DISK, NETWORK, PROCESS
     
     @Size(max = 100, message = "메트릭 이름은 100자 이하여야 합니다")
     private String metricName;
     
-    private BigDecimal metricValue;
+    private BigDecimal metricValue;  // 요약 레코드면 구간 평균
     
     @Size(max = 20, message = "단위는 20자 이하여야 합니다")
     private String unit;
@@ -30,6 +31,20 @@ public class MetricDataRequestDto {
     private String rawData;  // JSON 문자열
     
     @NotNull(message = "수집 시간은 필수입니다")
-    private LocalDateTime collectedAt;
+    private LocalDateTime collectedAt;  // 요약 레코드면 구간 끝 시각
+    
+    // 구간 요약 (에이전트가 구간 동안 수집한 샘플을 묶어 보낸 경우에만 설정)
+    @Positive(message = "샘플 수는 1 이상이어야 합니다")
+    private Integer sampleCount;
+    private BigDecimal minValue;
+    private BigDecimal maxValue;
+    private BigDecimal sumValue;
+    private BigDecimal p95Value;  // 선택
+    @Positive(message = "요약 구간은 1초 이상이어야 합니다")
+    private Integer windowSeconds;
+    
+    // 변화 기반 전송 시리즈의 값 유지 시간 (이 시간 안에 다음 레코드가 없으면 값이 그대로인 것으로 봄)
+    @Positive(message = "유지 시간은 1초 이상이어야 합니다")
+    private Integer holdSeconds;
 }
 
@@ -24,6 +24,14 @@ public class MetricDataResponseDto {
     private String unit;
     private String rawData;
     private LocalDateTime collectedAt;
+    private Integer sampleCount;
+    private BigDecimal minValue;
+    private BigDecimal maxValue;
+    private BigDecimal sumValue;
+    private BigDecimal p95Value;
+    private Integer windowSeconds;
+    private Integer holdSeconds;
+    private LocalDateTime heldUntil;  // 이 시각까지 다음 레코드가 없으면 값 변화 없음, 이후는 데이터 없음
     private LocalDateTime createdAt;
 }
 
@@ -49,6 +49,11 @@ public class Agent {
     @Column(name = "api_key", length = 255)
     private String apiKey;
 
+    // 작업 정의 버전 (작업 추가/수정/삭제 때마다 증가, ETag로 사용)
+    // AgentRepository.incrementTaskRevision만 쓰도록 읽기 전용으로 매핑 (하트비트 등 엔티티 저장이 오래된 값으로 덮어쓰지 않음)
+    @Column(name = "task_revision", insertable = false, updatable = false)
+    private Long taskRevision;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -49,6 +49,16 @@ public class ExceptionLog {
     @Column(name = "occurred_at", nullable = false)
     private LocalDateTime occurredAt;
 
+    @Column(name = "fingerprint", length = 64)
+    private String fingerprint;
+
+    @Builder.Default
+    @Column(name = "occurrence_count", nullable = false)
+    private Integer occurrenceCount = 1;
+
+    @Column(name = "last_occurred_at")
+    private LocalDateTime lastOccurredAt;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
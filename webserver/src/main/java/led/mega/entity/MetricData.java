@@ -48,6 +48,29 @@ public class MetricData {
     @Column(name = "collected_at", nullable = false)
     private LocalDateTime collectedAt;
 
+    // 구간 요약 (단일 샘플이면 null)
+    @Column(name = "sample_count")
+    private Integer sampleCount;
+
+    @Column(name = "min_value", precision = 20, scale = 4)
+    private BigDecimal minValue;
+
+    @Column(name = "max_value", precision = 20, scale = 4)
+    private BigDecimal maxValue;
+
+    @Column(name = "sum_value", precision = 20, scale = 4)
+    private BigDecimal sumValue;
+
+    @Column(name = "p95_value", precision = 20, scale = 4)
+    private BigDecimal p95Value;
+
+    @Column(name = "window_seconds")
+    private Integer windowSeconds;
+
+    // 변화 기반 전송 시리즈의 값 유지 시간 (항상 전송하는 시리즈면 null)
+    @Column(name = "hold_seconds")
+    private Integer holdSeconds;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -4,6 +4,9 @@ public enum MetricType {
     CPU,          // CPU 사용률
     MEMORY,       // 메모리 사용량
     DISK,         // 디스크 사용량
-    NETWORK       // 네트워크 트래픽
+    NETWORK,      // 네트워크 트래픽
+    PROCESS,      // 프로세스별 자원 사용량 (감시 목록 + 상위 N개)
+    CUSTOM,       // 서버에서 정의한 작업(COMMAND, LOG_PARSE) 결과
+    AGENT         // 에이전트 자체 텔레메트리 (수집/파싱/전송 지연 시간, 대기열 길이, 폐기 건수)
 }
 
@@ -0,0 +1,17 @@
+package led.mega.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+@Mapper
+public interface MetricDataMapper {
+
+    /**
+     * 메트릭 데이터 다중 행 INSERT (INSERT ... VALUES (...), (...))
+     *
+     * @return 저장된 행 수
+     */
+    int insertBatch(@Param("agentId") Long agentId, @Param("rows") List<MetricDataRow> rows);
+}
@@ -0,0 +1,31 @@
+package led.mega.mapper;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * metric_data 다중 행 INSERT용 파라미터 객체
+ * 메트릭 타입 검증과 작업 ID 확인이 끝난 값만 담습니다.
+ */
+@Getter
+@Setter
+public class MetricDataRow {
+
+    private Long taskId;
+    private String metricType;
+    private String metricName;
+    private BigDecimal metricValue;
+    private String unit;
+    private String rawData;
+    private LocalDateTime collectedAt;
+    private Integer sampleCount;
+    private BigDecimal minValue;
+    private BigDecimal maxValue;
+    private BigDecimal sumValue;
+    private BigDecimal p95Value;
+    private Integer windowSeconds;
+    private Integer holdSeconds;
+}
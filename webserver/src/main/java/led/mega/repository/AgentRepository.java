@@ -3,6 +3,7 @@ package led.mega.repository;
 import led.mega.entity.Agent;
 import led.mega.entity.AgentStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -25,5 +26,12 @@ public interface AgentRepository extends JpaRepository<Agent, Long> {
     
     @Query("SELECT COUNT(a) FROM Agent a WHERE a.status = :status")
     long countByStatus(@Param("status") AgentStatus status);
+    
+    @Query("SELECT a.taskRevision FROM Agent a WHERE a.id = :agentId")
+    Long findTaskRevisionById(@Param("agentId") Long agentId);
+    
+    @Modifying
+    @Query("UPDATE Agent a SET a.taskRevision = a.taskRevision + 1 WHERE a.id = :agentId")
+    int incrementTaskRevision(@Param("agentId") Long agentId);
 }
 
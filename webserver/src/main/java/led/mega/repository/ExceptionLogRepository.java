@@ -33,7 +33,7 @@ public interface ExceptionLogRepository extends JpaRepository<ExceptionLog, Long
             @Param("endTime") LocalDateTime endTime
     );
     
-    @Query("SELECT COUNT(e) FROM ExceptionLog e WHERE e.agent.id = :agentId AND e.occurredAt >= :since")
+    @Query("SELECT COALESCE(SUM(e.occurrenceCount), 0) FROM ExceptionLog e WHERE e.agent.id = :agentId AND e.occurredAt >= :since")
     long countByAgentIdSince(@Param("agentId") Long agentId, @Param("since") LocalDateTime since);
 }
 
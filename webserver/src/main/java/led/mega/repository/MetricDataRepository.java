@@ -37,6 +37,26 @@ public interface MetricDataRepository extends JpaRepository<MetricData, Long> {
             @Param("endTime") LocalDateTime endTime
     );
     
+    /**
+     * 조회 구간 시작 전에 받은 변화 기반 전송 레코드 중 시리즈(타입, 이름, 작업)별 가장 최근 것 (시작 시각에도 값이 유지되고 있는지 확인용)
+     * metricType이 null이면 모든 타입, idx_agent_hold_collected 인덱스로 구간만 읽음
+     */
+    @Query("SELECT m FROM MetricData m WHERE m.agent.id = :agentId AND m.holdSeconds IS NOT NULL"
+            + " AND m.collectedAt >= :lookbackTime AND m.collectedAt < :startTime"
+            + " AND (:metricType IS NULL OR m.metricType = :metricType)"
+            + " AND m.collectedAt = (SELECT MAX(l.collectedAt) FROM MetricData l WHERE l.agent.id = :agentId"
+            + " AND l.holdSeconds IS NOT NULL AND l.collectedAt >= :lookbackTime AND l.collectedAt < :startTime"
+            + " AND l.metricType = m.metricType"
+            + " AND (l.metricName = m.metricName OR (l.metricName IS NULL AND m.metricName IS NULL))"
+            + " AND (l.task.id = m.task.id OR (l.task.id IS NULL AND m.task.id IS NULL)))"
+            + " ORDER BY m.collectedAt DESC, m.id DESC")
+    List<MetricData> findLatestHeldBefore(
+            @Param("agentId") Long agentId,
+            @Param("metricType") MetricType metricType,
+            @Param("lookbackTime") LocalDateTime lookbackTime,
+            @Param("startTime") LocalDateTime startTime
+    );
+    
     @Query("SELECT m FROM MetricData m WHERE m.collectedAt < :threshold")
     List<MetricData> findOldMetrics(@Param("threshold") LocalDateTime threshold);
 }
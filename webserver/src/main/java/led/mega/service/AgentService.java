@@ -1,5 +1,7 @@
 package led.mega.service;
 
+import led.mega.config.AgentStreamConfig;
+import led.mega.config.RequestDecompressionFilter;
 import led.mega.dto.AgentRegisterDto;
 import led.mega.dto.AgentRegisterResponseDto;
 import led.mega.dto.AgentResponseDto;
@@ -56,9 +58,27 @@ public class AgentService {
                 .agentId(savedAgent.getAgentId())
                 .status(savedAgent.getStatus())
                 .apiKey(savedAgent.getApiKey())
+                .requestEncoding(negotiateRequestEncoding(registerDto.getSupportedEncodings()))
+                .metricContentType(registerDto.getSupportedContentTypes() != null
+                        && registerDto.getSupportedContentTypes().contains(MetricDataService.METRIC_FRAME_CONTENT_TYPE)
+                        ? MetricDataService.METRIC_FRAME_CONTENT_TYPE : null)
+                .streamPath(AgentStreamConfig.AGENT_STREAM_PATH)
                 .build();
     }
 
+    /**
+     * 요청 본문 압축 방식 협상 (에이전트가 지원하는 방식 중 서버가 받을 수 있는 첫 번째)
+     */
+    private String negotiateRequestEncoding(List<String> supportedEncodings) {
+        if (supportedEncodings == null) {
+            return null;
+        }
+        return supportedEncodings.stream()
+                .filter(RequestDecompressionFilter.SUPPORTED_ENCODINGS::contains)
+                .findFirst()
+                .orElse(null);
+    }
+
     /**
      * 에이전트 조회
      */
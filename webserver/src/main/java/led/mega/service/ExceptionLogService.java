@@ -50,11 +50,14 @@ public class ExceptionLogService {
                 .contextAfter(requestDto.getContextAfter())
                 .fullStackTrace(requestDto.getFullStackTrace())
                 .occurredAt(requestDto.getOccurredAt() != null ? requestDto.getOccurredAt() : LocalDateTime.now())
+                .fingerprint(requestDto.getFingerprint())
+                .occurrenceCount(requestDto.getOccurrenceCount() != null ? requestDto.getOccurrenceCount() : 1)
+                .lastOccurredAt(requestDto.getLastOccurredAt())
                 .build();
 
         ExceptionLog savedLog = exceptionLogRepository.save(exceptionLog);
-        log.warn("Exception 로그 저장 완료: agentId={}, exceptionType={}", 
-                agentId, requestDto.getExceptionType());
+        log.warn("Exception 로그 저장 완료: agentId={}, exceptionType={}, count={}", 
+                agentId, requestDto.getExceptionType(), savedLog.getOccurrenceCount());
 
         // WebSocket으로 실시간 전송 (WebSocketService가 활성화되면 자동으로 작동)
         ExceptionLogResponseDto responseDto = toResponseDto(savedLog);
@@ -104,7 +107,7 @@ public class ExceptionLogService {
     }
 
     /**
-     * 최근 Exception 발생 횟수 조회
+     * 최근 Exception 발생 횟수 조회 (집계된 발생 횟수 합계)
      */
     public long countExceptionLogsSince(Long agentId, LocalDateTime since) {
         return exceptionLogRepository.countByAgentIdSince(agentId, since);
@@ -125,6 +128,9 @@ public class ExceptionLogService {
                 .contextAfter(exceptionLog.getContextAfter())
                 .fullStackTrace(exceptionLog.getFullStackTrace())
                 .occurredAt(exceptionLog.getOccurredAt())
+                .fingerprint(exceptionLog.getFingerprint())
+                .occurrenceCount(exceptionLog.getOccurrenceCount())
+                .lastOccurredAt(exceptionLog.getLastOccurredAt())
                 .createdAt(exceptionLog.getCreatedAt())
                 .build();
     }
@@ -1,11 +1,14 @@
 package led.mega.service;
 
+import led.mega.dto.MetricDataBatchResponseDto;
 import led.mega.dto.MetricDataRequestDto;
 import led.mega.dto.MetricDataResponseDto;
 import led.mega.entity.Agent;
 import led.mega.entity.MetricData;
 import led.mega.entity.MetricType;
 import led.mega.entity.Task;
+import led.mega.mapper.MetricDataMapper;
+import led.mega.mapper.MetricDataRow;
 import led.mega.repository.AgentRepository;
 import led.mega.repository.MetricDataRepository;
 import led.mega.repository.TaskRepository;
@@ -14,8 +17,15 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -23,7 +33,17 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class MetricDataService {
 
+    /** 메트릭 바이너리 프레임 Content-Type */
+    public static final String METRIC_FRAME_CONTENT_TYPE = "application/x-mega-frame";
+
+    // 다중 행 INSERT 한 번에 담을 최대 행 수 (max_allowed_packet 고려)
+    private static final int INSERT_CHUNK_SIZE = 500;
+
+    // 조회 시작 전 변화 기반 전송 레코드를 찾는 범위 (유지 시간이 이보다 긴 레코드는 이어 그리지 않음)
+    private static final long HOLD_LOOKBACK_HOURS = 24;
+
     private final MetricDataRepository metricDataRepository;
+    private final MetricDataMapper metricDataMapper;
     private final AgentRepository agentRepository;
     private final TaskRepository taskRepository;
 
@@ -47,6 +67,7 @@ public class MetricDataService {
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("유효하지 않은 메트릭 타입입니다: " + requestDto.getMetricType());
         }
+        validateSummary(requestDto);
 
         MetricData metricData = MetricData.builder()
                 .agent(agent)
@@ -57,6 +78,13 @@ public class MetricDataService {
                 .unit(requestDto.getUnit())
                 .rawData(requestDto.getRawData())
                 .collectedAt(requestDto.getCollectedAt() != null ? requestDto.getCollectedAt() : LocalDateTime.now())
+                .sampleCount(requestDto.getSampleCount())
+                .minValue(requestDto.getMinValue())
+                .maxValue(requestDto.getMaxValue())
+                .sumValue(requestDto.getSumValue())
+                .p95Value(requestDto.getP95Value())
+                .windowSeconds(requestDto.getWindowSeconds())
+                .holdSeconds(requestDto.getHoldSeconds())
                 .build();
 
         MetricData savedMetric = metricDataRepository.save(metricData);
@@ -71,6 +99,126 @@ public class MetricDataService {
         return responseDto;
     }
 
+    /**
+     * 메트릭 데이터 일괄 저장 (MyBatis 다중 행 INSERT)
+     */
+    @Transactional
+    public MetricDataBatchResponseDto saveMetricDataBatch(Long agentId, List<MetricDataRequestDto> requestDtos) {
+        if (!agentRepository.existsById(agentId)) {
+            throw new IllegalArgumentException("에이전트를 찾을 수 없습니다. id: " + agentId);
+        }
+
+        // 존재하는 작업 ID만 유지 (작업이 없어도 계속 진행)
+        Set<Long> requestedTaskIds = requestDtos.stream()
+                .map(MetricDataRequestDto::getTaskId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Long> existingTaskIds = requestedTaskIds.isEmpty() ? Set.of()
+                : taskRepository.findAllById(requestedTaskIds).stream()
+                        .map(Task::getId)
+                        .collect(Collectors.toSet());
+
+        LocalDateTime now = LocalDateTime.now();
+        List<MetricDataRow> rows = new ArrayList<>(requestDtos.size());
+        for (MetricDataRequestDto requestDto : requestDtos) {
+            MetricType metricType;
+            try {
+                metricType = MetricType.valueOf(requestDto.getMetricType().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("유효하지 않은 메트릭 타입입니다: " + requestDto.getMetricType());
+            }
+            validateSummary(requestDto);
+
+            MetricDataRow row = new MetricDataRow();
+            Long taskId = requestDto.getTaskId();
+            row.setTaskId(taskId != null && existingTaskIds.contains(taskId) ? taskId : null);
+            row.setMetricType(metricType.name());
+            row.setMetricName(requestDto.getMetricName());
+            row.setMetricValue(requestDto.getMetricValue());
+            row.setUnit(requestDto.getUnit());
+            row.setRawData(requestDto.getRawData());
+            row.setCollectedAt(requestDto.getCollectedAt() != null ? requestDto.getCollectedAt() : now);
+            row.setSampleCount(requestDto.getSampleCount());
+            row.setMinValue(requestDto.getMinValue());
+            row.setMaxValue(requestDto.getMaxValue());
+            row.setSumValue(requestDto.getSumValue());
+            row.setP95Value(requestDto.getP95Value());
+            row.setWindowSeconds(requestDto.getWindowSeconds());
+            row.setHoldSeconds(requestDto.getHoldSeconds());
+            rows.add(row);
+        }
+
+        int savedCount = 0;
+        for (int from = 0; from < rows.size(); from += INSERT_CHUNK_SIZE) {
+            int to = Math.min(from + INSERT_CHUNK_SIZE, rows.size());
+            savedCount += metricDataMapper.insertBatch(agentId, rows.subList(from, to));
+        }
+        log.debug("메트릭 데이터 일괄 저장 완료: agentId={}, count={}", agentId, savedCount);
+
+        return MetricDataBatchResponseDto.builder()
+                .agentId(agentId)
+                .savedCount(savedCount)
+                .build();
+    }
+
+    /**
+     * 메트릭 바이너리 프레임 일괄 저장
+     * 샘플마다 DTO를 만들지 않고, 스트림에서 읽은 샘플을 재사용하는 행 객체에 채워 청크 단위로 INSERT합니다.
+     * 메트릭 타입과 작업 ID는 샘플이 아니라 시리즈 단위로 한 번만 검증합니다.
+     * 본문을 읽는 도중 실패하면(연결 끊김, gzip 손상 등) 이미 INSERT한 청크까지 롤백합니다.
+     */
+    @Transactional(rollbackFor = IOException.class)
+    public MetricDataBatchResponseDto saveMetricFrame(Long agentId, InputStream body) throws IOException {
+        if (!agentRepository.existsById(agentId)) {
+            throw new IllegalArgumentException("에이전트를 찾을 수 없습니다. id: " + agentId);
+        }
+
+        MetricFrameDecoder decoder = new MetricFrameDecoder(body);
+
+        Set<Long> requestedTaskIds = decoder.getSeriesTaskIds();
+        Set<Long> existingTaskIds = requestedTaskIds.isEmpty() ? Set.of()
+                : taskRepository.findAllById(requestedTaskIds).stream()
+                        .map(Task::getId)
+                        .collect(Collectors.toSet());
+        for (int series = 0; series < decoder.getSeriesCount(); series++) {
+            MetricType metricType;
+            try {
+                metricType = MetricType.valueOf(decoder.getSeriesType(series).toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("유효하지 않은 메트릭 타입입니다: " + decoder.getSeriesType(series));
+            }
+            Long taskId = decoder.getSeriesTaskId(series);
+            decoder.resolveSeries(series, metricType.name(),
+                    taskId != null && existingTaskIds.contains(taskId) ? taskId : null);
+        }
+
+        // 청크 크기만큼의 행 객체를 만들어 두고 재사용
+        MetricDataRow[] chunk = new MetricDataRow[Math.max(1, Math.min(INSERT_CHUNK_SIZE, decoder.getSampleCount()))];
+        for (int i = 0; i < chunk.length; i++) {
+            chunk[i] = new MetricDataRow();
+        }
+        List<MetricDataRow> rows = Arrays.asList(chunk);
+
+        int savedCount = 0;
+        int filled = 0;
+        while (decoder.hasNextSample()) {
+            decoder.readSample(chunk[filled++]);
+            if (filled == chunk.length) {
+                savedCount += metricDataMapper.insertBatch(agentId, rows);
+                filled = 0;
+            }
+        }
+        if (filled > 0) {
+            savedCount += metricDataMapper.insertBatch(agentId, rows.subList(0, filled));
+        }
+        log.debug("메트릭 프레임 저장 완료: agentId={}, series={}, count={}", agentId, decoder.getSeriesCount(), savedCount);
+
+        return MetricDataBatchResponseDto.builder()
+                .agentId(agentId)
+                .savedCount(savedCount)
+                .build();
+    }
+
     /**
      * 에이전트별 메트릭 데이터 조회
      */
@@ -81,11 +229,14 @@ public class MetricDataService {
     }
 
     /**
-     * 시간 범위별 메트릭 데이터 조회
+     * 시간 범위별 메트릭 데이터 조회 (시작 시각에 값이 유지되고 있던 변화 기반 전송 레코드 포함)
      */
     public List<MetricDataResponseDto> getMetricDataByAgentIdAndTimeRange(
             Long agentId, LocalDateTime startTime, LocalDateTime endTime) {
-        return metricDataRepository.findByAgentIdAndCollectedAtBetween(agentId, startTime, endTime).stream()
+        List<MetricData> metrics = new ArrayList<>(
+                metricDataRepository.findByAgentIdAndCollectedAtBetween(agentId, startTime, endTime));
+        metrics.addAll(findHeldAt(agentId, null, startTime));
+        return metrics.stream()
                 .map(this::toResponseDto)
                 .collect(Collectors.toList());
     }
@@ -104,12 +255,52 @@ public class MetricDataService {
      */
     public List<MetricDataResponseDto> getMetricDataByAgentIdAndTypeAndTimeRange(
             Long agentId, MetricType metricType, LocalDateTime startTime, LocalDateTime endTime) {
-        return metricDataRepository.findByAgentIdAndMetricTypeAndCollectedAtBetween(
-                agentId, metricType, startTime, endTime).stream()
+        List<MetricData> metrics = new ArrayList<>(metricDataRepository.findByAgentIdAndMetricTypeAndCollectedAtBetween(
+                agentId, metricType, startTime, endTime));
+        metrics.addAll(findHeldAt(agentId, metricType, startTime));
+        return metrics.stream()
                 .map(this::toResponseDto)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * 시작 시각에 값이 유지되고 있던 변화 기반 전송 레코드 (시리즈별 가장 최근 것)
+     * 변화가 없어 구간 안에 레코드가 없는 시리즈도 시작 시각부터 값을 이어 그릴 수 있도록 함께 반환합니다.
+     * 유지 시간이 지난 시리즈는 반환하지 않으므로 그 구간은 데이터 없음으로 표시됩니다.
+     */
+    private List<MetricData> findHeldAt(Long agentId, MetricType metricType, LocalDateTime startTime) {
+        Set<String> seenSeries = new HashSet<>();
+        List<MetricData> held = new ArrayList<>();
+        for (MetricData metric : metricDataRepository.findLatestHeldBefore(
+                agentId, metricType, startTime.minusHours(HOLD_LOOKBACK_HOURS), startTime)) {
+            // 같은 시각에 두 번 받은 시리즈는 하나만 사용
+            String seriesKey = metric.getMetricType() + "/" + metric.getMetricName() + "/"
+                    + (metric.getTask() != null ? metric.getTask().getId() : null);
+            if (seenSeries.add(seriesKey)
+                    && !metric.getCollectedAt().plusSeconds(metric.getHoldSeconds()).isBefore(startTime)) {
+                held.add(metric);
+            }
+        }
+        return held;
+    }
+
+    /**
+     * 구간 요약 레코드 검증 (샘플 수가 있으면 최솟값/최댓값/합계와 구간 길이도 있어야 함)
+     */
+    private void validateSummary(MetricDataRequestDto requestDto) {
+        if (requestDto.getSampleCount() == null) {
+            return;
+        }
+        if (requestDto.getMinValue() == null || requestDto.getMaxValue() == null
+                || requestDto.getSumValue() == null || requestDto.getWindowSeconds() == null) {
+            throw new IllegalArgumentException("구간 요약에는 최솟값, 최댓값, 합계, 구간 길이가 필요합니다: "
+                    + requestDto.getMetricName());
+        }
+        if (requestDto.getMinValue().compareTo(requestDto.getMaxValue()) > 0) {
+            throw new IllegalArgumentException("구간 요약의 최솟값이 최댓값보다 큽니다: " + requestDto.getMetricName());
+        }
+    }
+
     /**
      * Entity를 DTO로 변환
      */
@@ -124,6 +315,15 @@ public class MetricDataService {
                 .unit(metricData.getUnit())
                 .rawData(metricData.getRawData())
                 .collectedAt(metricData.getCollectedAt())
+                .sampleCount(metricData.getSampleCount())
+                .minValue(metricData.getMinValue())
+                .maxValue(metricData.getMaxValue())
+                .sumValue(metricData.getSumValue())
+                .p95Value(metricData.getP95Value())
+                .windowSeconds(metricData.getWindowSeconds())
+                .holdSeconds(metricData.getHoldSeconds())
+                .heldUntil(metricData.getHoldSeconds() != null
+                        ? metricData.getCollectedAt().plusSeconds(metricData.getHoldSeconds()) : null)
                 .createdAt(metricData.getCreatedAt())
                 .build();
     }
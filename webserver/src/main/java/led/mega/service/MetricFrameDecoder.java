@@ -0,0 +1,252 @@
+package led.mega.service;
+
+import led.mega.mapper.MetricDataRow;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 메트릭 바이너리 프레임 디코더 (application/x-mega-frame)
+ * 
+ * <pre>
+ * frame   = magic 'M' 'F' | version(1) | baseMillis(int64) | strings | series | samples
+ * strings = count(varint) { length(varint) utf8-bytes }
+ * series  = count(varint) { type+1 name+1 unit+1 taskId+1 [holdSeconds+1] (varint) }   0은 null, holdSeconds는 버전 3만
+ * samples = count(varint) { seriesId(varint) deltaMillis(zigzag varint) value(float64) rawData+1(varint) [summary] }
+ * summary = sampleCount(varint) { min max sum p95(float64) windowSeconds(varint) }   버전 2 이상, sampleCount 0은 단일 값
+ * </pre>
+ * 문자열 테이블과 시리즈 테이블만 객체로 만들고, 샘플은 스트림에서 바로 읽어 재사용하는 행 객체에 채웁니다.
+ */
+final class MetricFrameDecoder {
+
+    private static final int VERSION = 1;
+    private static final int VERSION_SUMMARY = 2;
+    private static final int VERSION_HOLD = 3;
+    private static final int MAX_STRINGS = 65_536;
+    private static final int MAX_STRING_BYTES = 1024 * 1024;
+    private static final int MAX_SERIES = 65_536;
+    static final int MAX_SAMPLES = 100_000;
+
+    private final InputStream in;
+    private final String[] strings;
+    private final String[] seriesType;
+    private final String[] seriesName;
+    private final String[] seriesUnit;
+    private final Long[] seriesTaskId;
+    private final Integer[] seriesHoldSeconds;
+    private final int sampleCount;
+    private final boolean summaries;
+
+    private int samplesRead;
+    private long previousMillis;
+    private LocalDateTime previousTime;
+
+    /**
+     * 프레임 헤더, 문자열 테이블, 시리즈 테이블 읽기
+     */
+    MetricFrameDecoder(InputStream input) throws IOException {
+        this.in = new BufferedInputStream(input, 16 * 1024);
+
+        if (readByte() != 'M' || readByte() != 'F') {
+            throw new IllegalArgumentException("메트릭 프레임 형식이 아닙니다");
+        }
+        int version = readByte();
+        if (version < VERSION || version > VERSION_HOLD) {
+            throw new IllegalArgumentException("지원하지 않는 메트릭 프레임 버전입니다: " + version);
+        }
+        summaries = version >= VERSION_SUMMARY;
+        previousMillis = readLong();
+
+        strings = new String[readCount(MAX_STRINGS, "문자열")];
+        byte[] buffer = new byte[256];
+        for (int i = 0; i < strings.length; i++) {
+            int length = readCount(MAX_STRING_BYTES, "문자열 길이");
+            if (length > buffer.length) {
+                buffer = new byte[Math.max(length, buffer.length * 2)];
+            }
+            readFully(buffer, length);
+            strings[i] = new String(buffer, 0, length, StandardCharsets.UTF_8);
+        }
+
+        int seriesCount = readCount(MAX_SERIES, "시리즈");
+        seriesType = new String[seriesCount];
+        seriesName = new String[seriesCount];
+        seriesUnit = new String[seriesCount];
+        seriesTaskId = new Long[seriesCount];
+        seriesHoldSeconds = new Integer[seriesCount];
+        for (int i = 0; i < seriesCount; i++) {
+            seriesType[i] = stringRef(readVarint());
+            if (seriesType[i] == null) {
+                throw new IllegalArgumentException("메트릭 타입은 필수입니다");
+            }
+            seriesName[i] = stringRef(readVarint());
+            seriesUnit[i] = stringRef(readVarint());
+            long taskRef = readVarint();
+            seriesTaskId[i] = taskRef == 0 ? null : taskRef - 1;
+            if (version >= VERSION_HOLD) {
+                int holdRef = readCount(Integer.MAX_VALUE, "유지 시간");
+                seriesHoldSeconds[i] = holdRef == 0 ? null : holdRef - 1;
+            }
+        }
+
+        sampleCount = readCount(MAX_SAMPLES, "샘플");
+    }
+
+    int getSeriesCount() {
+        return seriesType.length;
+    }
+
+    int getSampleCount() {
+        return sampleCount;
+    }
+
+    String getSeriesType(int series) {
+        return seriesType[series];
+    }
+
+    Long getSeriesTaskId(int series) {
+        return seriesTaskId[series];
+    }
+
+    Set<Long> getSeriesTaskIds() {
+        Set<Long> taskIds = new HashSet<>();
+        for (Long taskId : seriesTaskId) {
+            if (taskId != null) {
+                taskIds.add(taskId);
+            }
+        }
+        return taskIds;
+    }
+
+    /**
+     * 시리즈 정보를 검증된 값으로 교체 (정규화된 메트릭 타입, 존재하지 않는 작업은 null)
+     */
+    void resolveSeries(int series, String metricType, Long taskId) {
+        seriesType[series] = metricType;
+        seriesTaskId[series] = taskId;
+    }
+
+    boolean hasNextSample() {
+        return samplesRead < sampleCount;
+    }
+
+    /**
+     * 다음 샘플을 행 객체에 채움 (같은 시간의 샘플은 LocalDateTime 객체를 공유)
+     */
+    void readSample(MetricDataRow row) throws IOException {
+        long seriesId = readVarint();
+        if (seriesId >= seriesType.length) {
+            throw new IllegalArgumentException("잘못된 시리즈 ID입니다: " + seriesId);
+        }
+        int series = (int) seriesId;
+        long delta = readVarint();
+        long millis = previousMillis + ((delta >>> 1) ^ -(delta & 1));
+        double value = Double.longBitsToDouble(readLong());
+        String rawData = stringRef(readVarint());
+        int summaryCount = summaries ? readCount(Integer.MAX_VALUE, "요약 샘플") : 0;
+
+        if (previousTime == null || millis != previousMillis) {
+            previousTime = LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000),
+                    (int) Math.floorMod(millis, 1000) * 1_000_000, ZoneOffset.UTC);
+            previousMillis = millis;
+        }
+
+        row.setTaskId(seriesTaskId[series]);
+        row.setMetricType(seriesType[series]);
+        row.setMetricName(seriesName[series]);
+        row.setMetricValue(Double.isNaN(value) ? null : BigDecimal.valueOf(value));
+        row.setUnit(seriesUnit[series]);
+        row.setRawData(rawData);
+        row.setCollectedAt(previousTime);
+        row.setHoldSeconds(seriesHoldSeconds[series]);
+        if (summaryCount > 0) {
+            double min = Double.longBitsToDouble(readLong());
+            double max = Double.longBitsToDouble(readLong());
+            double sum = Double.longBitsToDouble(readLong());
+            double p95 = Double.longBitsToDouble(readLong());
+            int windowSeconds = readCount(Integer.MAX_VALUE, "요약 구간");
+            if (Double.isNaN(min) || Double.isNaN(max) || Double.isNaN(sum) || min > max || windowSeconds == 0) {
+                throw new IllegalArgumentException("잘못된 구간 요약입니다: " + seriesName[series]);
+            }
+            row.setSampleCount(summaryCount);
+            row.setMinValue(BigDecimal.valueOf(min));
+            row.setMaxValue(BigDecimal.valueOf(max));
+            row.setSumValue(BigDecimal.valueOf(sum));
+            row.setP95Value(Double.isNaN(p95) ? null : BigDecimal.valueOf(p95));
+            row.setWindowSeconds(windowSeconds);
+        } else {
+            row.setSampleCount(null);
+            row.setMinValue(null);
+            row.setMaxValue(null);
+            row.setSumValue(null);
+            row.setP95Value(null);
+            row.setWindowSeconds(null);
+        }
+        samplesRead++;
+    }
+
+    private String stringRef(long ref) {
+        if (ref == 0) {
+            return null;
+        }
+        if (ref > strings.length) {
+            throw new IllegalArgumentException("잘못된 문자열 참조입니다: " + ref);
+        }
+        return strings[(int) ref - 1];
+    }
+
+    private int readCount(int max, String name) throws IOException {
+        long count = readVarint();
+        if (count > max) {
+            throw new IllegalArgumentException(name + " 개수가 너무 많습니다: " + count);
+        }
+        return (int) count;
+    }
+
+    private long readVarint() throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("잘못된 varint입니다");
+    }
+
+    private long readLong() throws IOException {
+        long result = 0;
+        for (int i = 0; i < 8; i++) {
+            result = (result << 8) | readByte();
+        }
+        return result;
+    }
+
+    private int readByte() throws IOException {
+        int b = in.read();
+        if (b < 0) {
+            throw new EOFException("메트릭 프레임이 중간에 끝났습니다");
+        }
+        return b;
+    }
+
+    private void readFully(byte[] buffer, int length) throws IOException {
+        int offset = 0;
+        while (offset < length) {
+            int read = in.read(buffer, offset, length - offset);
+            if (read < 0) {
+                throw new EOFException("메트릭 프레임이 중간에 끝났습니다");
+            }
+            offset += read;
+        }
+    }
+}
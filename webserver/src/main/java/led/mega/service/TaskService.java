@@ -42,6 +42,7 @@ public class TaskService {
                 .build();
 
         Task savedTask = taskRepository.save(task);
+        agentRepository.incrementTaskRevision(agentId);
         log.info("작업 생성 완료: taskId={}, taskName={}, agentId={}", 
                 savedTask.getId(), savedTask.getTaskName(), agentId);
 
@@ -75,6 +76,16 @@ public class TaskService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * 에이전트 작업 정의 버전 (ETag)
+     * 작업을 추가/수정/삭제/활성화 변경할 때마다 같은 트랜잭션에서 증가시키는 에이전트별 버전으로,
+     * 목록을 읽지 않고도 변경 여부를 판단합니다. (수정 시간과 달리 같은 초 안의 변경도 구분)
+     */
+    public String getTaskVersion(Long agentId) {
+        Long revision = agentRepository.findTaskRevisionById(agentId);
+        return "\"" + (revision != null ? revision : 0) + "\"";
+    }
+
     /**
      * 작업 수정
      */
@@ -94,6 +105,7 @@ public class TaskService {
         }
 
         Task updatedTask = taskRepository.save(task);
+        agentRepository.incrementTaskRevision(task.getAgent().getId());
         log.info("작업 수정 완료: taskId={}", id);
 
         return toResponseDto(updatedTask);
@@ -108,6 +120,7 @@ public class TaskService {
                 .orElseThrow(() -> new IllegalArgumentException("작업을 찾을 수 없습니다. id: " + id));
         
         taskRepository.delete(task);
+        agentRepository.incrementTaskRevision(task.getAgent().getId());
         log.info("작업 삭제 완료: taskId={}", id);
     }
 
@@ -121,6 +134,7 @@ public class TaskService {
         
         task.setEnabled(enabled);
         Task updatedTask = taskRepository.save(task);
+        agentRepository.incrementTaskRevision(task.getAgent().getId());
         log.info("작업 상태 변경: taskId={}, enabled={}", id, enabled);
 
         return toResponseDto(updatedTask);
@@ -33,6 +33,7 @@ CREATE TABLE IF NOT EXISTS agent (
     status VARCHAR(20) NOT NULL DEFAULT 'OFFLINE' COMMENT '상태 (ONLINE, OFFLINE)',
     last_heartbeat DATETIME COMMENT '마지막 하트비트',
     api_key VARCHAR(255) COMMENT 'API 인증 키',
+    task_revision BIGINT NOT NULL DEFAULT 0 COMMENT '작업 정의 버전 (작업 변경 시 증가)',
     created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '생성일시',
     updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '수정일시',
     INDEX idx_agent_id (agent_id),
@@ -64,16 +65,24 @@ CREATE TABLE IF NOT EXISTS metric_data (
     id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '메트릭 ID',
     agent_id BIGINT NOT NULL COMMENT '에이전트 ID',
     task_id BIGINT COMMENT '작업 ID',
-    metric_type VARCHAR(50) NOT NULL COMMENT '메트릭 타입 (CPU, MEMORY, DISK, NETWORK)',
+    metric_type VARCHAR(50) NOT NULL COMMENT '메트릭 타입 (CPU, MEMORY, DISK, NETWORK, PROCESS, CUSTOM, AGENT)',
     metric_name VARCHAR(100) COMMENT '메트릭 이름',
     metric_value DECIMAL(20, 4) COMMENT '메트릭 값',
     unit VARCHAR(20) COMMENT '단위 (%, MB, GB 등)',
     raw_data TEXT COMMENT '원본 데이터 (JSON)',
-    collected_at DATETIME NOT NULL COMMENT '수집 시간',
+    collected_at DATETIME NOT NULL COMMENT '수집 시간 (요약 레코드면 구간 끝 시각)',
+    sample_count INT COMMENT '구간 요약 샘플 수 (단일 샘플이면 NULL)',
+    min_value DECIMAL(20, 4) COMMENT '구간 최솟값',
+    max_value DECIMAL(20, 4) COMMENT '구간 최댓값',
+    sum_value DECIMAL(20, 4) COMMENT '구간 합계',
+    p95_value DECIMAL(20, 4) COMMENT '구간 95 백분위수 (선택)',
+    window_seconds INT COMMENT '요약 구간 길이 (초)',
+    hold_seconds INT COMMENT '값 유지 시간 (초, 변화 기반 전송 시리즈만, 지나면 데이터 없음)',
     created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '생성일시',
     FOREIGN KEY (agent_id) REFERENCES agent(id) ON DELETE CASCADE,
     FOREIGN KEY (task_id) REFERENCES task(id) ON DELETE SET NULL,
     INDEX idx_agent_collected (agent_id, collected_at),
+    INDEX idx_agent_hold_collected (agent_id, hold_seconds, collected_at),
     INDEX idx_metric_type (metric_type),
     INDEX idx_collected_at (collected_at),
     INDEX idx_task_id (task_id)
@@ -90,11 +99,15 @@ CREATE TABLE IF NOT EXISTS exception_log (
     context_before TEXT COMMENT '위 5줄 컨텍스트',
     context_after TEXT COMMENT '아래 5줄 컨텍스트',
     full_stack_trace TEXT COMMENT '전체 스택 트레이스',
-    occurred_at DATETIME NOT NULL COMMENT '발생 시간',
+    occurred_at DATETIME NOT NULL COMMENT '발생 시간 (집계 시 첫 발생 시간)',
+    fingerprint VARCHAR(64) COMMENT 'Exception 지문 (타입 + 정규화된 상위 스택 프레임)',
+    occurrence_count INT NOT NULL DEFAULT 1 COMMENT '집계 구간 내 발생 횟수',
+    last_occurred_at DATETIME COMMENT '마지막 발생 시간',
     created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '생성일시',
     FOREIGN KEY (agent_id) REFERENCES agent(id) ON DELETE CASCADE,
     FOREIGN KEY (task_id) REFERENCES task(id) ON DELETE SET NULL,
     INDEX idx_agent_occurred (agent_id, occurred_at),
+    INDEX idx_agent_fingerprint (agent_id, fingerprint),
     INDEX idx_exception_type (exception_type),
     INDEX idx_occurred_at (occurred_at),
     INDEX idx_task_id (task_id)
@@ -113,3 +126,29 @@ CREATE TABLE IF NOT EXISTS agent_heartbeat (
     INDEX idx_status (status)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='에이전트 하트비트 테이블';
 
+
+-- 기존 테이블 스키마 변경 (CREATE 이후 실행, IF NOT EXISTS로 여러 번 실행해도 안전)
+-- Exception 집계 (지문, 발생 횟수, 마지막 발생 시간)
+ALTER TABLE exception_log
+    ADD COLUMN IF NOT EXISTS fingerprint VARCHAR(64) COMMENT 'Exception 지문 (타입 + 정규화된 상위 스택 프레임)' AFTER occurred_at,
+    ADD COLUMN IF NOT EXISTS occurrence_count INT NOT NULL DEFAULT 1 COMMENT '집계 구간 내 발생 횟수' AFTER fingerprint,
+    ADD COLUMN IF NOT EXISTS last_occurred_at DATETIME COMMENT '마지막 발생 시간' AFTER occurrence_count,
+    ADD INDEX IF NOT EXISTS idx_agent_fingerprint (agent_id, fingerprint);
+
+-- 에이전트 구간 요약 (샘플 수, 최솟값, 최댓값, 합계, 95 백분위수, 구간 길이)
+ALTER TABLE metric_data
+    ADD COLUMN IF NOT EXISTS sample_count INT COMMENT '구간 요약 샘플 수 (단일 샘플이면 NULL)' AFTER collected_at,
+    ADD COLUMN IF NOT EXISTS min_value DECIMAL(20, 4) COMMENT '구간 최솟값' AFTER sample_count,
+    ADD COLUMN IF NOT EXISTS max_value DECIMAL(20, 4) COMMENT '구간 최댓값' AFTER min_value,
+    ADD COLUMN IF NOT EXISTS sum_value DECIMAL(20, 4) COMMENT '구간 합계' AFTER max_value,
+    ADD COLUMN IF NOT EXISTS p95_value DECIMAL(20, 4) COMMENT '구간 95 백분위수 (선택)' AFTER sum_value,
+    ADD COLUMN IF NOT EXISTS window_seconds INT COMMENT '요약 구간 길이 (초)' AFTER p95_value;
+
+-- 변화 기반 전송 (값 유지 시간)
+ALTER TABLE metric_data
+    ADD COLUMN IF NOT EXISTS hold_seconds INT COMMENT '값 유지 시간 (초, 변화 기반 전송 시리즈만, 지나면 데이터 없음)' AFTER window_seconds,
+    ADD INDEX IF NOT EXISTS idx_agent_hold_collected (agent_id, hold_seconds, collected_at);
+
+-- 작업 정의 버전 (ETag, 작업 추가/수정/삭제 때마다 증가)
+ALTER TABLE agent
+    ADD COLUMN IF NOT EXISTS task_revision BIGINT NOT NULL DEFAULT 0 COMMENT '작업 정의 버전 (작업 변경 시 증가)' AFTER api_key;
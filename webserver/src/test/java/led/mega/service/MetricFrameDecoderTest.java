@@ -0,0 +1,263 @@
+package led.mega.service;
+
+import led.mega.mapper.MetricDataMapper;
+import led.mega.mapper.MetricDataRow;
+import led.mega.repository.AgentRepository;
+import led.mega.repository.MetricDataRepository;
+import led.mega.repository.TaskRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 메트릭 바이너리 프레임 디코더 테스트
+ * 고정 프레임은 에이전트 MetricFrameEncoder로 만든 것이며, 에이전트 MetricFrameEncoderTest가 같은 바이트를 만드는지 확인합니다.
+ */
+class MetricFrameDecoderTest {
+
+    private static final LocalDateTime T = LocalDateTime.of(2026, 1, 1, 0, 0, 10);
+
+    // 버전 1: CPU cpu.usage 12.5%(T), 13.25%(T-5초), CUSTOM job 작업 7 값 없음(T-5초), -1(T+0.25초), rawData 공유
+    private static final String FRAME_V1 = "4d46010000019b76dacf100603435055096370752e7573616765012506435553544f4d036a6f62077b2261223a317d"
+            + "020102030004050008040000402900000000000000008f4e402a8000000000000001007ff800000000000006018452bff000000000000006";
+    // 버전 2: CPU 요약(4개, 1.5~9, 합 20, p95 8.5, 60초), MEMORY 512MB 단일 값, CPU 요약(2개, p95 없음, T+60초)
+    private static final String FRAME_V2 = "4d46020000019b76dacf100603435055096370752e75736167650125064d454d4f52590b6d656d6f72792e7573656402"
+            + "4d42020102030004050600030000401400000000000000043ff80000000000004022000000000000403400000000000040210000000000003c"
+            + "01004080000000000000000000c0a907400800000000000000024000000000000000401000000000000040180000000000007ff80000000000003c";
+    // 버전 3: DISK 40%(유지 300초), CPU 12.5% 단일 값, CPU 요약, DISK 41%(유지 300초, T-1초)
+    private static final String FRAME_V3 = "4d46030000019b76dacf1005044449534b0c6469736b2e75736167652e2f012503435055096370752e7573616765"
+            + "0201020300ad020405030000040000404400000000000000000100402900000000000000000100401400000000000000043ff8000000000000"
+            + "4022000000000000403400000000000040210000000000003c00cf0f40448000000000000000";
+
+    @Test
+    void decodesVersion1() throws IOException {
+        MetricFrameDecoder decoder = new MetricFrameDecoder(new ByteArrayInputStream(hex(FRAME_V1)));
+
+        assertThat(decoder.getSeriesCount()).isEqualTo(2);
+        assertThat(decoder.getSeriesTaskIds()).containsExactly(7L);
+        List<MetricDataRow> rows = readAll(decoder);
+        assertThat(rows).hasSize(4);
+
+        assertRow(rows.get(0), "CPU", "cpu.usage", "12.5", "%", T);
+        assertThat(rows.get(0).getTaskId()).isNull();
+        assertThat(rows.get(0).getRawData()).isNull();
+        assertThat(rows.get(0).getSampleCount()).isNull();
+        assertThat(rows.get(0).getHoldSeconds()).isNull();
+
+        // 음수 시간 차이
+        assertRow(rows.get(1), "CPU", "cpu.usage", "13.25", "%", T.minusSeconds(5));
+
+        // 값/단위 없음 (같은 시각이면 LocalDateTime 공유)
+        MetricDataRow custom = rows.get(2);
+        assertRow(custom, "CUSTOM", "job", null, null, T.minusSeconds(5));
+        assertThat(custom.getTaskId()).isEqualTo(7L);
+        assertThat(custom.getRawData()).isEqualTo("{\"a\":1}");
+        assertThat(custom.getCollectedAt()).isSameAs(rows.get(1).getCollectedAt());
+
+        assertRow(rows.get(3), "CUSTOM", "job", "-1.0", null, T.plusNanos(250_000_000));
+        assertThat(rows.get(3).getRawData()).isSameAs(custom.getRawData());
+    }
+
+    @Test
+    void decodesVersion2() throws IOException {
+        List<MetricDataRow> rows = readAll(new MetricFrameDecoder(new ByteArrayInputStream(hex(FRAME_V2))));
+        assertThat(rows).hasSize(3);
+
+        MetricDataRow summary = rows.get(0);
+        assertRow(summary, "CPU", "cpu.usage", "5.0", "%", T);
+        assertThat(summary.getSampleCount()).isEqualTo(4);
+        assertThat(summary.getMinValue()).isEqualByComparingTo("1.5");
+        assertThat(summary.getMaxValue()).isEqualByComparingTo("9");
+        assertThat(summary.getSumValue()).isEqualByComparingTo("20");
+        assertThat(summary.getP95Value()).isEqualByComparingTo("8.5");
+        assertThat(summary.getWindowSeconds()).isEqualTo(60);
+
+        // 행 객체를 재사용해도 단일 값이면 요약 필드를 비움
+        MetricDataRow single = rows.get(1);
+        assertRow(single, "MEMORY", "memory.used", "512.0", "MB", T);
+        assertThat(single.getSampleCount()).isNull();
+        assertThat(single.getMinValue()).isNull();
+        assertThat(single.getWindowSeconds()).isNull();
+
+        MetricDataRow noP95 = rows.get(2);
+        assertThat(noP95.getSampleCount()).isEqualTo(2);
+        assertThat(noP95.getP95Value()).isNull();
+        assertThat(noP95.getCollectedAt()).isEqualTo(T.plusSeconds(60));
+    }
+
+    @Test
+    void decodesVersion3() throws IOException {
+        List<MetricDataRow> rows = readAll(new MetricFrameDecoder(new ByteArrayInputStream(hex(FRAME_V3))));
+        assertThat(rows).hasSize(4);
+
+        assertRow(rows.get(0), "DISK", "disk.usage./", "40.0", "%", T);
+        assertThat(rows.get(0).getHoldSeconds()).isEqualTo(300);
+        assertThat(rows.get(1).getHoldSeconds()).isNull();
+        assertThat(rows.get(1).getSampleCount()).isNull();
+        assertThat(rows.get(2).getSampleCount()).isEqualTo(4);
+        assertThat(rows.get(2).getHoldSeconds()).isNull();
+        assertRow(rows.get(3), "DISK", "disk.usage./", "41.0", "%", T.minusSeconds(1));
+        assertThat(rows.get(3).getHoldSeconds()).isEqualTo(300);
+    }
+
+    @Test
+    void truncatedFrameFailsWithEof() {
+        for (String frame : Arrays.asList(FRAME_V1, FRAME_V2, FRAME_V3)) {
+            byte[] bytes = hex(frame);
+            for (int length = 0; length < bytes.length; length++) {
+                byte[] truncated = Arrays.copyOf(bytes, length);
+                assertThatThrownBy(() -> readAll(new MetricFrameDecoder(new ByteArrayInputStream(truncated))))
+                        .as("%d/%d bytes", length, bytes.length)
+                        .isInstanceOf(EOFException.class);
+            }
+        }
+    }
+
+    @Test
+    void corruptFrameIsRejected() {
+        byte[] badMagic = hex(FRAME_V1);
+        badMagic[1] = 'X';
+        assertThatThrownBy(() -> new MetricFrameDecoder(new ByteArrayInputStream(badMagic)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        byte[] badVersion = hex(FRAME_V1);
+        badVersion[2] = 9;
+        assertThatThrownBy(() -> new MetricFrameDecoder(new ByteArrayInputStream(badVersion)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        // 첫 샘플의 시리즈 ID를 없는 시리즈로 변경 (두 번째 시리즈 04 05 00 08, 샘플 수 04 바로 뒤)
+        byte[] badSeries = hex(FRAME_V1);
+        int firstSample = FRAME_V1.indexOf("0004050008040000") / 2 + 6;
+        badSeries[firstSample] = 5;
+        assertThatThrownBy(() -> readAll(new MetricFrameDecoder(new ByteArrayInputStream(badSeries))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void interruptedBodyPropagatesIoExceptionForRollback() throws Exception {
+        AgentRepository agentRepository = mock(AgentRepository.class);
+        TaskRepository taskRepository = mock(TaskRepository.class);
+        MetricDataMapper metricDataMapper = mock(MetricDataMapper.class);
+        when(agentRepository.existsById(1L)).thenReturn(true);
+        when(metricDataMapper.insertBatch(eq(1L), anyList())).thenAnswer(invocation -> invocation.<List<?>>getArgument(1).size());
+        MetricDataService service = new MetricDataService(
+                mock(MetricDataRepository.class), metricDataMapper, agentRepository, taskRepository);
+
+        // 첫 청크(500개)를 INSERT한 뒤 본문이 끊김
+        byte[] frame = singleSeriesFrame(600);
+        InputStream body = new ByteArrayInputStream(Arrays.copyOf(frame, frame.length - 100));
+
+        assertThatThrownBy(() -> service.saveMetricFrame(1L, body)).isInstanceOf(EOFException.class);
+        verify(metricDataMapper, times(1)).insertBatch(eq(1L), any());
+
+        // 이미 INSERT한 청크는 트랜잭션 롤백으로 되돌림 (컨트롤러는 재전송하도록 503 응답)
+        Transactional transactional = MetricDataService.class
+                .getMethod("saveMetricFrame", Long.class, InputStream.class)
+                .getAnnotation(Transactional.class);
+        assertThat(transactional.rollbackFor()).contains(IOException.class);
+    }
+
+    private static void assertRow(MetricDataRow row, String type, String name, String value, String unit,
+                                  LocalDateTime collectedAt) {
+        assertThat(row.getMetricType()).isEqualTo(type);
+        assertThat(row.getMetricName()).isEqualTo(name);
+        assertThat(row.getMetricValue()).isEqualTo(value != null ? new BigDecimal(value) : null);
+        assertThat(row.getUnit()).isEqualTo(unit);
+        assertThat(row.getCollectedAt()).isEqualTo(collectedAt);
+    }
+
+    /**
+     * 행 객체 하나를 재사용하며 읽고, 샘플마다 복사본을 반환 (서비스의 청크 재사용과 같은 조건)
+     */
+    private static List<MetricDataRow> readAll(MetricFrameDecoder decoder) throws IOException {
+        MetricDataRow row = new MetricDataRow();
+        List<MetricDataRow> rows = new ArrayList<>();
+        while (decoder.hasNextSample()) {
+            decoder.readSample(row);
+            MetricDataRow copy = new MetricDataRow();
+            copy.setTaskId(row.getTaskId());
+            copy.setMetricType(row.getMetricType());
+            copy.setMetricName(row.getMetricName());
+            copy.setMetricValue(row.getMetricValue());
+            copy.setUnit(row.getUnit());
+            copy.setRawData(row.getRawData());
+            copy.setCollectedAt(row.getCollectedAt());
+            copy.setSampleCount(row.getSampleCount());
+            copy.setMinValue(row.getMinValue());
+            copy.setMaxValue(row.getMaxValue());
+            copy.setSumValue(row.getSumValue());
+            copy.setP95Value(row.getP95Value());
+            copy.setWindowSeconds(row.getWindowSeconds());
+            copy.setHoldSeconds(row.getHoldSeconds());
+            rows.add(copy);
+        }
+        return rows;
+    }
+
+    /**
+     * 버전 1 프레임 (CPU cpu.usage 시리즈 하나, 1초 간격 샘플 count개)
+     */
+    private static byte[] singleSeriesFrame(int count) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write('M');
+        out.write('F');
+        out.write(1);
+        long millis = T.toInstant(ZoneOffset.UTC).toEpochMilli();
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (millis >>> shift));
+        }
+        out.write(2);
+        out.writeBytes(new byte[] {3, 'C', 'P', 'U'});
+        out.write(9);
+        out.writeBytes("cpu.usage".getBytes());
+        out.writeBytes(new byte[] {1, 1, 2, 0, 0});
+        writeVarint(out, count);
+        long value = Double.doubleToLongBits(1.5);
+        for (int i = 0; i < count; i++) {
+            out.write(0);
+            writeVarint(out, i == 0 ? 0 : 2000);  // +1초 (zigzag)
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                out.write((int) (value >>> shift));
+            }
+            out.write(0);
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static byte[] hex(String value) {
+        byte[] bytes = new byte[value.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(value.substring(i * 2, i * 2 + 2), 16);
+        }
+        return bytes;
+    }
+}